@@ -0,0 +1,209 @@
+package org.habv.maracuya.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import org.habv.maracuya.ColumnarTable;
+import org.habv.maracuya.Filter;
+import org.habv.maracuya.FilterFactory;
+import org.habv.maracuya.PredicateCompiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the evaluation of a filter over the rows of a
+ * {@link ColumnarTable} compared to the row-wise evaluation of the predicate
+ * of {@link PredicateCompiler}. Every benchmark counts the rows that match
+ * the same filter.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar ColumnarBenchmark}.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnarBenchmark {
+
+    /**
+     * Regions of the sales.
+     */
+    private static final String[] REGIONS = {"AFRICA", "ASIA", "EU", "LATAM", "US"};
+
+    /**
+     * Sales and the filter evaluated over them.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    @State(Scope.Benchmark)
+    public static class Sales {
+
+        /**
+         * Number of sales.
+         */
+        @Param({"10000", "1000000"})
+        private int size;
+        /**
+         * Rows of the sales.
+         */
+        private List<Sale> rows;
+        /**
+         * Columns of the sales.
+         */
+        private ColumnarTable table;
+        /**
+         * Filter of the sales.
+         */
+        private Filter filter;
+        /**
+         * Compiled predicate of the filter.
+         */
+        private Predicate<Sale> predicate;
+
+        /**
+         * Create the sales, the table and the filter.
+         */
+        @Setup
+        public void setup() {
+            rows = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                rows.add(new Sale(i % 50, i * 31L % 100_003, i % 1000 * 0.75, REGIONS[i * 7 % REGIONS.length]));
+            }
+            table = ColumnarTable.<Sale>builder()
+                    .intColumn("sale.quantity", Sale::getQuantity)
+                    .longColumn("sale.customer_id", Sale::getCustomerId)
+                    .doubleColumn("sale.amount", Sale::getAmount)
+                    .stringColumn("sale.region", Sale::getRegion)
+                    .build(rows);
+            filter = FilterFactory.and(
+                    FilterFactory.in("sale.region", "regions", Arrays.asList("EU", "US")),
+                    FilterFactory.between("sale.amount", "min", "max", 100.0, 500.0),
+                    FilterFactory.or(
+                            FilterFactory.less("sale.quantity", "quantity", 10),
+                            FilterFactory.greaterOrEqual("sale.customer_id", "customerId", 90_000L)
+                    )
+            );
+            predicate = PredicateCompiler.of(Sale.class).compile(filter);
+        }
+    }
+
+    /**
+     * Evaluate the filter over the columns.
+     *
+     * @param sales sales
+     * @return number of sales that match
+     */
+    @Benchmark
+    public int columnar(Sales sales) {
+        return sales.table.count(sales.filter);
+    }
+
+    /**
+     * Evaluate the compiled predicate row by row.
+     *
+     * @param sales sales
+     * @return number of sales that match
+     */
+    @Benchmark
+    public int rowWise(Sales sales) {
+        int count = 0;
+        for (Sale sale : sales.rows) {
+            if (sales.predicate.test(sale)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Sale of the benchmark.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    public static final class Sale {
+
+        /**
+         * Quantity.
+         */
+        private final int quantity;
+        /**
+         * Customer id.
+         */
+        private final long customerId;
+        /**
+         * Amount.
+         */
+        private final double amount;
+        /**
+         * Region.
+         */
+        private final String region;
+
+        /**
+         * Create a sale.
+         *
+         * @param quantity quantity
+         * @param customerId customer id
+         * @param amount amount
+         * @param region region
+         */
+        public Sale(int quantity, long customerId, double amount, String region) {
+            this.quantity = quantity;
+            this.customerId = customerId;
+            this.amount = amount;
+            this.region = region;
+        }
+
+        /**
+         * Quantity.
+         *
+         * @return quantity
+         */
+        public int getQuantity() {
+            return quantity;
+        }
+
+        /**
+         * Customer id.
+         *
+         * @return customer id
+         */
+        public long getCustomerId() {
+            return customerId;
+        }
+
+        /**
+         * Amount.
+         *
+         * @return amount
+         */
+        public double getAmount() {
+            return amount;
+        }
+
+        /**
+         * Region.
+         *
+         * @return region
+         */
+        public String getRegion() {
+            return region;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package org.habv.maracuya.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.habv.maracuya.Filter;
+import org.habv.maracuya.FilterFactory;
+import org.habv.maracuya.FilterTemplate;
+import org.habv.maracuya.RenderContext;
+import org.habv.maracuya.TemplateFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the creation and rendering of the filters of
+ * {@link FilterFactory} and of the templates of {@link TemplateFactory}.
+ * Every benchmark creates or binds the filter and renders it, like a request
+ * does.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar FilterBenchmark -prof gc}
+ * to measure the allocation rate as well.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterBenchmark {
+
+    /**
+     * Parameter names by level of the tree.
+     */
+    private static final String[] NAMES = new String[32];
+
+    /**
+     * Categories of the search.
+     */
+    private static final List<String> CATEGORIES = Arrays.asList("Action", "Comedy", "Horror");
+    /**
+     * Compiled template of the search.
+     */
+    private static final FilterTemplate TEMPLATE = TemplateFactory.and(
+            TemplateFactory.equal("book.isbn", "isbn"),
+            TemplateFactory.like("book.title", "title"),
+            TemplateFactory.in("book.category", "categories"),
+            TemplateFactory.between("book.year", "minYear", "maxYear"),
+            TemplateFactory.greater("book.price", "price")
+    );
+
+    static {
+        for (int i = 0; i < NAMES.length; i++) {
+            NAMES[i] = "param" + i;
+        }
+    }
+
+    /**
+     * Depth of the nested logical tree.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    @State(Scope.Benchmark)
+    public static class Tree {
+
+        /**
+         * Depth of the tree.
+         */
+        @Param({"4", "8"})
+        private int depth;
+    }
+
+    /**
+     * Values of the in filter.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    @State(Scope.Benchmark)
+    public static class Values {
+
+        /**
+         * Size of the collection.
+         */
+        @Param({"10", "1000", "10000"})
+        private int size;
+        /**
+         * Collection of values.
+         */
+        private List<Integer> values;
+
+        /**
+         * Create the collection of values.
+         */
+        @Setup
+        public void setup() {
+            values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                values.add(i);
+            }
+        }
+    }
+
+    /**
+     * Single predicate with equals operator.
+     *
+     * @return rendered query
+     */
+    @Benchmark
+    public String single() {
+        return render(FilterFactory.equal("book.isbn", "isbn", "978-3-16-148410-0"));
+    }
+
+    /**
+     * Deep tree of nested "and" and "or" filters.
+     *
+     * @param tree depth of the tree
+     * @return rendered query
+     */
+    @Benchmark
+    public String nested(Tree tree) {
+        return render(tree(tree.depth));
+    }
+
+    /**
+     * Case insensitive like filter, lowercases the value.
+     *
+     * @return rendered query
+     */
+    @Benchmark
+    public String text() {
+        return render(FilterFactory.like("book.title", "title", "The Strange Case of Dr Jekyll and Mr Hyde"));
+    }
+
+    /**
+     * In filter with a large collection and a named placeholder, the
+     * collection is stored as a single parameter, so the work does not depend
+     * on its size.
+     *
+     * @param values values of the in filter
+     * @return rendered query
+     */
+    @Benchmark
+    public String in(Values values) {
+        return render(FilterFactory.in("book.id", "ids", values.values));
+    }
+
+    /**
+     * In filter with a large collection and positional placeholders, the
+     * query has a placeholder for every element of the collection.
+     *
+     * @param values values of the in filter
+     * @return rendered query
+     */
+    @Benchmark
+    public String inPositional(Values values) {
+        try (RenderContext context = RenderContext.acquire().positional(true)) {
+            FilterFactory.in("book.id", "ids", values.values).render(context);
+            return context.query().toString();
+        }
+    }
+
+    /**
+     * Search built with the filters of the factory, the baseline of
+     * {@link #template()}.
+     *
+     * @return rendered query
+     */
+    @Benchmark
+    public String search() {
+        return renderContext(FilterFactory.and(
+                FilterFactory.equal("book.isbn", "isbn", "978-3-16-148410-0"),
+                FilterFactory.like("book.title", "title", "Dracula"),
+                FilterFactory.in("book.category", "categories", CATEGORIES),
+                FilterFactory.between("book.year", "minYear", "maxYear", 1980, 2020),
+                FilterFactory.greater("book.price", "price", null)
+        ));
+    }
+
+    /**
+     * Same search of {@link #search()} bound to a compiled template.
+     *
+     * @return rendered query
+     */
+    @Benchmark
+    public String template() {
+        return renderContext(TEMPLATE.bind()
+                .set("isbn", "978-3-16-148410-0")
+                .set("title", "Dracula")
+                .set("categories", CATEGORIES)
+                .set("minYear", 1980)
+                .set("maxYear", 2020)
+                .set("price", null));
+    }
+
+    /**
+     * Create a tree that alternates "and" and "or" filters.
+     *
+     * @param level remaining levels
+     * @return tree of filters
+     */
+    private static Filter tree(int level) {
+        if (level == 0) {
+            return FilterFactory.equal("book.category", "category", "Horror");
+        }
+        Filter[] filters = {
+            FilterFactory.greater("book.price", NAMES[level], 9.99),
+            FilterFactory.none(),
+            tree(level - 1)
+        };
+        return level % 2 == 0
+                ? FilterFactory.and(filters)
+                : FilterFactory.or(filters);
+    }
+
+    /**
+     * Render a filter in the render context of the thread.
+     *
+     * @param filter filter
+     * @return rendered query
+     */
+    private static String renderContext(Filter filter) {
+        try (RenderContext context = RenderContext.acquire()) {
+            filter.render(context);
+            return context.query().toString();
+        }
+    }
+
+    /**
+     * Render a filter.
+     *
+     * @param filter filter
+     * @return rendered query
+     */
+    private static String render(Filter filter) {
+        StringBuilder query = new StringBuilder();
+        Map<String, Object> parameters = new HashMap<>();
+        filter.apply(query, parameters);
+        return query.toString();
+    }
+}
@@ -0,0 +1,162 @@
+package org.habv.maracuya.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.habv.maracuya.Filter;
+import org.habv.maracuya.FilterFactory;
+import org.habv.maracuya.Filterable;
+import org.habv.maracuya.ParameterSetter;
+import org.habv.maracuya.QueryCache;
+import org.habv.maracuya.QueryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * End to end benchmarks of {@link Filterable#apply(QueryFactory, ParameterSetter)}
+ * with a stub query factory and parameter setter.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar FilterableBenchmark -prof gc}
+ * to measure the allocation rate as well.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FilterableBenchmark {
+
+    /**
+     * Categories of the search.
+     */
+    private static final List<String> CATEGORIES = Arrays.asList("Action", "Comedy", "Horror");
+
+    /**
+     * Query cache shared by the benchmarks.
+     */
+    private final QueryCache cache = new QueryCache();
+
+    /**
+     * Search with all the filters applied.
+     *
+     * @param blackhole consumes the parameters
+     * @return query object
+     */
+    @Benchmark
+    public String apply(Blackhole blackhole) {
+        return new BookSearch("Dracula", 9.99, CATEGORIES, 1980, 2020)
+                .apply(query -> query, (query, name, value) -> blackhole.consume(value));
+    }
+
+    /**
+     * Search with only some of the filters applied.
+     *
+     * @param blackhole consumes the parameters
+     * @return query object
+     */
+    @Benchmark
+    public String applyPartial(Blackhole blackhole) {
+        return new BookSearch("Dracula", null, null, 1980, null)
+                .apply(query -> query, (query, name, value) -> blackhole.consume(value));
+    }
+
+    /**
+     * Search with all the filters applied using a query cache.
+     *
+     * @param blackhole consumes the parameters
+     * @return query object
+     */
+    @Benchmark
+    public String applyCached(Blackhole blackhole) {
+        return new BookSearch("Dracula", 9.99, CATEGORIES, 1980, 2020)
+                .apply(cache, query -> query, (query, name, value) -> blackhole.consume(value));
+    }
+
+    /**
+     * Search of books, similar to the ones of a search endpoint.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    private static final class BookSearch implements Filterable {
+
+        /**
+         * Title.
+         */
+        private final String title;
+        /**
+         * Minimum price.
+         */
+        private final Double price;
+        /**
+         * Categories.
+         */
+        private final List<String> categories;
+        /**
+         * First year.
+         */
+        private final Integer start;
+        /**
+         * Last year.
+         */
+        private final Integer end;
+
+        /**
+         * Create a search.
+         *
+         * @param title title
+         * @param price minimum price
+         * @param categories categories
+         * @param start first year
+         * @param end last year
+         */
+        private BookSearch(String title, Double price, List<String> categories, Integer start, Integer end) {
+            this.title = title;
+            this.price = price;
+            this.categories = categories;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public String select() {
+            return "SELECT book.id, book.title, book.price";
+        }
+
+        @Override
+        public String from() {
+            return " FROM book JOIN author ON author.id = book.author_id";
+        }
+
+        @Override
+        public Filter filter() {
+            return FilterFactory.and(
+                    FilterFactory.like("book.title", "title", title),
+                    FilterFactory.greaterOrEqual("book.price", "price", price),
+                    FilterFactory.in("book.category", "categories", categories),
+                    FilterFactory.or(
+                            FilterFactory.greaterOrEqual("book.published", "start", start),
+                            FilterFactory.lessOrEqual("book.published", "end", end)
+                    )
+            );
+        }
+
+        @Override
+        public Optional<String> orderBy() {
+            return Optional.of(" ORDER BY book.title");
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package org.habv.maracuya;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * Predicate of a logical filter that evaluates its children in the order
+ * of the least expected cost and stops at the first child that decides the
+ * result. A child of a conjunction goes first when it is cheap and rejects
+ * most of the rows, a child of a disjunction when it is cheap and accepts
+ * most of the rows.
+ * <p>
+ * The order starts from the estimated cost and selectivity of every child
+ * and adapts to the observed pass rates. Only one in {@value #SAMPLE}
+ * evaluations, chosen at random, counts the results of the children, so the
+ * other evaluations do not write shared state and several threads can share
+ * the predicate without contention. Every {@value #PERIOD} sampled
+ * evaluations the children are sorted again by their pass rate, with the
+ * estimated selectivity as a prior, and the counts are halved when they reach
+ * {@value #WINDOW} sampled evaluations so the order follows the changes of the
+ * rows. The counts are updated without synchronization, so they are
+ * approximate when the predicate is shared by several threads, but the result
+ * of the predicate is always exact.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+final class AdaptivePredicate implements Predicate<Object> {
+
+    /**
+     * One in this number of evaluations is sampled, a power of two.
+     */
+    static final int SAMPLE = 64;
+    /**
+     * Number of sampled evaluations between two sorts of the children.
+     */
+    static final int PERIOD = 256;
+    /**
+     * Number of sampled evaluations of a child that halves its counts.
+     */
+    private static final int WINDOW = 1 << 12;
+    /**
+     * Weight of the estimated selectivity, in evaluations.
+     */
+    private static final double PRIOR = 32;
+    /**
+     * Minimum rate, to avoid a division by zero.
+     */
+    private static final double MINIMUM_RATE = 1e-6;
+
+    /**
+     * Predicates of the children.
+     */
+    private final Predicate<Object>[] predicates;
+    /**
+     * Estimated cost of every child.
+     */
+    private final double[] costs;
+    /**
+     * Estimated selectivity of every child.
+     */
+    private final double[] selectivities;
+    /**
+     * {@code true} for a conjunction, {@code false} for a disjunction.
+     */
+    private final boolean conjunction;
+    /**
+     * Sampled evaluations of every child.
+     */
+    private final int[] evaluations;
+    /**
+     * Sampled evaluations of every child that returned {@code true}.
+     */
+    private final int[] passes;
+    /**
+     * Positions of the children in the order of evaluation.
+     */
+    private volatile int[] order;
+    /**
+     * Sampled evaluations since the last sort of the children.
+     */
+    private int calls;
+
+    /**
+     * Create an adaptive predicate.
+     *
+     * @param predicates predicates of the children
+     * @param costs estimated cost of every child
+     * @param selectivities estimated selectivity of every child
+     * @param conjunction {@code true} for a conjunction, {@code false} for a
+     * disjunction
+     */
+    AdaptivePredicate(Predicate<Object>[] predicates, double[] costs, double[] selectivities, boolean conjunction) {
+        this.predicates = predicates;
+        this.costs = costs;
+        this.selectivities = selectivities;
+        this.conjunction = conjunction;
+        this.evaluations = new int[predicates.length];
+        this.passes = new int[predicates.length];
+        this.order = sort();
+    }
+
+    @Override
+    public boolean test(Object row) {
+        if ((ThreadLocalRandom.current().nextInt() & (SAMPLE - 1)) == 0) {
+            return sample(row);
+        }
+        for (int child : order) {
+            if (predicates[child].test(row) != conjunction) {
+                return !conjunction;
+            }
+        }
+        return conjunction;
+    }
+
+    /**
+     * Evaluate the children and count their results.
+     *
+     * @param row row
+     * @return result of the predicate
+     */
+    private boolean sample(Object row) {
+        if (++calls >= PERIOD) {
+            calls = 0;
+            reorder();
+        }
+        for (int child : order) {
+            boolean result = predicates[child].test(row);
+            evaluations[child]++;
+            if (result) {
+                passes[child]++;
+            }
+            if (result != conjunction) {
+                return result;
+            }
+        }
+        return conjunction;
+    }
+
+    /**
+     * Positions of the children in the order of evaluation.
+     *
+     * @return positions of the children
+     */
+    int[] order() {
+        return order.clone();
+    }
+
+    /**
+     * Sort the children by the observed pass rates.
+     */
+    private synchronized void reorder() {
+        for (int i = 0; i < evaluations.length; i++) {
+            if (evaluations[i] >= WINDOW) {
+                evaluations[i] >>>= 1;
+                passes[i] >>>= 1;
+            }
+        }
+        order = sort();
+    }
+
+    /**
+     * Positions of the children sorted by rank, the expected cost of a child
+     * for each row that it decides.
+     *
+     * @return positions of the children
+     */
+    private int[] sort() {
+        Integer[] children = new Integer[predicates.length];
+        double[] ranks = new double[predicates.length];
+        for (int i = 0; i < children.length; i++) {
+            children[i] = i;
+            double rate = (passes[i] + PRIOR * selectivities[i]) / (evaluations[i] + PRIOR);
+            double decided = conjunction ? 1 - rate : rate;
+            ranks[i] = costs[i] / Math.max(MINIMUM_RATE, decided);
+        }
+        Arrays.sort(children, (a, b) -> Double.compare(ranks[a], ranks[b]));
+        int[] positions = new int[children.length];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = children[i];
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,111 @@
+package org.habv.maracuya;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Large collection strategy that binds the collection as a single array
+ * parameter.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+final class ArrayStrategy implements LargeCollectionStrategy {
+
+    /**
+     * Shared instance, the strategy does not have state.
+     */
+    static final ArrayStrategy INSTANCE = new ArrayStrategy();
+    /**
+     * SQL any operator.
+     */
+    private static final String ANY_TOKEN = " = ANY(";
+    /**
+     * SQL not operator.
+     */
+    private static final String NOT_TOKEN = "NOT (";
+    /**
+     * SQL type names of the elements of the arrays, for
+     * {@link java.sql.Connection#createArrayOf(String, Object[])}.
+     */
+    private static final Map<Class<?>, String> TYPE_NAMES = new HashMap<>();
+
+    static {
+        TYPE_NAMES.put(Integer.class, "integer");
+        TYPE_NAMES.put(Long.class, "bigint");
+        TYPE_NAMES.put(Short.class, "smallint");
+        TYPE_NAMES.put(Byte.class, "smallint");
+        TYPE_NAMES.put(Double.class, "float8");
+        TYPE_NAMES.put(Float.class, "float4");
+        TYPE_NAMES.put(BigDecimal.class, "numeric");
+        TYPE_NAMES.put(BigInteger.class, "numeric");
+        TYPE_NAMES.put(Boolean.class, "boolean");
+        TYPE_NAMES.put(String.class, "varchar");
+        TYPE_NAMES.put(UUID.class, "uuid");
+        TYPE_NAMES.put(java.sql.Date.class, "date");
+        TYPE_NAMES.put(LocalDate.class, "date");
+        TYPE_NAMES.put(Timestamp.class, "timestamp");
+        TYPE_NAMES.put(LocalDateTime.class, "timestamp");
+    }
+
+    /**
+     * Use {@link #INSTANCE}.
+     */
+    private ArrayStrategy() {
+    }
+
+    @Override
+    public void render(RenderContext context, String columnName, boolean negated, String paramName, Collection<?> values) {
+        if (negated) {
+            context.append(NOT_TOKEN);
+        }
+        context.append(columnName);
+        context.append(ANY_TOKEN);
+        context.placeholder(paramName, array(values));
+        context.append(FilterFactory.RIGHT_PARENTHESIS);
+        if (negated) {
+            context.append(FilterFactory.RIGHT_PARENTHESIS);
+        }
+    }
+
+    /**
+     * Array of the values, typed with the class of the values when all of
+     * them have the same class, for example {@code Integer[]}, otherwise
+     * {@code Object[]}.
+     *
+     * @param values values
+     * @return array of the values
+     */
+    static Object[] array(Collection<?> values) {
+        Class<?> type = null;
+        for (Object value : values) {
+            if (value != null) {
+                if (type == null) {
+                    type = value.getClass();
+                } else if (type != value.getClass()) {
+                    return values.toArray();
+                }
+            }
+        }
+        return type == null ? values.toArray() : values.toArray((Object[]) Array.newInstance(type, values.size()));
+    }
+
+    /**
+     * SQL type name of the elements of an array.
+     *
+     * @param array array
+     * @return SQL type name, or {@code null} if the type of the elements does
+     * not have one
+     */
+    static String typeName(Object[] array) {
+        return TYPE_NAMES.get(array.getClass().getComponentType());
+    }
+}
@@ -0,0 +1,235 @@
+package org.habv.maracuya;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Statistics of the values of a column: number of values, {@code NULL}
+ * values, distinct values and an equi-depth histogram of the values, so
+ * every bucket has the same number of values. They estimate the fraction of
+ * the values that match a filter, for example to order the filters of
+ * {@link PredicateCompiler#statistics(String, ColumnStatistics)}:
+ * <pre>{@code ColumnStatistics prices = ColumnStatistics.of(sample.stream()
+ *         .map(Book::getPrice)
+ *         .collect(Collectors.toList()));}</pre>
+ * <p>
+ * The values are compared like in {@link PredicateCompiler}, the numbers by
+ * value. The statistics are immutable and thread safe.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public final class ColumnStatistics {
+
+    /**
+     * Default number of buckets of the histogram.
+     */
+    private static final int DEFAULT_BUCKETS = 16;
+
+    /**
+     * Number of values.
+     */
+    private final long count;
+    /**
+     * Number of {@code NULL} values.
+     */
+    private final long nulls;
+    /**
+     * Number of distinct values that are not {@code NULL}.
+     */
+    private final long distinct;
+    /**
+     * Bounds of the buckets of the histogram, from the minimum to the
+     * maximum value.
+     */
+    private final Object[] bounds;
+
+    /**
+     * Create the statistics.
+     *
+     * @param count number of values
+     * @param nulls number of {@code NULL} values
+     * @param distinct number of distinct values
+     * @param bounds bounds of the buckets of the histogram
+     */
+    private ColumnStatistics(long count, long nulls, long distinct, Object[] bounds) {
+        this.count = count;
+        this.nulls = nulls;
+        this.distinct = distinct;
+        this.bounds = bounds;
+    }
+
+    /**
+     * Collect the statistics of the values of a column with a histogram of
+     * 16 buckets.
+     *
+     * @param values values of the column, usually a sample
+     * @return statistics of the values
+     * @throws NullPointerException if {@code values} is {@code null}
+     * @throws IllegalArgumentException if the values are not comparable
+     */
+    public static ColumnStatistics of(Collection<?> values) {
+        return of(values, DEFAULT_BUCKETS);
+    }
+
+    /**
+     * Collect the statistics of the values of a column.
+     *
+     * @param values values of the column, usually a sample
+     * @param buckets number of buckets of the histogram
+     * @return statistics of the values
+     * @throws NullPointerException if {@code values} is {@code null}
+     * @throws IllegalArgumentException if {@code buckets} is less than 1 or
+     * the values are not comparable
+     */
+    public static ColumnStatistics of(Collection<?> values, int buckets) {
+        if (values == null) {
+            throw new NullPointerException("values must not be null");
+        }
+        if (buckets < 1) {
+            throw new IllegalArgumentException("buckets must be greater than 0");
+        }
+        List<Object> sorted = new ArrayList<>(values.size());
+        for (Object value : values) {
+            if (value != null) {
+                if (!(value instanceof Comparable)) {
+                    throw new IllegalArgumentException(String.format("value %s is not comparable", value));
+                }
+                sorted.add(value);
+            }
+        }
+        try {
+            sorted.sort(PredicateCompiler::compare);
+        } catch (ClassCastException ex) {
+            throw new IllegalArgumentException("values are not comparable", ex);
+        }
+        long distinct = 0;
+        for (int i = 0; i < sorted.size(); i++) {
+            if (i == 0 || PredicateCompiler.compare(sorted.get(i), sorted.get(i - 1)) != 0) {
+                distinct++;
+            }
+        }
+        Object[] bounds = new Object[sorted.isEmpty() ? 0 : buckets + 1];
+        for (int i = 0; i < bounds.length; i++) {
+            bounds[i] = sorted.get((int) ((long) i * (sorted.size() - 1) / buckets));
+        }
+        return new ColumnStatistics(values.size(), values.size() - sorted.size(), distinct, bounds);
+    }
+
+    /**
+     * Number of values.
+     *
+     * @return number of values
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Number of distinct values that are not {@code NULL}.
+     *
+     * @return number of distinct values
+     */
+    public long distinct() {
+        return distinct;
+    }
+
+    /**
+     * Fraction of the values that are {@code NULL}.
+     *
+     * @return fraction of {@code NULL} values, from 0 to 1
+     */
+    public double nullFraction() {
+        return count == 0 ? 0 : (double) nulls / count;
+    }
+
+    /**
+     * Estimated fraction of the values equal to a value.
+     *
+     * @param value value
+     * @return estimated fraction, from 0 to 1
+     */
+    double equal(Object value) {
+        if (distinct == 0 || isOutside(value)) {
+            return 0;
+        }
+        return (1 - nullFraction()) / distinct;
+    }
+
+    /**
+     * Estimated fraction of the values equal to one of a number of values.
+     *
+     * @param size number of values
+     * @return estimated fraction, from 0 to 1
+     */
+    double in(int size) {
+        if (distinct == 0) {
+            return 0;
+        }
+        return (1 - nullFraction()) * Math.min(1, (double) size / distinct);
+    }
+
+    /**
+     * Estimated fraction of the values less than a value, interpolated in
+     * its bucket of the histogram.
+     *
+     * @param value value
+     * @param inclusive {@code true} to include the values equal to the value
+     * @return estimated fraction, from 0 to 1
+     */
+    double less(Object value, boolean inclusive) {
+        if (bounds.length == 0) {
+            return 0;
+        }
+        double fraction;
+        if (PredicateCompiler.compare(bounds[0], value) > 0) {
+            fraction = 0;
+        } else if (PredicateCompiler.compare(bounds[bounds.length - 1], value) <= 0) {
+            fraction = 1;
+        } else {
+            int bucket = 0;
+            while (PredicateCompiler.compare(bounds[bucket + 1], value) <= 0) {
+                bucket++;
+            }
+            fraction = (bucket + interpolate(bounds[bucket], bounds[bucket + 1], value)) / (bounds.length - 1);
+        }
+        double equal = equal(value);
+        fraction = inclusive ? fraction + equal / 2 : fraction - equal / 2;
+        return Math.max(0, Math.min(1, fraction)) * (1 - nullFraction());
+    }
+
+    /**
+     * Indicates whether a value is outside the range of the values.
+     *
+     * @param value value
+     * @return {@code true} if the value is less than the minimum or greater
+     * than the maximum value
+     */
+    private boolean isOutside(Object value) {
+        try {
+            return PredicateCompiler.compare(bounds[0], value) > 0
+                    || PredicateCompiler.compare(bounds[bounds.length - 1], value) < 0;
+        } catch (ClassCastException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Position of a value between the bounds of a bucket, linear for the
+     * numbers and in the middle for the other values.
+     *
+     * @param lower lower bound
+     * @param upper upper bound
+     * @param value value between the bounds
+     * @return position of the value, from 0 to 1
+     */
+    private static double interpolate(Object lower, Object upper, Object value) {
+        if (lower instanceof Number && upper instanceof Number && value instanceof Number) {
+            double low = ((Number) lower).doubleValue();
+            double width = ((Number) upper).doubleValue() - low;
+            return width > 0 ? Math.max(0, Math.min(1, (((Number) value).doubleValue() - low) / width)) : 0.5;
+        }
+        return 0.5;
+    }
+}
@@ -0,0 +1,1053 @@
+package org.habv.maracuya;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Immutable in-memory table stored by columns, queried with the filters of
+ * {@link FilterFactory}. For example:
+ * <pre>{@code ColumnarTable sales = ColumnarTable.<Sale>builder()
+ *         .intColumn("sale.quantity", Sale::getQuantity)
+ *         .doubleColumn("sale.amount", Sale::getAmount)
+ *         .stringColumn("sale.region", Sale::getRegion)
+ *         .build(rows);
+ *BitSet selected = sales.select(FilterFactory.and(
+ *         FilterFactory.in("sale.region", "regions", regions),
+ *         FilterFactory.between("sale.amount", "min", "max", 10.0, 99.9)
+ * ));}</pre>
+ * <p>
+ * The numbers are stored in {@code int[]}, {@code long[]} and
+ * {@code double[]} arrays and the texts are encoded by a sorted dictionary,
+ * so a text column is an {@code int[]} array of codes in the order of the
+ * texts. Every comparison, {@code between}, {@code in}, {@code like} and
+ * null check is evaluated by a loop over one array into a bitmap of
+ * {@code long} words, one bit per row, and the logical filters join the
+ * bitmaps word by word. The filters that can not be applied are ignored,
+ * like in the query. A text column may have {@code NULL} values, they do not
+ * match any comparison; a number column does not have {@code NULL} values.
+ * <p>
+ * A table is immutable and thread safe.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public final class ColumnarTable {
+
+    /**
+     * Number of bits of a word of a bitmap.
+     */
+    private static final int WORD_BITS = 64;
+    /**
+     * Shift of the index of the word of a bit.
+     */
+    private static final int WORD_SHIFT = 6;
+    /**
+     * Code of a {@code NULL} text.
+     */
+    private static final int NULL_CODE = -1;
+    /**
+     * Minimum value of a {@code long}.
+     */
+    private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+    /**
+     * Maximum value of a {@code long}.
+     */
+    private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    /**
+     * Number of rows.
+     */
+    private final int size;
+    /**
+     * Columns by column name.
+     */
+    private final Map<String, Column> columns;
+
+    /**
+     * Create a table.
+     *
+     * @param size number of rows
+     * @param columns columns by column name
+     */
+    private ColumnarTable(int size, Map<String, Column> columns) {
+        this.size = size;
+        this.columns = columns;
+    }
+
+    /**
+     * Builder of a table without columns.
+     *
+     * @param <T> type of the rows
+     * @return builder of a table
+     */
+    public static <T> Builder<T> builder() {
+        return new Builder<>(Collections.emptyList());
+    }
+
+    /**
+     * Number of rows.
+     *
+     * @return number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Positions of the rows that match a filter, in the order of the rows of
+     * {@link Builder#build(Collection)}.
+     *
+     * @param filter filter
+     * @return positions of the rows that match the filter
+     * @throws NullPointerException if {@code filter} is {@code null}
+     * @throws IllegalArgumentException if the filter can not be evaluated or
+     * a column does not exist
+     */
+    public BitSet select(Filter filter) {
+        return BitSet.valueOf(evaluate(filter));
+    }
+
+    /**
+     * Number of rows that match a filter.
+     *
+     * @param filter filter
+     * @return number of rows that match the filter
+     * @throws NullPointerException if {@code filter} is {@code null}
+     * @throws IllegalArgumentException if the filter can not be evaluated or
+     * a column does not exist
+     */
+    public int count(Filter filter) {
+        int count = 0;
+        for (long word : evaluate(filter)) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Evaluate a filter into a bitmap.
+     *
+     * @param filter filter
+     * @return bitmap of the rows that match the filter
+     */
+    private long[] evaluate(Filter filter) {
+        if (filter == null) {
+            throw new NullPointerException("filter must not be null");
+        }
+        return node(filter);
+    }
+
+    /**
+     * Evaluate a node of the filter tree into a bitmap.
+     *
+     * @param filter node of the filter tree
+     * @return bitmap of the rows that match the node
+     */
+    private long[] node(Filter filter) {
+        if (!filter.canApply()) {
+            return all();
+        }
+        if (filter instanceof FilterFactory.Logical) {
+            FilterFactory.Logical logical = (FilterFactory.Logical) filter;
+            long[] result = null;
+            for (Filter child : logical.filters()) {
+                if (child.canApply()) {
+                    long[] bits = node(child);
+                    if (result == null) {
+                        result = bits;
+                    } else if (logical.isConjunction()) {
+                        for (int i = 0; i < result.length; i++) {
+                            result[i] &= bits[i];
+                        }
+                    } else {
+                        for (int i = 0; i < result.length; i++) {
+                            result[i] |= bits[i];
+                        }
+                    }
+                }
+            }
+            return result == null ? all() : result;
+        }
+        if (filter instanceof Comparison) {
+            Comparison comparison = (Comparison) filter;
+            Column column = column(comparison.columnName());
+            Operator operator = comparison.operator();
+            if (operator == Operator.IN || operator == Operator.NOT_IN) {
+                Collection<?> values = comparison.value() instanceof Collection
+                        ? (Collection<?>) comparison.value()
+                        : Collections.singleton(comparison.value());
+                return column.in(values, operator == Operator.NOT_IN, words());
+            }
+            return column.compare(operator, comparison.value(), words());
+        }
+        if (filter instanceof Range) {
+            Range range = (Range) filter;
+            return column(range.columnName()).between(range.leftValue(), range.rightValue(),
+                    range.operator() == Operator.NOT_BETWEEN, words());
+        }
+        if (filter instanceof Match) {
+            Match match = (Match) filter;
+            return column(match.columnName()).like(PredicateCompiler.like(match.pattern()), match.ignoreCase(),
+                    match.operator() == Operator.NOT_LIKE, words());
+        }
+        if (filter instanceof NullCheck) {
+            NullCheck check = (NullCheck) filter;
+            return column(check.columnName()).isNull(check.operator() == Operator.IS_NOT_NULL, words());
+        }
+        if (filter instanceof FullText) {
+            return node(((FullText) filter).fallback());
+        }
+        if (filter instanceof Literal && ((Literal) filter).literal() == null) {
+            return all();
+        }
+        throw new IllegalArgumentException(String.format("filter %s can not be evaluated",
+                filter.getClass().getName()));
+    }
+
+    /**
+     * Column of a column name.
+     *
+     * @param columnName column name
+     * @return column
+     * @throws IllegalArgumentException if the column does not exist
+     */
+    private Column column(String columnName) {
+        Column column = columns.get(columnName);
+        if (column == null) {
+            throw new IllegalArgumentException(String.format("column %s does not exist", columnName));
+        }
+        return column;
+    }
+
+    /**
+     * Empty bitmap of the rows.
+     *
+     * @return bitmap without rows
+     */
+    private long[] words() {
+        return new long[(size + WORD_BITS - 1) >>> WORD_SHIFT];
+    }
+
+    /**
+     * Bitmap of every row.
+     *
+     * @return bitmap of every row
+     */
+    private long[] all() {
+        long[] bits = words();
+        Arrays.fill(bits, -1L);
+        int tail = size & (WORD_BITS - 1);
+        if (tail != 0) {
+            bits[bits.length - 1] = (1L << tail) - 1;
+        }
+        return bits;
+    }
+
+    /**
+     * Number of a value of a filter.
+     *
+     * @param value value of a filter
+     * @return number
+     * @throws IllegalArgumentException if the value is not a number
+     */
+    private static Number number(Object value) {
+        if (!(value instanceof Number)) {
+            throw new IllegalArgumentException(String.format("value %s is not a number", value));
+        }
+        return (Number) value;
+    }
+
+    /**
+     * Builder of a table, it is immutable and thread safe.
+     *
+     * @param <T> type of the rows
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    public static final class Builder<T> {
+
+        /**
+         * Definitions of the columns.
+         */
+        private final List<Definition<T>> definitions;
+
+        /**
+         * Create a builder.
+         *
+         * @param definitions definitions of the columns
+         */
+        private Builder(List<Definition<T>> definitions) {
+            this.definitions = definitions;
+        }
+
+        /**
+         * Copy of this builder with an {@code int} column.
+         *
+         * @param columnName column name of the filters
+         * @param accessor accessor of the value of the column
+         * @return copy of this builder
+         * @throws NullPointerException if {@code columnName} or
+         * {@code accessor} are {@code null}
+         * @throws IllegalArgumentException if the column was already added
+         */
+        public Builder<T> intColumn(String columnName, ToIntFunction<? super T> accessor) {
+            check(accessor);
+            return add(columnName, rows -> {
+                int[] values = new int[rows.size()];
+                int i = 0;
+                for (T row : rows) {
+                    values[i++] = accessor.applyAsInt(row);
+                }
+                return new IntColumn(values);
+            });
+        }
+
+        /**
+         * Copy of this builder with a {@code long} column.
+         *
+         * @param columnName column name of the filters
+         * @param accessor accessor of the value of the column
+         * @return copy of this builder
+         * @throws NullPointerException if {@code columnName} or
+         * {@code accessor} are {@code null}
+         * @throws IllegalArgumentException if the column was already added
+         */
+        public Builder<T> longColumn(String columnName, ToLongFunction<? super T> accessor) {
+            check(accessor);
+            return add(columnName, rows -> {
+                long[] values = new long[rows.size()];
+                int i = 0;
+                for (T row : rows) {
+                    values[i++] = accessor.applyAsLong(row);
+                }
+                return new LongColumn(values);
+            });
+        }
+
+        /**
+         * Copy of this builder with a {@code double} column.
+         *
+         * @param columnName column name of the filters
+         * @param accessor accessor of the value of the column
+         * @return copy of this builder
+         * @throws NullPointerException if {@code columnName} or
+         * {@code accessor} are {@code null}
+         * @throws IllegalArgumentException if the column was already added
+         */
+        public Builder<T> doubleColumn(String columnName, ToDoubleFunction<? super T> accessor) {
+            check(accessor);
+            return add(columnName, rows -> {
+                double[] values = new double[rows.size()];
+                int i = 0;
+                for (T row : rows) {
+                    values[i++] = accessor.applyAsDouble(row);
+                }
+                return new DoubleColumn(values);
+            });
+        }
+
+        /**
+         * Copy of this builder with a text column, encoded by a sorted
+         * dictionary.
+         *
+         * @param columnName column name of the filters
+         * @param accessor accessor of the value of the column, it may return
+         * {@code null}
+         * @return copy of this builder
+         * @throws NullPointerException if {@code columnName} or
+         * {@code accessor} are {@code null}
+         * @throws IllegalArgumentException if the column was already added
+         */
+        public Builder<T> stringColumn(String columnName, Function<? super T, String> accessor) {
+            check(accessor);
+            return add(columnName, rows -> {
+                TreeSet<String> distinct = new TreeSet<>();
+                for (T row : rows) {
+                    String value = accessor.apply(row);
+                    if (value != null) {
+                        distinct.add(value);
+                    }
+                }
+                String[] dictionary = distinct.toArray(new String[0]);
+                Map<String, Integer> codes = new HashMap<>();
+                for (int i = 0; i < dictionary.length; i++) {
+                    codes.put(dictionary[i], i);
+                }
+                int[] values = new int[rows.size()];
+                int i = 0;
+                for (T row : rows) {
+                    String value = accessor.apply(row);
+                    values[i++] = value == null ? NULL_CODE : codes.get(value);
+                }
+                return new StringColumn(values, dictionary);
+            });
+        }
+
+        /**
+         * Build a table with the values of the rows.
+         *
+         * @param rows rows
+         * @return table
+         * @throws NullPointerException if {@code rows} or a row are
+         * {@code null}
+         */
+        public ColumnarTable build(Collection<? extends T> rows) {
+            if (rows == null) {
+                throw new NullPointerException("rows must not be null");
+            }
+            List<T> list = new ArrayList<>(rows);
+            for (T row : list) {
+                if (row == null) {
+                    throw new NullPointerException("row must not be null");
+                }
+            }
+            Map<String, Column> columns = new HashMap<>();
+            for (Definition<T> definition : definitions) {
+                columns.put(definition.columnName, definition.loader.apply(list));
+            }
+            return new ColumnarTable(list.size(), columns);
+        }
+
+        /**
+         * Copy of this builder with a column.
+         *
+         * @param columnName column name
+         * @param loader loader of the column of the rows
+         * @return copy of this builder
+         */
+        private Builder<T> add(String columnName, Function<List<T>, Column> loader) {
+            FilterFactory.required(columnName, "columnName");
+            for (Definition<T> definition : definitions) {
+                if (definition.columnName.equals(columnName)) {
+                    throw new IllegalArgumentException(String.format("duplicate column %s", columnName));
+                }
+            }
+            List<Definition<T>> newDefinitions = new ArrayList<>(definitions);
+            newDefinitions.add(new Definition<>(columnName, loader));
+            return new Builder<>(Collections.unmodifiableList(newDefinitions));
+        }
+
+        /**
+         * Check that an accessor is not {@code null}.
+         *
+         * @param accessor accessor
+         */
+        private static void check(Object accessor) {
+            if (accessor == null) {
+                throw new NullPointerException("accessor must not be null");
+            }
+        }
+    }
+
+    /**
+     * Definition of a column of a builder.
+     *
+     * @param <T> type of the rows
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    private static final class Definition<T> {
+
+        /**
+         * Column name.
+         */
+        private final String columnName;
+        /**
+         * Loader of the column of the rows.
+         */
+        private final Function<List<T>, Column> loader;
+
+        /**
+         * Create a definition of a column.
+         *
+         * @param columnName column name
+         * @param loader loader of the column of the rows
+         */
+        private Definition(String columnName, Function<List<T>, Column> loader) {
+            this.columnName = columnName;
+            this.loader = loader;
+        }
+    }
+
+    /**
+     * Column of a table, every method fills an empty bitmap.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    private abstract static class Column {
+
+        /**
+         * Evaluate a comparison with a value.
+         *
+         * @param operator operator
+         * @param value value
+         * @param bits empty bitmap
+         * @return bitmap of the rows
+         */
+        abstract long[] compare(Operator operator, Object value, long[] bits);
+
+        /**
+         * Evaluate a range, both inclusive.
+         *
+         * @param left left value
+         * @param right right value
+         * @param negated {@code true} for {@code not between}
+         * @param bits empty bitmap
+         * @return bitmap of the rows
+         */
+        abstract long[] between(Object left, Object right, boolean negated, long[] bits);
+
+        /**
+         * Evaluate an {@code in} list.
+         *
+         * @param values values
+         * @param negated {@code true} for {@code not in}
+         * @param bits empty bitmap
+         * @return bitmap of the rows
+         */
+        abstract long[] in(Collection<?> values, boolean negated, long[] bits);
+
+        /**
+         * Evaluate a pattern of {@code like}.
+         *
+         * @param like predicate of the pattern
+         * @param ignoreCase {@code true} to match the texts in lower case
+         * @param negated {@code true} for {@code not like}
+         * @param bits empty bitmap
+         * @return bitmap of the rows
+         */
+        long[] like(Predicate<String> like, boolean ignoreCase, boolean negated, long[] bits) {
+            throw new IllegalArgumentException("like can only be evaluated on a text column");
+        }
+
+        /**
+         * Evaluate a null check.
+         *
+         * @param negated {@code true} for {@code is not null}
+         * @param bits empty bitmap
+         * @return bitmap of the rows
+         */
+        abstract long[] isNull(boolean negated, long[] bits);
+    }
+
+    /**
+     * Column of integers, stored as {@code long} bounds of the comparisons.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    private abstract static class IntegralColumn extends Column {
+
+        @Override
+        long[] compare(Operator operator, Object value, long[] bits) {
+            Object normalized = PredicateCompiler.normalize(number(value));
+            Long bound;
+            switch (operator) {
+                case EQUAL:
+                case NOT_EQUAL:
+                    boolean negated = operator == Operator.NOT_EQUAL;
+                    return normalized instanceof Long
+                            ? range((Long) normalized, (Long) normalized, negated, bits)
+                            : range(1, 0, negated, bits);
+                case GREATER:
+                    bound = floor(normalized);
+                    return bound == null ? all(bits)
+                            : bound == Long.MAX_VALUE ? bits : range(bound + 1, Long.MAX_VALUE, false, bits);
+                case GREATER_OR_EQUAL:
+                    bound = ceiling(normalized);
+                    return bound == null ? bits : range(bound, Long.MAX_VALUE, false, bits);
+                case LESS:
+                    bound = ceiling(normalized);
+                    return bound == null ? all(bits)
+                            : bound == Long.MIN_VALUE ? bits : range(Long.MIN_VALUE, bound - 1, false, bits);
+                case LESS_OR_EQUAL:
+                    bound = floor(normalized);
+                    return bound == null ? bits : range(Long.MIN_VALUE, bound, false, bits);
+                default:
+                    throw new IllegalArgumentException(String.format("operator %s can not be evaluated", operator));
+            }
+        }
+
+        @Override
+        long[] between(Object left, Object right, boolean negated, long[] bits) {
+            Long low = ceiling(PredicateCompiler.normalize(number(left)));
+            Long high = floor(PredicateCompiler.normalize(number(right)));
+            return low == null || high == null
+                    ? range(1, 0, negated, bits)
+                    : range(low, high, negated, bits);
+        }
+
+        @Override
+        long[] in(Collection<?> values, boolean negated, long[] bits) {
+            long[] sorted = new long[values.size()];
+            int count = 0;
+            for (Object value : values) {
+                Object normalized = PredicateCompiler.normalize(number(value));
+                if (normalized instanceof Long) {
+                    sorted[count++] = (Long) normalized;
+                }
+            }
+            sorted = Arrays.copyOf(sorted, count);
+            Arrays.sort(sorted);
+            return in(sorted, negated, bits);
+        }
+
+        @Override
+        long[] isNull(boolean negated, long[] bits) {
+            return negated ? all(bits) : bits;
+        }
+
+        /**
+         * Set the rows that are not null.
+         *
+         * @param bits empty bitmap
+         * @return bitmap of the rows
+         */
+        private long[] all(long[] bits) {
+            return range(Long.MIN_VALUE, Long.MAX_VALUE, false, bits);
+        }
+
+        /**
+         * Smallest {@code long} greater than or equal to a number, see
+         * {@link PredicateCompiler#normalize(Number)}. A number below the
+         * {@code long} range or minus infinity is {@code Long.MIN_VALUE}.
+         *
+         * @param normalized normalized number
+         * @return smallest {@code long} greater than or equal to the number,
+         * {@code null} above the {@code long} range, plus infinity or NaN
+         */
+        private static Long ceiling(Object normalized) {
+            if (normalized instanceof Long) {
+                return (Long) normalized;
+            }
+            if (normalized instanceof Double) {
+                return (Double) normalized < 0 ? Long.MIN_VALUE : null;
+            }
+            BigDecimal decimal = (BigDecimal) normalized;
+            if (decimal.compareTo(LONG_MIN) < 0) {
+                return Long.MIN_VALUE;
+            }
+            return decimal.compareTo(LONG_MAX) > 0 ? null : decimal.setScale(0, RoundingMode.CEILING).longValue();
+        }
+
+        /**
+         * Largest {@code long} less than or equal to a number, see
+         * {@link PredicateCompiler#normalize(Number)}. A number above the
+         * {@code long} range, plus infinity or NaN is {@code Long.MAX_VALUE}.
+         *
+         * @param normalized normalized number
+         * @return largest {@code long} less than or equal to the number,
+         * {@code null} below the {@code long} range or minus infinity
+         */
+        private static Long floor(Object normalized) {
+            if (normalized instanceof Long) {
+                return (Long) normalized;
+            }
+            if (normalized instanceof Double) {
+                return (Double) normalized < 0 ? null : Long.MAX_VALUE;
+            }
+            BigDecimal decimal = (BigDecimal) normalized;
+            if (decimal.compareTo(LONG_MAX) > 0) {
+                return Long.MAX_VALUE;
+            }
+            return decimal.compareTo(LONG_MIN) < 0 ? null : decimal.setScale(0, RoundingMode.FLOOR).longValue();
+        }
+
+        /**
+         * Set the rows in a range, both inclusive.
+         *
+         * @param low lower bound
+         * @param high upper bound
+         * @param negated {@code true} to set the rows out of the range
+         * @param bits empty bitmap
+         * @return bitmap of the rows
+         */
+        abstract long[] range(long low, long high, boolean negated, long[] bits);
+
+        /**
+         * Set the rows with one of the values.
+         *
+         * @param sorted sorted values
+         * @param negated {@code true} to set the rows without the values
+         * @param bits empty bitmap
+         * @return bitmap of the rows
+         */
+        abstract long[] in(long[] sorted, boolean negated, long[] bits);
+    }
+
+    /**
+     * Column of {@code int} values.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    private static final class IntColumn extends IntegralColumn {
+
+        /**
+         * Values.
+         */
+        private final int[] values;
+
+        /**
+         * Create a column.
+         *
+         * @param values values
+         */
+        private IntColumn(int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        long[] range(long low, long high, boolean negated, long[] bits) {
+            int[] data = values;
+            for (int w = 0, base = 0; w < bits.length; w++, base += WORD_BITS) {
+                int end = Math.min(WORD_BITS, data.length - base);
+                long word = 0;
+                for (int b = 0; b < end; b++) {
+                    long value = data[base + b];
+                    word |= (value >= low && value <= high) != negated ? 1L << b : 0L;
+                }
+                bits[w] = word;
+            }
+            return bits;
+        }
+
+        @Override
+        long[] in(long[] sorted, boolean negated, long[] bits) {
+            int[] data = values;
+            for (int w = 0, base = 0; w < bits.length; w++, base += WORD_BITS) {
+                int end = Math.min(WORD_BITS, data.length - base);
+                long word = 0;
+                for (int b = 0; b < end; b++) {
+                    word |= Arrays.binarySearch(sorted, data[base + b]) >= 0 != negated ? 1L << b : 0L;
+                }
+                bits[w] = word;
+            }
+            return bits;
+        }
+    }
+
+    /**
+     * Column of {@code long} values.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    private static final class LongColumn extends IntegralColumn {
+
+        /**
+         * Values.
+         */
+        private final long[] values;
+
+        /**
+         * Create a column.
+         *
+         * @param values values
+         */
+        private LongColumn(long[] values) {
+            this.values = values;
+        }
+
+        @Override
+        long[] range(long low, long high, boolean negated, long[] bits) {
+            long[] data = values;
+            for (int w = 0, base = 0; w < bits.length; w++, base += WORD_BITS) {
+                int end = Math.min(WORD_BITS, data.length - base);
+                long word = 0;
+                for (int b = 0; b < end; b++) {
+                    long value = data[base + b];
+                    word |= (value >= low && value <= high) != negated ? 1L << b : 0L;
+                }
+                bits[w] = word;
+            }
+            return bits;
+        }
+
+        @Override
+        long[] in(long[] sorted, boolean negated, long[] bits) {
+            long[] data = values;
+            for (int w = 0, base = 0; w < bits.length; w++, base += WORD_BITS) {
+                int end = Math.min(WORD_BITS, data.length - base);
+                long word = 0;
+                for (int b = 0; b < end; b++) {
+                    word |= Arrays.binarySearch(sorted, data[base + b]) >= 0 != negated ? 1L << b : 0L;
+                }
+                bits[w] = word;
+            }
+            return bits;
+        }
+    }
+
+    /**
+     * Column of {@code double} values.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    private static final class DoubleColumn extends Column {
+
+        /**
+         * Values.
+         */
+        private final double[] values;
+
+        /**
+         * Create a column.
+         *
+         * @param values values
+         */
+        private DoubleColumn(double[] values) {
+            this.values = values;
+        }
+
+        @Override
+        long[] compare(Operator operator, Object value, long[] bits) {
+            double real = number(value).doubleValue();
+            switch (operator) {
+                case EQUAL:
+                    return range(real, real, false, bits);
+                case NOT_EQUAL:
+                    return range(real, real, true, bits);
+                case GREATER:
+                    return range(Math.nextUp(real), Double.POSITIVE_INFINITY, false, bits);
+                case GREATER_OR_EQUAL:
+                    return range(real, Double.POSITIVE_INFINITY, false, bits);
+                case LESS:
+                    return range(Double.NEGATIVE_INFINITY, Math.nextDown(real), false, bits);
+                case LESS_OR_EQUAL:
+                    return range(Double.NEGATIVE_INFINITY, real, false, bits);
+                default:
+                    throw new IllegalArgumentException(String.format("operator %s can not be evaluated", operator));
+            }
+        }
+
+        @Override
+        long[] between(Object left, Object right, boolean negated, long[] bits) {
+            return range(number(left).doubleValue(), number(right).doubleValue(), negated, bits);
+        }
+
+        @Override
+        long[] in(Collection<?> values, boolean negated, long[] bits) {
+            double[] sorted = new double[values.size()];
+            int count = 0;
+            for (Object value : values) {
+                sorted[count++] = number(value).doubleValue();
+            }
+            Arrays.sort(sorted);
+            double[] data = this.values;
+            for (int w = 0, base = 0; w < bits.length; w++, base += WORD_BITS) {
+                int end = Math.min(WORD_BITS, data.length - base);
+                long word = 0;
+                for (int b = 0; b < end; b++) {
+                    word |= Arrays.binarySearch(sorted, data[base + b]) >= 0 != negated ? 1L << b : 0L;
+                }
+                bits[w] = word;
+            }
+            return bits;
+        }
+
+        @Override
+        long[] isNull(boolean negated, long[] bits) {
+            return negated ? range(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, false, bits) : bits;
+        }
+
+        /**
+         * Set the rows in a range, both inclusive.
+         *
+         * @param low lower bound
+         * @param high upper bound
+         * @param negated {@code true} to set the rows out of the range
+         * @param bits empty bitmap
+         * @return bitmap of the rows
+         */
+        private long[] range(double low, double high, boolean negated, long[] bits) {
+            double[] data = values;
+            for (int w = 0, base = 0; w < bits.length; w++, base += WORD_BITS) {
+                int end = Math.min(WORD_BITS, data.length - base);
+                long word = 0;
+                for (int b = 0; b < end; b++) {
+                    double value = data[base + b];
+                    word |= (value >= low && value <= high) != negated ? 1L << b : 0L;
+                }
+                bits[w] = word;
+            }
+            return bits;
+        }
+    }
+
+    /**
+     * Column of texts encoded by a sorted dictionary, the code of a text is
+     * its position in the dictionary, so the order of the codes is the order
+     * of the texts.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    private static final class StringColumn extends Column {
+
+        /**
+         * Codes of the texts, {@link #NULL_CODE} for {@code NULL}.
+         */
+        private final int[] codes;
+        /**
+         * Sorted distinct texts.
+         */
+        private final String[] dictionary;
+
+        /**
+         * Create a column.
+         *
+         * @param codes codes of the texts
+         * @param dictionary sorted distinct texts
+         */
+        private StringColumn(int[] codes, String[] dictionary) {
+            this.codes = codes;
+            this.dictionary = dictionary;
+        }
+
+        @Override
+        long[] compare(Operator operator, Object value, long[] bits) {
+            String text = text(value);
+            int position = Arrays.binarySearch(dictionary, text);
+            boolean found = position >= 0;
+            int insertion = found ? position : -position - 1;
+            switch (operator) {
+                case EQUAL:
+                    return found ? range(position, position, false, bits) : bits;
+                case NOT_EQUAL:
+                    return found ? range(position, position, true, bits) : range(0, dictionary.length - 1, false, bits);
+                case GREATER:
+                    return range(found ? position + 1 : insertion, dictionary.length - 1, false, bits);
+                case GREATER_OR_EQUAL:
+                    return range(insertion, dictionary.length - 1, false, bits);
+                case LESS:
+                    return range(0, insertion - 1, false, bits);
+                case LESS_OR_EQUAL:
+                    return range(0, found ? position : insertion - 1, false, bits);
+                default:
+                    throw new IllegalArgumentException(String.format("operator %s can not be evaluated", operator));
+            }
+        }
+
+        @Override
+        long[] between(Object left, Object right, boolean negated, long[] bits) {
+            int low = Arrays.binarySearch(dictionary, text(left));
+            int high = Arrays.binarySearch(dictionary, text(right));
+            low = low >= 0 ? low : -low - 1;
+            high = high >= 0 ? high : -high - 2;
+            return range(low, high, negated, bits);
+        }
+
+        @Override
+        long[] in(Collection<?> values, boolean negated, long[] bits) {
+            boolean[] matches = new boolean[dictionary.length];
+            for (Object value : values) {
+                int position = Arrays.binarySearch(dictionary, text(value));
+                if (position >= 0) {
+                    matches[position] = true;
+                }
+            }
+            return lookup(matches, negated, bits);
+        }
+
+        @Override
+        long[] like(Predicate<String> like, boolean ignoreCase, boolean negated, long[] bits) {
+            boolean[] matches = new boolean[dictionary.length];
+            for (int i = 0; i < dictionary.length; i++) {
+                matches[i] = like.test(ignoreCase ? dictionary[i].toLowerCase() : dictionary[i]);
+            }
+            return lookup(matches, negated, bits);
+        }
+
+        @Override
+        long[] isNull(boolean negated, long[] bits) {
+            int[] data = codes;
+            for (int w = 0, base = 0; w < bits.length; w++, base += WORD_BITS) {
+                int end = Math.min(WORD_BITS, data.length - base);
+                long word = 0;
+                for (int b = 0; b < end; b++) {
+                    word |= (data[base + b] == NULL_CODE) != negated ? 1L << b : 0L;
+                }
+                bits[w] = word;
+            }
+            return bits;
+        }
+
+        /**
+         * Text of a value of a filter.
+         *
+         * @param value value of a filter
+         * @return text
+         * @throws IllegalArgumentException if the value is not a text
+         */
+        private static String text(Object value) {
+            if (!(value instanceof String)) {
+                throw new IllegalArgumentException(String.format("value %s is not a text", value));
+            }
+            return (String) value;
+        }
+
+        /**
+         * Set the rows with a code in a range, both inclusive, the
+         * {@code NULL} texts are never set.
+         *
+         * @param low lower code
+         * @param high upper code
+         * @param negated {@code true} to set the rows out of the range
+         * @param bits empty bitmap
+         * @return bitmap of the rows
+         */
+        private long[] range(int low, int high, boolean negated, long[] bits) {
+            int[] data = codes;
+            for (int w = 0, base = 0; w < bits.length; w++, base += WORD_BITS) {
+                int end = Math.min(WORD_BITS, data.length - base);
+                long word = 0;
+                for (int b = 0; b < end; b++) {
+                    int code = data[base + b];
+                    word |= code != NULL_CODE && (code >= low && code <= high) != negated ? 1L << b : 0L;
+                }
+                bits[w] = word;
+            }
+            return bits;
+        }
+
+        /**
+         * Set the rows with a code that matches, the {@code NULL} texts are
+         * never set.
+         *
+         * @param matches indicates by code whether the text matches
+         * @param negated {@code true} to set the rows that do not match
+         * @param bits empty bitmap
+         * @return bitmap of the rows
+         */
+        private long[] lookup(boolean[] matches, boolean negated, long[] bits) {
+            int[] data = codes;
+            for (int w = 0, base = 0; w < bits.length; w++, base += WORD_BITS) {
+                int end = Math.min(WORD_BITS, data.length - base);
+                long word = 0;
+                for (int b = 0; b < end; b++) {
+                    int code = data[base + b];
+                    word |= code != NULL_CODE && matches[code] != negated ? 1L << b : 0L;
+                }
+                bits[w] = word;
+            }
+            return bits;
+        }
+    }
+}
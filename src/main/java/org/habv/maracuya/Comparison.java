@@ -0,0 +1,150 @@
+package org.habv.maracuya;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Filter that compares a column with a single value, for example
+ * {@code book.isbn = :isbn} or {@code book.category IN :categories}.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+final class Comparison implements Filter {
+
+    /**
+     * Column name.
+     */
+    private final String columnName;
+    /**
+     * Operator.
+     */
+    private final Operator operator;
+    /**
+     * Parameter name.
+     */
+    private final String paramName;
+    /**
+     * Parameter value.
+     */
+    private final Object value;
+
+    /**
+     * Create a filter with a single value.
+     *
+     * @param columnName column name
+     * @param operator operator
+     * @param paramName parameter name
+     * @param value parameter value
+     */
+    Comparison(String columnName, Operator operator, String paramName, Object value) {
+        this.columnName = columnName;
+        this.operator = operator;
+        this.paramName = paramName;
+        this.value = value;
+    }
+
+    /**
+     * Column name.
+     *
+     * @return column name
+     */
+    String columnName() {
+        return columnName;
+    }
+
+    /**
+     * Operator.
+     *
+     * @return operator
+     */
+    Operator operator() {
+        return operator;
+    }
+
+    /**
+     * Parameter name.
+     *
+     * @return parameter name
+     */
+    String paramName() {
+        return paramName;
+    }
+
+    /**
+     * Parameter value.
+     *
+     * @return parameter value
+     */
+    Object value() {
+        return value;
+    }
+
+    @Override
+    public void apply(StringBuilder query, Map<String, Object> parameters) {
+        query.append(columnName);
+        query.append(operator.token());
+        query.append(FilterFactory.PREFIX);
+        query.append(paramName);
+        parameters.put(paramName, value);
+    }
+
+    @Override
+    public void render(RenderContext context) {
+        if (isInList()) {
+            context.inListPolicy().render(context, columnName, operator, paramName, (Collection<?>) value);
+            return;
+        }
+        context.append(columnName);
+        context.append(operator.token());
+        context.placeholder(paramName, value);
+    }
+
+    /**
+     * Code of the query shape of the filter.
+     *
+     * @param codes codes of the query shape
+     * @return code of the collection of an {@code in} or {@code notIn}
+     * filter, otherwise {@link QueryShape#APPLICABLE}
+     */
+    int code(QueryShape.Codes codes) {
+        return isInList()
+                ? codes.policy().code(((Collection<?>) value).size(), codes.dialect())
+                : QueryShape.APPLICABLE;
+    }
+
+    /**
+     * Indicates whether the filter compares the column with a collection
+     * using {@code in} or {@code notIn}.
+     *
+     * @return {@code true} if the filter is an {@code in} or {@code notIn}
+     * with a collection
+     */
+    private boolean isInList() {
+        return (operator == Operator.IN || operator == Operator.NOT_IN) && value instanceof Collection;
+    }
+
+    /**
+     * Add the identity of the text of the filter to the query shape.
+     *
+     * @param codes codes of the query shape
+     */
+    void key(QueryShape.Codes codes) {
+        codes.key(columnName);
+        codes.key(operator);
+        codes.key(paramName);
+    }
+
+    /**
+     * Store the parameters of the filter without rendering its text.
+     *
+     * @param context render context
+     */
+    void collect(RenderContext context) {
+        if (isInList()) {
+            render(context);
+            return;
+        }
+        context.placeholder(paramName, value);
+    }
+}
@@ -0,0 +1,244 @@
+package org.habv.maracuya;
+
+import java.util.Collection;
+
+/**
+ * SQL dialect of the database, for the filters that are rendered in a
+ * database specific way.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ * @see Filterable#dialect()
+ */
+public enum Dialect {
+
+    /**
+     * Standard SQL, it does not use database specific syntax.
+     */
+    ANSI(null, CaseInsensitiveMatch.LOWER, FullTextSearch.NONE),
+    /**
+     * PostgreSQL.
+     */
+    POSTGRESQL(LargeCollectionStrategy.array(), CaseInsensitiveMatch.ILIKE, FullTextSearch.TSVECTOR),
+    /**
+     * MySQL and MariaDB, the text columns are expected to have a case
+     * insensitive collation, like the default {@code utf8mb4_0900_ai_ci}.
+     */
+    MYSQL(null, CaseInsensitiveMatch.COLLATION, FullTextSearch.MATCH_AGAINST),
+    /**
+     * Microsoft SQL Server, the text columns are expected to have a case
+     * insensitive collation, like the default
+     * {@code SQL_Latin1_General_CP1_CI_AS}.
+     */
+    SQL_SERVER(LargeCollectionStrategy.json(), CaseInsensitiveMatch.COLLATION, FullTextSearch.NONE),
+    /**
+     * Oracle.
+     */
+    ORACLE(null, CaseInsensitiveMatch.LOWER, FullTextSearch.NONE),
+    /**
+     * H2.
+     */
+    H2(LargeCollectionStrategy.array(), CaseInsensitiveMatch.ILIKE, FullTextSearch.FT_SEARCH_DATA);
+
+    /**
+     * Token of the case insensitive like operator.
+     */
+    private static final String ILIKE_TOKEN = " ILIKE ";
+    /**
+     * Token of the case insensitive not like operator.
+     */
+    private static final String NOT_ILIKE_TOKEN = " NOT ILIKE ";
+    /**
+     * Token of the limit of rows.
+     */
+    private static final String LIMIT_TOKEN = " LIMIT ";
+    /**
+     * Token of the standard limit of rows.
+     */
+    private static final String FETCH_FIRST_TOKEN = " FETCH FIRST ";
+    /**
+     * Token of the limit of rows of SQL Server.
+     */
+    private static final String OFFSET_FETCH_TOKEN = " OFFSET 0 ROWS FETCH NEXT ";
+    /**
+     * End of the standard limit of rows.
+     */
+    private static final String ROWS_ONLY_TOKEN = " ROWS ONLY";
+
+    /**
+     * Strategy for large collections, {@code null} if the dialect does not
+     * have one.
+     */
+    private final LargeCollectionStrategy largeCollectionStrategy;
+    /**
+     * How a case insensitive {@code like} is rendered.
+     */
+    private final CaseInsensitiveMatch caseInsensitiveMatch;
+    /**
+     * Full text search of the dialect.
+     */
+    private final FullTextSearch fullTextSearch;
+
+    /**
+     * Create a dialect.
+     *
+     * @param largeCollectionStrategy strategy for large collections,
+     * {@code null} if the dialect does not have one
+     * @param caseInsensitiveMatch how a case insensitive {@code like} is
+     * rendered
+     * @param fullTextSearch full text search of the dialect
+     */
+    Dialect(LargeCollectionStrategy largeCollectionStrategy, CaseInsensitiveMatch caseInsensitiveMatch,
+            FullTextSearch fullTextSearch) {
+        this.largeCollectionStrategy = largeCollectionStrategy;
+        this.caseInsensitiveMatch = caseInsensitiveMatch;
+        this.fullTextSearch = fullTextSearch;
+    }
+
+    /**
+     * Strategy of the dialect for the collections of {@code in} and
+     * {@code notIn} filters that reach the threshold of
+     * {@link InListPolicy#withLargeCollections(int)}: an array parameter on
+     * PostgreSQL and H2, a JSON parameter read by {@code OPENJSON} on SQL
+     * Server.
+     *
+     * @return strategy for large collections, {@code null} if the dialect
+     * does not have one and the collections are rendered as {@code IN} lists
+     */
+    public LargeCollectionStrategy largeCollectionStrategy() {
+        return largeCollectionStrategy;
+    }
+
+    /**
+     * Full text search of the dialect, see
+     * {@link FilterFactory#fullText(Collection, String, String)}.
+     *
+     * @return full text search of the dialect
+     */
+    FullTextSearch fullTextSearch() {
+        return fullTextSearch;
+    }
+
+    /**
+     * Indicates whether the dialect compares row values, like
+     * {@code (a, b) > (:a, :b)}, see {@link Keyset}.
+     *
+     * @return {@code true} on PostgreSQL, MySQL and H2
+     */
+    boolean hasRowValues() {
+        switch (this) {
+            case POSTGRESQL:
+            case MYSQL:
+            case H2:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Render the maximum number of rows of a query: {@code LIMIT} on
+     * PostgreSQL, MySQL and H2, {@code OFFSET 0 ROWS FETCH NEXT} on SQL Server
+     * and the standard {@code FETCH FIRST} on other dialects.
+     *
+     * @param context render context
+     * @param limit maximum number of rows
+     */
+    void renderLimit(RenderContext context, int limit) {
+        String rows = Integer.toString(limit);
+        switch (this) {
+            case POSTGRESQL:
+            case MYSQL:
+            case H2:
+                context.append(LIMIT_TOKEN).append(rows);
+                break;
+            case SQL_SERVER:
+                context.append(OFFSET_FETCH_TOKEN).append(rows).append(ROWS_ONLY_TOKEN);
+                break;
+            default:
+                context.append(FETCH_FIRST_TOKEN).append(rows).append(ROWS_ONLY_TOKEN);
+                break;
+        }
+    }
+
+    /**
+     * Render a column and a case insensitive {@code like} or
+     * {@code not like} operator, the pattern is already in lower case:
+     * {@code LOWER(book.title) LIKE } on ANSI and Oracle,
+     * {@code book.title ILIKE } on PostgreSQL and H2, and
+     * {@code book.title LIKE } on MySQL and SQL Server, where the collation
+     * of the column is case insensitive. The column is not wrapped by
+     * {@code LOWER} on these databases, so its index can be used.
+     *
+     * @param context render context
+     * @param columnName column name
+     * @param operator {@link Operator#LIKE} or {@link Operator#NOT_LIKE}
+     */
+    void renderIgnoreCase(RenderContext context, String columnName, Operator operator) {
+        switch (caseInsensitiveMatch) {
+            case ILIKE:
+                context.append(columnName);
+                context.append(operator == Operator.LIKE ? ILIKE_TOKEN : NOT_ILIKE_TOKEN);
+                break;
+            case COLLATION:
+                context.append(columnName);
+                context.append(operator.token());
+                break;
+            default:
+                context.append(FilterFactory.LOWER_TOKEN);
+                context.append(FilterFactory.LEFT_PARENTHESIS);
+                context.append(columnName);
+                context.append(FilterFactory.RIGHT_PARENTHESIS);
+                context.append(operator.token());
+                break;
+        }
+    }
+
+    /**
+     * How a case insensitive {@code like} is rendered.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    enum CaseInsensitiveMatch {
+
+        /**
+         * The column is wrapped by {@code LOWER}.
+         */
+        LOWER,
+        /**
+         * The {@code ILIKE} operator.
+         */
+        ILIKE,
+        /**
+         * The collation of the column is case insensitive.
+         */
+        COLLATION
+    }
+
+    /**
+     * Full text search of a dialect.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    enum FullTextSearch {
+
+        /**
+         * Without full text search, a case insensitive {@code like} is used.
+         */
+        NONE,
+        /**
+         * {@code to_tsvector} and {@code plainto_tsquery} of PostgreSQL.
+         */
+        TSVECTOR,
+        /**
+         * {@code MATCH ... AGAINST} of MySQL.
+         */
+        MATCH_AGAINST,
+        /**
+         * {@code FT_SEARCH_DATA} of the native full text search of H2.
+         */
+        FT_SEARCH_DATA
+    }
+}
@@ -27,4 +27,21 @@ public interface Filter {
      * @param parameters parameter values
      */
     void apply(StringBuilder query, Map<String, Object> parameters);
+
+    /**
+     * Concatenates the filter in the render context and stores the parameter
+     * values.
+     * <p>
+     * By default it adapts {@link #apply(StringBuilder, Map)} to the query
+     * buffer and the map view of the parameters of the context, so existing
+     * filters keep working, in positional mode their named placeholders are
+     * replaced by positional ones. The filters of {@link FilterFactory}
+     * override it to write directly to the context.
+     *
+     * @param context render context
+     * @since 1.1.0
+     */
+    default void render(RenderContext context) {
+        context.adapt(this);
+    }
 }
@@ -11,96 +11,47 @@ import java.util.Map;
  */
 public final class FilterFactory {
 
-    /**
-     * SQL equals token.
-     */
-    private static final String EQUALS_TOKEN = " = ";
-    /**
-     * SQL not equals token.
-     */
-    private static final String NOT_EQUALS_TOKEN = " <> ";
-    /**
-     * SQL greater than token.
-     */
-    private static final String GREATER_TOKEN = " > ";
-    /**
-     * SQL greater or equals token.
-     */
-    @SuppressWarnings("PMD.LongVariable")
-    private static final String GREATER_OR_EQUAL_TOKEN = " >= ";
-    /**
-     * SQL less than token.
-     */
-    private static final String LESS_TOKEN = " < ";
-    /**
-     * SQL less or equals token.
-     */
-    @SuppressWarnings("PMD.LongVariable")
-    private static final String LESS_OR_EQUAL_TOKEN = " <= ";
-    /**
-     * SQL like token.
-     */
-    private static final String LIKE_TOKEN = " LIKE ";
-    /**
-     * SQL not like token.
-     */
-    private static final String NOT_LIKE_TOKEN = " NOT LIKE ";
-    /**
-     * SQL in token.
-     */
-    private static final String IN_TOKEN = " IN ";
-    /**
-     * SQL not in token.
-     */
-    private static final String NOT_IN_TOKEN = " NOT IN ";
-    /**
-     * SQL is null token.
-     */
-    private static final String IS_NULL_TOKEN = " IS NULL ";
-    /**
-     * SQL is not null token.
-     */
-    private static final String IS_NOT_NULL_TOKEN = " IS NOT NULL ";
-    /**
-     * SQL between token.
-     */
-    private static final String BETWEEN_TOKEN = " BETWEEN ";
-    /**
-     * SQL not between token.
-     */
-    private static final String NOT_BETWEEN_TOKEN = " NOT BETWEEN ";
     /**
      * SQL named parameter prefix.
      */
-    private static final String PREFIX = ":";
+    static final String PREFIX = ":";
     /**
      * SQL and token.
      */
-    private static final String AND_TOKEN = " AND ";
+    static final String AND_TOKEN = " AND ";
     /**
      * SQL or token.
      */
-    private static final String OR_TOKEN = " OR ";
+    static final String OR_TOKEN = " OR ";
     /**
      * SQL lower token.
      */
-    private static final String LOWER_TOKEN = "LOWER";
+    static final String LOWER_TOKEN = "LOWER";
     /**
      * SQL left parenthesis.
      */
-    private static final String LEFT_PARENTHESIS = "(";
+    static final String LEFT_PARENTHESIS = "(";
     /**
      * SQL right parenthesis.
      */
-    private static final String RIGHT_PARENTHESIS = ")";
+    static final String RIGHT_PARENTHESIS = ")";
     /**
      * SQL percentage sign.
      */
-    private static final String PERCENTAGE_SIGN = "%";
+    static final String PERCENTAGE_SIGN = "%";
     /**
      * Empty String.
      */
-    private static final String EMPTY_STRING = "";
+    static final String EMPTY_STRING = "";
+    /**
+     * Suffix of the parameter name of the upper bound of a prefix range.
+     */
+    private static final String NEXT_SUFFIX = "Next";
+    /**
+     * Shared filter that does not perform any operation, it does not have
+     * state.
+     */
+    private static final Filter NONE = new None();
 
     /**
      * Utility class, do not create instances, instead use static methods.
@@ -127,7 +78,7 @@ public final class FilterFactory {
     public static Filter equal(String columnName, String paramName, Object value) {
         return isNullOrEmpty(value)
                 ? none()
-                : single(columnName, EQUALS_TOKEN, paramName, value);
+                : single(columnName, Operator.EQUAL, paramName, value);
     }
 
     /**
@@ -148,7 +99,7 @@ public final class FilterFactory {
     public static Filter notEqual(String columnName, String paramName, Object value) {
         return isNullOrEmpty(value)
                 ? none()
-                : single(columnName, NOT_EQUALS_TOKEN, paramName, value);
+                : single(columnName, Operator.NOT_EQUAL, paramName, value);
     }
 
     /**
@@ -168,7 +119,7 @@ public final class FilterFactory {
     public static Filter greater(String columnName, String paramName, Object value) {
         return isNullOrEmpty(value)
                 ? none()
-                : single(columnName, GREATER_TOKEN, paramName, value);
+                : single(columnName, Operator.GREATER, paramName, value);
     }
 
     /**
@@ -188,7 +139,7 @@ public final class FilterFactory {
     public static Filter greaterOrEqual(String columnName, String paramName, Object value) {
         return isNullOrEmpty(value)
                 ? none()
-                : single(columnName, GREATER_OR_EQUAL_TOKEN, paramName, value);
+                : single(columnName, Operator.GREATER_OR_EQUAL, paramName, value);
     }
 
     /**
@@ -208,7 +159,7 @@ public final class FilterFactory {
     public static Filter less(String columnName, String paramName, Object value) {
         return isNullOrEmpty(value)
                 ? none()
-                : single(columnName, LESS_TOKEN, paramName, value);
+                : single(columnName, Operator.LESS, paramName, value);
     }
 
     /**
@@ -228,7 +179,7 @@ public final class FilterFactory {
     public static Filter lessOrEqual(String columnName, String paramName, Object value) {
         return isNullOrEmpty(value)
                 ? none()
-                : single(columnName, LESS_OR_EQUAL_TOKEN, paramName, value);
+                : single(columnName, Operator.LESS_OR_EQUAL, paramName, value);
     }
 
     /**
@@ -248,7 +199,7 @@ public final class FilterFactory {
     public static Filter like(String columnName, String paramName, String value) {
         return isNullOrEmpty(value)
                 ? none()
-                : text(columnName, LIKE_TOKEN, paramName, value, true, true, true);
+                : text(columnName, Operator.LIKE, paramName, value, true, true, true);
     }
 
     /**
@@ -269,7 +220,7 @@ public final class FilterFactory {
     public static Filter likeCaseSensitive(String columnName, String paramName, String value) {
         return isNullOrEmpty(value)
                 ? none()
-                : text(columnName, LIKE_TOKEN, paramName, value, true, true, false);
+                : text(columnName, Operator.LIKE, paramName, value, true, true, false);
     }
 
     /**
@@ -290,7 +241,7 @@ public final class FilterFactory {
     public static Filter notLike(String columnName, String paramName, String value) {
         return isNullOrEmpty(value)
                 ? none()
-                : text(columnName, NOT_LIKE_TOKEN, paramName, value, true, true, true);
+                : text(columnName, Operator.NOT_LIKE, paramName, value, true, true, true);
     }
 
     /**
@@ -311,7 +262,7 @@ public final class FilterFactory {
     public static Filter notLikeCaseSensitive(String columnName, String paramName, String value) {
         return isNullOrEmpty(value)
                 ? none()
-                : text(columnName, NOT_LIKE_TOKEN, paramName, value, true, true, false);
+                : text(columnName, Operator.NOT_LIKE, paramName, value, true, true, false);
     }
 
     /**
@@ -332,7 +283,7 @@ public final class FilterFactory {
     public static Filter startsWith(String columnName, String paramName, String value) {
         return isNullOrEmpty(value)
                 ? none()
-                : text(columnName, LIKE_TOKEN, paramName, value, false, true, true);
+                : text(columnName, Operator.LIKE, paramName, value, false, true, true);
     }
 
     /**
@@ -353,7 +304,7 @@ public final class FilterFactory {
     public static Filter startsWithCaseSensitive(String columnName, String paramName, String value) {
         return isNullOrEmpty(value)
                 ? none()
-                : text(columnName, LIKE_TOKEN, paramName, value, false, true, false);
+                : text(columnName, Operator.LIKE, paramName, value, false, true, false);
     }
 
     /**
@@ -374,7 +325,7 @@ public final class FilterFactory {
     public static Filter endsWith(String columnName, String paramName, String value) {
         return isNullOrEmpty(value)
                 ? none()
-                : text(columnName, LIKE_TOKEN, paramName, value, true, false, true);
+                : text(columnName, Operator.LIKE, paramName, value, true, false, true);
     }
 
     /**
@@ -395,7 +346,133 @@ public final class FilterFactory {
     public static Filter endsWithCaseSensitive(String columnName, String paramName, String value) {
         return isNullOrEmpty(value)
                 ? none()
-                : text(columnName, LIKE_TOKEN, paramName, value, true, false, false);
+                : text(columnName, Operator.LIKE, paramName, value, true, false, false);
+    }
+
+    /**
+     * Create a filter that matches the beginning of a text as a range, so the
+     * database can use an index range scan of the column.
+     * <p>
+     * For example: {@code startsWithRange("item.sku","sku","AB-12")} will
+     * generate the following sql:
+     * {@code item.sku >= :sku AND item.sku < :skuNext} and put in the
+     * parameters the following key/values: {@code map.put("sku","AB-12");} and
+     * {@code map.put("skuNext","AB-13");}, the upper bound is the text with
+     * its last code point incremented. The column must be compared by code
+     * point, like a binary collation or the {@code "C"} collation of
+     * PostgreSQL, otherwise use {@link #startsWithCaseSensitive(String, String, String)}.
+     *
+     * @param columnName column name
+     * @param paramName parameter name
+     * @param value parameter value
+     * @return filter with a range of texts
+     * @throws NullPointerException if {@code columnName} or {@code paramName}
+     * are {@code null}
+     * @since 1.1.0
+     */
+    public static Filter startsWithRange(String columnName, String paramName, String value) {
+        return isNullOrEmpty(value)
+                ? none()
+                : prefix(columnName, paramName, value);
+    }
+
+    /**
+     * Create a filter that matches the beginning of a text as a range, case
+     * insensitive, against a column that already has the lower case text,
+     * like a generated column or a column with a case insensitive collation,
+     * so the column is not wrapped by {@code LOWER} and the database can use
+     * its index.
+     * <p>
+     * For example: {@code startsWithRangeIgnoreCase("item.sku_lower","sku","AB-12")}
+     * will generate the following sql:
+     * {@code item.sku_lower >= :sku AND item.sku_lower < :skuNext} and put in
+     * the parameters the following key/values: {@code map.put("sku","ab-12");}
+     * and {@code map.put("skuNext","ab-13");}.
+     *
+     * @param lowerCaseColumnName name of the lower case column
+     * @param paramName parameter name
+     * @param value parameter value
+     * @return filter with a range of texts
+     * @throws NullPointerException if {@code lowerCaseColumnName} or
+     * {@code paramName} are {@code null}
+     * @since 1.1.0
+     */
+    public static Filter startsWithRangeIgnoreCase(String lowerCaseColumnName, String paramName, String value) {
+        return isNullOrEmpty(value)
+                ? none()
+                : prefix(lowerCaseColumnName, paramName, value.toLowerCase());
+    }
+
+    /**
+     * Create a filter that searches words in one or more columns with the full
+     * text search of the {@link Filterable#dialect()}, so a "search anything"
+     * box can use a full text index instead of {@code LIKE '%...%'}.
+     * <p>
+     * For example:
+     * {@code fullText(Arrays.asList("book.title","book.summary"),"terms","vampire count")}
+     * will generate the following sql:
+     * <ul>
+     * <li>PostgreSQL:
+     * {@code to_tsvector('simple', coalesce(book.title, '') || ' ' || coalesce(book.summary, '')) @@ plainto_tsquery('simple', :terms)},
+     * the expression index must be the same, a single column is not wrapped
+     * by {@code coalesce};</li>
+     * <li>MySQL: {@code MATCH (book.title, book.summary) AGAINST (:terms)},
+     * with a {@code FULLTEXT} index of the same columns;</li>
+     * <li>other dialects:
+     * {@code (LOWER(book.title) LIKE :terms OR LOWER(book.summary) LIKE :terms)},
+     * see {@link #like(String, String, String)}.</li>
+     * </ul>
+     * and put in the parameters the following key/value:
+     * {@code map.put("terms","vampire count");}, or
+     * {@code map.put("terms","%vampire count%");} when {@code like} is used.
+     *
+     * @param columnNames column names
+     * @param paramName parameter name
+     * @param terms words to search
+     * @return full text search filter
+     * @throws NullPointerException if {@code columnNames}, a column name or
+     * {@code paramName} are {@code null}
+     * @throws IllegalArgumentException if {@code columnNames} is empty
+     * @since 1.1.0
+     */
+    public static Filter fullText(Collection<String> columnNames, String paramName, String terms) {
+        return isNullOrEmpty(terms) || terms.trim().isEmpty()
+                ? none()
+                : fullText(columnNames, paramName, terms, null, null);
+    }
+
+    /**
+     * Create a filter that searches words in one or more columns with the full
+     * text search of the {@link Filterable#dialect()}, like
+     * {@link #fullText(Collection, String, String)}, with the table of the
+     * native full text index of H2.
+     * <p>
+     * For example:
+     * {@code fullText("BOOK","book.id",Arrays.asList("book.title","book.summary"),"terms","vampire")}
+     * will generate the following sql on H2:
+     * {@code book.id IN (SELECT FT.KEYS[1] FROM FT_SEARCH_DATA(:terms, 0, 0) FT WHERE FT."TABLE" = 'BOOK')},
+     * the table must have a full text index created with
+     * {@code FT_CREATE_INDEX}.
+     *
+     * @param tableName table name of the full text index, as stored by H2
+     * @param keyColumnName primary key column of the table
+     * @param columnNames column names
+     * @param paramName parameter name
+     * @param terms words to search
+     * @return full text search filter
+     * @throws NullPointerException if {@code tableName},
+     * {@code keyColumnName}, {@code columnNames}, a column name or
+     * {@code paramName} are {@code null}
+     * @throws IllegalArgumentException if {@code columnNames} is empty
+     * @since 1.1.0
+     */
+    public static Filter fullText(String tableName, String keyColumnName, Collection<String> columnNames,
+            String paramName, String terms) {
+        required(tableName, "tableName");
+        required(keyColumnName, "keyColumnName");
+        return isNullOrEmpty(terms) || terms.trim().isEmpty()
+                ? none()
+                : fullText(columnNames, paramName, terms, tableName, keyColumnName);
     }
 
     /**
@@ -419,7 +496,7 @@ public final class FilterFactory {
     public static <T> Filter in(String columnName, String paramName, Collection<? extends T> values) {
         return isNullOrEmpty(values)
                 ? none()
-                : single(columnName, IN_TOKEN, paramName, values);
+                : single(columnName, Operator.IN, paramName, values);
     }
 
     /**
@@ -442,7 +519,7 @@ public final class FilterFactory {
     public static <T> Filter notIn(String columnName, String paramName, Collection<? extends T> values) {
         return isNullOrEmpty(values)
                 ? none()
-                : single(columnName, NOT_IN_TOKEN, paramName, values);
+                : single(columnName, Operator.NOT_IN, paramName, values);
     }
 
     /**
@@ -460,7 +537,7 @@ public final class FilterFactory {
     public static Filter isNull(String columnName, boolean apply) {
         required(columnName, "columnName");
         return apply
-                ? (query, parameters) -> query.append(columnName).append(IS_NULL_TOKEN)
+                ? new NullCheck(columnName, Operator.IS_NULL)
                 : none();
     }
 
@@ -479,7 +556,7 @@ public final class FilterFactory {
     public static Filter isNotNull(String columnName, boolean apply) {
         required(columnName, "columnName");
         return apply
-                ? (query, parameters) -> query.append(columnName).append(IS_NOT_NULL_TOKEN)
+                ? new NullCheck(columnName, Operator.IS_NOT_NULL)
                 : none();
     }
 
@@ -506,7 +583,7 @@ public final class FilterFactory {
     public static <T> Filter between(String columnName, String leftParamName, String rightParamName, T leftValue, T rightValue) {
         return isNullOrEmpty(leftValue) || isNullOrEmpty(rightValue)
                 ? none()
-                : pair(columnName, BETWEEN_TOKEN, leftParamName, rightParamName, leftValue, rightValue);
+                : pair(columnName, Operator.BETWEEN, leftParamName, rightParamName, leftValue, rightValue);
     }
 
     /**
@@ -532,7 +609,7 @@ public final class FilterFactory {
     public static <T> Filter notBetween(String columnName, String leftParamName, String rightParamName, T leftValue, T rightValue) {
         return isNullOrEmpty(leftValue) || isNullOrEmpty(rightValue)
                 ? none()
-                : pair(columnName, NOT_BETWEEN_TOKEN, leftParamName, rightParamName, leftValue, rightValue);
+                : pair(columnName, Operator.NOT_BETWEEN, leftParamName, rightParamName, leftValue, rightValue);
     }
 
     /**
@@ -616,7 +693,7 @@ public final class FilterFactory {
         required(paramName, "paramName");
         return isNullOrEmpty(value)
                 ? none()
-                : (query, parameters) -> parameters.put(paramName, value);
+                : new Literal(null, paramName, value);
     }
 
     /**
@@ -636,10 +713,7 @@ public final class FilterFactory {
         required(paramName, "paramName");
         return isNullOrEmpty(value)
                 ? none()
-                : (query, parameters) -> {
-                    query.append(literal);
-                    parameters.put(paramName, value);
-                };
+                : new Literal(literal, paramName, value);
     }
 
     /**
@@ -676,7 +750,7 @@ public final class FilterFactory {
      * @param message detail message to be used in the event that a
      * {@code NullPointerException} is thrown
      */
-    private static void required(String parameter, String message) {
+    static void required(String parameter, String message) {
         if (parameter == null || parameter.trim().isEmpty()) {
             throw new NullPointerException(String.format("%s must not be null or empty", message));
         }
@@ -686,10 +760,11 @@ public final class FilterFactory {
      * Filter that does not perform any operation. It does not concatenate
      * anything to the query and does not add any parameters.
      *
-     * @return filter that does not perform any operation
+     * @return filter that does not perform any operation, always the same
+     * instance
      */
     public static Filter none() {
-        return new None();
+        return NONE;
     }
 
     /**
@@ -721,6 +796,16 @@ public final class FilterFactory {
         public void apply(StringBuilder query, Map<String, Object> parameters) {
             //Do not perform any operation
         }
+
+        /**
+         * Do not perform any operation.
+         *
+         * @param context render context
+         */
+        @Override
+        public void render(RenderContext context) {
+            //Do not perform any operation
+        }
     }
 
     /**
@@ -734,16 +819,10 @@ public final class FilterFactory {
      * @throws NullPointerException if {@code columnName} or {@code paramName}
      * are {@code null}
      */
-    private static Filter single(String columnName, String operator, String paramName, Object value) {
+    private static Filter single(String columnName, Operator operator, String paramName, Object value) {
         required(columnName, "columnName");
         required(paramName, "paramName");
-        return (query, parameters) -> {
-            query.append(columnName);
-            query.append(operator);
-            query.append(PREFIX);
-            query.append(paramName);
-            parameters.put(paramName, value);
-        };
+        return new Comparison(columnName, operator, paramName, value);
     }
 
     /**
@@ -761,27 +840,85 @@ public final class FilterFactory {
      * @throws NullPointerException if {@code columnName} or {@code paramName}
      * are {@code null}
      */
-    private static Filter text(String columnName, String operator, String paramName, String value, boolean left, boolean right, boolean ignoreCase) {
+    private static Filter text(String columnName, Operator operator, String paramName, String value, boolean left, boolean right, boolean ignoreCase) {
         required(columnName, "columnName");
         required(paramName, "paramName");
-        return (query, parameters) -> {
-            if (ignoreCase) {
-                query.append(LOWER_TOKEN);
-                query.append(LEFT_PARENTHESIS);
-            }
-            query.append(columnName);
-            if (ignoreCase) {
-                query.append(RIGHT_PARENTHESIS);
+        return new Match(columnName, operator, paramName, value, left, right, ignoreCase);
+    }
+
+    /**
+     * Create a filter with the range of the texts that start with a prefix.
+     *
+     * @param columnName column name
+     * @param paramName parameter name
+     * @param prefix prefix
+     * @return filter with a range of texts, without upper bound when the
+     * prefix has only the maximum code point
+     * @throws NullPointerException if {@code columnName} or {@code paramName}
+     * are {@code null}
+     */
+    private static Filter prefix(String columnName, String paramName, String prefix) {
+        required(columnName, "columnName");
+        required(paramName, "paramName");
+        return and(
+                greaterOrEqual(columnName, paramName, prefix),
+                less(columnName, paramName + NEXT_SUFFIX, next(prefix))
+        );
+    }
+
+    /**
+     * Smallest text greater than all the texts that start with a prefix: the
+     * prefix with its last code point incremented, removing the trailing
+     * maximum code points.
+     *
+     * @param prefix prefix
+     * @return next text, or {@code null} if the prefix has only the maximum
+     * code point
+     */
+    static String next(String prefix) {
+        int end = prefix.length();
+        while (end > 0) {
+            int codePoint = prefix.codePointBefore(end);
+            end -= Character.charCount(codePoint);
+            if (codePoint < Character.MAX_CODE_POINT) {
+                int next = codePoint + 1;
+                if (next >= Character.MIN_SURROGATE && next <= Character.MAX_SURROGATE) {
+                    next = Character.MAX_SURROGATE + 1;
+                }
+                return new StringBuilder(end + 2).append(prefix, 0, end).appendCodePoint(next).toString();
             }
-            query.append(operator);
-            query.append(PREFIX);
-            query.append(paramName);
-            String preparedValue
-                    = (left ? PERCENTAGE_SIGN : EMPTY_STRING)
-                    + (ignoreCase ? value.toLowerCase() : value)
-                    + (right ? PERCENTAGE_SIGN : EMPTY_STRING);
-            parameters.put(paramName, preparedValue);
-        };
+        }
+        return null;
+    }
+
+    /**
+     * Create a full text search filter.
+     *
+     * @param columnNames column names
+     * @param paramName parameter name
+     * @param terms words to search
+     * @param tableName table name of the H2 full text index, {@code null} if
+     * unknown
+     * @param keyColumnName primary key column of the H2 full text index,
+     * {@code null} if unknown
+     * @return full text search filter
+     * @throws NullPointerException if {@code columnNames}, a column name or
+     * {@code paramName} are {@code null}
+     * @throws IllegalArgumentException if {@code columnNames} is empty
+     */
+    private static Filter fullText(Collection<String> columnNames, String paramName, String terms,
+            String tableName, String keyColumnName) {
+        if (columnNames == null) {
+            throw new NullPointerException("columnNames must not be null");
+        }
+        if (columnNames.isEmpty()) {
+            throw new IllegalArgumentException("columnNames must not be empty");
+        }
+        for (String columnName : columnNames) {
+            required(columnName, "columnName");
+        }
+        required(paramName, "paramName");
+        return new FullText(columnNames.toArray(new String[0]), paramName, terms, tableName, keyColumnName);
     }
 
     /**
@@ -797,21 +934,11 @@ public final class FilterFactory {
      * @throws NullPointerException if {@code columnName}, {@code leftParamName}
      * or {@code rightParamName} are {@code null}
      */
-    private static Filter pair(String columnName, String operator, String leftParamName, String rightParamName, Object leftValue, Object rightValue) {
+    private static Filter pair(String columnName, Operator operator, String leftParamName, String rightParamName, Object leftValue, Object rightValue) {
         required(columnName, "columnName");
         required(leftParamName, "leftParamName");
         required(rightParamName, "rightParamName");
-        return (query, parameters) -> {
-            query.append(columnName);
-            query.append(operator);
-            query.append(PREFIX);
-            query.append(leftParamName);
-            query.append(AND_TOKEN);
-            query.append(PREFIX);
-            query.append(rightParamName);
-            parameters.put(leftParamName, leftValue);
-            parameters.put(rightParamName, rightValue);
-        };
+        return new Range(columnName, operator, leftParamName, rightParamName, leftValue, rightValue);
     }
 
     /**
@@ -820,7 +947,7 @@ public final class FilterFactory {
      * @author Herman Barrantes
      * @since 1.0.0
      */
-    private static final class Logical implements Filter {
+    static final class Logical implements Filter {
 
         /**
          * Logical operator.
@@ -830,6 +957,11 @@ public final class FilterFactory {
          * Array of Filters.
          */
         private final Filter[] filters;
+        /**
+         * Indicates whether all the filters are known to be applicable, so
+         * they are not checked again.
+         */
+        private final boolean applicable;
 
         /**
          * Create a filter with multiple filters using a logical operator.
@@ -838,8 +970,7 @@ public final class FilterFactory {
          * @param filters array of filters
          */
         private Logical(String operator, Filter... filters) {
-            this.operator = operator;
-            this.filters = filters;
+            this(operator, filters, false);
         }
 
         /**
@@ -849,8 +980,54 @@ public final class FilterFactory {
          * @param filters collection of filters
          */
         private Logical(String operator, Collection<? extends Filter> filters) {
+            this(operator, filters.toArray(new Filter[0]), false);
+        }
+
+        /**
+         * Create a filter with multiple filters using a logical operator.
+         *
+         * @param operator logical operator
+         * @param filters array of filters
+         * @param applicable indicates whether all the filters are known to be
+         * applicable
+         */
+        private Logical(String operator, Filter[] filters, boolean applicable) {
             this.operator = operator;
-            this.filters = filters.toArray(new Filter[0]);
+            this.filters = filters;
+            this.applicable = applicable;
+        }
+
+        /**
+         * Create a filter with multiple filters that are known to be
+         * applicable, they are not checked again when the filter is applied.
+         *
+         * @param conjunction {@code true} to use the logical operator "and",
+         * {@code false} to use "or"
+         * @param filters array of applicable filters
+         * @return filter that joins the filters
+         */
+        static Logical applicable(boolean conjunction, Filter[] filters) {
+            return new Logical(conjunction ? AND_TOKEN : OR_TOKEN, filters, true);
+        }
+
+        /**
+         * Indicates whether the filters are joined using the logical operator
+         * "and".
+         *
+         * @return {@code true} if the logical operator is "and", {@code false}
+         * if it is "or"
+         */
+        boolean isConjunction() {
+            return AND_TOKEN.equals(operator);
+        }
+
+        /**
+         * Filters joined by the logical operator.
+         *
+         * @return array of filters
+         */
+        Filter[] filters() {
+            return filters;
         }
 
         /**
@@ -861,6 +1038,9 @@ public final class FilterFactory {
          */
         @Override
         public boolean canApply() {
+            if (applicable) {
+                return true;
+            }
             for (Filter filter : filters) {
                 if (filter.canApply()) {
                     return true;
@@ -873,12 +1053,12 @@ public final class FilterFactory {
         public void apply(StringBuilder query, Map<String, Object> parameters) {
             boolean foundOne = false;
             for (Filter filter : filters) {
-                if (filter.canApply()) {
+                if (applicable || filter.canApply()) {
                     if (foundOne) {
                         query.append(operator);
                     }
                     foundOne = true;
-                    boolean parenthesis = filter instanceof Logical;
+                    boolean parenthesis = needsParenthesis(filter);
                     if (parenthesis) {
                         query.append(LEFT_PARENTHESIS);
                     }
@@ -890,6 +1070,40 @@ public final class FilterFactory {
             }
         }
 
+        @Override
+        public void render(RenderContext context) {
+            boolean foundOne = false;
+            for (Filter filter : filters) {
+                if (applicable || filter.canApply()) {
+                    if (foundOne) {
+                        context.append(operator);
+                    }
+                    foundOne = true;
+                    boolean parenthesis = needsParenthesis(filter);
+                    if (parenthesis) {
+                        context.append(LEFT_PARENTHESIS);
+                    }
+                    filter.render(context);
+                    if (parenthesis) {
+                        context.append(RIGHT_PARENTHESIS);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Indicates whether a filter joins several filters and must be
+         * enclosed in parenthesis.
+         *
+         * @param filter filter
+         * @return {@code true} if the filter must be enclosed in parenthesis
+         */
+        static boolean needsParenthesis(Filter filter) {
+            return filter instanceof Logical
+                    || filter instanceof FilterTemplate.Binding
+                    && ((FilterTemplate.Binding) filter).isLogical();
+        }
+
     }
 
 }
@@ -0,0 +1,195 @@
+package org.habv.maracuya;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Optimizer of filter trees.
+ * <p>
+ * The optimized tree renders an equivalent query with a single walk:
+ * <ul>
+ * <li>the filters that can not be applied are removed;</li>
+ * <li>nested filters with the same logical operator are flattened, for
+ * example {@code and(a, and(b, c))} becomes {@code and(a, b, c)};</li>
+ * <li>a logical filter with a single filter is replaced by that filter;</li>
+ * <li>a tree without applicable filters is replaced by
+ * {@link FilterFactory#none()};</li>
+ * <li>the logical filters remember that all their filters are applicable, so
+ * {@link Filter#canApply()} is not called again when the query is
+ * rendered.</li>
+ * </ul>
+ * The applicability of every filter is checked once, when the tree is
+ * optimized, so the filters must not change after that, for example the
+ * values of a {@link FilterTemplate.Binding}. For example:
+ * <pre>{@code public Filter filter() {
+ *     return FilterOptimizer.optimize(and(
+ *         equal("book.isbn", "isbn", isbn),
+ *         or(...)
+ *     ));
+ *}}</pre>
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public final class FilterOptimizer {
+
+    /**
+     * Utility class, do not create instances, instead use static methods.
+     */
+    private FilterOptimizer() {
+        throw new RuntimeException("do not create instances, instead use static methods");
+    }
+
+    /**
+     * Optimize a filter tree.
+     *
+     * @param filter filter tree
+     * @return optimized filter tree, it can be the same filter
+     * @throws NullPointerException if {@code filter} is {@code null}
+     */
+    public static Filter optimize(Filter filter) {
+        if (filter == null) {
+            throw new NullPointerException("filter must not be null");
+        }
+        return prune(filter);
+    }
+
+    /**
+     * Optimize a filter tree and merge the filters of the same column joined
+     * by the same logical filter, so the query is shorter and has fewer
+     * parameters:
+     * <ul>
+     * <li>with "and", the tightest lower and upper bounds are kept, for
+     * example {@code and(greater("price",5), greater("price",3))} becomes
+     * {@code greater("price",5)}, and {@code between} is combined with
+     * {@code greater}, {@code less} and their variants;</li>
+     * <li>with "and", the collections of {@code in} are intersected and
+     * filtered by the bounds, and an {@code equal} that satisfies the other
+     * filters replaces them;</li>
+     * <li>with "or", the loosest bound is kept, and the values of
+     * {@code equal} and {@code in} are joined in a single {@code in}, so
+     * {@code or(equal("status","s1","A"), equal("status","s2","B"))} becomes
+     * {@code status IN :s1} with the collection {@code [A, B]};</li>
+     * <li>with "and", the values of {@code notEqual} and {@code notIn} are
+     * joined in a single {@code notIn}.</li>
+     * </ul>
+     * Only the filters of {@link FilterFactory} are merged, and only when
+     * their values are {@code Comparable} of the same class. The bounds, and
+     * the {@code equal} and {@code in} filters joined by "and", are merged
+     * only for numbers, booleans, dates and times, because the database
+     * compares the strings with its collation, see
+     * {@link #simplify(Filter, Comparator)}. Contradictory filters are kept as
+     * they are.
+     *
+     * @param filter filter tree
+     * @return simplified filter tree, it can be the same filter
+     * @throws NullPointerException if {@code filter} is {@code null}
+     */
+    public static Filter simplify(Filter filter) {
+        return prune(Simplifier.simplify(optimize(filter), null));
+    }
+
+    /**
+     * Optimize a filter tree and merge the filters of the same column like
+     * {@link #simplify(Filter)}, also the filters of strings, compared with
+     * the collation of the database. For example
+     * {@code String.CASE_INSENSITIVE_ORDER} for a collation that ignores the
+     * case, or {@code Comparator.naturalOrder()} for a binary collation:
+     * <pre>{@code Filter filter = FilterOptimizer.simplify(search.filter(), Comparator.naturalOrder());}</pre>
+     * The collation must order and compare the strings exactly like the
+     * database, otherwise the merged filters may return other rows.
+     *
+     * @param filter filter tree
+     * @param collation order of the strings in the database
+     * @return simplified filter tree, it can be the same filter
+     * @throws NullPointerException if {@code filter} or {@code collation} is
+     * {@code null}
+     */
+    public static Filter simplify(Filter filter, Comparator<? super String> collation) {
+        if (collation == null) {
+            throw new NullPointerException("collation must not be null");
+        }
+        return prune(Simplifier.simplify(optimize(filter), collation));
+    }
+
+    /**
+     * Indicates whether a filter tree can not be satisfied by any row, so the
+     * query is known to return an empty result without executing it. For
+     * example {@code and(equal("a",1), equal("a",2))}, {@code in} filters of
+     * the same column without common values, or a {@code between} with the
+     * left value greater than the right value.
+     * <p>
+     * The same filters of {@link #simplify(Filter)} are analyzed, and only
+     * when their values are numbers, booleans, dates or times, because the
+     * database compares the strings with its collation, for example
+     * {@code equal("a","X")} and {@code equal("a","x")} are the same value
+     * when the collation ignores the case, see
+     * {@link #isUnsatisfiable(Filter, Comparator)}. Other filters are assumed
+     * to be satisfiable.
+     *
+     * @param filter filter tree
+     * @return {@code true} if the filter is known to be unsatisfiable,
+     * {@code false} if it may be satisfiable
+     * @throws NullPointerException if {@code filter} is {@code null}
+     * @see Filterable#applyIfSatisfiable(QueryFactory, ParameterSetter)
+     */
+    public static boolean isUnsatisfiable(Filter filter) {
+        return Simplifier.isUnsatisfiable(optimize(filter), null);
+    }
+
+    /**
+     * Indicates whether a filter tree can not be satisfied by any row like
+     * {@link #isUnsatisfiable(Filter)}, also analyzing the filters of
+     * strings, compared with the collation of the database, see
+     * {@link #simplify(Filter, Comparator)}.
+     *
+     * @param filter filter tree
+     * @param collation order of the strings in the database
+     * @return {@code true} if the filter is known to be unsatisfiable,
+     * {@code false} if it may be satisfiable
+     * @throws NullPointerException if {@code filter} or {@code collation} is
+     * {@code null}
+     */
+    public static boolean isUnsatisfiable(Filter filter, Comparator<? super String> collation) {
+        if (collation == null) {
+            throw new NullPointerException("collation must not be null");
+        }
+        return Simplifier.isUnsatisfiable(optimize(filter), collation);
+    }
+
+    /**
+     * Remove the filters that can not be applied and flatten the logical
+     * filters.
+     *
+     * @param filter filter
+     * @return pruned filter, or {@link FilterFactory#none()} if it can not be
+     * applied
+     */
+    private static Filter prune(Filter filter) {
+        if (!(filter instanceof FilterFactory.Logical)) {
+            return filter.canApply() ? filter : FilterFactory.none();
+        }
+        FilterFactory.Logical logical = (FilterFactory.Logical) filter;
+        boolean conjunction = logical.isConjunction();
+        List<Filter> children = new ArrayList<>();
+        for (Filter child : logical.filters()) {
+            Filter pruned = prune(child);
+            if (pruned instanceof FilterFactory.Logical
+                    && ((FilterFactory.Logical) pruned).isConjunction() == conjunction) {
+                for (Filter grandchild : ((FilterFactory.Logical) pruned).filters()) {
+                    children.add(grandchild);
+                }
+            } else if (pruned != FilterFactory.none()) {
+                children.add(pruned);
+            }
+        }
+        if (children.isEmpty()) {
+            return FilterFactory.none();
+        }
+        if (children.size() == 1) {
+            return children.get(0);
+        }
+        return FilterFactory.Logical.applicable(conjunction, children.toArray(new Filter[0]));
+    }
+}
@@ -0,0 +1,846 @@
+package org.habv.maracuya;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable filter definition compiled once, with value slots that are bound
+ * per request.
+ * <p>
+ * The SQL fragment of every leaf is computed when the template is created, so
+ * rendering a bound template only appends those fragments and stores the
+ * bound values, it does not concatenate strings or create lambdas. The
+ * {@code in} lists and the case insensitive matches are rendered like their
+ * filters, by the {@link InListPolicy} and the {@link Dialect} of the render
+ * context. Templates
+ * are thread safe and are meant to be kept in static fields, for example:
+ * <pre>{@code private static final FilterTemplate TEMPLATE = and(
+ *     equal("book.isbn", "isbn"),
+ *     like("book.title", "title")
+ * );
+ *
+ *public Filter filter() {
+ *     return TEMPLATE.bind()
+ *             .set("isbn", isbn)
+ *             .set("title", title);
+ *}}</pre>
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ * @see TemplateFactory
+ */
+public final class FilterTemplate {
+
+    /**
+     * Root node of the template.
+     */
+    private final Node root;
+    /**
+     * Slot names.
+     */
+    private final String[] names;
+    /**
+     * Text patterns of the slots, {@code null} when the slot is not a text.
+     */
+    private final TextPattern[] patterns;
+    /**
+     * Slot indexes by name.
+     */
+    private final Map<String, Integer> indexes;
+
+    /**
+     * Create a template.
+     *
+     * @param root root node
+     * @param names slot names
+     * @param patterns text patterns of the slots
+     */
+    private FilterTemplate(Node root, String[] names, TextPattern[] patterns) {
+        this.root = root;
+        this.names = names;
+        this.patterns = patterns;
+        this.indexes = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            indexes.put(names[i], i);
+        }
+    }
+
+    /**
+     * Create a binding of values for this template.
+     *
+     * @return binding without values
+     */
+    public Binding bind() {
+        return new Binding(this);
+    }
+
+    /**
+     * Names of the value slots of this template.
+     *
+     * @return unmodifiable list of slot names
+     */
+    public List<String> slots() {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    /**
+     * Create a template with a single value.
+     *
+     * @param columnName column name
+     * @param operator operator
+     * @param paramName parameter name
+     * @return template with a single value
+     */
+    static FilterTemplate single(String columnName, Operator operator, String paramName) {
+        Node node = operator == Operator.IN || operator == Operator.NOT_IN
+                ? new InList(columnName, operator, paramName, 0)
+                : new Leaf(columnName + operator.token() + FilterFactory.PREFIX + paramName,
+                        new int[]{0}, new String[]{paramName});
+        return new FilterTemplate(node, new String[]{paramName}, new TextPattern[1]);
+    }
+
+    /**
+     * Create a template with a single String value.
+     *
+     * @param columnName column name
+     * @param operator operator
+     * @param paramName parameter name
+     * @param left true to concatenate the percent sign at the beginning of the
+     * text
+     * @param right true to concatenate the percent sign at the end of the text
+     * @param ignoreCase true to be case insensitive
+     * @return template with a single String value
+     */
+    static FilterTemplate text(String columnName, Operator operator, String paramName, boolean left, boolean right, boolean ignoreCase) {
+        Node node = ignoreCase
+                ? new IgnoreCase(columnName, operator, paramName, 0)
+                : new Leaf(columnName + operator.token() + FilterFactory.PREFIX + paramName,
+                        new int[]{0}, new String[]{paramName});
+        return new FilterTemplate(node, new String[]{paramName},
+                new TextPattern[]{new TextPattern(left, right, ignoreCase)});
+    }
+
+    /**
+     * Create a template with a pair of values.
+     *
+     * @param columnName column name
+     * @param operator operator
+     * @param leftParamName left parameter name
+     * @param rightParamName right parameter name
+     * @return template with a pair of values
+     */
+    static FilterTemplate pair(String columnName, Operator operator, String leftParamName, String rightParamName) {
+        String fragment = columnName + operator.token()
+                + FilterFactory.PREFIX + leftParamName
+                + FilterFactory.AND_TOKEN
+                + FilterFactory.PREFIX + rightParamName;
+        String[] names = {leftParamName, rightParamName};
+        return new FilterTemplate(new Leaf(fragment, new int[]{0, 1}, names),
+                names, new TextPattern[2]);
+    }
+
+    /**
+     * Create a template without parameters that is applied when the value of
+     * its slot is {@code true}.
+     *
+     * @param columnName column name
+     * @param operator operator
+     * @param slotName slot name
+     * @return template without parameters
+     */
+    static FilterTemplate flag(String columnName, Operator operator, String slotName) {
+        return new FilterTemplate(new Flag(columnName + operator.token(), 0),
+                new String[]{slotName}, new TextPattern[1]);
+    }
+
+    /**
+     * Create a template with a specified statement and a parameter.
+     *
+     * @param literal literal query value
+     * @param paramName parameter name
+     * @return template with a specified statement and a parameter
+     */
+    static FilterTemplate literal(String literal, String paramName) {
+        return new FilterTemplate(new Leaf(literal, new int[]{0}, new String[]{paramName}),
+                new String[]{paramName}, new TextPattern[1]);
+    }
+
+    /**
+     * Create a template that joins several templates using a logical
+     * operator. The slots with the same name are shared.
+     *
+     * @param conjunction {@code true} to use the logical operator "and",
+     * {@code false} to use "or"
+     * @param templates templates to be joined
+     * @return template that joins several templates
+     * @throws IllegalArgumentException if a slot is shared by templates with
+     * different text patterns
+     */
+    static FilterTemplate logical(boolean conjunction, FilterTemplate... templates) {
+        List<String> names = new ArrayList<>();
+        List<TextPattern> patterns = new ArrayList<>();
+        Node[] children = new Node[templates.length];
+        for (int i = 0; i < templates.length; i++) {
+            FilterTemplate template = templates[i];
+            int[] mapping = new int[template.names.length];
+            for (int j = 0; j < mapping.length; j++) {
+                String name = template.names[j];
+                TextPattern pattern = template.patterns[j];
+                int index = names.indexOf(name);
+                if (index < 0) {
+                    index = names.size();
+                    names.add(name);
+                    patterns.add(pattern);
+                } else if (!Objects.equals(patterns.get(index), pattern)) {
+                    throw new IllegalArgumentException(String.format("slot %s is used with different text patterns", name));
+                }
+                mapping[j] = index;
+            }
+            children[i] = template.root.remap(mapping);
+        }
+        return new FilterTemplate(new Junction(conjunction, children),
+                names.toArray(new String[0]), patterns.toArray(new TextPattern[0]));
+    }
+
+    /**
+     * Values bound to the slots of a template for a single request. A binding
+     * is a filter that can be applied like any other filter. It is not thread
+     * safe.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    public static final class Binding implements Filter {
+
+        /**
+         * Template.
+         */
+        private final FilterTemplate template;
+        /**
+         * Values by slot index.
+         */
+        private final Object[] values;
+
+        /**
+         * Create a binding without values.
+         *
+         * @param template template
+         */
+        private Binding(FilterTemplate template) {
+            this.template = template;
+            this.values = new Object[template.names.length];
+        }
+
+        /**
+         * Bind a value to a slot. String values of text slots are prepared
+         * (lower case and percentage signs) when they are bound.
+         *
+         * @param name slot name
+         * @param value slot value, {@code null} or empty to not apply the
+         * filters that use the slot
+         * @return this binding
+         * @throws IllegalArgumentException if the template does not have a
+         * slot with that name
+         */
+        public Binding set(String name, Object value) {
+            Integer index = template.indexes.get(name);
+            if (index == null) {
+                throw new IllegalArgumentException(String.format("slot %s does not exist", name));
+            }
+            TextPattern pattern = template.patterns[index];
+            values[index] = pattern == null ? value : pattern.prepare(value);
+            return this;
+        }
+
+        /**
+         * Remove all the bound values, so the binding can be reused.
+         *
+         * @return this binding
+         */
+        public Binding clear() {
+            Arrays.fill(values, null);
+            return this;
+        }
+
+        @Override
+        public boolean canApply() {
+            return template.root.canApply(values);
+        }
+
+        @Override
+        public void apply(StringBuilder query, Map<String, Object> parameters) {
+            template.root.apply(values, query, parameters);
+        }
+
+        @Override
+        public void render(RenderContext context) {
+            template.root.render(values, context);
+        }
+
+        /**
+         * Indicates whether the template joins several templates using a
+         * logical operator.
+         *
+         * @return {@code true} if the root of the template is a logical node
+         */
+        boolean isLogical() {
+            return template.root instanceof Junction;
+        }
+
+        /**
+         * Encode the shape of the bound template.
+         *
+         * @param codes codes of the query shape
+         * @return {@code true} if the binding can be applied, {@code false}
+         * otherwise
+         */
+        boolean encode(QueryShape.Codes codes) {
+            codes.key(template);
+            return template.root.encode(values, codes);
+        }
+    }
+
+    /**
+     * Text pattern of a slot.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    private static final class TextPattern {
+
+        /**
+         * True to concatenate the percent sign at the beginning of the text.
+         */
+        private final boolean left;
+        /**
+         * True to concatenate the percent sign at the end of the text.
+         */
+        private final boolean right;
+        /**
+         * True to be case insensitive.
+         */
+        private final boolean ignoreCase;
+
+        /**
+         * Create a text pattern.
+         *
+         * @param left true to concatenate the percent sign at the beginning of
+         * the text
+         * @param right true to concatenate the percent sign at the end of the
+         * text
+         * @param ignoreCase true to be case insensitive
+         */
+        private TextPattern(boolean left, boolean right, boolean ignoreCase) {
+            this.left = left;
+            this.right = right;
+            this.ignoreCase = ignoreCase;
+        }
+
+        /**
+         * Prepare a value.
+         *
+         * @param value value
+         * @return prepared value, or the same value if it is not a non empty
+         * String
+         */
+        private Object prepare(Object value) {
+            if (!(value instanceof String) || FilterFactory.isNullOrEmpty(value)) {
+                return value;
+            }
+            String text = (String) value;
+            return (left ? FilterFactory.PERCENTAGE_SIGN : FilterFactory.EMPTY_STRING)
+                    + (ignoreCase ? text.toLowerCase() : text)
+                    + (right ? FilterFactory.PERCENTAGE_SIGN : FilterFactory.EMPTY_STRING);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(left, right, ignoreCase);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof TextPattern)) {
+                return false;
+            }
+            TextPattern other = (TextPattern) obj;
+            return left == other.left && right == other.right && ignoreCase == other.ignoreCase;
+        }
+    }
+
+    /**
+     * Compiled node of a template.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    private abstract static class Node {
+
+        /**
+         * Verify that the node can be applied.
+         *
+         * @param values values by slot index
+         * @return returns true when it can be applied, false otherwise
+         */
+        abstract boolean canApply(Object[] values);
+
+        /**
+         * Concatenates the node in the query and stores the parameter values.
+         *
+         * @param values values by slot index
+         * @param query query
+         * @param parameters parameter values
+         */
+        abstract void apply(Object[] values, StringBuilder query, Map<String, Object> parameters);
+
+        /**
+         * Concatenates the node in the render context and stores the
+         * parameter values.
+         *
+         * @param values values by slot index
+         * @param context render context
+         */
+        abstract void render(Object[] values, RenderContext context);
+
+        /**
+         * Create a copy of the node with other slot indexes.
+         *
+         * @param mapping new slot index by current slot index
+         * @return copy of the node
+         */
+        abstract Node remap(int[] mapping);
+
+        /**
+         * Encode the shape of the node.
+         *
+         * @param values values by slot index
+         * @param codes codes of the query shape
+         * @return returns true when it can be applied, false otherwise
+         */
+        boolean encode(Object[] values, QueryShape.Codes codes) {
+            boolean applicable = canApply(values);
+            codes.add(applicable ? QueryShape.APPLICABLE : QueryShape.NOT_APPLICABLE);
+            return applicable;
+        }
+    }
+
+    /**
+     * Node with a precomputed fragment and parameters.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    private static final class Leaf extends Node {
+
+        /**
+         * SQL fragment.
+         */
+        private final String fragment;
+        /**
+         * Slot indexes of the parameters.
+         */
+        private final int[] slots;
+        /**
+         * Parameter names.
+         */
+        private final String[] paramNames;
+        /**
+         * SQL fragment split at the placeholders of the parameters.
+         */
+        private final Fragment parts;
+
+        /**
+         * Create a leaf.
+         *
+         * @param fragment SQL fragment
+         * @param slots slot indexes of the parameters
+         * @param paramNames parameter names
+         */
+        private Leaf(String fragment, int[] slots, String[] paramNames) {
+            this(fragment, slots, paramNames, Fragment.parse(fragment, paramNames));
+        }
+
+        /**
+         * Create a leaf with an already split fragment.
+         *
+         * @param fragment SQL fragment
+         * @param slots slot indexes of the parameters
+         * @param paramNames parameter names
+         * @param parts SQL fragment split at the placeholders of the
+         * parameters
+         */
+        private Leaf(String fragment, int[] slots, String[] paramNames, Fragment parts) {
+            this.fragment = fragment;
+            this.slots = slots;
+            this.paramNames = paramNames;
+            this.parts = parts;
+        }
+
+        @Override
+        boolean canApply(Object[] values) {
+            for (int slot : slots) {
+                if (FilterFactory.isNullOrEmpty(values[slot])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        void apply(Object[] values, StringBuilder query, Map<String, Object> parameters) {
+            query.append(fragment);
+            for (int i = 0; i < slots.length; i++) {
+                parameters.put(paramNames[i], values[slots[i]]);
+            }
+        }
+
+        @Override
+        void render(Object[] values, RenderContext context) {
+            for (int i = 0; i < parts.placeholders(); i++) {
+                int param = parts.param(i);
+                context.append(parts.part(i));
+                context.placeholder(paramNames[param], values[slots[param]]);
+            }
+            context.append(parts.part(parts.placeholders()));
+            for (int i = 0; i < slots.length; i++) {
+                if (!parts.isPlaced(i)) {
+                    context.parameter(paramNames[i], values[slots[i]]);
+                }
+            }
+        }
+
+        @Override
+        Node remap(int[] mapping) {
+            int[] remapped = new int[slots.length];
+            for (int i = 0; i < slots.length; i++) {
+                remapped[i] = mapping[slots[i]];
+            }
+            return new Leaf(fragment, remapped, paramNames, parts);
+        }
+    }
+
+    /**
+     * Node that compares a column with a collection, rendered with the
+     * {@link InListPolicy} of the render context.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    private static final class InList extends Node {
+
+        /**
+         * Column name.
+         */
+        private final String columnName;
+        /**
+         * {@link Operator#IN} or {@link Operator#NOT_IN}.
+         */
+        private final Operator operator;
+        /**
+         * Parameter name.
+         */
+        private final String paramName;
+        /**
+         * Slot index.
+         */
+        private final int slot;
+
+        /**
+         * Create an in list.
+         *
+         * @param columnName column name
+         * @param operator {@link Operator#IN} or {@link Operator#NOT_IN}
+         * @param paramName parameter name
+         * @param slot slot index
+         */
+        private InList(String columnName, Operator operator, String paramName, int slot) {
+            this.columnName = columnName;
+            this.operator = operator;
+            this.paramName = paramName;
+            this.slot = slot;
+        }
+
+        @Override
+        boolean canApply(Object[] values) {
+            return !FilterFactory.isNullOrEmpty(values[slot]);
+        }
+
+        @Override
+        void apply(Object[] values, StringBuilder query, Map<String, Object> parameters) {
+            query.append(columnName);
+            query.append(operator.token());
+            query.append(FilterFactory.PREFIX);
+            query.append(paramName);
+            parameters.put(paramName, values[slot]);
+        }
+
+        @Override
+        void render(Object[] values, RenderContext context) {
+            Object value = values[slot];
+            if (value instanceof Collection) {
+                context.inListPolicy().render(context, columnName, operator, paramName, (Collection<?>) value);
+                return;
+            }
+            context.append(columnName);
+            context.append(operator.token());
+            context.placeholder(paramName, value);
+        }
+
+        @Override
+        Node remap(int[] mapping) {
+            return new InList(columnName, operator, paramName, mapping[slot]);
+        }
+
+        @Override
+        boolean encode(Object[] values, QueryShape.Codes codes) {
+            Object value = values[slot];
+            if (FilterFactory.isNullOrEmpty(value)) {
+                codes.add(QueryShape.NOT_APPLICABLE);
+                return false;
+            }
+            codes.add(value instanceof Collection
+                    ? codes.policy().code(((Collection<?>) value).size(), codes.dialect())
+                    : QueryShape.APPLICABLE);
+            return true;
+        }
+    }
+
+    /**
+     * Node with a case insensitive match of a column, rendered by the
+     * {@link Dialect} of the render context or with the lower case column of
+     * {@link RenderContext#lowerCaseColumn(String)}, like {@link Match}.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    private static final class IgnoreCase extends Node {
+
+        /**
+         * Column name.
+         */
+        private final String columnName;
+        /**
+         * {@link Operator#LIKE} or {@link Operator#NOT_LIKE}.
+         */
+        private final Operator operator;
+        /**
+         * Parameter name.
+         */
+        private final String paramName;
+        /**
+         * Slot index.
+         */
+        private final int slot;
+
+        /**
+         * Create a case insensitive match.
+         *
+         * @param columnName column name
+         * @param operator {@link Operator#LIKE} or {@link Operator#NOT_LIKE}
+         * @param paramName parameter name
+         * @param slot slot index
+         */
+        private IgnoreCase(String columnName, Operator operator, String paramName, int slot) {
+            this.columnName = columnName;
+            this.operator = operator;
+            this.paramName = paramName;
+            this.slot = slot;
+        }
+
+        @Override
+        boolean canApply(Object[] values) {
+            return !FilterFactory.isNullOrEmpty(values[slot]);
+        }
+
+        @Override
+        void apply(Object[] values, StringBuilder query, Map<String, Object> parameters) {
+            query.append(FilterFactory.LOWER_TOKEN);
+            query.append(FilterFactory.LEFT_PARENTHESIS);
+            query.append(columnName);
+            query.append(FilterFactory.RIGHT_PARENTHESIS);
+            query.append(operator.token());
+            query.append(FilterFactory.PREFIX);
+            query.append(paramName);
+            parameters.put(paramName, values[slot]);
+        }
+
+        @Override
+        void render(Object[] values, RenderContext context) {
+            String lowerCaseColumn = context.lowerCaseColumn(columnName);
+            if (lowerCaseColumn != null) {
+                context.append(lowerCaseColumn);
+                context.append(operator.token());
+            } else {
+                context.dialect().renderIgnoreCase(context, columnName, operator);
+            }
+            context.placeholder(paramName, values[slot]);
+        }
+
+        @Override
+        Node remap(int[] mapping) {
+            return new IgnoreCase(columnName, operator, paramName, mapping[slot]);
+        }
+    }
+
+    /**
+     * Node without parameters that is applied when the value of its slot is
+     * {@code true}.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    private static final class Flag extends Node {
+
+        /**
+         * SQL fragment.
+         */
+        private final String fragment;
+        /**
+         * Slot index.
+         */
+        private final int slot;
+
+        /**
+         * Create a flag.
+         *
+         * @param fragment SQL fragment
+         * @param slot slot index
+         */
+        private Flag(String fragment, int slot) {
+            this.fragment = fragment;
+            this.slot = slot;
+        }
+
+        @Override
+        boolean canApply(Object[] values) {
+            return Boolean.TRUE.equals(values[slot]);
+        }
+
+        @Override
+        void apply(Object[] values, StringBuilder query, Map<String, Object> parameters) {
+            query.append(fragment);
+        }
+
+        @Override
+        void render(Object[] values, RenderContext context) {
+            context.append(fragment);
+        }
+
+        @Override
+        Node remap(int[] mapping) {
+            return new Flag(fragment, mapping[slot]);
+        }
+    }
+
+    /**
+     * Node that joins multiple nodes using a logical operator.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    private static final class Junction extends Node {
+
+        /**
+         * {@code true} for the logical operator "and", {@code false} for "or".
+         */
+        private final boolean conjunction;
+        /**
+         * Logical operator.
+         */
+        private final String operator;
+        /**
+         * Array of nodes.
+         */
+        private final Node[] children;
+
+        /**
+         * Create a junction.
+         *
+         * @param conjunction {@code true} for the logical operator "and",
+         * {@code false} for "or"
+         * @param children array of nodes
+         */
+        private Junction(boolean conjunction, Node... children) {
+            this.conjunction = conjunction;
+            this.operator = conjunction ? FilterFactory.AND_TOKEN : FilterFactory.OR_TOKEN;
+            this.children = children;
+        }
+
+        @Override
+        boolean canApply(Object[] values) {
+            for (Node child : children) {
+                if (child.canApply(values)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        void apply(Object[] values, StringBuilder query, Map<String, Object> parameters) {
+            boolean foundOne = false;
+            for (Node child : children) {
+                if (child.canApply(values)) {
+                    if (foundOne) {
+                        query.append(operator);
+                    }
+                    foundOne = true;
+                    boolean parenthesis = child instanceof Junction;
+                    if (parenthesis) {
+                        query.append(FilterFactory.LEFT_PARENTHESIS);
+                    }
+                    child.apply(values, query, parameters);
+                    if (parenthesis) {
+                        query.append(FilterFactory.RIGHT_PARENTHESIS);
+                    }
+                }
+            }
+        }
+
+        @Override
+        void render(Object[] values, RenderContext context) {
+            boolean foundOne = false;
+            for (Node child : children) {
+                if (child.canApply(values)) {
+                    if (foundOne) {
+                        context.append(operator);
+                    }
+                    foundOne = true;
+                    boolean parenthesis = child instanceof Junction;
+                    if (parenthesis) {
+                        context.append(FilterFactory.LEFT_PARENTHESIS);
+                    }
+                    child.render(values, context);
+                    if (parenthesis) {
+                        context.append(FilterFactory.RIGHT_PARENTHESIS);
+                    }
+                }
+            }
+        }
+
+        @Override
+        Node remap(int[] mapping) {
+            Node[] remapped = new Node[children.length];
+            for (int i = 0; i < children.length; i++) {
+                remapped[i] = children[i].remap(mapping);
+            }
+            return new Junction(conjunction, remapped);
+        }
+
+        @Override
+        boolean encode(Object[] values, QueryShape.Codes codes) {
+            codes.add(QueryShape.logical(conjunction, children.length));
+            boolean applicable = false;
+            for (Node child : children) {
+                applicable |= child.encode(values, codes);
+            }
+            return applicable;
+        }
+    }
+}
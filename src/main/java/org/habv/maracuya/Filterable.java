@@ -1,6 +1,7 @@
 package org.habv.maracuya;
 
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -69,6 +70,138 @@ public interface Filterable {
         return Optional.empty();
     }
 
+    /**
+     * Policy of the collections of the {@code in} and {@code notIn} filters,
+     * for example {@code InListPolicy.powersOfTwo(1000)} to bound the number
+     * of distinct query strings.
+     *
+     * @return policy of the collections, by default the collections are not
+     * padded nor split
+     * @since 1.1.0
+     */
+    default InListPolicy inListPolicy() {
+        return InListPolicy.none();
+    }
+
+    /**
+     * SQL dialect of the database, for the filters that are rendered in a
+     * database specific way.
+     *
+     * @return SQL dialect, by default {@link Dialect#ANSI}
+     * @since 1.1.0
+     */
+    default Dialect dialect() {
+        return Dialect.ANSI;
+    }
+
+    /**
+     * Lower case columns of the case insensitive filters, like
+     * {@link FilterFactory#like(String, String, String)}. A filter of a
+     * column of this map is rendered with its lower case column, like a
+     * generated column or an alias of a functional index, instead of wrapping
+     * the column by {@code LOWER}. For example:
+     * {@code Collections.singletonMap("book.title", "book.title_lower")}
+     * renders {@code book.title_lower LIKE :title}.
+     *
+     * @return lower case column of every case insensitive column, by default
+     * empty
+     * @since 1.1.0
+     */
+    default Map<String, String> lowerCaseColumns() {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Select statement of the query that counts the rows, see
+     * {@link #applyPaged(QueryFactory, ParameterSetter, boolean)}.
+     *
+     * @return select statement of the count query, by default
+     * {@code SELECT COUNT(*)}
+     * @since 1.1.0
+     */
+    default String countSelect() {
+        return "SELECT COUNT(*)";
+    }
+
+    /**
+     * Projection of the query. When present, only the columns of the fields
+     * requested by the caller are rendered as the select statement, instead
+     * of {@link #select()}, see {@link Projection}.
+     *
+     * @return projection, by default empty
+     * @since 1.1.0
+     */
+    default Optional<Projection> projection() {
+        return Optional.empty();
+    }
+
+    /**
+     * Optional joins of the query, see {@link Join}. Every join is rendered
+     * after the from statement, in order of declaration, only when the
+     * select statement, an applicable filter, the group by, having or order
+     * by statements, or another rendered join, reference its alias. The from
+     * statement keeps the joins that are always needed.
+     *
+     * @return optional joins, by default empty
+     * @since 1.1.0
+     */
+    default List<Join> joins() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Keyset pagination of the query. When present, the predicate of the rows
+     * after the last row of the previous page is joined with the filter by
+     * "and", the order by statement is rendered from the sort keys instead
+     * of {@link #orderBy()}, and the limit of rows is added.
+     *
+     * @return keyset pagination, by default empty
+     * @since 1.1.0
+     */
+    default Optional<Keyset> keyset() {
+        return Optional.empty();
+    }
+
+    /**
+     * Indicates whether a top-level "or" of the filter is rendered as
+     * {@code UNION ALL} branches, so every branch can use the index of its own
+     * column instead of a full scan. For example, the filter
+     * {@code and(equal("c.active",...), or(equal("c.email",...), startsWithCaseSensitive("c.phone",...)))}
+     * is rendered as:
+     * <pre>{@code SELECT c.id, c.name FROM customer c WHERE c.active = :active AND c.email = :email
+     * UNION ALL
+     * SELECT c.id, c.name FROM customer c WHERE c.active = :active AND c.phone LIKE :phone
+     * AND CASE WHEN c.email = :email THEN 1 ELSE 0 END = 0}</pre>
+     * Every branch has the filters joined by "and" with the "or", and
+     * excludes the rows of the earlier branches, so a row is returned once.
+     * The order by statement is applied to the whole union, so it must use
+     * the names of the columns of the select statement. A query with group by
+     * or having statements, or without a top-level "or", is not expanded.
+     * Only for SQL queries.
+     *
+     * @return {@code true} to render a top-level "or" as {@code UNION ALL}
+     * branches, by default {@code false}
+     * @since 1.1.0
+     */
+    default boolean unionAll() {
+        return false;
+    }
+
+    /**
+     * Indicates whether every instance of the type declares the same
+     * statements, joins, projection, dialect and case insensitive columns, so
+     * a {@link QueryCache} reads them once per type instead of on every
+     * query. The filter and the keyset pagination may still change between
+     * instances.
+     *
+     * @return {@code true} if the declarations only depend on the type, by
+     * default {@code false}
+     * @since 1.1.0
+     */
+    default boolean constantDeclarations() {
+        return false;
+    }
+
     /**
      * Concatenate the declarations and apply the filters on the query object.
      *
@@ -79,22 +212,132 @@ public interface Filterable {
      * applied
      */
     default <Q> Q apply(QueryFactory<Q> qfi, ParameterSetter<Q> psi) {
-        StringBuilder query = new StringBuilder();
-        Map<String, Object> parameters = new HashMap<>();
-
-        query.append(select());
-        query.append(from());
-        if (filter().canApply()) {
-            query.append(where());
-            filter().apply(query, parameters);
+        try (RenderContext context = RenderContext.acquire()) {
+            return Queries.create(Queries.render(this, Queries.filter(this), context), context, qfi, psi);
         }
-        groupBy().ifPresent(query::append);
-        having().ifPresent(query::append);
-        orderBy().ifPresent(query::append);
+    }
 
-        Q instance = qfi.create(query.toString());
-        parameters.forEach((key, value) -> psi.set(instance, key, value));
-        return instance;
+    /**
+     * Concatenate the declarations and apply the filters on the query object,
+     * reusing the query string of the cache when the shape of the query was
+     * already rendered.
+     *
+     * @param <Q> generic type of Query Object
+     * @param cache query cache
+     * @param qfi query factory
+     * @param psi parameter setter
+     * @return query object create by the query factory with the parameters
+     * applied
+     */
+    default <Q> Q apply(QueryCache cache, QueryFactory<Q> qfi, ParameterSetter<Q> psi) {
+        try (RenderContext context = RenderContext.acquire()) {
+            return Queries.create(cache.query(this, Queries.filter(this), context), context, qfi, psi);
+        }
+    }
+
+    /**
+     * Concatenate the declarations and apply the filters on the query object,
+     * unless the filter can not be satisfied by any row. For example:
+     * <pre>{@code List<Book> books = search.applyIfSatisfiable(em::createQuery, Query::setParameter)
+     *         .map(Query::getResultList)
+     *         .orElse(Collections.emptyList());}</pre>
+     *
+     * @param <Q> generic type of Query Object
+     * @param qfi query factory
+     * @param psi parameter setter
+     * @return query object create by the query factory with the parameters
+     * applied, or empty if the query is known to return an empty result, the
+     * query factory is not called in that case
+     * @see FilterOptimizer#isUnsatisfiable(Filter)
+     * @since 1.1.0
+     */
+    default <Q> Optional<Q> applyIfSatisfiable(QueryFactory<Q> qfi, ParameterSetter<Q> psi) {
+        Filter filter = Queries.filter(this);
+        if (FilterOptimizer.isUnsatisfiable(filter)) {
+            return Optional.empty();
+        }
+        try (RenderContext context = RenderContext.acquire()) {
+            return Optional.of(Queries.create(Queries.render(this, filter, context), context, qfi, psi));
+        }
+    }
+
+    /**
+     * Concatenate the declarations and apply the filters on the query object
+     * of a page and, optionally, on a query object that counts all the rows.
+     * The filter is rendered once and both queries share its parameters. For
+     * example:
+     * <pre>{@code PagedQuery<Query> paged = search.applyPaged(em::createQuery, Query::setParameter, firstPage);
+     * List<Book> books = paged.page().setMaxResults(50).getResultList();
+     * paged.count().ifPresent(count -> total = (Long) count.getSingleResult());}</pre>
+     * The count query is {@link #countSelect()} with the from, where, group
+     * by and having statements, without the order by statement nor the
+     * predicate and limit of the {@link #keyset()}. With group by or having
+     * statements the grouped query is counted as a derived table, only for
+     * SQL queries. The query is not expanded by {@link #unionAll()}.
+     *
+     * @param <Q> generic type of Query Object
+     * @param qfi query factory
+     * @param psi parameter setter
+     * @param withCount {@code true} to create the count query too, for
+     * example only for the first page
+     * @return query objects create by the query factory with the parameters
+     * applied
+     * @since 1.1.0
+     */
+    default <Q> PagedQuery<Q> applyPaged(QueryFactory<Q> qfi, ParameterSetter<Q> psi, boolean withCount) {
+        try (RenderContext context = RenderContext.acquire()) {
+            Queries.Paged paged = Queries.renderPaged(this, context);
+            return new PagedQuery<>(Queries.create(paged.page(), context, context.size(), qfi, psi),
+                    withCount ? Queries.create(paged.count(), context, paged.countSize(), qfi, psi) : null);
+        }
+    }
+
+    /**
+     * Concatenate the declarations and apply the filters on the query object
+     * of a page and, optionally, on a query object that counts all the rows,
+     * using positional placeholders ({@code ?}), see
+     * {@link #applyPaged(QueryFactory, ParameterSetter, boolean)}.
+     *
+     * @param <Q> generic type of Query Object
+     * @param qfi query factory
+     * @param psi positional parameter setter
+     * @param withCount {@code true} to create the count query too, for
+     * example only for the first page
+     * @return query objects create by the query factory with the parameters
+     * applied
+     * @since 1.1.0
+     */
+    default <Q> PagedQuery<Q> applyPositionalPaged(QueryFactory<Q> qfi, PositionalParameterSetter<Q> psi,
+            boolean withCount) {
+        try (RenderContext context = RenderContext.acquire().positional(true)) {
+            Queries.Paged paged = Queries.renderPaged(this, context);
+            return new PagedQuery<>(Queries.createPositional(paged.page(), context, context.size(), qfi, psi),
+                    withCount ? Queries.createPositional(paged.count(), context, paged.countSize(), qfi, psi) : null);
+        }
+    }
+
+    /**
+     * Concatenate the declarations and apply the filters on the query object
+     * using positional placeholders ({@code ?}), like JDBC expects. A
+     * collection is expanded to one placeholder per element. For example:
+     * <pre>{@code PreparedStatement statement = search.applyPositional(
+     *         sql -> connection.prepareStatement(sql),
+     *         PositionalParameterSetter.jdbc());}</pre>
+     * (the query factory must handle the {@code SQLException}).
+     *
+     * @param <Q> generic type of Query Object
+     * @param qfi query factory
+     * @param psi positional parameter setter
+     * @return query object create by the query factory with the parameters
+     * applied
+     * @throws IllegalStateException if a filter sets a parameter without a
+     * placeholder, like {@link FilterFactory#parameter(String, Object)}
+     * @since 1.1.0
+     */
+    default <Q> Q applyPositional(QueryFactory<Q> qfi, PositionalParameterSetter<Q> psi) {
+        try (RenderContext context = RenderContext.acquire().positional(true)) {
+            return Queries.createPositional(Queries.render(this, Queries.filter(this), context), context, qfi, psi);
+        }
     }
 
 }
@@ -0,0 +1,143 @@
+package org.habv.maracuya;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SQL text split at its named parameter placeholders, so it can be rendered
+ * with named ({@code :name}) or positional ({@code ?}) placeholders.
+ * <p>
+ * For example: {@code book.price BETWEEN :start AND :end} with the names
+ * {@code start} and {@code end} is split into the parts
+ * {@code "book.price BETWEEN "}, {@code " AND "} and {@code ""}.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+final class Fragment {
+
+    /**
+     * Text before every placeholder, plus the text after the last one.
+     */
+    private final String[] parts;
+    /**
+     * Index of the parameter name of every placeholder.
+     */
+    private final int[] params;
+    /**
+     * Indicates by name index whether the parameter has a placeholder.
+     */
+    private final boolean[] placed;
+
+    /**
+     * Create a fragment.
+     *
+     * @param parts text before every placeholder, plus the text after the
+     * last one
+     * @param params index of the parameter name of every placeholder
+     * @param placed indicates by name index whether the parameter has a
+     * placeholder
+     */
+    private Fragment(String[] parts, int[] params, boolean[] placed) {
+        this.parts = parts;
+        this.params = params;
+        this.placed = placed;
+    }
+
+    /**
+     * Split a text at the placeholders of the parameter names. Placeholders
+     * of other names, and casts like {@code ::text}, are kept as text.
+     *
+     * @param text SQL text
+     * @param names parameter names
+     * @return fragment
+     */
+    static Fragment parse(String text, String... names) {
+        List<String> parts = new ArrayList<>();
+        List<Integer> params = new ArrayList<>();
+        boolean[] placed = new boolean[names.length];
+        int start = 0;
+        int i = 0;
+        while (i < text.length()) {
+            int end = i + 1;
+            if (text.charAt(i) == ':'
+                    && (i == 0 || text.charAt(i - 1) != ':')
+                    && end < text.length()
+                    && Character.isJavaIdentifierStart(text.charAt(end))) {
+                while (end < text.length() && Character.isJavaIdentifierPart(text.charAt(end))) {
+                    end++;
+                }
+                int param = indexOf(names, text.substring(i + 1, end));
+                if (param >= 0) {
+                    parts.add(text.substring(start, i));
+                    params.add(param);
+                    placed[param] = true;
+                    start = end;
+                }
+            }
+            i = end;
+        }
+        parts.add(text.substring(start));
+        int[] indexes = new int[params.size()];
+        for (int j = 0; j < indexes.length; j++) {
+            indexes[j] = params.get(j);
+        }
+        return new Fragment(parts.toArray(new String[0]), indexes, placed);
+    }
+
+    /**
+     * Number of placeholders.
+     *
+     * @return number of placeholders
+     */
+    int placeholders() {
+        return params.length;
+    }
+
+    /**
+     * Text before a placeholder, or after the last one when the index is the
+     * number of placeholders.
+     *
+     * @param index placeholder index
+     * @return text
+     */
+    String part(int index) {
+        return parts[index];
+    }
+
+    /**
+     * Index of the parameter name of a placeholder.
+     *
+     * @param index placeholder index
+     * @return index of the parameter name
+     */
+    int param(int index) {
+        return params[index];
+    }
+
+    /**
+     * Indicates whether a parameter has at least one placeholder.
+     *
+     * @param param index of the parameter name
+     * @return {@code true} if the text has a placeholder of the parameter
+     */
+    boolean isPlaced(int param) {
+        return placed[param];
+    }
+
+    /**
+     * Index of a name.
+     *
+     * @param names names
+     * @param name name
+     * @return index of the name, or {@code -1} if it does not exist
+     */
+    private static int indexOf(String[] names, String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
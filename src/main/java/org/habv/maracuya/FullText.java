@@ -0,0 +1,200 @@
+package org.habv.maracuya;
+
+import java.util.Map;
+
+/**
+ * Filter that searches words in one or more columns with the full text search
+ * of the {@link Dialect} of the render context, for example
+ * {@code MATCH (book.title, book.summary) AGAINST (:terms)}. On a dialect
+ * without full text search the columns are matched with a case insensitive
+ * {@code like} of the whole text.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+final class FullText implements Filter {
+
+    /**
+     * Start of the text search vector of PostgreSQL.
+     */
+    private static final String TSVECTOR_START = "to_tsvector('simple', ";
+    /**
+     * Start of the text search query of PostgreSQL.
+     */
+    private static final String TSQUERY_START = ") @@ plainto_tsquery('simple', ";
+    /**
+     * Start of a column of PostgreSQL that may be {@code NULL}.
+     */
+    private static final String COALESCE_START = "coalesce(";
+    /**
+     * End of a column of PostgreSQL that may be {@code NULL}.
+     */
+    private static final String COALESCE_END = ", '')";
+    /**
+     * Start of the columns of MySQL.
+     */
+    private static final String MATCH_START = "MATCH (";
+    /**
+     * Start of the words of MySQL.
+     */
+    private static final String AGAINST_START = ") AGAINST (";
+    /**
+     * Start of the full text search of H2.
+     */
+    private static final String FT_SEARCH_DATA_START = " IN (SELECT FT.KEYS[1] FROM FT_SEARCH_DATA(";
+    /**
+     * Table of the full text search of H2.
+     */
+    private static final String FT_SEARCH_DATA_TABLE = ", 0, 0) FT WHERE FT.\"TABLE\" = '";
+    /**
+     * End of the full text search of H2.
+     */
+    private static final String FT_SEARCH_DATA_END = "')";
+    /**
+     * Separator of the columns.
+     */
+    private static final String SEPARATOR = ", ";
+    /**
+     * Concatenation of the columns of PostgreSQL.
+     */
+    private static final String CONCATENATION = " || ' ' || ";
+
+    /**
+     * Column names.
+     */
+    private final String[] columnNames;
+    /**
+     * Parameter name.
+     */
+    private final String paramName;
+    /**
+     * Words to search.
+     */
+    private final String terms;
+    /**
+     * Table name of the H2 full text index, {@code null} if unknown.
+     */
+    private final String tableName;
+    /**
+     * Primary key column of the H2 full text index, {@code null} if unknown.
+     */
+    private final String keyColumnName;
+    /**
+     * Filter of the dialects without full text search.
+     */
+    private final Filter fallback;
+
+    /**
+     * Create a full text search filter.
+     *
+     * @param columnNames column names
+     * @param paramName parameter name
+     * @param terms words to search
+     * @param tableName table name of the H2 full text index, {@code null} if
+     * unknown
+     * @param keyColumnName primary key column of the H2 full text index,
+     * {@code null} if unknown
+     */
+    FullText(String[] columnNames, String paramName, String terms, String tableName, String keyColumnName) {
+        this.columnNames = columnNames;
+        this.paramName = paramName;
+        this.terms = terms;
+        this.tableName = tableName;
+        this.keyColumnName = keyColumnName;
+        Filter[] likes = new Filter[columnNames.length];
+        for (int i = 0; i < columnNames.length; i++) {
+            likes[i] = FilterFactory.like(columnNames[i], paramName, terms);
+        }
+        this.fallback = likes.length == 1 ? likes[0] : FilterFactory.Logical.applicable(false, likes);
+    }
+
+    /**
+     * Filter of the dialects without full text search, a case insensitive
+     * {@code like} of every column joined by "or".
+     *
+     * @return filter of the dialects without full text search
+     */
+    Filter fallback() {
+        return fallback;
+    }
+
+    @Override
+    public void apply(StringBuilder query, Map<String, Object> parameters) {
+        boolean parenthesis = columnNames.length > 1;
+        if (parenthesis) {
+            query.append(FilterFactory.LEFT_PARENTHESIS);
+        }
+        fallback.apply(query, parameters);
+        if (parenthesis) {
+            query.append(FilterFactory.RIGHT_PARENTHESIS);
+        }
+    }
+
+    @Override
+    public void render(RenderContext context) {
+        switch (context.dialect().fullTextSearch()) {
+            case TSVECTOR:
+                context.append(TSVECTOR_START);
+                for (int i = 0; i < columnNames.length; i++) {
+                    if (i > 0) {
+                        context.append(CONCATENATION);
+                    }
+                    if (columnNames.length > 1) {
+                        context.append(COALESCE_START).append(columnNames[i]).append(COALESCE_END);
+                    } else {
+                        context.append(columnNames[i]);
+                    }
+                }
+                context.append(TSQUERY_START);
+                context.placeholder(paramName, terms);
+                context.append(FilterFactory.RIGHT_PARENTHESIS);
+                return;
+            case MATCH_AGAINST:
+                context.append(MATCH_START);
+                for (int i = 0; i < columnNames.length; i++) {
+                    if (i > 0) {
+                        context.append(SEPARATOR);
+                    }
+                    context.append(columnNames[i]);
+                }
+                context.append(AGAINST_START);
+                context.placeholder(paramName, terms);
+                context.append(FilterFactory.RIGHT_PARENTHESIS);
+                return;
+            case FT_SEARCH_DATA:
+                if (tableName != null) {
+                    context.append(keyColumnName);
+                    context.append(FT_SEARCH_DATA_START);
+                    context.placeholder(paramName, terms);
+                    context.append(FT_SEARCH_DATA_TABLE).append(tableName).append(FT_SEARCH_DATA_END);
+                    return;
+                }
+                break;
+            default:
+                break;
+        }
+        boolean parenthesis = columnNames.length > 1;
+        if (parenthesis) {
+            context.append(FilterFactory.LEFT_PARENTHESIS);
+        }
+        fallback.render(context);
+        if (parenthesis) {
+            context.append(FilterFactory.RIGHT_PARENTHESIS);
+        }
+    }
+
+    /**
+     * Add the identity of the text of the filter to the query shape.
+     *
+     * @param codes codes of the query shape
+     */
+    void key(QueryShape.Codes codes) {
+        codes.key(columnNames.length);
+        for (String columnName : columnNames) {
+            codes.key(columnName);
+        }
+        codes.key(paramName);
+        codes.key(tableName);
+        codes.key(keyColumnName);
+    }
+}
@@ -0,0 +1,318 @@
+package org.habv.maracuya;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Policy to render the collections of {@code in} and {@code notIn} filters,
+ * so the number of distinct query strings stays bounded.
+ * <p>
+ * A collection is padded, repeating its last value, to the smallest bucket
+ * size that fits it, so lists of 5, 6 and 7 values are all sent as 8 values
+ * and share a single query string and a single execution plan. A collection
+ * longer than the limit of the database is split into chunks, joined with
+ * {@code OR} for {@code in} and with {@code AND} for {@code notIn}:
+ * {@code (book.id IN :ids_1 OR book.id IN :ids_2)}. A collection that
+ * reaches the threshold of {@link #withLargeCollections(int)} is rendered
+ * with a {@link LargeCollectionStrategy} instead, like an array parameter.
+ * <p>
+ * A policy is immutable and thread safe.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ * @see Filterable#inListPolicy()
+ */
+public final class InListPolicy {
+
+    /**
+     * Policy that does not pad nor split the collections.
+     */
+    private static final InListPolicy NONE = new InListPolicy(Integer.MAX_VALUE, new int[0], Integer.MAX_VALUE, null);
+    /**
+     * Separator of the parameter name and the number of the chunk.
+     */
+    private static final String CHUNK_SEPARATOR = "_";
+
+    /**
+     * Maximum number of values of a chunk.
+     */
+    private final int limit;
+    /**
+     * Bucket sizes, in ascending order.
+     */
+    private final int[] buckets;
+    /**
+     * Minimum size of a large collection.
+     */
+    private final int largeThreshold;
+    /**
+     * Strategy for large collections, {@code null} to use the strategy of the
+     * dialect.
+     */
+    private final LargeCollectionStrategy largeStrategy;
+
+    /**
+     * Create a policy.
+     *
+     * @param limit maximum number of values of a chunk
+     * @param buckets bucket sizes, in ascending order
+     * @param largeThreshold minimum size of a large collection
+     * @param largeStrategy strategy for large collections, {@code null} to use
+     * the strategy of the dialect
+     */
+    private InListPolicy(int limit, int[] buckets, int largeThreshold, LargeCollectionStrategy largeStrategy) {
+        this.limit = limit;
+        this.buckets = buckets;
+        this.largeThreshold = largeThreshold;
+        this.largeStrategy = largeStrategy;
+    }
+
+    /**
+     * Policy that does not pad nor split the collections, it is the default
+     * policy.
+     *
+     * @return policy that does not pad nor split the collections
+     */
+    public static InListPolicy none() {
+        return NONE;
+    }
+
+    /**
+     * Policy that pads the collections to the next power of two, and splits
+     * the collections longer than the limit.
+     * <p>
+     * For example: {@code powersOfTwo(1000)} pads a collection of 100 values
+     * to 128 values, and splits a collection of 2500 values in chunks of
+     * 1000, 1000 and 512 values.
+     *
+     * @param limit maximum number of values of a chunk, like the 1000 values
+     * of Oracle or the 2100 parameters of SQL Server
+     * @return policy with buckets of powers of two
+     * @throws IllegalArgumentException if {@code limit} is less than one
+     */
+    public static InListPolicy powersOfTwo(int limit) {
+        checkLimit(limit);
+        List<Integer> sizes = new ArrayList<>();
+        for (int size = 1; size < limit && size > 0; size *= 2) {
+            sizes.add(size);
+        }
+        sizes.add(limit);
+        int[] buckets = new int[sizes.size()];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = sizes.get(i);
+        }
+        return new InListPolicy(limit, buckets, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * Policy that pads the collections to the specified bucket sizes, and
+     * splits the collections longer than the limit. A collection bigger than
+     * the biggest bucket is not padded.
+     * <p>
+     * For example: {@code buckets(1000, 10, 50, 100)} pads a collection of 7
+     * values to 10 values and a collection of 60 values to 100 values. Without
+     * bucket sizes the collections are only split.
+     *
+     * @param limit maximum number of values of a chunk
+     * @param sizes bucket sizes, in ascending order and not greater than the
+     * limit
+     * @return policy with the specified buckets
+     * @throws IllegalArgumentException if {@code limit} is less than one, or
+     * the bucket sizes are not positive, ascending and not greater than the
+     * limit
+     */
+    public static InListPolicy buckets(int limit, int... sizes) {
+        checkLimit(limit);
+        int previous = 0;
+        for (int size : sizes) {
+            if (size <= previous || size > limit) {
+                throw new IllegalArgumentException(String.format("invalid bucket size %d", size));
+            }
+            previous = size;
+        }
+        return new InListPolicy(limit, Arrays.copyOf(sizes, sizes.length), Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * Copy of this policy that renders the collections of the specified size
+     * or bigger with the {@link Dialect#largeCollectionStrategy()} of the
+     * dialect. When the dialect does not have a strategy they are rendered
+     * by this policy.
+     *
+     * @param threshold minimum size of a large collection
+     * @return copy of this policy
+     * @throws IllegalArgumentException if {@code threshold} is less than one
+     */
+    public InListPolicy withLargeCollections(int threshold) {
+        checkThreshold(threshold);
+        return new InListPolicy(limit, buckets, threshold, null);
+    }
+
+    /**
+     * Copy of this policy that renders the collections of the specified size
+     * or bigger with a strategy, whatever the dialect is.
+     * <p>
+     * For example:
+     * {@code InListPolicy.powersOfTwo(1000).withLargeCollections(5000, LargeCollectionStrategy.values())}.
+     *
+     * @param threshold minimum size of a large collection
+     * @param strategy strategy for large collections
+     * @return copy of this policy
+     * @throws IllegalArgumentException if {@code threshold} is less than one
+     * @throws NullPointerException if {@code strategy} is {@code null}
+     */
+    public InListPolicy withLargeCollections(int threshold, LargeCollectionStrategy strategy) {
+        checkThreshold(threshold);
+        if (strategy == null) {
+            throw new NullPointerException("strategy must not be null");
+        }
+        return new InListPolicy(limit, buckets, threshold, strategy);
+    }
+
+    /**
+     * Maximum number of values of a chunk.
+     *
+     * @return maximum number of values of a chunk
+     */
+    public int limit() {
+        return limit;
+    }
+
+    /**
+     * Size of the bucket of a collection: the smallest bucket size that fits
+     * the collection, or the size of the collection when it does not fit in
+     * any bucket.
+     *
+     * @param size size of the collection, not greater than the limit
+     * @return size of the bucket
+     */
+    public int bucket(int size) {
+        for (int bucket : buckets) {
+            if (bucket >= size) {
+                return bucket;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Number of chunks of a collection.
+     *
+     * @param size size of the collection
+     * @return number of chunks, at least one
+     */
+    public int chunks(int size) {
+        return size <= limit ? 1 : (size - 1) / limit + 1;
+    }
+
+    /**
+     * Render a column compared with a collection.
+     *
+     * @param context render context
+     * @param columnName column name
+     * @param operator {@link Operator#IN} or {@link Operator#NOT_IN}
+     * @param paramName parameter name
+     * @param values collection of values
+     */
+    void render(RenderContext context, String columnName, Operator operator, String paramName, Collection<?> values) {
+        int size = values.size();
+        LargeCollectionStrategy large = large(size, context.dialect());
+        if (large != null) {
+            large.render(context, columnName, operator == Operator.NOT_IN, paramName, values);
+            return;
+        }
+        int chunks = chunks(size);
+        if (chunks == 1) {
+            context.append(columnName);
+            context.append(operator.token());
+            context.placeholder(paramName, pad(values));
+            return;
+        }
+        List<?> list = values instanceof List ? (List<?>) values : new ArrayList<>(values);
+        context.append(FilterFactory.LEFT_PARENTHESIS);
+        for (int i = 0; i < chunks; i++) {
+            if (i > 0) {
+                context.append(operator == Operator.IN ? FilterFactory.OR_TOKEN : FilterFactory.AND_TOKEN);
+            }
+            context.append(columnName);
+            context.append(operator.token());
+            context.placeholder(paramName + CHUNK_SEPARATOR + (i + 1),
+                    pad(list.subList(i * limit, Math.min(size, (i + 1) * limit))));
+        }
+        context.append(FilterFactory.RIGHT_PARENTHESIS);
+    }
+
+    /**
+     * Code of the query shape of a collection: its number of chunks, or a
+     * negative number made from the shape of the large collection strategy.
+     *
+     * @param size size of the collection
+     * @param dialect dialect
+     * @return code of the query shape
+     */
+    int code(int size, Dialect dialect) {
+        LargeCollectionStrategy large = large(size, dialect);
+        return large == null ? chunks(size) : -1 - large.shape(size);
+    }
+
+    /**
+     * Strategy for a collection.
+     *
+     * @param size size of the collection
+     * @param dialect dialect
+     * @return strategy for large collections, or {@code null} if the
+     * collection is not large or there is no strategy
+     */
+    private LargeCollectionStrategy large(int size, Dialect dialect) {
+        if (size < largeThreshold) {
+            return null;
+        }
+        return largeStrategy != null ? largeStrategy : dialect.largeCollectionStrategy();
+    }
+
+    /**
+     * Pad a collection to the size of its bucket, repeating its last value.
+     *
+     * @param values collection of values
+     * @return the same collection if it is already the size of its bucket,
+     * otherwise a padded copy
+     */
+    private Collection<?> pad(Collection<?> values) {
+        int size = values.size();
+        int bucket = bucket(size);
+        if (bucket == size) {
+            return values;
+        }
+        List<Object> padded = new ArrayList<>(bucket);
+        padded.addAll(values);
+        Object last = padded.get(size - 1);
+        while (padded.size() < bucket) {
+            padded.add(last);
+        }
+        return padded;
+    }
+
+    /**
+     * Checks the limit.
+     *
+     * @param limit maximum number of values of a chunk
+     */
+    private static void checkLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be greater than zero");
+        }
+    }
+
+    /**
+     * Checks the threshold of the large collections.
+     *
+     * @param threshold minimum size of a large collection
+     */
+    private static void checkThreshold(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("threshold must be greater than zero");
+        }
+    }
+}
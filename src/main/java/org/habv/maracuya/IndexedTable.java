@@ -0,0 +1,786 @@
+package org.habv.maracuya;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * In-memory table of objects queried with the filters of
+ * {@link FilterFactory}. For example:
+ * <pre>{@code IndexedTable<Price> prices = IndexedTable.of(PredicateCompiler.of(Price.class))
+ *         .hashIndex("price.sku")
+ *         .sortedIndex("price.amount");
+ *int id = prices.insert(price);
+ *List<Price> cheap = prices.select(FilterFactory.and(
+ *         FilterFactory.in("price.sku", "skus", skus),
+ *         FilterFactory.less("price.amount", "maxAmount", 10)
+ * ), "price.amount", false, 20);}</pre>
+ * <p>
+ * A hash index finds the rows of the {@code equal}, {@code in} and
+ * {@code isNull} filters of its column, a sorted index also finds the rows of
+ * the {@code greater}, {@code greaterOrEqual}, {@code less},
+ * {@code lessOrEqual} and {@code between} filters. The rows found by the
+ * indexes of the filters joined by "and" are intersected and the rows of the
+ * filters joined by "or" are united, a filter without index of an "or" scans
+ * the table. The rows found are checked with the predicate of
+ * {@link PredicateCompiler}, so every filter that it compiles can be used.
+ * The rows are ordered by walking the sorted index of the order column, if
+ * there is one, so a limited query stops at the last row needed.
+ * <p>
+ * A row is identified by the id returned by {@link #insert(Object)}, the id
+ * of a deleted row is reused. The indexes are updated on every insert,
+ * update and delete, an update must be called after a change of an indexed
+ * property. A table is thread safe, the queries run concurrently and the
+ * changes exclusively.
+ *
+ * @param <T> type of the rows
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public final class IndexedTable<T> {
+
+    /**
+     * Initial capacity of the rows.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Compiler of the filters and accessors of the columns.
+     */
+    private final PredicateCompiler<T> compiler;
+    /**
+     * Indexes.
+     */
+    private final List<Index> indexes;
+    /**
+     * Lock of the rows and indexes.
+     */
+    private final ReadWriteLock lock;
+    /**
+     * Rows by id, {@code null} when the id is free.
+     */
+    private Object[] rows;
+    /**
+     * Index keys of every row, in order of the indexes.
+     */
+    private Object[][] keys;
+    /**
+     * Ids of the rows.
+     */
+    private final BitSet live;
+
+    /**
+     * Create an empty table.
+     *
+     * @param compiler compiler of the filters and accessors of the columns
+     */
+    private IndexedTable(PredicateCompiler<T> compiler) {
+        this.compiler = compiler;
+        this.indexes = new ArrayList<>();
+        this.lock = new ReentrantReadWriteLock();
+        this.rows = new Object[INITIAL_CAPACITY];
+        this.keys = new Object[INITIAL_CAPACITY][];
+        this.live = new BitSet();
+    }
+
+    /**
+     * Empty table of the rows of a predicate compiler.
+     *
+     * @param <T> type of the rows
+     * @param compiler compiler of the filters and accessors of the columns
+     * @return empty table
+     * @throws NullPointerException if {@code compiler} is {@code null}
+     */
+    public static <T> IndexedTable<T> of(PredicateCompiler<T> compiler) {
+        if (compiler == null) {
+            throw new NullPointerException("compiler must not be null");
+        }
+        return new IndexedTable<>(compiler);
+    }
+
+    /**
+     * Add a hash index of a column, for the {@code equal}, {@code in} and
+     * {@code isNull} filters.
+     *
+     * @param columnName column name of the filters
+     * @return this table
+     * @throws NullPointerException if {@code columnName} is {@code null} or
+     * empty
+     * @throws IllegalArgumentException if the column does not have an
+     * accessor or it is already indexed
+     */
+    public IndexedTable<T> hashIndex(String columnName) {
+        return index(columnName, false);
+    }
+
+    /**
+     * Add a sorted index of a column, for the filters of a hash index plus
+     * the {@code greater}, {@code greaterOrEqual}, {@code less},
+     * {@code lessOrEqual} and {@code between} filters, and to order the rows.
+     *
+     * @param columnName column name of the filters
+     * @return this table
+     * @throws NullPointerException if {@code columnName} is {@code null} or
+     * empty
+     * @throws IllegalArgumentException if the column does not have an
+     * accessor or it is already indexed
+     */
+    public IndexedTable<T> sortedIndex(String columnName) {
+        return index(columnName, true);
+    }
+
+    /**
+     * Add an index of a column and index the rows of the table.
+     *
+     * @param columnName column name of the filters
+     * @param sorted {@code true} for a sorted index, {@code false} for a hash
+     * index
+     * @return this table
+     */
+    private IndexedTable<T> index(String columnName, boolean sorted) {
+        FilterFactory.required(columnName, "columnName");
+        Function<Object, Object> accessor = compiler.accessor(columnName);
+        lock.writeLock().lock();
+        try {
+            if (index(columnName) != null) {
+                throw new IllegalArgumentException(String.format("column %s is already indexed", columnName));
+            }
+            Index index = new Index(columnName, accessor, sorted);
+            int position = indexes.size();
+            indexes.add(index);
+            for (int id = live.nextSetBit(0); id >= 0; id = live.nextSetBit(id + 1)) {
+                Object key = index.key(rows[id]);
+                keys[id] = Arrays.copyOf(keys[id], position + 1);
+                keys[id][position] = key;
+                index.add(key, id);
+            }
+            return this;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Insert a row.
+     *
+     * @param row row
+     * @return id of the row
+     * @throws NullPointerException if {@code row} is {@code null}
+     */
+    public int insert(T row) {
+        if (row == null) {
+            throw new NullPointerException("row must not be null");
+        }
+        lock.writeLock().lock();
+        try {
+            int id = live.nextClearBit(0);
+            if (id == rows.length) {
+                rows = Arrays.copyOf(rows, id * 2);
+                keys = Arrays.copyOf(keys, id * 2);
+            }
+            Object[] rowKeys = new Object[indexes.size()];
+            for (int i = 0; i < rowKeys.length; i++) {
+                rowKeys[i] = indexes.get(i).key(row);
+                indexes.get(i).add(rowKeys[i], id);
+            }
+            rows[id] = row;
+            keys[id] = rowKeys;
+            live.set(id);
+            return id;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace a row and update the indexes, also after a change of the
+     * properties of the same row.
+     *
+     * @param id id of the row
+     * @param row new row
+     * @throws NullPointerException if {@code row} is {@code null}
+     * @throws IllegalArgumentException if there is not a row with the id
+     */
+    public void update(int id, T row) {
+        if (row == null) {
+            throw new NullPointerException("row must not be null");
+        }
+        lock.writeLock().lock();
+        try {
+            check(id);
+            Object[] rowKeys = keys[id];
+            for (int i = 0; i < rowKeys.length; i++) {
+                Index index = indexes.get(i);
+                Object key = index.key(row);
+                if (!equals(key, rowKeys[i])) {
+                    index.remove(rowKeys[i], id);
+                    index.add(key, id);
+                    rowKeys[i] = key;
+                }
+            }
+            rows[id] = row;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Delete a row.
+     *
+     * @param id id of the row
+     * @return {@code true} if the row was deleted, {@code false} if there is
+     * not a row with the id
+     */
+    public boolean delete(int id) {
+        lock.writeLock().lock();
+        try {
+            if (id < 0 || !live.get(id)) {
+                return false;
+            }
+            Object[] rowKeys = keys[id];
+            for (int i = 0; i < rowKeys.length; i++) {
+                indexes.get(i).remove(rowKeys[i], id);
+            }
+            rows[id] = null;
+            keys[id] = null;
+            live.clear(id);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Row of an id.
+     *
+     * @param id id of the row
+     * @return row
+     * @throws IllegalArgumentException if there is not a row with the id
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int id) {
+        lock.readLock().lock();
+        try {
+            check(id);
+            return (T) rows[id];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of rows.
+     *
+     * @return number of rows
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rows that match a filter, in order of id.
+     *
+     * @param filter filter
+     * @return rows that match the filter
+     * @throws NullPointerException if {@code filter} is {@code null}
+     * @throws IllegalArgumentException if the filter can not be compiled
+     */
+    public List<T> select(Filter filter) {
+        return select(filter, null, false, Integer.MAX_VALUE);
+    }
+
+    /**
+     * First rows that match a filter, in order of id.
+     *
+     * @param filter filter
+     * @param limit maximum number of rows
+     * @return rows that match the filter
+     * @throws NullPointerException if {@code filter} is {@code null}
+     * @throws IllegalArgumentException if the filter can not be compiled or
+     * {@code limit} is less than one
+     */
+    public List<T> select(Filter filter, int limit) {
+        return select(filter, null, false, limit);
+    }
+
+    /**
+     * First rows that match a filter, ordered by a column with the
+     * {@code NULL} values last.
+     *
+     * @param filter filter
+     * @param orderBy column name of the order, {@code null} to order by id
+     * @param descending {@code true} for a descending order
+     * @param limit maximum number of rows
+     * @return rows that match the filter
+     * @throws NullPointerException if {@code filter} is {@code null}
+     * @throws IllegalArgumentException if the filter can not be compiled or
+     * {@code limit} is less than one
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> select(Filter filter, String orderBy, boolean descending, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be greater than zero");
+        }
+        Predicate<Object> predicate = (Predicate<Object>) compiler.compile(filter);
+        Function<Object, Object> order = orderBy == null ? null : compiler.accessor(orderBy);
+        lock.readLock().lock();
+        try {
+            BitSet candidates = plan(filter);
+            if (candidates == null) {
+                candidates = live;
+            }
+            Index index = orderBy == null ? null : index(orderBy);
+            if (index != null && index.sorted) {
+                return (List<T>) walk(index, descending, candidates, predicate, limit);
+            }
+            List<Object> result = new ArrayList<>();
+            for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+                if (predicate.test(rows[id])) {
+                    result.add(rows[id]);
+                    if (order == null && result.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            if (order != null) {
+                Comparator<Object> comparator = PredicateCompiler::compare;
+                comparator = descending ? comparator.reversed() : comparator;
+                result.sort(Comparator.comparing(order, Comparator.nullsLast(comparator)));
+            }
+            return (List<T>) (result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Walk a sorted index to collect the first rows that match the filter.
+     *
+     * @param index sorted index of the order column
+     * @param descending {@code true} for a descending order
+     * @param candidates ids of the rows that may match the filter
+     * @param predicate predicate of the filter
+     * @param limit maximum number of rows
+     * @return rows that match the filter
+     */
+    private List<Object> walk(Index index, boolean descending, BitSet candidates, Predicate<Object> predicate,
+            int limit) {
+        List<Object> result = new ArrayList<>();
+        NavigableMap<Object, Postings> map = (NavigableMap<Object, Postings>) index.values;
+        for (Postings ids : descending ? map.descendingMap().values() : map.values()) {
+            if (collect(ids, candidates, predicate, limit, result)) {
+                return result;
+            }
+        }
+        collect(index.nulls, candidates, predicate, limit, result);
+        return result;
+    }
+
+    /**
+     * Collect the rows of a posting list that match the filter.
+     *
+     * @param ids ids of the rows of a value
+     * @param candidates ids of the rows that may match the filter
+     * @param predicate predicate of the filter
+     * @param limit maximum number of rows
+     * @param result rows that match the filter
+     * @return {@code true} if the result has the maximum number of rows
+     */
+    private boolean collect(Postings ids, BitSet candidates, Predicate<Object> predicate, int limit,
+            List<Object> result) {
+        for (int i = 0; i < ids.size; i++) {
+            int id = ids.ids[i];
+            if (candidates.get(id) && predicate.test(rows[id])) {
+                result.add(rows[id]);
+                if (result.size() == limit) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ids of the rows that may match a filter, found by the indexes.
+     *
+     * @param filter filter
+     * @return ids of the rows that may match the filter, {@code null} if
+     * every row may match
+     */
+    private BitSet plan(Filter filter) {
+        if (!filter.canApply()) {
+            return null;
+        }
+        if (filter instanceof FilterFactory.Logical) {
+            FilterFactory.Logical logical = (FilterFactory.Logical) filter;
+            BitSet result = null;
+            for (Filter child : logical.filters()) {
+                if (!child.canApply()) {
+                    continue;
+                }
+                BitSet ids = plan(child);
+                if (logical.isConjunction()) {
+                    if (ids != null) {
+                        if (result == null) {
+                            result = ids;
+                        } else {
+                            result.and(ids);
+                        }
+                    }
+                } else if (ids == null) {
+                    return null;
+                } else if (result == null) {
+                    result = ids;
+                } else {
+                    result.or(ids);
+                }
+            }
+            return result;
+        }
+        if (filter instanceof Comparison) {
+            Comparison comparison = (Comparison) filter;
+            Index index = index(comparison.columnName());
+            return index == null ? null : index.find(comparison.operator(), comparison.value());
+        }
+        if (filter instanceof Range) {
+            Range range = (Range) filter;
+            Index index = index(range.columnName());
+            return index == null || !index.sorted || range.operator() != Operator.BETWEEN
+                    ? null
+                    : index.between(range.leftValue(), range.rightValue());
+        }
+        if (filter instanceof NullCheck) {
+            NullCheck check = (NullCheck) filter;
+            Index index = index(check.columnName());
+            return index == null || check.operator() != Operator.IS_NULL ? null : index.nulls.toBitSet();
+        }
+        return null;
+    }
+
+    /**
+     * Index of a column.
+     *
+     * @param columnName column name
+     * @return index of the column, {@code null} if it is not indexed
+     */
+    private Index index(String columnName) {
+        for (Index index : indexes) {
+            if (index.columnName.equals(columnName)) {
+                return index;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check that there is a row with an id.
+     *
+     * @param id id of the row
+     * @throws IllegalArgumentException if there is not a row with the id
+     */
+    private void check(int id) {
+        if (id < 0 || !live.get(id)) {
+            throw new IllegalArgumentException(String.format("row %d does not exist", id));
+        }
+    }
+
+    /**
+     * Indicates whether two index keys are equal.
+     *
+     * @param a first key
+     * @param b second key
+     * @return {@code true} if the keys are equal or both are {@code null}
+     */
+    private static boolean equals(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    /**
+     * Index of a column: the ids of the rows by value of the column.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    private static final class Index {
+
+        /**
+         * Column name.
+         */
+        private final String columnName;
+        /**
+         * Accessor of the column.
+         */
+        private final Function<Object, Object> accessor;
+        /**
+         * Indicates whether the index is sorted.
+         */
+        private final boolean sorted;
+        /**
+         * Ids of the rows by value, without the {@code NULL} values.
+         */
+        private final Map<Object, Postings> values;
+        /**
+         * Ids of the rows with a {@code NULL} value.
+         */
+        private final Postings nulls;
+        /**
+         * Position of every id in the ids of its value.
+         */
+        private int[] positions = new int[INITIAL_CAPACITY];
+
+        /**
+         * Create an empty index.
+         *
+         * @param columnName column name
+         * @param accessor accessor of the column
+         * @param sorted {@code true} for a sorted index, {@code false} for a
+         * hash index
+         */
+        private Index(String columnName, Function<Object, Object> accessor, boolean sorted) {
+            this.columnName = columnName;
+            this.accessor = accessor;
+            this.sorted = sorted;
+            this.values = sorted ? new TreeMap<>(PredicateCompiler::compare) : new HashMap<>();
+            this.nulls = new Postings();
+        }
+
+        /**
+         * Key of a row: the value of the column, a number by value.
+         *
+         * @param row row
+         * @return key of the row, {@code null} if the value is {@code null}
+         */
+        private Object key(Object row) {
+            return keyOf(accessor.apply(row));
+        }
+
+        /**
+         * Key of a value: a number by value, see
+         * {@link PredicateCompiler#normalize(Number)}.
+         *
+         * @param value value
+         * @return key of the value
+         */
+        private static Object keyOf(Object value) {
+            return value instanceof Number ? PredicateCompiler.normalize((Number) value) : value;
+        }
+
+        /**
+         * Add the id of a row.
+         *
+         * @param key key of the row
+         * @param id id of the row
+         */
+        private void add(Object key, int id) {
+            if (id >= positions.length) {
+                positions = Arrays.copyOf(positions, Math.max(id + 1, positions.length * 2));
+            }
+            Postings ids = key == null ? nulls : values.computeIfAbsent(key, k -> new Postings());
+            ids.add(id, positions);
+        }
+
+        /**
+         * Remove the id of a row.
+         *
+         * @param key key of the row
+         * @param id id of the row
+         */
+        private void remove(Object key, int id) {
+            if (key == null) {
+                nulls.remove(id, positions);
+                return;
+            }
+            Postings ids = values.get(key);
+            if (ids != null && ids.remove(id, positions) && ids.size == 0) {
+                values.remove(key);
+            }
+        }
+
+        /**
+         * Ids of the rows of a comparison.
+         *
+         * @param operator operator
+         * @param value value of the comparison
+         * @return ids of the rows, {@code null} if the index can not find
+         * them
+         */
+        @SuppressWarnings("unchecked")
+        private BitSet find(Operator operator, Object value) {
+            switch (operator) {
+                case EQUAL:
+                    return ids(Collections.singleton(value));
+                case IN:
+                    return ids(value instanceof Collection ? (Collection<Object>) value : Collections.singleton(value));
+                case GREATER:
+                    return sorted ? union(tail(value, false).values()) : null;
+                case GREATER_OR_EQUAL:
+                    return sorted ? union(tail(value, true).values()) : null;
+                case LESS:
+                    return sorted ? union(head(value, false).values()) : null;
+                case LESS_OR_EQUAL:
+                    return sorted ? union(head(value, true).values()) : null;
+                default:
+                    return null;
+            }
+        }
+
+        /**
+         * Ids of the rows between two values, both inclusive.
+         *
+         * @param left left value
+         * @param right right value
+         * @return ids of the rows
+         */
+        private BitSet between(Object left, Object right) {
+            NavigableMap<Object, Postings> map = (NavigableMap<Object, Postings>) values;
+            return PredicateCompiler.compare(left, right) > 0
+                    ? new BitSet()
+                    : union(map.subMap(left, true, right, true).values());
+        }
+
+        /**
+         * Values greater than a value.
+         *
+         * @param value value
+         * @param inclusive {@code true} to include the value
+         * @return ids of the rows by value
+         */
+        private NavigableMap<Object, Postings> tail(Object value, boolean inclusive) {
+            return ((NavigableMap<Object, Postings>) values).tailMap(value, inclusive);
+        }
+
+        /**
+         * Values less than a value.
+         *
+         * @param value value
+         * @param inclusive {@code true} to include the value
+         * @return ids of the rows by value
+         */
+        private NavigableMap<Object, Postings> head(Object value, boolean inclusive) {
+            return ((NavigableMap<Object, Postings>) values).headMap(value, inclusive);
+        }
+
+        /**
+         * Ids of the rows with some values.
+         *
+         * @param keys values
+         * @return ids of the rows
+         */
+        private BitSet ids(Collection<Object> keys) {
+            BitSet result = new BitSet();
+            for (Object value : keys) {
+                Postings ids = value == null ? null : values.get(keyOf(value));
+                if (ids != null) {
+                    ids.addTo(result);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Union of the ids of the rows.
+         *
+         * @param postings ids of the rows by value
+         * @return ids of the rows
+         */
+        private static BitSet union(Collection<Postings> postings) {
+            BitSet result = new BitSet();
+            for (Postings ids : postings) {
+                ids.addTo(result);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Growable array of the ids of the rows with the same value. The index
+     * keeps the position of every id, so removing an id takes constant time.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    private static final class Postings {
+
+        /**
+         * Ids of the rows.
+         */
+        private int[] ids = new int[1];
+        /**
+         * Number of ids.
+         */
+        private int size;
+
+        /**
+         * Add an id.
+         *
+         * @param id id of a row
+         * @param positions position of every id, updated with the position
+         * of the id
+         */
+        private void add(int id, int[] positions) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            positions[id] = size;
+            ids[size++] = id;
+        }
+
+        /**
+         * Remove an id, the last id takes its place.
+         *
+         * @param id id of a row
+         * @param positions position of every id, updated with the new
+         * position of the last id
+         * @return {@code true} if the id was removed
+         */
+        private boolean remove(int id, int[] positions) {
+            int position = positions[id];
+            if (position >= size || ids[position] != id) {
+                return false;
+            }
+            int last = ids[--size];
+            ids[position] = last;
+            positions[last] = position;
+            return true;
+        }
+
+        /**
+         * Set the ids in a bit set.
+         *
+         * @param result bit set
+         */
+        private void addTo(BitSet result) {
+            for (int i = 0; i < size; i++) {
+                result.set(ids[i]);
+            }
+        }
+
+        /**
+         * Ids as a bit set.
+         *
+         * @return bit set of the ids
+         */
+        private BitSet toBitSet() {
+            BitSet result = new BitSet();
+            addTo(result);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package org.habv.maracuya;
+
+import java.util.List;
+
+/**
+ * Optional join of a {@link Filterable}, tied to the alias of its table. The
+ * join is rendered after the from statement only when the query references
+ * the alias, for example:
+ * <pre>{@code public List<Join> joins() {
+ *     return Arrays.asList(
+ *             Join.of("author", " LEFT JOIN author ON author.id = book.author_id"),
+ *             Join.of("country", " LEFT JOIN country ON country.id = author.country_id"));
+ *}}</pre> renders the join of {@code author} only when the select, an
+ * applicable filter, the group by, having or order by statements, or another
+ * rendered join, contain {@code author.} and the join of {@code country}
+ * only when they contain {@code country.}, in which case the join of
+ * {@code author} is rendered too. The alias must not be preceded by a
+ * character of an identifier, so {@code coauthor.} does not reference
+ * {@code author}, and the string literals are skipped.
+ * <p>
+ * An optional join must not change the rows of the query, usually it is a
+ * {@code LEFT JOIN} of at most one row, and it must be declared after the
+ * joins that it references. A join is immutable and thread safe.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ * @see Filterable#joins()
+ */
+public final class Join {
+
+    /**
+     * Quote of the string literals.
+     */
+    private static final char QUOTE = '\'';
+
+    /**
+     * Alias of the joined table.
+     */
+    private final String alias;
+    /**
+     * Join statement.
+     */
+    private final String statement;
+
+    /**
+     * Create an optional join.
+     *
+     * @param alias alias of the joined table
+     * @param statement join statement
+     */
+    private Join(String alias, String statement) {
+        this.alias = alias;
+        this.statement = statement;
+    }
+
+    /**
+     * Optional join of a table.
+     *
+     * @param alias alias of the joined table, referenced as {@code alias.}
+     * @param statement join statement, for example
+     * {@code " LEFT JOIN author ON author.id = book.author_id"}
+     * @return optional join
+     * @throws NullPointerException if {@code alias} or {@code statement} are
+     * {@code null} or empty
+     */
+    public static Join of(String alias, String statement) {
+        FilterFactory.required(alias, "alias");
+        FilterFactory.required(statement, "statement");
+        return new Join(alias, statement);
+    }
+
+    /**
+     * Alias of the joined table.
+     *
+     * @return alias of the joined table
+     */
+    public String alias() {
+        return alias;
+    }
+
+    /**
+     * Join statement.
+     *
+     * @return join statement
+     */
+    public String statement() {
+        return statement;
+    }
+
+    /**
+     * Insert the joins referenced by a query after its from statement. The
+     * joins referenced by a rendered join are rendered too.
+     *
+     * @param joins optional joins in order of declaration
+     * @param query query
+     * @param start index of the first character of the query to search for
+     * references, usually the start of the select statement
+     * @param at index of the end of the from statement
+     */
+    static void render(List<Join> joins, StringBuilder query, int start, int at) {
+        int count = joins.size();
+        if (count == 0) {
+            return;
+        }
+        boolean[] included = new boolean[count];
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 0; i < count; i++) {
+                if (!included[i] && joins.get(i).isReferenced(joins, included, query, start)) {
+                    included[i] = true;
+                    changed = true;
+                }
+            }
+        }
+        StringBuilder statements = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (included[i]) {
+                statements.append(joins.get(i).statement);
+            }
+        }
+        query.insert(at, statements);
+    }
+
+    /**
+     * Indicates whether the query or an included join reference the alias.
+     *
+     * @param joins optional joins
+     * @param included indicates whether every join is included
+     * @param query query
+     * @param start index of the first character of the query to search for
+     * references
+     * @return {@code true} if the alias is referenced, {@code false}
+     * otherwise
+     */
+    private boolean isReferenced(List<Join> joins, boolean[] included, CharSequence query, int start) {
+        if (isReferencedBy(query, start)) {
+            return true;
+        }
+        for (int i = 0; i < included.length; i++) {
+            if (included[i] && isReferencedBy(joins.get(i).statement, 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indicates whether a text contains the alias followed by a dot and not
+     * preceded by a character of an identifier nor by a dot, ignoring case.
+     * The text quoted with {@code '} is skipped, it is a string literal.
+     *
+     * @param text text
+     * @param start index of the first character to search
+     * @return {@code true} if the text references the alias, {@code false}
+     * otherwise
+     */
+    private boolean isReferencedBy(CharSequence text, int start) {
+        int length = alias.length();
+        int last = text.length() - length - 1;
+        boolean quoted = false;
+        for (int i = start; i <= last; i++) {
+            char c = text.charAt(i);
+            if (c == QUOTE) {
+                quoted = !quoted;
+            } else if (!quoted && text.charAt(i + length) == '.'
+                    && (i == 0 || !isIdentifierPart(text.charAt(i - 1)))
+                    && matches(text, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indicates whether a character can be part of an identifier or of a
+     * qualified name.
+     *
+     * @param c character
+     * @return {@code true} if the character is part of an identifier
+     */
+    private static boolean isIdentifierPart(char c) {
+        return c == '.' || Character.isJavaIdentifierPart(c);
+    }
+
+    /**
+     * Indicates whether the alias is at an index of a text, ignoring case.
+     *
+     * @param text text
+     * @param index index of the text
+     * @return {@code true} if the alias is at the index, {@code false}
+     * otherwise
+     */
+    private boolean matches(CharSequence text, int index) {
+        for (int i = 0; i < alias.length(); i++) {
+            char a = alias.charAt(i);
+            char b = text.charAt(index + i);
+            if (a != b && Character.toLowerCase(a) != Character.toLowerCase(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * alias.hashCode() + statement.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Join)) {
+            return false;
+        }
+        Join other = (Join) obj;
+        return alias.equals(other.alias) && statement.equals(other.statement);
+    }
+}
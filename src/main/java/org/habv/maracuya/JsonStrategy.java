@@ -0,0 +1,112 @@
+package org.habv.maracuya;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+/**
+ * Large collection strategy that binds the collection as a single JSON array
+ * parameter, read as a table by {@code OPENJSON}.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+final class JsonStrategy implements LargeCollectionStrategy {
+
+    /**
+     * Shared instance, the strategy does not have state.
+     */
+    static final JsonStrategy INSTANCE = new JsonStrategy();
+    /**
+     * Start of the subquery.
+     */
+    private static final String OPENJSON_START = "(SELECT value FROM OPENJSON(";
+    /**
+     * End of the subquery.
+     */
+    private static final String OPENJSON_END = "))";
+    /**
+     * Hexadecimal digits of the escaped characters.
+     */
+    private static final String HEX_DIGITS = "0123456789abcdef";
+
+    /**
+     * Use {@link #INSTANCE}.
+     */
+    private JsonStrategy() {
+    }
+
+    @Override
+    public void render(RenderContext context, String columnName, boolean negated, String paramName, Collection<?> values) {
+        context.append(columnName);
+        context.append(negated ? Operator.NOT_IN.token() : Operator.IN.token());
+        context.append(OPENJSON_START);
+        context.placeholder(paramName, json(values));
+        context.append(OPENJSON_END);
+    }
+
+    /**
+     * JSON array of the values: the numbers and booleans as JSON literals,
+     * the other values as JSON strings of their {@code toString}.
+     *
+     * @param values values
+     * @return JSON array
+     */
+    static String json(Collection<?> values) {
+        StringBuilder json = new StringBuilder(values.size() * 8 + 2);
+        json.append('[');
+        boolean first = true;
+        for (Object value : values) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            if (value == null || value instanceof Boolean) {
+                json.append(value);
+            } else if (value instanceof BigDecimal) {
+                json.append(((BigDecimal) value).toPlainString());
+            } else if (value instanceof Number && isFinite((Number) value)) {
+                json.append(value);
+            } else {
+                quote(json, value.toString());
+            }
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * Indicates whether a number is a JSON number, {@code NaN} and the
+     * infinities are not.
+     *
+     * @param number number
+     * @return {@code true} if the number is finite
+     */
+    private static boolean isFinite(Number number) {
+        if (number instanceof Double || number instanceof Float) {
+            double value = number.doubleValue();
+            return !Double.isNaN(value) && !Double.isInfinite(value);
+        }
+        return true;
+    }
+
+    /**
+     * Append a JSON string, escaping the quotes, the backslashes and the
+     * control characters.
+     *
+     * @param json JSON text
+     * @param text text
+     */
+    private static void quote(StringBuilder json, String text) {
+        json.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < ' ') {
+                json.append("\\u00").append(HEX_DIGITS.charAt(c >> 4)).append(HEX_DIGITS.charAt(c & 0xF));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+}
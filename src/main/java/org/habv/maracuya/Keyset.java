@@ -0,0 +1,404 @@
+package org.habv.maracuya;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Keyset (seek) pagination: the sort keys of a query, the key values of the
+ * last row of the previous page and the size of the page. The next page is
+ * read with a predicate on the sort keys instead of an {@code OFFSET}, so a
+ * deep page is as fast as the first one. For example:
+ * <pre>{@code public Optional<Keyset> keyset() {
+ *     Keyset keyset = Keyset.byDescending("book.published", "lastPublished")
+ *             .then("book.id", "lastId")
+ *             .limit(50);
+ *     return Optional.of(lastRow == null ? keyset : keyset.after(lastRow.getPublished(), lastRow.getId()));
+ *}}</pre> renders the following sql on PostgreSQL:
+ * {@code ... WHERE ... AND book.published <= :lastPublished
+ * AND (book.published < :lastPublished OR (book.published = :lastPublished AND book.id > :lastId))
+ * ORDER BY book.published DESC, book.id ASC LIMIT 50}, the first comparison
+ * is redundant but lets the database start the index scan at the last row.
+ * When all the keys have the same direction and the dialect supports row
+ * values the predicate is
+ * {@code (book.published, book.id) < (:lastPublished, :lastId)}.
+ * <p>
+ * The sort keys must identify a row, the last key is usually the primary key,
+ * and must not be {@code NULL}. A keyset is immutable and thread safe.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ * @see Filterable#keyset()
+ */
+public final class Keyset {
+
+    /**
+     * Order by token.
+     */
+    private static final String ORDER_BY_TOKEN = " ORDER BY ";
+    /**
+     * Ascending token.
+     */
+    private static final String ASC_TOKEN = " ASC";
+    /**
+     * Descending token.
+     */
+    private static final String DESC_TOKEN = " DESC";
+    /**
+     * Separator of the keys.
+     */
+    private static final String SEPARATOR = ", ";
+
+    /**
+     * Column names of the sort keys.
+     */
+    private final String[] columnNames;
+    /**
+     * Parameter names of the sort keys.
+     */
+    private final String[] paramNames;
+    /**
+     * Indicates whether every sort key is descending.
+     */
+    private final boolean[] descending;
+    /**
+     * Key values of the last row of the previous page, {@code null} for the
+     * first page.
+     */
+    private final Object[] values;
+    /**
+     * Maximum number of rows of a page, {@code 0} without limit.
+     */
+    private final int limit;
+
+    /**
+     * Create a keyset.
+     *
+     * @param columnNames column names of the sort keys
+     * @param paramNames parameter names of the sort keys
+     * @param descending indicates whether every sort key is descending
+     * @param values key values of the last row of the previous page,
+     * {@code null} for the first page
+     * @param limit maximum number of rows of a page, {@code 0} without limit
+     */
+    private Keyset(String[] columnNames, String[] paramNames, boolean[] descending, Object[] values, int limit) {
+        this.columnNames = columnNames;
+        this.paramNames = paramNames;
+        this.descending = descending;
+        this.values = values;
+        this.limit = limit;
+    }
+
+    /**
+     * Keyset with an ascending first sort key.
+     *
+     * @param columnName column name of the sort key
+     * @param paramName parameter name of the key value of the last row
+     * @return keyset of the first page
+     * @throws NullPointerException if {@code columnName} or {@code paramName}
+     * are {@code null}
+     */
+    public static Keyset by(String columnName, String paramName) {
+        return new Keyset(new String[0], new String[0], new boolean[0], null, 0).key(columnName, paramName, false);
+    }
+
+    /**
+     * Keyset with a descending first sort key.
+     *
+     * @param columnName column name of the sort key
+     * @param paramName parameter name of the key value of the last row
+     * @return keyset of the first page
+     * @throws NullPointerException if {@code columnName} or {@code paramName}
+     * are {@code null}
+     */
+    public static Keyset byDescending(String columnName, String paramName) {
+        return new Keyset(new String[0], new String[0], new boolean[0], null, 0).key(columnName, paramName, true);
+    }
+
+    /**
+     * Copy of this keyset with an ascending sort key added.
+     *
+     * @param columnName column name of the sort key
+     * @param paramName parameter name of the key value of the last row
+     * @return copy of this keyset, of the first page
+     * @throws NullPointerException if {@code columnName} or {@code paramName}
+     * are {@code null}
+     */
+    public Keyset then(String columnName, String paramName) {
+        return key(columnName, paramName, false);
+    }
+
+    /**
+     * Copy of this keyset with a descending sort key added.
+     *
+     * @param columnName column name of the sort key
+     * @param paramName parameter name of the key value of the last row
+     * @return copy of this keyset, of the first page
+     * @throws NullPointerException if {@code columnName} or {@code paramName}
+     * are {@code null}
+     */
+    public Keyset thenDescending(String columnName, String paramName) {
+        return key(columnName, paramName, true);
+    }
+
+    /**
+     * Copy of this keyset with a maximum number of rows per page, rendered as
+     * {@code LIMIT} or {@code FETCH FIRST} depending on the dialect. Without
+     * it, the query object must limit the rows, like
+     * {@code Query.setMaxResults} of JPA.
+     *
+     * @param limit maximum number of rows of a page
+     * @return copy of this keyset
+     * @throws IllegalArgumentException if {@code limit} is less than one
+     */
+    public Keyset limit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be greater than zero");
+        }
+        return new Keyset(columnNames, paramNames, descending, values, limit);
+    }
+
+    /**
+     * Copy of this keyset that reads the page after a row.
+     *
+     * @param values key values of the last row of the previous page, in the
+     * order of the sort keys
+     * @return copy of this keyset
+     * @throws NullPointerException if {@code values} or a value are
+     * {@code null}
+     * @throws IllegalArgumentException if the number of values is not the
+     * number of sort keys
+     */
+    public Keyset after(Object... values) {
+        if (values == null) {
+            throw new NullPointerException("values must not be null");
+        }
+        if (values.length != columnNames.length) {
+            throw new IllegalArgumentException(String.format("expected %d values but found %d",
+                    columnNames.length, values.length));
+        }
+        for (Object value : values) {
+            if (value == null) {
+                throw new NullPointerException("value must not be null");
+            }
+        }
+        return new Keyset(columnNames, paramNames, descending, Arrays.copyOf(values, values.length), limit);
+    }
+
+    /**
+     * Indicates whether this keyset reads the first page.
+     *
+     * @return {@code true} if there are not key values of a previous page
+     */
+    public boolean isFirstPage() {
+        return values == null;
+    }
+
+    /**
+     * Maximum number of rows of a page.
+     *
+     * @return maximum number of rows of a page, {@code 0} without limit
+     */
+    public int limit() {
+        return limit;
+    }
+
+    /**
+     * Join a filter with the predicate of the page.
+     *
+     * @param filter filter of the query
+     * @return filter of the page
+     */
+    Filter filter(Filter filter) {
+        if (isFirstPage()) {
+            return filter;
+        }
+        if (filter instanceof FilterFactory.Logical && ((FilterFactory.Logical) filter).isConjunction()) {
+            Filter[] filters = ((FilterFactory.Logical) filter).filters();
+            Filter[] joined = Arrays.copyOf(filters, filters.length + 1);
+            joined[filters.length] = new Seek();
+            return FilterFactory.and(joined);
+        }
+        return FilterFactory.and(filter, new Seek());
+    }
+
+    /**
+     * Predicate of the rows after the last row of the previous page.
+     *
+     * @return predicate of the page, {@code null} for the first page
+     */
+    Filter seek() {
+        return isFirstPage() ? null : new Seek();
+    }
+
+    /**
+     * Render the order by statement of the sort keys and the limit.
+     *
+     * @param context render context
+     */
+    void orderBy(RenderContext context) {
+        context.append(ORDER_BY_TOKEN);
+        for (int i = 0; i < columnNames.length; i++) {
+            if (i > 0) {
+                context.append(SEPARATOR);
+            }
+            context.append(columnNames[i]);
+            context.append(descending[i] ? DESC_TOKEN : ASC_TOKEN);
+        }
+        if (limit > 0) {
+            context.dialect().renderLimit(context, limit);
+        }
+    }
+
+    /**
+     * Indicates whether other keyset renders the same query string, only its
+     * key values may differ.
+     *
+     * @param other other keyset, may be {@code null}
+     * @return {@code true} if the keysets render the same query string
+     */
+    boolean isSameShape(Keyset other) {
+        return other != null
+                && limit == other.limit
+                && isFirstPage() == other.isFirstPage()
+                && Arrays.equals(columnNames, other.columnNames)
+                && Arrays.equals(paramNames, other.paramNames)
+                && Arrays.equals(descending, other.descending);
+    }
+
+    /**
+     * Hash code of the query string of this keyset, consistent with
+     * {@link #isSameShape(Keyset)}.
+     *
+     * @return hash code of the shape
+     */
+    int shapeHash() {
+        int result = Arrays.hashCode(columnNames);
+        result = 31 * result + Arrays.hashCode(paramNames);
+        result = 31 * result + Arrays.hashCode(descending);
+        result = 31 * result + Boolean.hashCode(isFirstPage());
+        return 31 * result + limit;
+    }
+
+    /**
+     * Copy of this keyset with a sort key added.
+     *
+     * @param columnName column name of the sort key
+     * @param paramName parameter name of the key value of the last row
+     * @param desc {@code true} if the sort key is descending
+     * @return copy of this keyset, of the first page
+     */
+    private Keyset key(String columnName, String paramName, boolean desc) {
+        FilterFactory.required(columnName, "columnName");
+        FilterFactory.required(paramName, "paramName");
+        int size = columnNames.length;
+        String[] newColumnNames = Arrays.copyOf(columnNames, size + 1);
+        String[] newParamNames = Arrays.copyOf(paramNames, size + 1);
+        boolean[] newDescending = Arrays.copyOf(descending, size + 1);
+        newColumnNames[size] = columnName;
+        newParamNames[size] = paramName;
+        newDescending[size] = desc;
+        return new Keyset(newColumnNames, newParamNames, newDescending, null, limit);
+    }
+
+    /**
+     * Predicate of the rows after the last row of the previous page.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    private final class Seek implements Filter {
+
+        @Override
+        public void apply(StringBuilder query, Map<String, Object> parameters) {
+            try (RenderContext context = new RenderContext()) {
+                render(context);
+                query.append(context.query());
+                parameters.putAll(context.parameters());
+            }
+        }
+
+        @Override
+        public void render(RenderContext context) {
+            if (columnNames.length > 1 && context.dialect().hasRowValues() && isSameDirection()) {
+                context.append(FilterFactory.LEFT_PARENTHESIS);
+                for (int i = 0; i < columnNames.length; i++) {
+                    if (i > 0) {
+                        context.append(SEPARATOR);
+                    }
+                    context.append(columnNames[i]);
+                }
+                context.append(FilterFactory.RIGHT_PARENTHESIS);
+                context.append(after(0).token());
+                context.append(FilterFactory.LEFT_PARENTHESIS);
+                for (int i = 0; i < columnNames.length; i++) {
+                    if (i > 0) {
+                        context.append(SEPARATOR);
+                    }
+                    context.placeholder(paramNames[i], values[i]);
+                }
+                context.append(FilterFactory.RIGHT_PARENTHESIS);
+                return;
+            }
+            if (columnNames.length == 1) {
+                compare(context, 0, after(0));
+                return;
+            }
+            compare(context, 0, descending[0] ? Operator.LESS_OR_EQUAL : Operator.GREATER_OR_EQUAL);
+            context.append(FilterFactory.AND_TOKEN);
+            context.append(FilterFactory.LEFT_PARENTHESIS);
+            for (int i = 0; i < columnNames.length; i++) {
+                if (i > 0) {
+                    context.append(FilterFactory.OR_TOKEN);
+                    context.append(FilterFactory.LEFT_PARENTHESIS);
+                    for (int j = 0; j < i; j++) {
+                        compare(context, j, Operator.EQUAL);
+                        context.append(FilterFactory.AND_TOKEN);
+                    }
+                }
+                compare(context, i, after(i));
+                if (i > 0) {
+                    context.append(FilterFactory.RIGHT_PARENTHESIS);
+                }
+            }
+            context.append(FilterFactory.RIGHT_PARENTHESIS);
+        }
+
+        /**
+         * Render the comparison of a sort key with its value.
+         *
+         * @param context render context
+         * @param index index of the sort key
+         * @param operator operator
+         */
+        private void compare(RenderContext context, int index, Operator operator) {
+            context.append(columnNames[index]);
+            context.append(operator.token());
+            context.placeholder(paramNames[index], values[index]);
+        }
+
+        /**
+         * Operator of the rows after the value of a sort key.
+         *
+         * @param index index of the sort key
+         * @return {@code LESS} for descending keys, {@code GREATER} otherwise
+         */
+        private Operator after(int index) {
+            return descending[index] ? Operator.LESS : Operator.GREATER;
+        }
+
+        /**
+         * Indicates whether all the sort keys have the same direction.
+         *
+         * @return {@code true} if all the sort keys are ascending or all are
+         * descending
+         */
+        private boolean isSameDirection() {
+            for (boolean desc : descending) {
+                if (desc != descending[0]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package org.habv.maracuya;
+
+import java.sql.Connection;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Strategy to render the large collections of {@code in} and {@code notIn}
+ * filters, instead of an {@code IN} list with one placeholder per value that
+ * parses and plans badly.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ * @see InListPolicy#withLargeCollections(int, LargeCollectionStrategy)
+ */
+public interface LargeCollectionStrategy {
+
+    /**
+     * Render a column compared with a large collection.
+     *
+     * @param context render context
+     * @param columnName column name
+     * @param negated {@code true} for {@code notIn}, {@code false} for
+     * {@code in}
+     * @param paramName parameter name
+     * @param values collection of values
+     */
+    void render(RenderContext context, String columnName, boolean negated, String paramName, Collection<?> values);
+
+    /**
+     * Shape of the query string rendered for a collection. Collections with
+     * the same shape must render the same query string.
+     *
+     * @param size size of the collection
+     * @return zero or a positive number, by default zero because the query
+     * string does not depend on the size of the collection
+     */
+    default int shape(int size) {
+        return 0;
+    }
+
+    /**
+     * Bind the collection as a single array parameter:
+     * {@code book.id = ANY(:ids)} and {@code NOT (book.id = ANY(:ids))}. The
+     * collection is bound as a Java array of the class of its values, for
+     * example {@code Integer[]}. Supported by PostgreSQL and H2.
+     * <p>
+     * The parameter setter must bind the Java array as a SQL array:
+     * {@link PositionalParameterSetter#jdbc()} creates it with
+     * {@link Connection#createArrayOf(String, Object[])} for the numbers,
+     * strings, booleans, UUIDs, dates and timestamps; a JPA provider must
+     * support array parameters, like Hibernate 6. Other setters, like a plain
+     * {@code setObject}, fail on PostgreSQL.
+     *
+     * @return strategy that binds an array parameter
+     */
+    static LargeCollectionStrategy array() {
+        return ArrayStrategy.INSTANCE;
+    }
+
+    /**
+     * Compare the column with a {@code VALUES} list, with one parameter per
+     * value:
+     * {@code book.id IN (SELECT v FROM (VALUES (:ids_1), (:ids_2)) AS list_values(v))}.
+     * Supported by PostgreSQL, SQL Server and H2. Every size of the
+     * collection is a different query string, and SQL Server accepts at most
+     * 2100 parameters, so it is meant for collections of hundreds of values.
+     *
+     * @return strategy that uses a {@code VALUES} list
+     */
+    static LargeCollectionStrategy values() {
+        return ValuesStrategy.INSTANCE;
+    }
+
+    /**
+     * Bind the collection as a single JSON array parameter, read as a table
+     * by {@code OPENJSON}:
+     * {@code book.id IN (SELECT value FROM OPENJSON(:ids))}. The numbers and
+     * booleans are JSON literals and the other values are JSON strings of
+     * their {@code toString}, converted by the database to the type of the
+     * column. Supported by SQL Server 2016 and later, with a compatibility
+     * level of 130 or higher.
+     *
+     * @return strategy that binds a JSON parameter
+     */
+    static LargeCollectionStrategy json() {
+        return JsonStrategy.INSTANCE;
+    }
+
+    /**
+     * Prepare the database for the query of a filterable, before the query is
+     * executed, for example load the collections of a temporary table. The
+     * filters never call this method, so rendering a query does not change
+     * the database; the application calls it explicitly:
+     * <pre>{@code strategy.prepare(search);
+     *PreparedStatement statement = search.applyPositional(statements, PositionalParameterSetter.jdbc());}</pre>
+     * By default it does nothing.
+     *
+     * @param filterable filterable of the query
+     */
+    default void prepare(Filterable filterable) {
+    }
+
+    /**
+     * Filter with {@code EXISTS} in a temporary table with the values of all
+     * the large collections of a query, every value in a row with the
+     * parameter name of its collection:
+     * {@code EXISTS (SELECT 1 FROM tmp_ids WHERE tmp_ids.param_name = :ids AND tmp_ids.id = book.id)},
+     * the parameter is bound to its own name. Rendering the query does not
+     * load the table, {@link #prepare(Filterable)} must be called before the
+     * query is executed; it calls the loader with the large collections of
+     * the query by parameter name.
+     *
+     * @param tableName temporary table name
+     * @param listColumnName column of the temporary table with the parameter
+     * names
+     * @param tableColumnName column of the temporary table with the values
+     * @param loader loads the values in the table, it receives the table name
+     * and the collections by parameter name
+     * @return strategy that uses a temporary table
+     * @throws NullPointerException if {@code tableName},
+     * {@code listColumnName} or {@code tableColumnName} are {@code null} or
+     * empty, or {@code loader} is {@code null}
+     */
+    static LargeCollectionStrategy temporaryTable(String tableName, String listColumnName, String tableColumnName,
+            BiConsumer<String, Map<String, Collection<?>>> loader) {
+        FilterFactory.required(tableName, "tableName");
+        FilterFactory.required(listColumnName, "listColumnName");
+        FilterFactory.required(tableColumnName, "tableColumnName");
+        if (loader == null) {
+            throw new NullPointerException("loader must not be null");
+        }
+        return new TemporaryTableStrategy(tableName, listColumnName, tableColumnName, loader);
+    }
+
+    /**
+     * Filter with {@code EXISTS} in a temporary table of a JDBC connection.
+     * The table must already exist, for example
+     * {@code CREATE LOCAL TEMPORARY TABLE tmp_ids (param_name VARCHAR(100), id BIGINT)};
+     * {@link #prepare(Filterable)} deletes its rows and inserts the values in
+     * a batch.
+     *
+     * @param connection connection where the query is executed
+     * @param tableName temporary table name
+     * @param listColumnName column of the temporary table with the parameter
+     * names
+     * @param tableColumnName column of the temporary table with the values
+     * @return strategy that uses a temporary table
+     * @throws NullPointerException if {@code connection} is {@code null}, or
+     * {@code tableName}, {@code listColumnName} or {@code tableColumnName}
+     * are {@code null} or empty
+     * @see #temporaryTable(String, String, String, BiConsumer)
+     */
+    static LargeCollectionStrategy temporaryTable(Connection connection, String tableName, String listColumnName,
+            String tableColumnName) {
+        if (connection == null) {
+            throw new NullPointerException("connection must not be null");
+        }
+        return temporaryTable(tableName, listColumnName, tableColumnName,
+                new TemporaryTableStrategy.JdbcLoader(connection, listColumnName, tableColumnName));
+    }
+}
@@ -0,0 +1,90 @@
+package org.habv.maracuya;
+
+import java.util.Map;
+
+/**
+ * Filter with a specified statement and a parameter. The statement is
+ * {@code null} when the filter only sets the parameter.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+final class Literal implements Filter {
+
+    /**
+     * Literal query value, {@code null} to only set the parameter.
+     */
+    private final String literal;
+    /**
+     * Parameter name.
+     */
+    private final String paramName;
+    /**
+     * Parameter value.
+     */
+    private final Object value;
+    /**
+     * Literal split at the placeholders of the parameter, {@code null} to
+     * only set the parameter.
+     */
+    private final Fragment fragment;
+
+    /**
+     * Create a filter with a specified statement and a parameter.
+     *
+     * @param literal literal query value, {@code null} to only set the
+     * parameter
+     * @param paramName parameter name
+     * @param value parameter value
+     */
+    Literal(String literal, String paramName, Object value) {
+        this.literal = literal;
+        this.paramName = paramName;
+        this.value = value;
+        this.fragment = literal == null ? null : Fragment.parse(literal, paramName);
+    }
+
+    /**
+     * Literal query value.
+     *
+     * @return literal query value, {@code null} if the filter only sets the
+     * parameter
+     */
+    String literal() {
+        return literal;
+    }
+
+    @Override
+    public void apply(StringBuilder query, Map<String, Object> parameters) {
+        if (literal != null) {
+            query.append(literal);
+        }
+        parameters.put(paramName, value);
+    }
+
+    @Override
+    public void render(RenderContext context) {
+        if (fragment == null || !fragment.isPlaced(0)) {
+            if (literal != null) {
+                context.append(literal);
+            }
+            context.parameter(paramName, value);
+            return;
+        }
+        for (int i = 0; i < fragment.placeholders(); i++) {
+            context.append(fragment.part(i));
+            context.placeholder(paramName, value);
+        }
+        context.append(fragment.part(fragment.placeholders()));
+    }
+
+    /**
+     * Add the identity of the text of the filter to the query shape.
+     *
+     * @param codes codes of the query shape
+     */
+    void key(QueryShape.Codes codes) {
+        codes.key(literal);
+        codes.key(paramName);
+    }
+}
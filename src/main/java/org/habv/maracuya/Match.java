@@ -0,0 +1,149 @@
+package org.habv.maracuya;
+
+import java.util.Map;
+
+/**
+ * Filter that matches a column with a text pattern, for example
+ * {@code LOWER(book.title) LIKE :title}. The pattern is computed once, when
+ * the filter is created, and a case insensitive match is rendered by the
+ * {@link Dialect} of the render context or with the lower case column of
+ * {@link RenderContext#lowerCaseColumn(String)}.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+final class Match implements Filter {
+
+    /**
+     * Column name.
+     */
+    private final String columnName;
+    /**
+     * Operator.
+     */
+    private final Operator operator;
+    /**
+     * Parameter name.
+     */
+    private final String paramName;
+    /**
+     * Pattern of the text, with the percent signs and in lower case when it
+     * is case insensitive.
+     */
+    private final String pattern;
+    /**
+     * True to be case insensitive.
+     */
+    private final boolean ignoreCase;
+
+    /**
+     * Create a filter with a single String value.
+     *
+     * @param columnName column name
+     * @param operator operator
+     * @param paramName parameter name
+     * @param value text to match
+     * @param left true to concatenate the percent sign at the beginning of the
+     * text
+     * @param right true to concatenate the percent sign at the end of the text
+     * @param ignoreCase true to be case insensitive
+     */
+    Match(String columnName, Operator operator, String paramName, String value, boolean left, boolean right, boolean ignoreCase) {
+        this.columnName = columnName;
+        this.operator = operator;
+        this.paramName = paramName;
+        this.pattern = (left ? FilterFactory.PERCENTAGE_SIGN : FilterFactory.EMPTY_STRING)
+                + (ignoreCase ? value.toLowerCase() : value)
+                + (right ? FilterFactory.PERCENTAGE_SIGN : FilterFactory.EMPTY_STRING);
+        this.ignoreCase = ignoreCase;
+    }
+
+    /**
+     * Column name.
+     *
+     * @return column name
+     */
+    String columnName() {
+        return columnName;
+    }
+
+    /**
+     * Operator.
+     *
+     * @return operator
+     */
+    Operator operator() {
+        return operator;
+    }
+
+    /**
+     * Pattern of the text, with the percent signs and in lower case when it
+     * is case insensitive.
+     *
+     * @return pattern of the text
+     */
+    String pattern() {
+        return pattern;
+    }
+
+    /**
+     * Indicates whether the match is case insensitive.
+     *
+     * @return {@code true} if the match is case insensitive
+     */
+    boolean ignoreCase() {
+        return ignoreCase;
+    }
+
+    @Override
+    public void apply(StringBuilder query, Map<String, Object> parameters) {
+        if (ignoreCase) {
+            query.append(FilterFactory.LOWER_TOKEN);
+            query.append(FilterFactory.LEFT_PARENTHESIS);
+        }
+        query.append(columnName);
+        if (ignoreCase) {
+            query.append(FilterFactory.RIGHT_PARENTHESIS);
+        }
+        query.append(operator.token());
+        query.append(FilterFactory.PREFIX);
+        query.append(paramName);
+        parameters.put(paramName, pattern);
+    }
+
+    @Override
+    public void render(RenderContext context) {
+        String lowerCaseColumn = ignoreCase ? context.lowerCaseColumn(columnName) : null;
+        if (lowerCaseColumn != null) {
+            context.append(lowerCaseColumn);
+            context.append(operator.token());
+        } else if (ignoreCase) {
+            context.dialect().renderIgnoreCase(context, columnName, operator);
+        } else {
+            context.append(columnName);
+            context.append(operator.token());
+        }
+        context.placeholder(paramName, pattern);
+    }
+
+    /**
+     * Add the identity of the text of the filter to the query shape.
+     *
+     * @param codes codes of the query shape
+     */
+    void key(QueryShape.Codes codes) {
+        codes.key(columnName);
+        codes.key(operator);
+        codes.key(paramName);
+        codes.key(ignoreCase);
+    }
+
+    /**
+     * Store the parameters of the filter without rendering its text.
+     *
+     * @param context render context
+     */
+    void collect(RenderContext context) {
+        context.placeholder(paramName, pattern);
+    }
+}
@@ -0,0 +1,72 @@
+package org.habv.maracuya;
+
+import java.util.Map;
+
+/**
+ * Filter that checks whether a column is null, for example
+ * {@code book.authorId IS NULL}.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+final class NullCheck implements Filter {
+
+    /**
+     * Column name.
+     */
+    private final String columnName;
+    /**
+     * Operator.
+     */
+    private final Operator operator;
+
+    /**
+     * Create a filter without parameters.
+     *
+     * @param columnName column name
+     * @param operator operator
+     */
+    NullCheck(String columnName, Operator operator) {
+        this.columnName = columnName;
+        this.operator = operator;
+    }
+
+    /**
+     * Column name.
+     *
+     * @return column name
+     */
+    String columnName() {
+        return columnName;
+    }
+
+    /**
+     * Operator.
+     *
+     * @return operator
+     */
+    Operator operator() {
+        return operator;
+    }
+
+    @Override
+    public void apply(StringBuilder query, Map<String, Object> parameters) {
+        query.append(columnName).append(operator.token());
+    }
+
+    @Override
+    public void render(RenderContext context) {
+        context.append(columnName);
+        context.append(operator.token());
+    }
+
+    /**
+     * Add the identity of the text of the filter to the query shape.
+     *
+     * @param codes codes of the query shape
+     */
+    void key(QueryShape.Codes codes) {
+        codes.key(columnName);
+        codes.key(operator);
+    }
+}
@@ -0,0 +1,90 @@
+package org.habv.maracuya;
+
+/**
+ * SQL operators used by the filters.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+enum Operator {
+
+    /**
+     * SQL equals operator.
+     */
+    EQUAL(" = "),
+    /**
+     * SQL not equals operator.
+     */
+    NOT_EQUAL(" <> "),
+    /**
+     * SQL greater than operator.
+     */
+    GREATER(" > "),
+    /**
+     * SQL greater or equals operator.
+     */
+    GREATER_OR_EQUAL(" >= "),
+    /**
+     * SQL less than operator.
+     */
+    LESS(" < "),
+    /**
+     * SQL less or equals operator.
+     */
+    LESS_OR_EQUAL(" <= "),
+    /**
+     * SQL like operator.
+     */
+    LIKE(" LIKE "),
+    /**
+     * SQL not like operator.
+     */
+    NOT_LIKE(" NOT LIKE "),
+    /**
+     * SQL in operator.
+     */
+    IN(" IN "),
+    /**
+     * SQL not in operator.
+     */
+    NOT_IN(" NOT IN "),
+    /**
+     * SQL is null operator.
+     */
+    IS_NULL(" IS NULL "),
+    /**
+     * SQL is not null operator.
+     */
+    IS_NOT_NULL(" IS NOT NULL "),
+    /**
+     * SQL between operator.
+     */
+    BETWEEN(" BETWEEN "),
+    /**
+     * SQL not between operator.
+     */
+    NOT_BETWEEN(" NOT BETWEEN ");
+
+    /**
+     * SQL token.
+     */
+    private final String token;
+
+    /**
+     * Create an operator.
+     *
+     * @param token SQL token
+     */
+    Operator(String token) {
+        this.token = token;
+    }
+
+    /**
+     * SQL token of the operator.
+     *
+     * @return SQL token
+     */
+    String token() {
+        return token;
+    }
+}
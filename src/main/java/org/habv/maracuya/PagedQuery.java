@@ -0,0 +1,56 @@
+package org.habv.maracuya;
+
+import java.util.Optional;
+
+/**
+ * Query object of a page plus the query object that counts all the rows, see
+ * {@link Filterable#applyPaged(QueryFactory, ParameterSetter, boolean)}.
+ *
+ * @param <Q> generic type of Query Object
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public final class PagedQuery<Q> {
+
+    /**
+     * Query object of the page.
+     */
+    private final Q page;
+    /**
+     * Query object that counts the rows, {@code null} if it was not created.
+     */
+    private final Q count;
+
+    /**
+     * Create a paged query.
+     *
+     * @param page query object of the page
+     * @param count query object that counts the rows, {@code null} if it was
+     * not created
+     */
+    PagedQuery(Q page, Q count) {
+        this.page = page;
+        this.count = count;
+    }
+
+    /**
+     * Query object of the page, with the order by statement and the keyset
+     * pagination of the filterable.
+     *
+     * @return query object of the page
+     */
+    public Q page() {
+        return page;
+    }
+
+    /**
+     * Query object that counts all the rows of the filter, without the order
+     * by statement nor the keyset pagination.
+     *
+     * @return query object that counts the rows, empty if it was not
+     * requested
+     */
+    public Optional<Q> count() {
+        return Optional.ofNullable(count);
+    }
+}
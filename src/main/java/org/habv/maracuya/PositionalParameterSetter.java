@@ -0,0 +1,53 @@
+package org.habv.maracuya;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Consumer to set the parameters to the query object by position.
+ *
+ * @param <Q> Generic type of Query Object
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ * @see Filterable#applyPositional(QueryFactory, PositionalParameterSetter)
+ */
+@FunctionalInterface
+public interface PositionalParameterSetter<Q> {
+
+    /**
+     * Set the parameter to the query object.
+     *
+     * @param query query object
+     * @param index parameter index, the first parameter is 1
+     * @param value parameter value
+     */
+    void set(Q query, int index, Object value);
+
+    /**
+     * Parameter setter of a JDBC {@link PreparedStatement}, it uses
+     * {@link PreparedStatement#setObject(int, Object)}. The arrays of
+     * {@link LargeCollectionStrategy#array()} are bound as SQL arrays created
+     * by {@link Connection#createArrayOf(String, Object[])}, because drivers
+     * like PostgreSQL do not bind a Java array with {@code setObject}.
+     *
+     * @return parameter setter of a prepared statement
+     * @throws IllegalStateException when the parameter can not be set, with
+     * the {@link SQLException} as cause
+     */
+    static PositionalParameterSetter<PreparedStatement> jdbc() {
+        return (statement, index, value) -> {
+            try {
+                String typeName = value instanceof Object[] ? ArrayStrategy.typeName((Object[]) value) : null;
+                if (typeName != null) {
+                    statement.setArray(index, statement.getConnection().createArrayOf(typeName, (Object[]) value));
+                } else {
+                    statement.setObject(index, value);
+                }
+            } catch (SQLException ex) {
+                throw new IllegalStateException(String.format("parameter %d can not be set", index), ex);
+            }
+        };
+    }
+}
@@ -0,0 +1,955 @@
+package org.habv.maracuya;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Compiler of filters into predicates of objects, so the same filters of
+ * {@link FilterFactory} can filter a collection or a stream in memory. For
+ * example:
+ * <pre>{@code PredicateCompiler<Book> compiler = PredicateCompiler.of(Book.class);
+ *List<Book> books = cachedBooks.stream()
+ *        .filter(compiler.compile(search.filter()))
+ *        .collect(Collectors.toList());}</pre>
+ * <p>
+ * The column of a filter is read with the getter of its property: the alias
+ * is removed and a snake case name is converted to camel case, so
+ * {@code book.author_id} is read with {@code getAuthorId()},
+ * {@code isAuthorId()}, {@code authorId()} or the field {@code authorId}, or
+ * with the accessor declared by {@link #column(String, Function)}. The
+ * getters are bound once by {@link LambdaMetafactory}, there is no
+ * reflection per row. The getters of a class that is not accessible by this
+ * library need the lookup of {@link #of(Class, MethodHandles.Lookup)}.
+ * <p>
+ * The filters that can not be applied are ignored, like in the query. A
+ * comparison with a {@code null} property is {@code false}, like the
+ * {@code NULL} of SQL in a where statement. Numbers are compared by value,
+ * so an {@code Integer} property is equal to a {@code Long} value. The
+ * filters with SQL text, like {@link FilterFactory#literal(String, String, Object)},
+ * the templates and the custom filters can not be compiled.
+ * <p>
+ * The children of a logical filter are evaluated in the order of the least
+ * expected cost and the evaluation stops at the first child that decides the
+ * result: the cheap filters that reject most of the objects of a conjunction
+ * go first and the {@code like} filters go last. The selectivity of a filter
+ * is estimated with the {@link ColumnStatistics} of its column, declared by
+ * {@link #statistics(String, ColumnStatistics)}, and the order adapts to the
+ * fraction of a random sample of the objects that every filter accepts.
+ * <p>
+ * A compiler and its predicates are thread safe.
+ *
+ * @param <T> type of the objects
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public final class PredicateCompiler<T> {
+
+    /**
+     * Predicate of a filter that can not be applied.
+     */
+    private static final Predicate<Object> ALWAYS = row -> true;
+    /**
+     * Prefixes of the getters.
+     */
+    private static final String[] GETTER_PREFIXES = {"get", "is", ""};
+    /**
+     * Separator of the alias and the column.
+     */
+    private static final char ALIAS_SEPARATOR = '.';
+    /**
+     * Separator of the words of a snake case column.
+     */
+    private static final char WORD_SEPARATOR = '_';
+    /**
+     * Wildcard of any sequence of characters of a like pattern.
+     */
+    private static final char ANY_SEQUENCE = '%';
+    /**
+     * Wildcard of any character of a like pattern.
+     */
+    private static final char ANY_CHARACTER = '_';
+    /**
+     * Estimated cost of an {@code in} filter.
+     */
+    private static final double IN_COST = 2;
+    /**
+     * Estimated cost of a {@code between} filter.
+     */
+    private static final double RANGE_COST = 2;
+    /**
+     * Estimated cost of a {@code like} filter.
+     */
+    private static final double MATCH_COST = 8;
+    /**
+     * Estimated cost of a null check.
+     */
+    private static final double NULL_CHECK_COST = 0.5;
+    /**
+     * Estimated selectivity of an equality without statistics.
+     */
+    private static final double EQUAL_SELECTIVITY = 0.1;
+    /**
+     * Estimated selectivity of a {@code between} filter without statistics.
+     */
+    private static final double RANGE_SELECTIVITY = 0.25;
+    /**
+     * Estimated selectivity of an {@code is null} filter without statistics.
+     */
+    private static final double NULL_SELECTIVITY = 0.1;
+    /**
+     * Estimated selectivity of the other filters without statistics.
+     */
+    private static final double DEFAULT_SELECTIVITY = 1.0 / 3;
+
+    /**
+     * Type of the objects.
+     */
+    private final Class<T> type;
+    /**
+     * Lookup with access to the getters.
+     */
+    private final MethodHandles.Lookup lookup;
+    /**
+     * Declared accessors by column name.
+     */
+    private final Map<String, Function<? super T, ?>> columns;
+    /**
+     * Statistics by column name.
+     */
+    private final Map<String, ColumnStatistics> statistics;
+    /**
+     * Bound accessors by column name.
+     */
+    private final ConcurrentMap<String, Function<Object, Object>> accessors;
+
+    /**
+     * Create a predicate compiler.
+     *
+     * @param type type of the objects
+     * @param lookup lookup with access to the getters
+     * @param columns declared accessors by column name
+     * @param statistics statistics by column name
+     */
+    private PredicateCompiler(Class<T> type, MethodHandles.Lookup lookup, Map<String, Function<? super T, ?>> columns,
+            Map<String, ColumnStatistics> statistics) {
+        this.type = type;
+        this.lookup = lookup;
+        this.columns = columns;
+        this.statistics = statistics;
+        this.accessors = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Predicate compiler of the public getters of a type.
+     *
+     * @param <T> type of the objects
+     * @param type type of the objects
+     * @return predicate compiler
+     * @throws NullPointerException if {@code type} is {@code null}
+     */
+    public static <T> PredicateCompiler<T> of(Class<T> type) {
+        return of(type, MethodHandles.lookup());
+    }
+
+    /**
+     * Predicate compiler of the getters of a type that are accessible by a
+     * lookup, usually {@code MethodHandles.lookup()} of the caller.
+     *
+     * @param <T> type of the objects
+     * @param type type of the objects
+     * @param lookup lookup with access to the getters
+     * @return predicate compiler
+     * @throws NullPointerException if {@code type} or {@code lookup} are
+     * {@code null}
+     */
+    public static <T> PredicateCompiler<T> of(Class<T> type, MethodHandles.Lookup lookup) {
+        if (type == null) {
+            throw new NullPointerException("type must not be null");
+        }
+        if (lookup == null) {
+            throw new NullPointerException("lookup must not be null");
+        }
+        return new PredicateCompiler<>(type, lookup, Collections.emptyMap(), Collections.emptyMap());
+    }
+
+    /**
+     * Copy of this compiler with the accessor of a column, for example
+     * {@code column("author.name", book -> book.getAuthor().getName())}.
+     *
+     * @param columnName column name of the filters
+     * @param accessor accessor of the value of the column
+     * @return copy of this compiler
+     * @throws NullPointerException if {@code columnName} or {@code accessor}
+     * are {@code null}
+     */
+    public PredicateCompiler<T> column(String columnName, Function<? super T, ?> accessor) {
+        FilterFactory.required(columnName, "columnName");
+        if (accessor == null) {
+            throw new NullPointerException("accessor must not be null");
+        }
+        Map<String, Function<? super T, ?>> newColumns = new LinkedHashMap<>(columns);
+        newColumns.put(columnName, accessor);
+        return new PredicateCompiler<>(type, lookup, Collections.unmodifiableMap(newColumns), statistics);
+    }
+
+    /**
+     * Copy of this compiler with the statistics of a column, they estimate
+     * the selectivity of its filters to order the children of the logical
+     * filters.
+     *
+     * @param columnName column name of the filters
+     * @param columnStatistics statistics of the column
+     * @return copy of this compiler
+     * @throws NullPointerException if {@code columnName} or
+     * {@code columnStatistics} are {@code null}
+     */
+    public PredicateCompiler<T> statistics(String columnName, ColumnStatistics columnStatistics) {
+        FilterFactory.required(columnName, "columnName");
+        if (columnStatistics == null) {
+            throw new NullPointerException("columnStatistics must not be null");
+        }
+        Map<String, ColumnStatistics> newStatistics = new LinkedHashMap<>(statistics);
+        newStatistics.put(columnName, columnStatistics);
+        return new PredicateCompiler<>(type, lookup, columns, Collections.unmodifiableMap(newStatistics));
+    }
+
+    /**
+     * Compile a filter into a predicate.
+     *
+     * @param filter filter
+     * @return predicate of the objects that match the filter, always
+     * {@code true} if the filter can not be applied
+     * @throws NullPointerException if {@code filter} is {@code null}
+     * @throws IllegalArgumentException if the filter can not be compiled or a
+     * column does not have an accessor
+     */
+    @SuppressWarnings("unchecked")
+    public Predicate<T> compile(Filter filter) {
+        if (filter == null) {
+            throw new NullPointerException("filter must not be null");
+        }
+        return (Predicate<T>) node(filter);
+    }
+
+    /**
+     * Compile a node of the filter tree.
+     *
+     * @param filter node of the filter tree
+     * @return predicate of the node
+     */
+    private Predicate<Object> node(Filter filter) {
+        if (!filter.canApply()) {
+            return ALWAYS;
+        }
+        if (filter instanceof FilterFactory.Logical) {
+            return logical((FilterFactory.Logical) filter);
+        }
+        if (filter instanceof Comparison) {
+            Comparison comparison = (Comparison) filter;
+            return comparison(accessor(comparison.columnName()), comparison.operator(), comparison.value());
+        }
+        if (filter instanceof Range) {
+            Range range = (Range) filter;
+            return range(accessor(range.columnName()), range.operator() == Operator.NOT_BETWEEN,
+                    comparable(range.leftValue()), comparable(range.rightValue()));
+        }
+        if (filter instanceof Match) {
+            Match match = (Match) filter;
+            return match(accessor(match.columnName()), match.operator() == Operator.NOT_LIKE,
+                    like(match.pattern()), match.ignoreCase());
+        }
+        if (filter instanceof NullCheck) {
+            NullCheck check = (NullCheck) filter;
+            Function<Object, Object> accessor = accessor(check.columnName());
+            return check.operator() == Operator.IS_NULL
+                    ? row -> accessor.apply(row) == null
+                    : row -> accessor.apply(row) != null;
+        }
+        if (filter instanceof FullText) {
+            return node(((FullText) filter).fallback());
+        }
+        if (filter instanceof Literal && ((Literal) filter).literal() == null) {
+            return ALWAYS;
+        }
+        throw new IllegalArgumentException(String.format("filter %s can not be compiled", filter.getClass().getName()));
+    }
+
+    /**
+     * Compile the applicable filters joined by a logical operator.
+     *
+     * @param logical logical filter
+     * @return predicate of the logical filter
+     */
+    private Predicate<Object> logical(FilterFactory.Logical logical) {
+        Filter[] filters = logical.filters();
+        // a generic array can not be created, the array only holds predicates of objects
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Predicate<Object>[] children = new Predicate[filters.length];
+        int size = 0;
+        for (Filter child : filters) {
+            if (child.canApply()) {
+                children[size++] = node(child);
+            }
+        }
+        if (size == 0) {
+            return ALWAYS;
+        }
+        if (size == 1) {
+            return children[0];
+        }
+        double[] costs = new double[size];
+        double[] selectivities = new double[size];
+        size = 0;
+        for (Filter child : filters) {
+            if (child.canApply()) {
+                costs[size] = cost(child);
+                selectivities[size++] = selectivity(child);
+            }
+        }
+        return new AdaptivePredicate(Arrays.copyOf(children, size), costs, selectivities, logical.isConjunction());
+    }
+
+    /**
+     * Estimated cost of the predicate of an applicable filter, relative to
+     * the comparison of a column with a value.
+     *
+     * @param filter applicable filter
+     * @return estimated cost
+     */
+    private static double cost(Filter filter) {
+        if (filter instanceof FilterFactory.Logical) {
+            double cost = 0;
+            for (Filter child : ((FilterFactory.Logical) filter).filters()) {
+                if (child.canApply()) {
+                    cost += cost(child);
+                }
+            }
+            return cost;
+        }
+        if (filter instanceof Comparison) {
+            Operator operator = ((Comparison) filter).operator();
+            return operator == Operator.IN || operator == Operator.NOT_IN ? IN_COST : 1;
+        }
+        if (filter instanceof Range) {
+            return RANGE_COST;
+        }
+        if (filter instanceof Match) {
+            return MATCH_COST;
+        }
+        if (filter instanceof NullCheck) {
+            return NULL_CHECK_COST;
+        }
+        if (filter instanceof FullText) {
+            return cost(((FullText) filter).fallback());
+        }
+        return 0;
+    }
+
+    /**
+     * Estimated fraction of the objects that match an applicable filter,
+     * with the statistics of its column or with a default fraction.
+     *
+     * @param filter applicable filter
+     * @return estimated selectivity, from 0 to 1
+     */
+    private double selectivity(Filter filter) {
+        if (filter instanceof FilterFactory.Logical) {
+            FilterFactory.Logical logical = (FilterFactory.Logical) filter;
+            double none = 1;
+            for (Filter child : logical.filters()) {
+                if (child.canApply()) {
+                    none *= logical.isConjunction() ? selectivity(child) : 1 - selectivity(child);
+                }
+            }
+            return logical.isConjunction() ? none : 1 - none;
+        }
+        if (filter instanceof FullText) {
+            return selectivity(((FullText) filter).fallback());
+        }
+        if (filter instanceof Comparison) {
+            Comparison comparison = (Comparison) filter;
+            return estimate(comparison.columnName(), comparison.operator(), comparison.value(), null);
+        }
+        if (filter instanceof Range) {
+            Range range = (Range) filter;
+            return estimate(range.columnName(), range.operator(), range.leftValue(), range.rightValue());
+        }
+        if (filter instanceof Match) {
+            Match match = (Match) filter;
+            return estimate(match.columnName(), match.operator(), null, null);
+        }
+        if (filter instanceof NullCheck) {
+            NullCheck check = (NullCheck) filter;
+            return estimate(check.columnName(), check.operator(), null, null);
+        }
+        return 1;
+    }
+
+    /**
+     * Estimated fraction of the objects that match an operator.
+     *
+     * @param columnName column name
+     * @param operator operator
+     * @param value value or left value of the filter
+     * @param right right value of the filter
+     * @return estimated selectivity, from 0 to 1
+     */
+    private double estimate(String columnName, Operator operator, Object value, Object right) {
+        ColumnStatistics column = statistics.get(columnName);
+        if (column != null) {
+            try {
+                return estimate(column, operator, value, right);
+            } catch (ClassCastException ex) {
+                // values of other type than the statistics, use the default
+            }
+        }
+        switch (operator) {
+            case EQUAL:
+                return EQUAL_SELECTIVITY;
+            case NOT_EQUAL:
+                return 1 - EQUAL_SELECTIVITY;
+            case IN:
+                return Math.min(1, EQUAL_SELECTIVITY * distinct(value));
+            case NOT_IN:
+                return 1 - Math.min(1, EQUAL_SELECTIVITY * distinct(value));
+            case BETWEEN:
+            case NOT_BETWEEN:
+                return RANGE_SELECTIVITY;
+            case IS_NULL:
+                return NULL_SELECTIVITY;
+            case IS_NOT_NULL:
+                return 1 - NULL_SELECTIVITY;
+            default:
+                return DEFAULT_SELECTIVITY;
+        }
+    }
+
+    /**
+     * Estimated fraction of the objects that match an operator, with the
+     * statistics of its column.
+     *
+     * @param column statistics of the column
+     * @param operator operator
+     * @param value value or left value of the filter
+     * @param right right value of the filter
+     * @return estimated selectivity, from 0 to 1
+     */
+    private static double estimate(ColumnStatistics column, Operator operator, Object value, Object right) {
+        double values = 1 - column.nullFraction();
+        switch (operator) {
+            case EQUAL:
+                return column.equal(value);
+            case NOT_EQUAL:
+                return values - column.equal(value);
+            case IN:
+                return column.in(distinct(value));
+            case NOT_IN:
+                return values - column.in(distinct(value));
+            case GREATER:
+                return values - column.less(value, true);
+            case GREATER_OR_EQUAL:
+                return values - column.less(value, false);
+            case LESS:
+                return column.less(value, false);
+            case LESS_OR_EQUAL:
+                return column.less(value, true);
+            case BETWEEN:
+                return Math.max(0, column.less(right, true) - column.less(value, false));
+            case NOT_BETWEEN:
+                return values - Math.max(0, column.less(right, true) - column.less(value, false));
+            case IS_NULL:
+                return column.nullFraction();
+            case IS_NOT_NULL:
+                return values;
+            default:
+                return values * DEFAULT_SELECTIVITY;
+        }
+    }
+
+    /**
+     * Compile the comparison of a column with a value.
+     *
+     * @param accessor accessor of the column
+     * @param operator operator
+     * @param value value
+     * @return predicate of the comparison
+     */
+    private static Predicate<Object> comparison(Function<Object, Object> accessor, Operator operator, Object value) {
+        switch (operator) {
+            case EQUAL:
+                return row -> {
+                    Object actual = accessor.apply(row);
+                    return actual != null && isEqual(value, actual);
+                };
+            case NOT_EQUAL:
+                return row -> {
+                    Object actual = accessor.apply(row);
+                    return actual != null && !isEqual(value, actual);
+                };
+            case IN:
+            case NOT_IN:
+                Set<Object> values = values(value);
+                boolean negated = operator == Operator.NOT_IN;
+                return row -> {
+                    Object actual = accessor.apply(row);
+                    return actual != null && contains(values, actual) != negated;
+                };
+            default:
+                return order(accessor, operator, comparable(value));
+        }
+    }
+
+    /**
+     * Compile the order comparison of a column with a value.
+     *
+     * @param accessor accessor of the column
+     * @param operator {@code >}, {@code >=}, {@code <} or {@code <=}
+     * operator
+     * @param value value
+     * @return predicate of the comparison
+     */
+    private static Predicate<Object> order(Function<Object, Object> accessor, Operator operator, Object value) {
+        switch (operator) {
+            case GREATER:
+                return row -> {
+                    Object actual = accessor.apply(row);
+                    return actual != null && compare(actual, value) > 0;
+                };
+            case GREATER_OR_EQUAL:
+                return row -> {
+                    Object actual = accessor.apply(row);
+                    return actual != null && compare(actual, value) >= 0;
+                };
+            case LESS:
+                return row -> {
+                    Object actual = accessor.apply(row);
+                    return actual != null && compare(actual, value) < 0;
+                };
+            case LESS_OR_EQUAL:
+                return row -> {
+                    Object actual = accessor.apply(row);
+                    return actual != null && compare(actual, value) <= 0;
+                };
+            default:
+                throw new IllegalArgumentException(String.format("operator %s can not be compiled", operator));
+        }
+    }
+
+    /**
+     * Compile the comparison of a column with a pair of values.
+     *
+     * @param accessor accessor of the column
+     * @param negated {@code true} if the operator is {@code not between}
+     * @param left left value
+     * @param right right value
+     * @return predicate of the comparison
+     */
+    private static Predicate<Object> range(Function<Object, Object> accessor, boolean negated, Object left,
+            Object right) {
+        return row -> {
+            Object actual = accessor.apply(row);
+            return actual != null && (compare(actual, left) >= 0 && compare(actual, right) <= 0) != negated;
+        };
+    }
+
+    /**
+     * Compile the match of a column with a pattern.
+     *
+     * @param accessor accessor of the column
+     * @param negated {@code true} if the operator is {@code not like}
+     * @param like predicate of the pattern
+     * @param ignoreCase {@code true} to match the column in lower case
+     * @return predicate of the match
+     */
+    private static Predicate<Object> match(Function<Object, Object> accessor, boolean negated, Predicate<String> like,
+            boolean ignoreCase) {
+        return row -> {
+            Object actual = accessor.apply(row);
+            if (actual == null) {
+                return false;
+            }
+            String text = actual.toString();
+            return like.test(ignoreCase ? text.toLowerCase() : text) != negated;
+        };
+    }
+
+    /**
+     * Compile a pattern of the {@code like} operator. A pattern with the
+     * wildcard {@code %} only at its ends is matched with
+     * {@link String#startsWith(String)}, {@link String#endsWith(String)} or
+     * {@link String#contains(CharSequence)}, otherwise with a regular
+     * expression.
+     *
+     * @param pattern pattern of the {@code like} operator
+     * @return predicate of the texts that match the pattern
+     */
+    static Predicate<String> like(String pattern) {
+        boolean left = !pattern.isEmpty() && pattern.charAt(0) == ANY_SEQUENCE;
+        String core = left ? pattern.substring(1) : pattern;
+        boolean right = !core.isEmpty() && core.charAt(core.length() - 1) == ANY_SEQUENCE;
+        core = right ? core.substring(0, core.length() - 1) : core;
+        if (core.indexOf(ANY_SEQUENCE) < 0 && core.indexOf(ANY_CHARACTER) < 0) {
+            String text = core;
+            if (left && right) {
+                return value -> value.contains(text);
+            }
+            if (left) {
+                return value -> value.endsWith(text);
+            }
+            if (right) {
+                return value -> value.startsWith(text);
+            }
+            return value -> value.equals(text);
+        }
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == ANY_SEQUENCE || c == ANY_CHARACTER) {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == ANY_SEQUENCE ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        Pattern compiled = Pattern.compile(regex.toString(), Pattern.DOTALL);
+        return value -> compiled.matcher(value).matches();
+    }
+
+    /**
+     * Number of distinct values of an {@code in} filter, the numbers are
+     * compared by value.
+     *
+     * @param value collection of values or a single value
+     * @return number of distinct values
+     */
+    private static int distinct(Object value) {
+        Collection<?> collection = value instanceof Collection
+                ? (Collection<?>) value
+                : Collections.singleton(value);
+        Set<Object> values = new HashSet<>();
+        for (Object element : collection) {
+            if (element != null) {
+                values.add(element instanceof Number ? normalize((Number) element) : element);
+            }
+        }
+        return values.size();
+    }
+
+    /**
+     * Values of an {@code in} filter, plus every number by value.
+     *
+     * @param value collection of values or a single value
+     * @return set of values
+     */
+    private static Set<Object> values(Object value) {
+        Collection<?> collection = value instanceof Collection
+                ? (Collection<?>) value
+                : Collections.singleton(value);
+        Set<Object> values = new HashSet<>();
+        for (Object element : collection) {
+            if (element != null) {
+                values.add(element);
+                if (element instanceof Number) {
+                    values.add(normalize((Number) element));
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Indicates whether a set of values contains a value, comparing the
+     * numbers by value.
+     *
+     * @param values set of values
+     * @param value value
+     * @return {@code true} if the set contains the value
+     */
+    private static boolean contains(Set<Object> values, Object value) {
+        return values.contains(value) || value instanceof Number && values.contains(normalize((Number) value));
+    }
+
+    /**
+     * Indicates whether two values are equal, comparing the numbers by value.
+     *
+     * @param expected value of the filter
+     * @param actual value of the object
+     * @return {@code true} if the values are equal
+     */
+    private static boolean isEqual(Object expected, Object actual) {
+        if (expected.equals(actual)) {
+            return true;
+        }
+        return expected instanceof Number && actual instanceof Number
+                && compareNumbers((Number) actual, (Number) expected) == 0;
+    }
+
+    /**
+     * Check that the value of an order comparison is comparable.
+     *
+     * @param value value of the filter
+     * @return value of the filter
+     * @throws IllegalArgumentException if the value is not comparable
+     */
+    private static Object comparable(Object value) {
+        if (!(value instanceof Comparable)) {
+            throw new IllegalArgumentException(String.format("value %s is not comparable", value));
+        }
+        return value;
+    }
+
+    /**
+     * Compare the value of an object with the value of a filter, comparing
+     * the numbers by value.
+     *
+     * @param actual value of the object
+     * @param expected value of the filter
+     * @return negative, zero or positive if the value of the object is less
+     * than, equal to or greater than the value of the filter
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static int compare(Object actual, Object expected) {
+        if (actual instanceof Number && expected instanceof Number && actual.getClass() != expected.getClass()) {
+            return compareNumbers((Number) actual, (Number) expected);
+        }
+        return ((Comparable) actual).compareTo(expected);
+    }
+
+    /**
+     * Compare two numbers by value.
+     *
+     * @param a first number
+     * @param b second number
+     * @return negative, zero or positive if the first number is less than,
+     * equal to or greater than the second one
+     */
+    private static int compareNumbers(Number a, Number b) {
+        if (isIntegral(a) && isIntegral(b)) {
+            return Long.compare(a.longValue(), b.longValue());
+        }
+        BigDecimal x = toBigDecimal(a);
+        BigDecimal y = toBigDecimal(b);
+        return x == null || y == null
+                ? Double.compare(a.doubleValue(), b.doubleValue())
+                : x.compareTo(y);
+    }
+
+    /**
+     * Number with the same value as a number of another type: a
+     * {@code Long} if it is an integer of the {@code long} range, otherwise
+     * a {@code BigDecimal} without trailing zeros.
+     *
+     * @param number number
+     * @return number with the same value
+     */
+    static Object normalize(Number number) {
+        if (isIntegral(number)) {
+            return number.longValue();
+        }
+        BigDecimal decimal = toBigDecimal(number);
+        if (decimal == null) {
+            return number.doubleValue();
+        }
+        decimal = decimal.stripTrailingZeros();
+        if (decimal.scale() <= 0 && decimal.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) >= 0
+                && decimal.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) <= 0) {
+            return decimal.longValue();
+        }
+        return decimal;
+    }
+
+    /**
+     * Indicates whether a number is an integer of the {@code long} range.
+     *
+     * @param number number
+     * @return {@code true} if the number is a {@code Long}, {@code Integer},
+     * {@code Short} or {@code Byte}
+     */
+    private static boolean isIntegral(Number number) {
+        return number instanceof Long || number instanceof Integer || number instanceof Short
+                || number instanceof Byte;
+    }
+
+    /**
+     * Decimal value of a number.
+     *
+     * @param number number
+     * @return decimal value, {@code null} if the number is not finite
+     */
+    private static BigDecimal toBigDecimal(Number number) {
+        if (number instanceof BigDecimal) {
+            return (BigDecimal) number;
+        }
+        if (number instanceof BigInteger) {
+            return new BigDecimal((BigInteger) number);
+        }
+        if (isIntegral(number)) {
+            return BigDecimal.valueOf(number.longValue());
+        }
+        double value = number.doubleValue();
+        return Double.isNaN(value) || Double.isInfinite(value) ? null : new BigDecimal(number.toString());
+    }
+
+    /**
+     * Accessor of a column, bound once.
+     *
+     * @param columnName column name
+     * @return accessor of the column
+     * @throws IllegalArgumentException if the column does not have an
+     * accessor
+     */
+    @SuppressWarnings("unchecked")
+    Function<Object, Object> accessor(String columnName) {
+        Function<Object, Object> accessor = accessors.get(columnName);
+        if (accessor == null) {
+            Function<? super T, ?> declared = columns.get(columnName);
+            accessor = declared != null ? (Function<Object, Object>) declared : bind(columnName);
+            accessors.putIfAbsent(columnName, accessor);
+        }
+        return accessor;
+    }
+
+    /**
+     * Bind the getter or the field of the property of a column.
+     *
+     * @param columnName column name
+     * @return accessor of the column
+     * @throws IllegalArgumentException if the type does not have a getter nor
+     * a field of the property
+     */
+    private Function<Object, Object> bind(String columnName) {
+        String property = property(columnName);
+        String capitalized = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        for (String prefix : GETTER_PREFIXES) {
+            Method method = getter(prefix.isEmpty() ? property : prefix + capitalized);
+            if (method != null) {
+                return bind(method);
+            }
+        }
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            try {
+                Field field = current.getDeclaredField(property);
+                field.setAccessible(true);
+                return invoker(lookup.unreflectGetter(field));
+            } catch (NoSuchFieldException e) {
+                //Search the superclass
+            } catch (IllegalAccessException | RuntimeException e) {
+                throw new IllegalArgumentException(String.format("field %s of %s is not accessible",
+                        property, type.getName()), e);
+            }
+        }
+        throw new IllegalArgumentException(String.format("column %s does not have a property in %s",
+                columnName, type.getName()));
+    }
+
+    /**
+     * Public getter of the type without parameters.
+     *
+     * @param name name of the getter
+     * @return getter, {@code null} if it does not exist
+     */
+    private Method getter(String name) {
+        try {
+            Method method = type.getMethod(name);
+            return method.getReturnType() == void.class ? null : method;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Bind a getter to a function with {@link LambdaMetafactory}, or to its
+     * method handle when the lookup can not access it.
+     *
+     * @param method getter
+     * @return accessor of the getter
+     */
+    @SuppressWarnings("unchecked")
+    private Function<Object, Object> bind(Method method) {
+        try {
+            MethodHandle handle = lookup.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class), handle, handle.type().wrap());
+            return (Function<Object, Object>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            try {
+                method.setAccessible(true);
+                return invoker(lookup.unreflect(method));
+            } catch (IllegalAccessException | RuntimeException ex) {
+                throw new IllegalArgumentException(String.format("method %s of %s is not accessible",
+                        method.getName(), type.getName()), ex);
+            }
+        }
+    }
+
+    /**
+     * Accessor that invokes a method handle.
+     *
+     * @param handle method handle of a getter
+     * @return accessor of the getter
+     */
+    private static Function<Object, Object> invoker(MethodHandle handle) {
+        MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+        return row -> {
+            try {
+                return generic.invokeExact(row);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    /**
+     * Property name of a column: without the alias and in camel case, for
+     * example {@code authorId} of {@code book.author_id}.
+     *
+     * @param columnName column name
+     * @return property name
+     */
+    static String property(String columnName) {
+        String name = columnName.substring(columnName.lastIndexOf(ALIAS_SEPARATOR) + 1).trim();
+        if (name.indexOf(WORD_SEPARATOR) < 0 && !name.equals(name.toUpperCase())) {
+            return name;
+        }
+        StringBuilder property = new StringBuilder(name.length());
+        boolean upper = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == WORD_SEPARATOR) {
+                upper = property.length() > 0;
+            } else {
+                property.append(upper ? Character.toUpperCase(c) : Character.toLowerCase(c));
+                upper = false;
+            }
+        }
+        return property.toString();
+    }
+}
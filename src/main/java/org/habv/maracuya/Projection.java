@@ -0,0 +1,205 @@
+package org.habv.maracuya;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Projection of a query: the columns that can be selected, by field name,
+ * and the fields requested by the caller. Only the requested columns are
+ * rendered, in order of declaration, so the optional joins needed only by
+ * the other columns are not rendered either, see {@link Join}. For example:
+ * <pre>{@code public Optional<Projection> projection() {
+ *     return Optional.of(Projection.of("id", "book.id")
+ *             .and("title", "book.title")
+ *             .and("author", "author.name AS author")
+ *             .select(fields));
+ *}}</pre> renders {@code SELECT book.id, book.title} when the fields are
+ * {@code title} and {@code id}, and the join of {@code author} is not
+ * rendered.
+ * <p>
+ * A projection is immutable and thread safe.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ * @see Filterable#projection()
+ */
+public final class Projection {
+
+    /**
+     * Select token.
+     */
+    private static final String SELECT_TOKEN = "SELECT ";
+    /**
+     * Separator of the columns.
+     */
+    private static final String SEPARATOR = ", ";
+    /**
+     * Separator of the field names of the key.
+     */
+    private static final String KEY_SEPARATOR = ",";
+
+    /**
+     * Field names.
+     */
+    private final String[] names;
+    /**
+     * Column of every field.
+     */
+    private final String[] columns;
+    /**
+     * Indicates whether every field is selected.
+     */
+    private final boolean[] selected;
+    /**
+     * Select statement of the selected columns.
+     */
+    private final String statement;
+    /**
+     * Selected field names in order of declaration.
+     */
+    private final String key;
+
+    /**
+     * Create a projection.
+     *
+     * @param names field names
+     * @param columns column of every field
+     * @param selected indicates whether every field is selected
+     */
+    private Projection(String[] names, String[] columns, boolean[] selected) {
+        this.names = names;
+        this.columns = columns;
+        this.selected = selected;
+        StringBuilder select = new StringBuilder(SELECT_TOKEN);
+        StringBuilder fields = new StringBuilder();
+        for (int i = 0; i < names.length; i++) {
+            if (selected[i]) {
+                if (fields.length() > 0) {
+                    select.append(SEPARATOR);
+                    fields.append(KEY_SEPARATOR);
+                }
+                select.append(columns[i]);
+                fields.append(names[i]);
+            }
+        }
+        this.statement = select.toString();
+        this.key = fields.toString();
+    }
+
+    /**
+     * Projection with a first field, selected.
+     *
+     * @param name field name
+     * @param column column of the field, for example
+     * {@code "author.name AS author"}
+     * @return projection of every field
+     * @throws NullPointerException if {@code name} or {@code column} are
+     * {@code null} or empty
+     */
+    public static Projection of(String name, String column) {
+        return new Projection(new String[0], new String[0], new boolean[0]).and(name, column);
+    }
+
+    /**
+     * Copy of this projection with a field added, selected.
+     *
+     * @param name field name
+     * @param column column of the field
+     * @return copy of this projection
+     * @throws NullPointerException if {@code name} or {@code column} are
+     * {@code null} or empty
+     * @throws IllegalArgumentException if the field was already added
+     */
+    public Projection and(String name, String column) {
+        FilterFactory.required(name, "name");
+        FilterFactory.required(column, "column");
+        if (indexOf(name) >= 0) {
+            throw new IllegalArgumentException(String.format("duplicate field %s", name));
+        }
+        int length = names.length;
+        String[] newNames = Arrays.copyOf(names, length + 1);
+        String[] newColumns = Arrays.copyOf(columns, length + 1);
+        boolean[] newSelected = Arrays.copyOf(selected, length + 1);
+        newNames[length] = name;
+        newColumns[length] = column;
+        newSelected[length] = true;
+        return new Projection(newNames, newColumns, newSelected);
+    }
+
+    /**
+     * Copy of this projection with only some fields selected. The order of
+     * the requested fields does not matter, the columns are rendered in order
+     * of declaration.
+     *
+     * @param fields requested field names, {@code null} or empty to select
+     * every field
+     * @return copy of this projection
+     * @throws NullPointerException if a field name is {@code null}
+     * @throws IllegalArgumentException if a field was not declared
+     */
+    public Projection select(Collection<String> fields) {
+        boolean[] newSelected = new boolean[names.length];
+        if (fields == null || fields.isEmpty()) {
+            Arrays.fill(newSelected, true);
+        } else {
+            for (String field : fields) {
+                if (field == null) {
+                    throw new NullPointerException("field must not be null");
+                }
+                int index = indexOf(field);
+                if (index < 0) {
+                    throw new IllegalArgumentException(String.format("unknown field %s", field));
+                }
+                newSelected[index] = true;
+            }
+        }
+        return new Projection(names, columns, newSelected);
+    }
+
+    /**
+     * Indicates whether a field is selected.
+     *
+     * @param name field name
+     * @return {@code true} if the field is selected, {@code false} otherwise
+     */
+    public boolean isSelected(String name) {
+        int index = indexOf(name);
+        return index >= 0 && selected[index];
+    }
+
+    /**
+     * Key of the selected fields: their names in order of declaration,
+     * separated by commas, the same for every request of the same fields in
+     * any order. It is part of the query shape of {@link QueryCache} and can
+     * be part of the key of other caches.
+     *
+     * @return key of the selected fields
+     */
+    public String key() {
+        return key;
+    }
+
+    /**
+     * Select statement of the selected columns.
+     *
+     * @return select statement
+     */
+    String statement() {
+        return statement;
+    }
+
+    /**
+     * Index of a field.
+     *
+     * @param name field name
+     * @return index of the field, {@code -1} if it was not declared
+     */
+    private int indexOf(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,307 @@
+package org.habv.maracuya;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Utility methods to concatenate the declarations of a {@link Filterable}.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+final class Queries {
+
+    /**
+     * Start of the derived table of a grouped count query.
+     */
+    private static final String COUNT_FROM_TOKEN = " FROM (SELECT 1";
+    /**
+     * End of the derived table of a grouped count query.
+     */
+    private static final String COUNT_END_TOKEN = ") counted";
+
+    /**
+     * Utility class, do not create instances, instead use static methods.
+     */
+    private Queries() {
+        throw new RuntimeException("do not create instances, instead use static methods");
+    }
+
+    /**
+     * Concatenate the declarations and apply the filter.
+     *
+     * @param filterable filterable that provides the declarations
+     * @param filter applicable filter of the filterable
+     * @param context render context
+     * @return query string
+     */
+    static String render(Filterable filterable, Filter filter, RenderContext context) {
+        configure(filterable, context);
+        if (filterable.unionAll() && UnionAll.render(filterable, filter, context)) {
+            return context.query().toString();
+        }
+        int start = context.query().length();
+        context.append(select(filterable));
+        context.append(filterable.from());
+        int at = context.query().length();
+        if (filter.canApply()) {
+            context.append(filterable.where());
+            filter.render(context);
+        }
+        filterable.groupBy().ifPresent(context::append);
+        filterable.having().ifPresent(context::append);
+        orderBy(filterable, context);
+        Join.render(filterable.joins(), context.query(), start, at);
+        return context.query().toString();
+    }
+
+    /**
+     * Concatenate the declarations of the query of a page and of the query
+     * that counts its rows, rendering the filter once. The parameters of the
+     * count query are the first parameters of the context, the parameters of
+     * the keyset pagination are rendered after them.
+     *
+     * @param filterable filterable that provides the declarations
+     * @param context render context
+     * @return query strings of the page and of the count
+     */
+    static Paged renderPaged(Filterable filterable, RenderContext context) {
+        configure(filterable, context);
+        Filter filter = filterable.filter();
+        Optional<Keyset> keyset = filterable.keyset();
+        Filter seek = keyset.isPresent() ? keyset.get().seek() : null;
+        boolean applicable = filter.canApply();
+        context.append(select(filterable));
+        int start = context.query().length();
+        context.append(filterable.from());
+        int at = context.query().length();
+        if (applicable) {
+            context.append(filterable.where());
+            boolean parenthesis = seek != null && FilterFactory.Logical.needsParenthesis(filter);
+            if (parenthesis) {
+                context.append(FilterFactory.LEFT_PARENTHESIS);
+            }
+            filter.render(context);
+            if (parenthesis) {
+                context.append(FilterFactory.RIGHT_PARENTHESIS);
+            }
+        }
+        int countSize = context.size();
+        StringBuilder count = new StringBuilder(filterable.countSelect());
+        Optional<String> groupBy = filterable.groupBy();
+        Optional<String> having = filterable.having();
+        boolean grouped = groupBy.isPresent() || having.isPresent();
+        if (grouped) {
+            count.append(COUNT_FROM_TOKEN);
+        }
+        int countAt = count.length() + at - start;
+        count.append(context.query(), start, context.query().length());
+        if (grouped) {
+            groupBy.ifPresent(count::append);
+            having.ifPresent(count::append);
+            count.append(COUNT_END_TOKEN);
+        }
+        if (seek != null) {
+            context.append(applicable ? FilterFactory.AND_TOKEN : filterable.where());
+            seek.render(context);
+        }
+        groupBy.ifPresent(context::append);
+        having.ifPresent(context::append);
+        orderBy(filterable, context);
+        List<Join> joins = filterable.joins();
+        Join.render(joins, context.query(), 0, at);
+        Join.render(joins, count, 0, countAt);
+        return new Paged(context.query().toString(), count.toString(), countSize);
+    }
+
+    /**
+     * Select statement of a filterable, of its projection when it is present.
+     *
+     * @param filterable filterable that provides the declarations
+     * @return select statement
+     */
+    static String select(Filterable filterable) {
+        Optional<Projection> projection = filterable.projection();
+        return projection.isPresent() ? projection.get().statement() : filterable.select();
+    }
+
+    /**
+     * Filter of a filterable joined with the predicate of its keyset
+     * pagination.
+     *
+     * @param filterable filterable that provides the filter
+     * @return filter of the query
+     */
+    static Filter filter(Filterable filterable) {
+        Filter filter = filterable.filter();
+        Optional<Keyset> keyset = filterable.keyset();
+        return keyset.isPresent() ? keyset.get().filter(filter) : filter;
+    }
+
+    /**
+     * Render the order by statement, of the keyset pagination when it is
+     * present.
+     *
+     * @param filterable filterable that provides the declarations
+     * @param context render context
+     */
+    static void orderBy(Filterable filterable, RenderContext context) {
+        Optional<Keyset> keyset = filterable.keyset();
+        if (keyset.isPresent()) {
+            keyset.get().orderBy(context);
+        } else {
+            filterable.orderBy().ifPresent(context::append);
+        }
+    }
+
+    /**
+     * Set the policies and the dialect of the filterable to the render
+     * context.
+     *
+     * @param filterable filterable that provides the policies and the dialect
+     * @param context render context
+     */
+    static void configure(Filterable filterable, RenderContext context) {
+        context.inListPolicy(filterable.inListPolicy());
+        context.dialect(filterable.dialect());
+        context.lowerCaseColumns(filterable.lowerCaseColumns());
+    }
+
+    /**
+     * Create the query object and set the parameters of the render context.
+     *
+     * @param <Q> generic type of Query Object
+     * @param query query string
+     * @param context render context with the parameters
+     * @param qfi query factory
+     * @param psi parameter setter
+     * @return query object create by the query factory with the parameters
+     * applied
+     */
+    static <Q> Q create(String query, RenderContext context, QueryFactory<Q> qfi, ParameterSetter<Q> psi) {
+        return create(query, context, context.size(), qfi, psi);
+    }
+
+    /**
+     * Create the query object and set the first parameters of the render
+     * context.
+     *
+     * @param <Q> generic type of Query Object
+     * @param query query string
+     * @param context render context with the parameters
+     * @param size number of parameters to set
+     * @param qfi query factory
+     * @param psi parameter setter
+     * @return query object create by the query factory with the parameters
+     * applied
+     */
+    static <Q> Q create(String query, RenderContext context, int size, QueryFactory<Q> qfi, ParameterSetter<Q> psi) {
+        Q instance = qfi.create(query);
+        for (int i = 0; i < size; i++) {
+            psi.set(instance, context.name(i), context.value(i));
+        }
+        return instance;
+    }
+
+    /**
+     * Create the query object and set the parameters of the render context by
+     * position.
+     *
+     * @param <Q> generic type of Query Object
+     * @param query query string
+     * @param context render context with the parameters
+     * @param qfi query factory
+     * @param psi positional parameter setter
+     * @return query object create by the query factory with the parameters
+     * applied
+     */
+    static <Q> Q createPositional(String query, RenderContext context, QueryFactory<Q> qfi,
+            PositionalParameterSetter<Q> psi) {
+        return createPositional(query, context, context.size(), qfi, psi);
+    }
+
+    /**
+     * Create the query object and set the first parameters of the render
+     * context by position.
+     *
+     * @param <Q> generic type of Query Object
+     * @param query query string
+     * @param context render context with the parameters
+     * @param size number of parameters to set
+     * @param qfi query factory
+     * @param psi positional parameter setter
+     * @return query object create by the query factory with the parameters
+     * applied
+     */
+    static <Q> Q createPositional(String query, RenderContext context, int size, QueryFactory<Q> qfi,
+            PositionalParameterSetter<Q> psi) {
+        Q instance = qfi.create(query);
+        for (int i = 0; i < size; i++) {
+            psi.set(instance, i + 1, context.value(i));
+        }
+        return instance;
+    }
+
+    /**
+     * Query strings of a page and of the query that counts its rows.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    static final class Paged {
+
+        /**
+         * Query string of the page.
+         */
+        private final String page;
+        /**
+         * Query string that counts the rows.
+         */
+        private final String count;
+        /**
+         * Number of parameters of the count query.
+         */
+        private final int countSize;
+
+        /**
+         * Create the query strings of a page.
+         *
+         * @param page query string of the page
+         * @param count query string that counts the rows
+         * @param countSize number of parameters of the count query
+         */
+        private Paged(String page, String count, int countSize) {
+            this.page = page;
+            this.count = count;
+            this.countSize = countSize;
+        }
+
+        /**
+         * Query string of the page.
+         *
+         * @return query string of the page
+         */
+        String page() {
+            return page;
+        }
+
+        /**
+         * Query string that counts the rows.
+         *
+         * @return query string that counts the rows
+         */
+        String count() {
+            return count;
+        }
+
+        /**
+         * Number of parameters of the count query, the first parameters of
+         * the render context.
+         *
+         * @return number of parameters of the count query
+         */
+        int countSize() {
+            return countSize;
+        }
+    }
+}
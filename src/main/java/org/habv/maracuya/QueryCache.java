@@ -0,0 +1,147 @@
+package org.habv.maracuya;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of query strings keyed by the shape of the query.
+ * <p>
+ * The shape of a query is made up of the type of the {@link Filterable}, its
+ * select, from, where, group by, having and order by statements, the
+ * structure of the filter tree, which leaves of the tree can be applied and
+ * the column, operator and parameter names of those leaves. When a shape is
+ * found in the cache the query string is reused and only the parameter
+ * values are collected, without rendering any text. The declarations of a
+ * filterable with {@link Filterable#constantDeclarations()} are read once
+ * per type.
+ * <p>
+ * The filters of {@link FilterFactory} and the templates are identified by
+ * their names, so a filterable that chooses its columns at runtime gets a
+ * shape for every choice. A custom filter is only identified by its class:
+ * the cache assumes that every applicable instance of the class renders the
+ * same text. The cache is thread safe and bounded: once the maximum size is
+ * reached new shapes are rendered but not stored.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public final class QueryCache {
+
+    /**
+     * Default maximum number of query shapes.
+     */
+    private static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+    /**
+     * Maximum number of query shapes.
+     */
+    private final int maximumSize;
+    /**
+     * Query strings by shape.
+     */
+    private final ConcurrentMap<QueryShape, String> queries;
+    /**
+     * Declarations by type of the filterables with constant declarations.
+     */
+    private final ConcurrentMap<Class<?>, QueryShape.Declarations> declarations;
+    /**
+     * Number of times that a shape was found in the cache.
+     */
+    private final LongAdder hits;
+    /**
+     * Number of times that a shape was not found in the cache.
+     */
+    private final LongAdder misses;
+
+    /**
+     * Create a query cache with the default maximum size.
+     */
+    public QueryCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Create a query cache.
+     *
+     * @param maximumSize maximum number of query shapes
+     * @throws IllegalArgumentException if {@code maximumSize} is less than one
+     */
+    public QueryCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be greater than zero");
+        }
+        this.maximumSize = maximumSize;
+        this.queries = new ConcurrentHashMap<>();
+        this.declarations = new ConcurrentHashMap<>();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    /**
+     * Get the query string of a filterable and collect its parameter values.
+     *
+     * @param filterable filterable that provides the declarations
+     * @param filter applicable filter of the filterable
+     * @param context render context
+     * @return query string
+     */
+    String query(Filterable filterable, Filter filter, RenderContext context) {
+        QueryShape shape = filterable.constantDeclarations()
+                ? QueryShape.of(declarations.computeIfAbsent(filterable.getClass(),
+                        type -> new QueryShape.Declarations(filterable)), filterable, filter)
+                : QueryShape.of(filterable, filter);
+        String query = queries.get(shape);
+        if (query == null) {
+            misses.increment();
+            query = Queries.render(filterable, filter, context);
+            if (queries.size() < maximumSize) {
+                queries.putIfAbsent(shape, query);
+            }
+        } else {
+            hits.increment();
+            if (shape.isApplicable()) {
+                Queries.configure(filterable, context);
+                context.collect(filter);
+            }
+        }
+        return query;
+    }
+
+    /**
+     * Number of times that a shape was found in the cache.
+     *
+     * @return number of hits
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Number of times that a shape was not found in the cache.
+     *
+     * @return number of misses
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Number of query shapes in the cache.
+     *
+     * @return number of query shapes
+     */
+    public int size() {
+        return queries.size();
+    }
+
+    /**
+     * Remove all the query shapes and reset the statistics.
+     */
+    public void clear() {
+        queries.clear();
+        declarations.clear();
+        hits.reset();
+        misses.reset();
+    }
+}
@@ -0,0 +1,422 @@
+package org.habv.maracuya;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Shape of a query: the declarations of a {@link Filterable} plus the
+ * structure of its filter tree, which leaves of the tree can be applied and
+ * what identifies the text of every applicable leaf. Two queries with the
+ * same shape render the same query string, only the parameter values may
+ * differ.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+final class QueryShape {
+
+    /**
+     * Initial capacity of the codes array.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+    /**
+     * Code of a leaf that can be applied.
+     */
+    static final int APPLICABLE = 1;
+    /**
+     * Code of a leaf that can not be applied.
+     */
+    static final int NOT_APPLICABLE = 0;
+
+    /**
+     * Declarations of the filterable.
+     */
+    private final Declarations declarations;
+    /**
+     * Keyset pagination, {@code null} when absent.
+     */
+    private final Keyset keyset;
+    /**
+     * Pre-order encoding of the filter tree.
+     */
+    private final int[] codes;
+    /**
+     * Identity of the applicable leaves of the filter tree, in pre-order.
+     */
+    private final Object[] keys;
+    /**
+     * Indicates whether the filter can be applied.
+     */
+    private final boolean applicable;
+    /**
+     * Cached hash code.
+     */
+    private final int hash;
+
+    /**
+     * Create a query shape.
+     *
+     * @param declarations declarations of the filterable
+     * @param keyset keyset pagination, {@code null} when absent
+     * @param codes codes of the filter tree
+     * @param applicable indicates whether the filter can be applied
+     */
+    private QueryShape(Declarations declarations, Keyset keyset, Codes codes, boolean applicable) {
+        this.declarations = declarations;
+        this.keyset = keyset;
+        this.codes = Arrays.copyOf(codes.values, codes.size);
+        this.keys = Arrays.copyOf(codes.keys, codes.keySize);
+        this.applicable = applicable;
+        int result = declarations.hashCode();
+        result = 31 * result + (keyset == null ? 0 : keyset.shapeHash());
+        result = 31 * result + Arrays.hashCode(keys);
+        this.hash = 31 * result + Arrays.hashCode(this.codes);
+    }
+
+    /**
+     * Compute the shape of the query of a filterable.
+     *
+     * @param filterable filterable that provides the declarations
+     * @param filter applicable filter of the filterable
+     * @return shape of the query
+     */
+    static QueryShape of(Filterable filterable, Filter filter) {
+        return of(new Declarations(filterable), filterable, filter);
+    }
+
+    /**
+     * Compute the shape of the query of a filterable with declarations that
+     * were already read.
+     * <p>
+     * The filter tree is walked once in pre-order: every logical node is
+     * encoded with its operator and number of children and every leaf with
+     * the result of its {@link Filter#canApply()}, or with the code of the
+     * {@link InListPolicy} when it is an {@code in} list. Every applicable
+     * leaf also adds what identifies its text: the column, operator and
+     * parameter names of the filters of {@link FilterFactory}, the template
+     * of a {@link FilterTemplate}, or the class of any other filter.
+     *
+     * @param declarations declarations of the filterable
+     * @param filterable filterable that provides the keyset pagination
+     * @param filter applicable filter of the filterable
+     * @return shape of the query
+     */
+    static QueryShape of(Declarations declarations, Filterable filterable, Filter filter) {
+        Codes codes = new Codes(filterable.inListPolicy(), filterable.dialect());
+        boolean applicable = encode(filter, codes);
+        return new QueryShape(declarations, filterable.keyset().orElse(null), codes, applicable);
+    }
+
+    /**
+     * Encode a node of the filter tree.
+     *
+     * @param filter node of the filter tree
+     * @param codes codes of the tree
+     * @return {@code true} if the node can be applied, {@code false}
+     * otherwise
+     */
+    static boolean encode(Filter filter, Codes codes) {
+        if (filter instanceof FilterFactory.Logical) {
+            FilterFactory.Logical logical = (FilterFactory.Logical) filter;
+            Filter[] filters = logical.filters();
+            codes.add(logical(logical.isConjunction(), filters.length));
+            boolean applicable = false;
+            for (Filter child : filters) {
+                applicable |= encode(child, codes);
+            }
+            return applicable;
+        }
+        if (filter instanceof Comparison) {
+            Comparison comparison = (Comparison) filter;
+            codes.add(comparison.code(codes));
+            comparison.key(codes);
+            return true;
+        }
+        if (filter instanceof FilterTemplate.Binding) {
+            return ((FilterTemplate.Binding) filter).encode(codes);
+        }
+        boolean applicable = filter.canApply();
+        codes.add(applicable ? APPLICABLE : NOT_APPLICABLE);
+        if (applicable) {
+            key(filter, codes);
+        }
+        return applicable;
+    }
+
+    /**
+     * Add the identity of the text of an applicable leaf.
+     *
+     * @param filter applicable leaf of the filter tree
+     * @param codes codes of the tree
+     */
+    private static void key(Filter filter, Codes codes) {
+        if (filter instanceof Range) {
+            ((Range) filter).key(codes);
+        } else if (filter instanceof Match) {
+            ((Match) filter).key(codes);
+        } else if (filter instanceof NullCheck) {
+            ((NullCheck) filter).key(codes);
+        } else if (filter instanceof Literal) {
+            ((Literal) filter).key(codes);
+        } else if (filter instanceof FullText) {
+            ((FullText) filter).key(codes);
+        } else {
+            codes.key(filter.getClass());
+        }
+    }
+
+    /**
+     * Code of a logical node.
+     *
+     * @param conjunction {@code true} if the logical operator is "and",
+     * {@code false} if it is "or"
+     * @param children number of children of the node
+     * @return code of the logical node, always negative
+     */
+    static int logical(boolean conjunction, int children) {
+        return -2 * children - (conjunction ? 1 : 2);
+    }
+
+    /**
+     * Indicates whether the filter of the query can be applied.
+     *
+     * @return {@code true} if the filter can be applied, {@code false}
+     * otherwise
+     */
+    boolean isApplicable() {
+        return applicable;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof QueryShape)) {
+            return false;
+        }
+        QueryShape other = (QueryShape) obj;
+        return hash == other.hash
+                && applicable == other.applicable
+                && Arrays.equals(codes, other.codes)
+                && Arrays.equals(keys, other.keys)
+                && declarations.equals(other.declarations)
+                && (keyset == null ? other.keyset == null : keyset.isSameShape(other.keyset));
+    }
+
+    /**
+     * Growable array of codes.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    static final class Codes {
+
+        /**
+         * Codes.
+         */
+        private int[] values = new int[INITIAL_CAPACITY];
+        /**
+         * Number of codes.
+         */
+        private int size;
+        /**
+         * Identity of the applicable leaves.
+         */
+        private Object[] keys = new Object[INITIAL_CAPACITY];
+        /**
+         * Number of keys.
+         */
+        private int keySize;
+        /**
+         * Policy of the collections of the {@code in} and {@code notIn}
+         * filters.
+         */
+        private final InListPolicy policy;
+        /**
+         * SQL dialect.
+         */
+        private final Dialect dialect;
+
+        /**
+         * Create an empty array of codes.
+         *
+         * @param policy policy of the collections of the {@code in} and
+         * {@code notIn} filters
+         * @param dialect SQL dialect
+         */
+        Codes(InListPolicy policy, Dialect dialect) {
+            this.policy = policy;
+            this.dialect = dialect;
+        }
+
+        /**
+         * SQL dialect.
+         *
+         * @return SQL dialect
+         */
+        Dialect dialect() {
+            return dialect;
+        }
+
+        /**
+         * Policy of the collections of the {@code in} and {@code notIn}
+         * filters.
+         *
+         * @return policy of the collections
+         */
+        InListPolicy policy() {
+            return policy;
+        }
+
+        /**
+         * Add a code.
+         *
+         * @param code code
+         */
+        void add(int code) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = code;
+        }
+
+        /**
+         * Add the identity of the text of a leaf, for example its column
+         * name.
+         *
+         * @param key identity of the text
+         */
+        void key(Object key) {
+            if (keySize == keys.length) {
+                keys = Arrays.copyOf(keys, keySize * 2);
+            }
+            keys[keySize++] = key;
+        }
+    }
+
+    /**
+     * Declarations of a filterable: its type, statements, joins, dialect and
+     * case insensitive columns. When the filterable declares
+     * {@link Filterable#constantDeclarations()} they are read once per type.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    static final class Declarations {
+
+        /**
+         * Type of the filterable.
+         */
+        private final Class<?> type;
+        /**
+         * Select statement.
+         */
+        private final String select;
+        /**
+         * From statement.
+         */
+        private final String from;
+        /**
+         * Optional joins.
+         */
+        private final List<Join> joins;
+        /**
+         * Where statement.
+         */
+        private final String where;
+        /**
+         * Group by statement, {@code null} when absent.
+         */
+        private final String groupBy;
+        /**
+         * Having statement, {@code null} when absent.
+         */
+        private final String having;
+        /**
+         * Order by statement, {@code null} when absent.
+         */
+        private final String orderBy;
+        /**
+         * SQL dialect.
+         */
+        private final Dialect dialect;
+        /**
+         * Indicates whether a top-level "or" is rendered as union branches.
+         */
+        private final boolean unionAll;
+        /**
+         * Lower case columns of the case insensitive columns.
+         */
+        private final Map<String, String> lowerCaseColumns;
+        /**
+         * Cached hash code.
+         */
+        private final int hash;
+
+        /**
+         * Read the declarations of a filterable.
+         *
+         * @param filterable filterable that provides the declarations
+         */
+        Declarations(Filterable filterable) {
+            this.type = filterable.getClass();
+            this.select = Queries.select(filterable);
+            this.from = filterable.from();
+            this.joins = filterable.joins();
+            this.where = filterable.where();
+            this.groupBy = filterable.groupBy().orElse(null);
+            this.having = filterable.having().orElse(null);
+            this.orderBy = filterable.orderBy().orElse(null);
+            this.dialect = filterable.dialect();
+            this.unionAll = filterable.unionAll();
+            this.lowerCaseColumns = filterable.lowerCaseColumns();
+            int result = type.hashCode();
+            result = 31 * result + Objects.hashCode(select);
+            result = 31 * result + Objects.hashCode(from);
+            result = 31 * result + joins.hashCode();
+            result = 31 * result + Objects.hashCode(where);
+            result = 31 * result + Objects.hashCode(groupBy);
+            result = 31 * result + Objects.hashCode(having);
+            result = 31 * result + Objects.hashCode(orderBy);
+            result = 31 * result + dialect.hashCode();
+            result = 31 * result + Boolean.hashCode(unionAll);
+            this.hash = 31 * result + lowerCaseColumns.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Declarations)) {
+                return false;
+            }
+            Declarations other = (Declarations) obj;
+            return hash == other.hash
+                    && type == other.type
+                    && Objects.equals(select, other.select)
+                    && Objects.equals(from, other.from)
+                    && joins.equals(other.joins)
+                    && Objects.equals(where, other.where)
+                    && Objects.equals(groupBy, other.groupBy)
+                    && Objects.equals(having, other.having)
+                    && Objects.equals(orderBy, other.orderBy)
+                    && dialect == other.dialect
+                    && unionAll == other.unionAll
+                    && lowerCaseColumns.equals(other.lowerCaseColumns);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package org.habv.maracuya;
+
+import java.util.Map;
+
+/**
+ * Filter that compares a column with a pair of values, for example
+ * {@code book.published BETWEEN :start AND :end}.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+final class Range implements Filter {
+
+    /**
+     * Column name.
+     */
+    private final String columnName;
+    /**
+     * Operator.
+     */
+    private final Operator operator;
+    /**
+     * Left parameter name.
+     */
+    private final String leftParamName;
+    /**
+     * Right parameter name.
+     */
+    private final String rightParamName;
+    /**
+     * Left parameter value.
+     */
+    private final Object leftValue;
+    /**
+     * Right parameter value.
+     */
+    private final Object rightValue;
+
+    /**
+     * Create a filter with a pair of values.
+     *
+     * @param columnName column name
+     * @param operator operator
+     * @param leftParamName left parameter name
+     * @param rightParamName right parameter name
+     * @param leftValue left parameter value
+     * @param rightValue right parameter value
+     */
+    Range(String columnName, Operator operator, String leftParamName, String rightParamName, Object leftValue, Object rightValue) {
+        this.columnName = columnName;
+        this.operator = operator;
+        this.leftParamName = leftParamName;
+        this.rightParamName = rightParamName;
+        this.leftValue = leftValue;
+        this.rightValue = rightValue;
+    }
+
+    /**
+     * Column name.
+     *
+     * @return column name
+     */
+    String columnName() {
+        return columnName;
+    }
+
+    /**
+     * Operator.
+     *
+     * @return operator
+     */
+    Operator operator() {
+        return operator;
+    }
+
+    /**
+     * Left parameter name.
+     *
+     * @return left parameter name
+     */
+    String leftParamName() {
+        return leftParamName;
+    }
+
+    /**
+     * Right parameter name.
+     *
+     * @return right parameter name
+     */
+    String rightParamName() {
+        return rightParamName;
+    }
+
+    /**
+     * Left parameter value.
+     *
+     * @return left parameter value
+     */
+    Object leftValue() {
+        return leftValue;
+    }
+
+    /**
+     * Right parameter value.
+     *
+     * @return right parameter value
+     */
+    Object rightValue() {
+        return rightValue;
+    }
+
+    @Override
+    public void apply(StringBuilder query, Map<String, Object> parameters) {
+        query.append(columnName);
+        query.append(operator.token());
+        query.append(FilterFactory.PREFIX);
+        query.append(leftParamName);
+        query.append(FilterFactory.AND_TOKEN);
+        query.append(FilterFactory.PREFIX);
+        query.append(rightParamName);
+        parameters.put(leftParamName, leftValue);
+        parameters.put(rightParamName, rightValue);
+    }
+
+    @Override
+    public void render(RenderContext context) {
+        context.append(columnName);
+        context.append(operator.token());
+        context.placeholder(leftParamName, leftValue);
+        context.append(FilterFactory.AND_TOKEN);
+        context.placeholder(rightParamName, rightValue);
+    }
+
+    /**
+     * Add the identity of the text of the filter to the query shape.
+     *
+     * @param codes codes of the query shape
+     */
+    void key(QueryShape.Codes codes) {
+        codes.key(columnName);
+        codes.key(operator);
+        codes.key(leftParamName);
+        codes.key(rightParamName);
+    }
+
+    /**
+     * Store the parameters of the filter without rendering its text.
+     *
+     * @param context render context
+     */
+    void collect(RenderContext context) {
+        context.placeholder(leftParamName, leftValue);
+        context.placeholder(rightParamName, rightValue);
+    }
+}
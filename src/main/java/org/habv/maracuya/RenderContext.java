@@ -0,0 +1,687 @@
+package org.habv.maracuya;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Reusable context where the filters are rendered: a resizable buffer with
+ * the query plus the parameter values.
+ * <p>
+ * A context is reset between uses and keeps its buffers, so rendering a query
+ * does not create a new {@code StringBuilder} nor a new {@code HashMap}. Use
+ * {@link #acquire()} to get the context of the current thread:
+ * <pre>{@code try (RenderContext context = RenderContext.acquire()) {
+ *     filter.render(context);
+ *     ...
+ *}}</pre> A context is not thread safe.
+ * <p>
+ * By default the placeholders are named ({@code :isbn}), like JPA expects. In
+ * positional mode, see {@link #positional(boolean)}, the placeholders are
+ * {@code ?}, like JDBC expects, and the parameters are stored in the order of
+ * their placeholders, a collection is expanded to one placeholder per element:
+ * {@code (?, ?, ?)}.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public final class RenderContext implements AutoCloseable {
+
+    /**
+     * Initial capacity of the query buffer.
+     */
+    private static final int INITIAL_QUERY_CAPACITY = 256;
+    /**
+     * Initial capacity of the parameters.
+     */
+    private static final int INITIAL_PARAMETERS_CAPACITY = 16;
+    /**
+     * Maximum capacity of the query buffer that is kept between uses.
+     */
+    private static final int MAXIMUM_QUERY_CAPACITY = 16384;
+    /**
+     * Maximum capacity of the parameters that is kept between uses.
+     */
+    private static final int MAXIMUM_PARAMETERS_CAPACITY = 1024;
+    /**
+     * Number of parameters from which they are looked up by name in a hash
+     * map instead of scanning the names.
+     */
+    private static final int INDEXED_PARAMETERS = 8;
+    /**
+     * Positional placeholder.
+     */
+    private static final String POSITIONAL_PLACEHOLDER = "?";
+    /**
+     * Separator of the placeholders of the elements of a collection.
+     */
+    private static final String SEPARATOR = ", ";
+    /**
+     * Context of every thread.
+     */
+    private static final ThreadLocal<RenderContext> POOL = ThreadLocal.withInitial(RenderContext::new);
+
+    /**
+     * Map view of the parameters, for the filters that only implement
+     * {@link Filter#apply(StringBuilder, Map)}.
+     */
+    private final Map<String, Object> parameters;
+    /**
+     * Query buffer.
+     */
+    private StringBuilder query;
+    /**
+     * Parameter names.
+     */
+    private String[] names;
+    /**
+     * Parameter values.
+     */
+    private Object[] values;
+    /**
+     * Index of the first parameter of every name, {@code null} until a
+     * parameter is looked up by name with more than
+     * {@link #INDEXED_PARAMETERS} parameters.
+     */
+    private Map<String, Integer> indexes;
+    /**
+     * Number of parameters.
+     */
+    private int size;
+    /**
+     * Indicates whether the context is in use.
+     */
+    private boolean inUse;
+    /**
+     * Indicates whether the text appended to the query is discarded.
+     */
+    private boolean discard;
+    /**
+     * Indicates whether the placeholders are positional.
+     */
+    private boolean positional;
+    /**
+     * Policy of the collections of the {@code in} and {@code notIn} filters.
+     */
+    private InListPolicy inListPolicy = InListPolicy.none();
+    /**
+     * SQL dialect.
+     */
+    private Dialect dialect = Dialect.ANSI;
+    /**
+     * Lower case columns of the case insensitive columns.
+     */
+    private Map<String, String> lowerCaseColumns = Collections.emptyMap();
+    /**
+     * Strategy whose large collections are collected, see
+     * {@link LargeCollectionStrategy#prepare(Filterable)}.
+     */
+    private LargeCollectionStrategy collector;
+    /**
+     * Large collections of the collector by parameter name.
+     */
+    private Map<String, Collection<?>> collections;
+
+    /**
+     * Create a context. Contexts created with this constructor are not
+     * pooled, see {@link #acquire()}.
+     */
+    public RenderContext() {
+        this.parameters = new ParameterMap();
+        this.query = new StringBuilder(INITIAL_QUERY_CAPACITY);
+        this.names = new String[INITIAL_PARAMETERS_CAPACITY];
+        this.values = new Object[INITIAL_PARAMETERS_CAPACITY];
+    }
+
+    /**
+     * Get the context of the current thread. When that context is already in
+     * use, for example when a query is rendered while other query is being
+     * rendered, a new context is returned.
+     *
+     * @return context ready to be used, must be released with
+     * {@link #close()}
+     */
+    public static RenderContext acquire() {
+        RenderContext context = POOL.get();
+        if (context.inUse) {
+            context = new RenderContext();
+        }
+        context.inUse = true;
+        return context;
+    }
+
+    /**
+     * Reset the context, go back to named placeholders and the default
+     * policies and, if it was acquired, give it back to the pool of the
+     * thread.
+     */
+    @Override
+    public void close() {
+        reset();
+        positional = false;
+        inListPolicy = InListPolicy.none();
+        dialect = Dialect.ANSI;
+        lowerCaseColumns = Collections.emptyMap();
+        collector = null;
+        collections = null;
+        inUse = false;
+    }
+
+    /**
+     * Change the placeholders of the context. Must be called before anything
+     * is rendered.
+     *
+     * @param positional {@code true} for positional placeholders ({@code ?}),
+     * {@code false} for named placeholders ({@code :name})
+     * @return this context
+     */
+    public RenderContext positional(boolean positional) {
+        this.positional = positional;
+        return this;
+    }
+
+    /**
+     * Change the policy of the collections of the {@code in} and
+     * {@code notIn} filters.
+     *
+     * @param inListPolicy policy of the collections
+     * @return this context
+     * @throws NullPointerException if {@code inListPolicy} is {@code null}
+     */
+    public RenderContext inListPolicy(InListPolicy inListPolicy) {
+        if (inListPolicy == null) {
+            throw new NullPointerException("inListPolicy must not be null");
+        }
+        this.inListPolicy = inListPolicy;
+        return this;
+    }
+
+    /**
+     * Policy of the collections of the {@code in} and {@code notIn} filters.
+     *
+     * @return policy of the collections
+     */
+    public InListPolicy inListPolicy() {
+        return inListPolicy;
+    }
+
+    /**
+     * Change the SQL dialect.
+     *
+     * @param dialect SQL dialect
+     * @return this context
+     * @throws NullPointerException if {@code dialect} is {@code null}
+     */
+    public RenderContext dialect(Dialect dialect) {
+        if (dialect == null) {
+            throw new NullPointerException("dialect must not be null");
+        }
+        this.dialect = dialect;
+        return this;
+    }
+
+    /**
+     * SQL dialect.
+     *
+     * @return SQL dialect, {@link Dialect#ANSI} by default
+     */
+    public Dialect dialect() {
+        return dialect;
+    }
+
+    /**
+     * Change the lower case columns of the case insensitive columns.
+     *
+     * @param lowerCaseColumns lower case column of every case insensitive
+     * column, see {@link Filterable#lowerCaseColumns()}
+     * @return this context
+     * @throws NullPointerException if {@code lowerCaseColumns} is
+     * {@code null}
+     */
+    public RenderContext lowerCaseColumns(Map<String, String> lowerCaseColumns) {
+        if (lowerCaseColumns == null) {
+            throw new NullPointerException("lowerCaseColumns must not be null");
+        }
+        this.lowerCaseColumns = lowerCaseColumns;
+        return this;
+    }
+
+    /**
+     * Lower case column of a case insensitive column.
+     *
+     * @param columnName column name
+     * @return lower case column, or {@code null} if the column does not have
+     * one
+     */
+    public String lowerCaseColumn(String columnName) {
+        return lowerCaseColumns.get(columnName);
+    }
+
+    /**
+     * Indicates whether the placeholders are positional.
+     *
+     * @return {@code true} for positional placeholders ({@code ?}),
+     * {@code false} for named placeholders ({@code :name})
+     */
+    public boolean isPositional() {
+        return positional;
+    }
+
+    /**
+     * Remove the query and the parameters. Buffers bigger than the maximum
+     * capacity are discarded, so a single big query does not keep its memory
+     * forever.
+     *
+     * @return this context
+     */
+    public RenderContext reset() {
+        if (query.capacity() > MAXIMUM_QUERY_CAPACITY) {
+            query = new StringBuilder(INITIAL_QUERY_CAPACITY);
+        } else {
+            query.setLength(0);
+        }
+        if (names.length > MAXIMUM_PARAMETERS_CAPACITY) {
+            names = new String[INITIAL_PARAMETERS_CAPACITY];
+            values = new Object[INITIAL_PARAMETERS_CAPACITY];
+            indexes = null;
+        } else {
+            Arrays.fill(names, 0, size, null);
+            Arrays.fill(values, 0, size, null);
+            if (indexes != null) {
+                indexes.clear();
+            }
+        }
+        size = 0;
+        discard = false;
+        return this;
+    }
+
+    /**
+     * Append a text to the query.
+     *
+     * @param text text
+     * @return this context
+     */
+    public RenderContext append(String text) {
+        if (!discard) {
+            query.append(text);
+        }
+        return this;
+    }
+
+    /**
+     * Append a parameter placeholder to the query and store its value.
+     * <p>
+     * For example: {@code placeholder("isbn","978-3-16-148410-0")} appends
+     * {@code :isbn} to the query, or {@code ?} in positional mode.
+     * {@code placeholder("categories",Arrays.asList("Action","Horror"))}
+     * appends {@code :categories}, or {@code (?, ?)} in positional mode.
+     *
+     * @param name parameter name
+     * @param value parameter value
+     * @return this context
+     */
+    public RenderContext placeholder(String name, Object value) {
+        if (!positional) {
+            if (!discard) {
+                query.append(FilterFactory.PREFIX).append(name);
+            }
+            return parameter(name, value);
+        }
+        if (!(value instanceof Collection)) {
+            append(POSITIONAL_PLACEHOLDER);
+            add(name, value);
+            return this;
+        }
+        append(FilterFactory.LEFT_PARENTHESIS);
+        boolean first = true;
+        for (Object element : (Collection<?>) value) {
+            if (!first) {
+                append(SEPARATOR);
+            }
+            append(POSITIONAL_PLACEHOLDER);
+            add(name, element);
+            first = false;
+        }
+        return append(FilterFactory.RIGHT_PARENTHESIS);
+    }
+
+    /**
+     * Store a parameter value without a placeholder, for example a parameter
+     * used by the select statement. A value stored with the same name is
+     * replaced.
+     *
+     * @param name parameter name
+     * @param value parameter value
+     * @return this context
+     * @throws IllegalStateException in positional mode, a parameter without a
+     * placeholder does not have a position
+     */
+    public RenderContext parameter(String name, Object value) {
+        if (positional) {
+            throw new IllegalStateException(String.format("parameter %s does not have a placeholder", name));
+        }
+        int index = indexOf(name);
+        if (index >= 0) {
+            values[index] = value;
+            return this;
+        }
+        add(name, value);
+        return this;
+    }
+
+    /**
+     * Query buffer, for the filters that write directly to it.
+     *
+     * @return query buffer
+     */
+    public StringBuilder query() {
+        return query;
+    }
+
+    /**
+     * Map view of the parameters, for the filters that write directly to it.
+     * Values put in the map are stored in this context.
+     *
+     * @return map view of the parameters
+     */
+    public Map<String, Object> parameters() {
+        return parameters;
+    }
+
+    /**
+     * Number of parameters.
+     *
+     * @return number of parameters
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Name of a parameter, in the order they were stored.
+     *
+     * @param index index of the parameter
+     * @return parameter name
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public String name(int index) {
+        checkIndex(index);
+        return names[index];
+    }
+
+    /**
+     * Value of a parameter, in the order they were stored.
+     *
+     * @param index index of the parameter
+     * @return parameter value
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public Object value(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    /**
+     * Parameter values, in the order they were stored. In positional mode it
+     * is the order of the placeholders.
+     *
+     * @return new array with the parameter values
+     */
+    public Object[] values() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Render a filter that only implements
+     * {@link Filter#apply(StringBuilder, Map)}. In positional mode the named
+     * placeholders of the parameters it stores are replaced by positional
+     * placeholders.
+     *
+     * @param filter filter
+     */
+    void adapt(Filter filter) {
+        if (!positional) {
+            filter.apply(query, parameters);
+            return;
+        }
+        int start = query.length();
+        Map<String, Object> named = new HashMap<>();
+        filter.apply(query, named);
+        String text = query.substring(start);
+        query.setLength(start);
+        String[] keys = named.keySet().toArray(new String[0]);
+        Fragment fragment = Fragment.parse(text, keys);
+        for (int i = 0; i < fragment.placeholders(); i++) {
+            String key = keys[fragment.param(i)];
+            append(fragment.part(i));
+            placeholder(key, named.get(key));
+        }
+        append(fragment.part(fragment.placeholders()));
+        for (int i = 0; i < keys.length; i++) {
+            if (!fragment.isPlaced(i)) {
+                parameter(keys[i], named.get(keys[i]));
+            }
+        }
+    }
+
+    /**
+     * Store only the parameters of a filter, without rendering the text of
+     * the query.
+     *
+     * @param filter filter
+     */
+    void collect(Filter filter) {
+        int length = query.length();
+        discard = true;
+        try {
+            parameters(filter);
+        } finally {
+            discard = false;
+            query.setLength(length);
+        }
+    }
+
+    /**
+     * Store the parameters of a node of the filter tree. The filters of
+     * {@link FilterFactory} only store their values, the other filters are
+     * rendered with the text discarded.
+     *
+     * @param filter node of the filter tree
+     */
+    private void parameters(Filter filter) {
+        if (filter instanceof FilterFactory.Logical) {
+            for (Filter child : ((FilterFactory.Logical) filter).filters()) {
+                if (child.canApply()) {
+                    parameters(child);
+                }
+            }
+        } else if (filter instanceof Comparison) {
+            ((Comparison) filter).collect(this);
+        } else if (filter instanceof Range) {
+            ((Range) filter).collect(this);
+        } else if (filter instanceof Match) {
+            ((Match) filter).collect(this);
+        } else if (!(filter instanceof NullCheck)) {
+            filter.render(this);
+        }
+    }
+
+    /**
+     * Collect the large collections rendered by a strategy, see
+     * {@link LargeCollectionStrategy#prepare(Filterable)}.
+     *
+     * @param collector strategy whose collections are collected
+     * @param collections large collections by parameter name
+     */
+    void collections(LargeCollectionStrategy collector, Map<String, Collection<?>> collections) {
+        this.collector = collector;
+        this.collections = collections;
+    }
+
+    /**
+     * Store a large collection rendered by a strategy, when the context
+     * collects the collections of that strategy.
+     *
+     * @param strategy strategy that renders the collection
+     * @param name parameter name
+     * @param values collection of values
+     * @throws IllegalArgumentException if the parameter name is used by
+     * different collections
+     */
+    void collection(LargeCollectionStrategy strategy, String name, Collection<?> values) {
+        if (strategy != collector) {
+            return;
+        }
+        Collection<?> previous = collections.put(name, values);
+        if (previous != null && !previous.equals(values)) {
+            throw new IllegalArgumentException(String.format("parameter %s is used by different collections", name));
+        }
+    }
+
+    /**
+     * Add a parameter at the end.
+     *
+     * @param name parameter name
+     * @param value parameter value
+     */
+    private void add(String name, Object value) {
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        names[size] = name;
+        values[size] = value;
+        if (indexes != null) {
+            indexes.putIfAbsent(name, size);
+        }
+        size++;
+    }
+
+    /**
+     * Index of the first parameter with a name. A few parameters are scanned,
+     * more parameters are looked up in {@link #indexes}, built on the first
+     * lookup and kept up to date by {@link #add(String, Object)}.
+     *
+     * @param name parameter name
+     * @return index of the parameter, or {@code -1} if it does not exist
+     */
+    private int indexOf(Object name) {
+        if (indexes == null) {
+            if (size <= INDEXED_PARAMETERS) {
+                for (int i = 0; i < size; i++) {
+                    if (names[i].equals(name)) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
+            indexes = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                indexes.putIfAbsent(names[i], i);
+            }
+        }
+        Integer index = indexes.get(name);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Checks that the index is in range.
+     *
+     * @param index index of a parameter
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(String.format("index %d, size %d", index, size));
+        }
+    }
+
+    /**
+     * Map view of the parameters.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    private final class ParameterMap extends AbstractMap<String, Object> {
+
+        /**
+         * Entries of the map.
+         */
+        private final Set<Map.Entry<String, Object>> entries = new Entries();
+
+        @Override
+        public Object put(String key, Object value) {
+            int index = indexOf(key);
+            Object previous = index >= 0 ? values[index] : null;
+            parameter(key, value);
+            return previous;
+        }
+
+        @Override
+        public Object get(Object key) {
+            int index = indexOf(key);
+            return index >= 0 ? values[index] : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return indexOf(key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Set<Map.Entry<String, Object>> entrySet() {
+            return entries;
+        }
+    }
+
+    /**
+     * Entries of the map view of the parameters.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    private final class Entries extends AbstractSet<Map.Entry<String, Object>> {
+
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator() {
+            return new Iterator<Map.Entry<String, Object>>() {
+
+                /**
+                 * Index of the next entry.
+                 */
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public Map.Entry<String, Object> next() {
+                    if (next >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    int index = next++;
+                    return new AbstractMap.SimpleImmutableEntry<>(names[index], values[index]);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
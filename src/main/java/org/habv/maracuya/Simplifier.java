@@ -0,0 +1,704 @@
+package org.habv.maracuya;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Merges the filters of the same column that are joined by the same logical
+ * filter, see {@link FilterOptimizer#simplify(Filter)}.
+ * <p>
+ * Only the filters of {@link FilterFactory} that compare a column with
+ * values are merged: {@code equal}, {@code greater}, {@code greaterOrEqual},
+ * {@code less}, {@code lessOrEqual}, {@code between} and {@code in}, and only
+ * when all their values are {@code Comparable} of the same class. The bounds,
+ * and the {@code equal} and {@code in} filters joined by "and", are merged
+ * only when the database orders and compares the values like Java: numbers,
+ * booleans, dates and times, and strings with an explicit collation, because
+ * the database compares the strings with its own collation, for example
+ * ignoring the case. When the
+ * filters of a column are contradictory they are kept as they are. The
+ * {@code notEqual} and {@code notIn} filters of a column joined by "and" are
+ * merged in a single {@code notIn}.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+final class Simplifier {
+
+    /**
+     * Utility class, do not create instances, instead use static methods.
+     */
+    private Simplifier() {
+        throw new RuntimeException("do not create instances, instead use static methods");
+    }
+
+    /**
+     * Merge the filters of the same column of an optimized filter tree.
+     *
+     * @param filter optimized filter tree
+     * @param collation order of the strings in the database, {@code null} to
+     * not merge the bounds of the strings
+     * @return simplified filter tree, it may need to be optimized again
+     */
+    static Filter simplify(Filter filter, Comparator<? super String> collation) {
+        if (!(filter instanceof FilterFactory.Logical)) {
+            return filter;
+        }
+        FilterFactory.Logical logical = (FilterFactory.Logical) filter;
+        boolean conjunction = logical.isConjunction();
+        List<Object> entries = new ArrayList<>();
+        Map<String, List<Filter>> columns = new LinkedHashMap<>();
+        Map<String, List<Filter>> exclusions = new LinkedHashMap<>();
+        for (Filter child : logical.filters()) {
+            Filter simplified = simplify(child, collation);
+            String column = column(simplified);
+            Map<String, List<Filter>> groups = columns;
+            if (column == null && conjunction) {
+                column = excludedColumn(simplified);
+                groups = exclusions;
+            }
+            if (column == null) {
+                entries.add(simplified);
+                continue;
+            }
+            List<Filter> group = groups.get(column);
+            if (group == null) {
+                group = new ArrayList<>();
+                groups.put(column, group);
+                entries.add(group);
+            }
+            group.add(simplified);
+        }
+        List<Filter> children = new ArrayList<>();
+        for (Object entry : entries) {
+            if (entry instanceof Filter) {
+                children.add((Filter) entry);
+                continue;
+            }
+            @SuppressWarnings("unchecked")
+            List<Filter> group = (List<Filter>) entry;
+            List<Filter> merged;
+            if (group.size() < 2) {
+                merged = null;
+            } else if (excludedColumn(group.get(0)) != null) {
+                merged = mergeExclusions(group);
+            } else if (isComparable(group)) {
+                Comparator<Object> order = order(group, collation);
+                merged = conjunction
+                        ? order == null ? null : Conjunction.merge(group, order)
+                        : mergeDisjunction(group, order);
+            } else {
+                merged = null;
+            }
+            children.addAll(merged == null ? group : merged);
+        }
+        return children.size() == 1
+                ? children.get(0)
+                : FilterFactory.Logical.applicable(conjunction, children.toArray(new Filter[0]));
+    }
+
+    /**
+     * Indicates whether an optimized filter tree can not be satisfied by any
+     * row: a conjunction with a contradictory column, like
+     * {@code and(equal("a",1), equal("a",2))}, a {@code between} with the
+     * left value greater than the right value, or a disjunction where all the
+     * filters can not be satisfied.
+     *
+     * @param filter optimized filter tree
+     * @param collation order of the strings in the database, {@code null} to
+     * not analyze the strings
+     * @return {@code true} if the filter is known to be unsatisfiable,
+     * {@code false} if it may be satisfiable
+     */
+    static boolean isUnsatisfiable(Filter filter, Comparator<? super String> collation) {
+        if (!(filter instanceof FilterFactory.Logical)) {
+            String column = column(filter);
+            if (column == null) {
+                return false;
+            }
+            List<Filter> group = new ArrayList<>(1);
+            group.add(filter);
+            return isContradiction(group, collation);
+        }
+        FilterFactory.Logical logical = (FilterFactory.Logical) filter;
+        if (!logical.isConjunction()) {
+            for (Filter child : logical.filters()) {
+                if (!isUnsatisfiable(child, collation)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        Map<String, List<Filter>> columns = new LinkedHashMap<>();
+        for (Filter child : logical.filters()) {
+            if (isUnsatisfiable(child, collation)) {
+                return true;
+            }
+            String column = column(child);
+            if (column != null) {
+                List<Filter> group = columns.get(column);
+                if (group == null) {
+                    group = new ArrayList<>();
+                    columns.put(column, group);
+                }
+                group.add(child);
+            }
+        }
+        for (List<Filter> group : columns.values()) {
+            if (group.size() > 1 && isContradiction(group, collation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indicates whether the filters of a column joined by "and" are
+     * contradictory, only when the database compares their values like Java.
+     *
+     * @param group filters of the same column
+     * @param collation order of the strings in the database, {@code null} if
+     * it is unknown
+     * @return {@code true} if the filters are known to be contradictory
+     */
+    private static boolean isContradiction(List<Filter> group, Comparator<? super String> collation) {
+        if (!isComparable(group)) {
+            return false;
+        }
+        Comparator<Object> order = order(group, collation);
+        return order != null && Conjunction.of(group, order).isContradiction();
+    }
+
+    /**
+     * Column of a filter that can be merged.
+     *
+     * @param filter filter
+     * @return column name, or {@code null} if the filter can not be merged
+     */
+    private static String column(Filter filter) {
+        if (filter instanceof Comparison) {
+            Comparison comparison = (Comparison) filter;
+            switch (comparison.operator()) {
+                case EQUAL:
+                case GREATER:
+                case GREATER_OR_EQUAL:
+                case LESS:
+                case LESS_OR_EQUAL:
+                    return comparison.columnName();
+                case IN:
+                    return comparison.value() instanceof Collection ? comparison.columnName() : null;
+                default:
+                    return null;
+            }
+        }
+        if (filter instanceof Range && ((Range) filter).operator() == Operator.BETWEEN) {
+            return ((Range) filter).columnName();
+        }
+        return null;
+    }
+
+    /**
+     * Column of a {@code notEqual} or {@code notIn} filter.
+     *
+     * @param filter filter
+     * @return column name, or {@code null} if the filter does not exclude
+     * values
+     */
+    private static String excludedColumn(Filter filter) {
+        if (!(filter instanceof Comparison)) {
+            return null;
+        }
+        Comparison comparison = (Comparison) filter;
+        switch (comparison.operator()) {
+            case NOT_EQUAL:
+                return comparison.columnName();
+            case NOT_IN:
+                return comparison.value() instanceof Collection ? comparison.columnName() : null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Indicates whether all the values of the filters are {@code Comparable}
+     * of the same class.
+     *
+     * @param group filters of the same column
+     * @return {@code true} if the values can be compared
+     */
+    private static boolean isComparable(List<Filter> group) {
+        Class<?> type = null;
+        for (Object value : values(group)) {
+            if (!(value instanceof Comparable) || type != null && type != value.getClass()) {
+                return false;
+            }
+            type = value.getClass();
+        }
+        return true;
+    }
+
+    /**
+     * Order of the values of the filters in the database, known when it is
+     * the same order of Java: numbers, booleans, dates and times, or strings
+     * with a collation.
+     *
+     * @param group filters of the same column with values of the same class
+     * @param collation order of the strings in the database, {@code null} if
+     * it is unknown
+     * @return order of the values, {@code null} if it is unknown
+     */
+    private static Comparator<Object> order(List<Filter> group, Comparator<? super String> collation) {
+        List<Object> values = values(group);
+        Object value = values.isEmpty() ? null : values.get(0);
+        if (value == null || value instanceof Number || value instanceof Boolean || value instanceof Date
+                || value instanceof Instant || value instanceof LocalDate || value instanceof LocalDateTime
+                || value instanceof LocalTime) {
+            return Simplifier::compare;
+        }
+        if (value instanceof String && collation != null) {
+            return (left, right) -> collation.compare((String) left, (String) right);
+        }
+        return null;
+    }
+
+    /**
+     * Values of the filters.
+     *
+     * @param group filters of the same column
+     * @return values of the filters
+     */
+    private static List<Object> values(List<Filter> group) {
+        List<Object> values = new ArrayList<>();
+        for (Filter filter : group) {
+            if (filter instanceof Range) {
+                values.add(((Range) filter).leftValue());
+                values.add(((Range) filter).rightValue());
+            } else if (((Comparison) filter).operator() == Operator.IN) {
+                values.addAll((Collection<?>) ((Comparison) filter).value());
+            } else {
+                values.add(((Comparison) filter).value());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Merge the filters of the same column joined by "or": the loosest lower
+     * bound, the loosest upper bound, or the union of the values of the
+     * {@code equal} and {@code in} filters in a single {@code in} filter with
+     * the parameter name of the first filter.
+     *
+     * @param group filters of the same column
+     * @param order order of the values in the database, {@code null} if it is
+     * unknown and the bounds can not be merged
+     * @return merged filters, or {@code null} if they can not be merged
+     */
+    private static List<Filter> mergeDisjunction(List<Filter> group, Comparator<Object> order) {
+        Comparison first = group.get(0) instanceof Comparison ? (Comparison) group.get(0) : null;
+        if (first == null) {
+            return null;
+        }
+        Operator kind = kind(first.operator());
+        if (order == null && kind != Operator.IN && kind != Operator.EQUAL) {
+            return null;
+        }
+        Comparison loosest = first;
+        Set<Object> union = new LinkedHashSet<>();
+        for (Filter filter : group) {
+            if (!(filter instanceof Comparison) || !isSameKind(kind(((Comparison) filter).operator()), kind)) {
+                return null;
+            }
+            Comparison comparison = (Comparison) filter;
+            if (kind == Operator.IN || kind == Operator.EQUAL) {
+                addValues(union, comparison);
+            } else if (kind == Operator.GREATER && isTighter(loosest, comparison, true, order)
+                    || kind == Operator.LESS && isTighter(loosest, comparison, false, order)) {
+                loosest = comparison;
+            }
+        }
+        List<Filter> merged = new ArrayList<>(1);
+        if (kind == Operator.EQUAL && union.size() == 1) {
+            merged.add(first);
+        } else if (kind == Operator.IN || kind == Operator.EQUAL) {
+            merged.add(new Comparison(first.columnName(), Operator.IN, first.paramName(), new ArrayList<>(union)));
+        } else {
+            merged.add(loosest);
+        }
+        return merged;
+    }
+
+    /**
+     * Merge the {@code notEqual} and {@code notIn} filters of the same column
+     * joined by "and" in a single {@code notIn} filter with the parameter
+     * name of the first filter.
+     *
+     * @param group {@code notEqual} and {@code notIn} filters of the same
+     * column
+     * @return merged filters
+     */
+    private static List<Filter> mergeExclusions(List<Filter> group) {
+        Comparison first = (Comparison) group.get(0);
+        Set<Object> union = new LinkedHashSet<>();
+        for (Filter filter : group) {
+            addValues(union, (Comparison) filter);
+        }
+        List<Filter> merged = new ArrayList<>(1);
+        merged.add(first.operator() == Operator.NOT_EQUAL && union.size() == 1
+                ? first
+                : new Comparison(first.columnName(), Operator.NOT_IN, first.paramName(), new ArrayList<>(union)));
+        return merged;
+    }
+
+    /**
+     * Add the values of a filter: the collection of {@code in} and
+     * {@code notIn} filters, or the single value of other filters.
+     *
+     * @param values values
+     * @param comparison filter
+     */
+    private static void addValues(Set<Object> values, Comparison comparison) {
+        if (comparison.value() instanceof Collection
+                && (comparison.operator() == Operator.IN || comparison.operator() == Operator.NOT_IN)) {
+            values.addAll((Collection<?>) comparison.value());
+        } else {
+            values.add(comparison.value());
+        }
+    }
+
+    /**
+     * Indicates whether two kinds of operators can be merged by "or":
+     * {@code equal} and {@code in} are merged together.
+     *
+     * @param kind kind of an operator
+     * @param other kind of other operator
+     * @return {@code true} if the operators can be merged
+     */
+    private static boolean isSameKind(Operator kind, Operator other) {
+        return kind == other
+                || (kind == Operator.EQUAL || kind == Operator.IN) && (other == Operator.EQUAL || other == Operator.IN);
+    }
+
+    /**
+     * Kind of an operator: {@code EQUAL}, {@code IN}, {@code GREATER} for the
+     * lower bounds and {@code LESS} for the upper bounds.
+     *
+     * @param operator operator
+     * @return kind of the operator
+     */
+    private static Operator kind(Operator operator) {
+        switch (operator) {
+            case GREATER:
+            case GREATER_OR_EQUAL:
+                return Operator.GREATER;
+            case LESS:
+            case LESS_OR_EQUAL:
+                return Operator.LESS;
+            default:
+                return operator;
+        }
+    }
+
+    /**
+     * Indicates whether a bound is tighter than other bound.
+     *
+     * @param bound bound
+     * @param other other bound of the same kind
+     * @param lower {@code true} for lower bounds, {@code false} for upper
+     * bounds
+     * @param order order of the values in the database
+     * @return {@code true} if {@code bound} is tighter than {@code other}
+     */
+    private static boolean isTighter(Comparison bound, Comparison other, boolean lower, Comparator<Object> order) {
+        int comparison = order.compare(bound.value(), other.value());
+        if (comparison == 0) {
+            return isExclusive(bound.operator()) && !isExclusive(other.operator());
+        }
+        return lower ? comparison > 0 : comparison < 0;
+    }
+
+    /**
+     * Indicates whether the operator of a bound excludes its value.
+     *
+     * @param operator operator of a bound
+     * @return {@code true} for {@code greater} and {@code less}
+     */
+    private static boolean isExclusive(Operator operator) {
+        return operator == Operator.GREATER || operator == Operator.LESS;
+    }
+
+    /**
+     * Compare two values of the same class.
+     *
+     * @param left left value
+     * @param right right value
+     * @return comparison of the values
+     */
+    @SuppressWarnings("unchecked")
+    static int compare(Object left, Object right) {
+        return ((Comparable<Object>) left).compareTo(right);
+    }
+
+    /**
+     * Filters of the same column joined by "and".
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    static final class Conjunction {
+
+        /**
+         * Order of the values in the database.
+         */
+        private final Comparator<Object> order;
+        /**
+         * Column name.
+         */
+        private String columnName;
+        /**
+         * First {@code equal} filter.
+         */
+        private Comparison equal;
+        /**
+         * Indicates whether there are {@code equal} filters with different
+         * values.
+         */
+        private boolean differentEquals;
+        /**
+         * Tightest lower bound.
+         */
+        private Comparison lower;
+        /**
+         * Filter of the tightest lower bound.
+         */
+        private Filter lowerSource;
+        /**
+         * Tightest upper bound.
+         */
+        private Comparison upper;
+        /**
+         * Filter of the tightest upper bound.
+         */
+        private Filter upperSource;
+        /**
+         * First {@code in} filter.
+         */
+        private Comparison in;
+        /**
+         * Intersection of the {@code in} collections.
+         */
+        private List<Object> intersection;
+
+        /**
+         * Create the constraints of a column.
+         *
+         * @param order order of the values in the database
+         */
+        private Conjunction(Comparator<Object> order) {
+            this.order = order;
+        }
+
+        /**
+         * Collect the constraints of the filters of a column.
+         *
+         * @param group filters of the same column
+         * @param order order of the values in the database
+         * @return constraints of the column
+         */
+        static Conjunction of(List<Filter> group, Comparator<Object> order) {
+            Conjunction conjunction = new Conjunction(order);
+            for (Filter filter : group) {
+                conjunction.add(filter);
+            }
+            return conjunction;
+        }
+
+        /**
+         * Merge the filters of the same column joined by "and".
+         *
+         * @param group filters of the same column
+         * @param order order of the values in the database
+         * @return merged filters, or {@code null} if they are contradictory
+         */
+        static List<Filter> merge(List<Filter> group, Comparator<Object> order) {
+            Conjunction conjunction = of(group, order);
+            return conjunction.isContradiction() ? null : conjunction.merged();
+        }
+
+        /**
+         * Add the constraint of a filter.
+         *
+         * @param filter filter of the column
+         */
+        private void add(Filter filter) {
+            if (filter instanceof Range) {
+                Range range = (Range) filter;
+                columnName = range.columnName();
+                bound(new Comparison(columnName, Operator.GREATER_OR_EQUAL, range.leftParamName(), range.leftValue()), range);
+                bound(new Comparison(columnName, Operator.LESS_OR_EQUAL, range.rightParamName(), range.rightValue()), range);
+                return;
+            }
+            Comparison comparison = (Comparison) filter;
+            columnName = comparison.columnName();
+            switch (kind(comparison.operator())) {
+                case EQUAL:
+                    if (equal == null) {
+                        equal = comparison;
+                    } else if (order.compare(equal.value(), comparison.value()) != 0) {
+                        differentEquals = true;
+                    }
+                    break;
+                case IN:
+                    Collection<?> values = (Collection<?>) comparison.value();
+                    if (in == null) {
+                        in = comparison;
+                        intersection = new ArrayList<>(new LinkedHashSet<>(values));
+                    } else {
+                        intersection.removeIf(value -> !contains(values, value));
+                    }
+                    break;
+                default:
+                    bound(comparison, comparison);
+                    break;
+            }
+        }
+
+        /**
+         * Keep a bound if it is the tightest.
+         *
+         * @param bound lower or upper bound
+         * @param source filter of the bound
+         */
+        private void bound(Comparison bound, Filter source) {
+            if (kind(bound.operator()) == Operator.GREATER) {
+                if (lower == null || isTighter(bound, lower, true, order)) {
+                    lower = bound;
+                    lowerSource = source;
+                }
+            } else if (upper == null || isTighter(bound, upper, false, order)) {
+                upper = bound;
+                upperSource = source;
+            }
+        }
+
+        /**
+         * Indicates whether a value satisfies the bounds.
+         *
+         * @param value value
+         * @return {@code true} if the value is between the bounds
+         */
+        private boolean isBetweenBounds(Object value) {
+            if (lower != null) {
+                int comparison = order.compare(value, lower.value());
+                if (comparison < 0 || comparison == 0 && isExclusive(lower.operator())) {
+                    return false;
+                }
+            }
+            if (upper != null) {
+                int comparison = order.compare(value, upper.value());
+                if (comparison > 0 || comparison == 0 && isExclusive(upper.operator())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Indicates whether a value satisfies all the constraints.
+         *
+         * @param value value
+         * @return {@code true} if the value satisfies all the constraints
+         */
+        private boolean isSatisfiedBy(Object value) {
+            return isBetweenBounds(value) && (intersection == null || contains(intersection, value));
+        }
+
+        /**
+         * Indicates whether some values contain a value in the order of the
+         * database.
+         *
+         * @param values values
+         * @param value value
+         * @return {@code true} if a value is equal to the value
+         */
+        private boolean contains(Collection<?> values, Object value) {
+            for (Object other : values) {
+                if (order.compare(other, value) == 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Indicates whether the constraints can not be satisfied by any
+         * value.
+         *
+         * @return {@code true} if the constraints are contradictory
+         */
+        boolean isContradiction() {
+            if (differentEquals) {
+                return true;
+            }
+            if (equal != null) {
+                return !isSatisfiedBy(equal.value());
+            }
+            if (intersection != null) {
+                for (Object value : intersection) {
+                    if (isBetweenBounds(value)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            if (lower != null && upper != null) {
+                int comparison = order.compare(lower.value(), upper.value());
+                return comparison > 0
+                        || comparison == 0 && (isExclusive(lower.operator()) || isExclusive(upper.operator()));
+            }
+            return false;
+        }
+
+        /**
+         * Merged filters of a conjunction that is not contradictory.
+         *
+         * @return merged filters
+         */
+        private List<Filter> merged() {
+            List<Filter> merged = new ArrayList<>(2);
+            if (equal != null) {
+                merged.add(equal);
+            } else if (in != null) {
+                List<Object> values = new ArrayList<>(intersection.size());
+                for (Object value : intersection) {
+                    if (isBetweenBounds(value)) {
+                        values.add(value);
+                    }
+                }
+                merged.add(values.size() == ((Collection<?>) in.value()).size()
+                        ? in
+                        : new Comparison(columnName, Operator.IN, in.paramName(), values));
+            } else if (lowerSource != null && lowerSource == upperSource) {
+                merged.add(lowerSource);
+            } else {
+                if (lower != null) {
+                    merged.add(lowerSource instanceof Range ? lower : lowerSource);
+                }
+                if (upper != null) {
+                    merged.add(upperSource instanceof Range ? upper : upperSource);
+                }
+            }
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package org.habv.maracuya;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Least recently used cache of the prepared statements of a connection, keyed
+ * by the query string.
+ * <p>
+ * The cache is a {@link QueryFactory}, so it can be used with
+ * {@link Filterable#applyPositional(QueryFactory, PositionalParameterSetter)}:
+ * <pre>{@code try (StatementCache statements = new StatementCache(connection)) {
+ *     PreparedStatement statement = search.applyPositional(statements, PositionalParameterSetter.jdbc());
+ *     try (ResultSet result = statement.executeQuery()) {
+ *         ...
+ *     }
+ *}}</pre> The statements belong to the cache, they must not be closed by the
+ * caller, the cache closes them when they are evicted or when the cache is
+ * closed. Closing the cache does not close the connection. Like a
+ * connection, a cache is not thread safe.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public final class StatementCache implements QueryFactory<PreparedStatement>, AutoCloseable {
+
+    /**
+     * Default maximum number of statements.
+     */
+    private static final int DEFAULT_MAXIMUM_SIZE = 64;
+
+    /**
+     * Connection.
+     */
+    private final Connection connection;
+    /**
+     * Maximum number of statements.
+     */
+    private final int maximumSize;
+    /**
+     * Statements by query string, in access order.
+     */
+    private final LinkedHashMap<String, PreparedStatement> statements;
+    /**
+     * Number of times that a statement was found in the cache.
+     */
+    private long hits;
+    /**
+     * Number of times that a statement was prepared.
+     */
+    private long misses;
+    /**
+     * Number of statements closed to make room for others.
+     */
+    private long evictions;
+
+    /**
+     * Create a statement cache with the default maximum size.
+     *
+     * @param connection connection
+     * @throws NullPointerException if {@code connection} is {@code null}
+     */
+    public StatementCache(Connection connection) {
+        this(connection, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Create a statement cache.
+     *
+     * @param connection connection
+     * @param maximumSize maximum number of statements
+     * @throws NullPointerException if {@code connection} is {@code null}
+     * @throws IllegalArgumentException if {@code maximumSize} is less than one
+     */
+    public StatementCache(Connection connection, int maximumSize) {
+        if (connection == null) {
+            throw new NullPointerException("connection must not be null");
+        }
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be greater than zero");
+        }
+        this.connection = connection;
+        this.maximumSize = maximumSize;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Get the prepared statement of a query string, preparing it when it is
+     * not in the cache. The parameters of a cached statement are cleared.
+     * When the cache is full the least recently used statement is closed.
+     *
+     * @param query query string
+     * @return prepared statement
+     * @throws SQLException if the statement can not be prepared, or the
+     * evicted statement can not be closed
+     */
+    public PreparedStatement prepare(String query) throws SQLException {
+        PreparedStatement statement = statements.get(query);
+        if (statement != null && !statement.isClosed()) {
+            hits++;
+            statement.clearParameters();
+            return statement;
+        }
+        misses++;
+        statement = connection.prepareStatement(query);
+        statements.put(query, statement);
+        if (statements.size() > maximumSize) {
+            Iterator<PreparedStatement> eldest = statements.values().iterator();
+            PreparedStatement evicted = eldest.next();
+            eldest.remove();
+            evictions++;
+            evicted.close();
+        }
+        return statement;
+    }
+
+    /**
+     * Get the prepared statement of a query string, see
+     * {@link #prepare(String)}.
+     *
+     * @param query query string
+     * @return prepared statement
+     * @throws IllegalStateException if the statement can not be prepared, with
+     * the {@link SQLException} as cause
+     */
+    @Override
+    public PreparedStatement create(String query) {
+        try {
+            return prepare(query);
+        } catch (SQLException ex) {
+            throw new IllegalStateException(String.format("query %s can not be prepared", query), ex);
+        }
+    }
+
+    /**
+     * Number of times that a statement was found in the cache.
+     *
+     * @return number of hits
+     */
+    public long hits() {
+        return hits;
+    }
+
+    /**
+     * Number of times that a statement was prepared.
+     *
+     * @return number of misses
+     */
+    public long misses() {
+        return misses;
+    }
+
+    /**
+     * Number of statements closed to make room for others.
+     *
+     * @return number of evictions
+     */
+    public long evictions() {
+        return evictions;
+    }
+
+    /**
+     * Number of statements in the cache.
+     *
+     * @return number of statements
+     */
+    public int size() {
+        return statements.size();
+    }
+
+    /**
+     * Close and remove all the statements, the statistics are kept.
+     *
+     * @throws SQLException if a statement can not be closed, the other
+     * statements are closed anyway and their exceptions are suppressed
+     */
+    public void clear() throws SQLException {
+        List<PreparedStatement> closing = new ArrayList<>(statements.values());
+        statements.clear();
+        SQLException failure = null;
+        for (PreparedStatement statement : closing) {
+            try {
+                statement.close();
+            } catch (SQLException ex) {
+                if (failure == null) {
+                    failure = ex;
+                } else {
+                    failure.addSuppressed(ex);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Close all the statements, the connection is not closed.
+     *
+     * @throws SQLException if a statement can not be closed
+     * @see #clear()
+     */
+    @Override
+    public void close() throws SQLException {
+        clear();
+    }
+
+    /**
+     * Statistics of the cache, for logging.
+     *
+     * @return statistics of the cache
+     */
+    @Override
+    public String toString() {
+        return String.format("StatementCache{size=%d, hits=%d, misses=%d, evictions=%d}",
+                statements.size(), hits, misses, evictions);
+    }
+}
@@ -0,0 +1,869 @@
+package org.habv.maracuya;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Matcher of the subscriptions that match a row, every subscription is a
+ * filter of {@link FilterFactory}. For example:
+ * <pre>{@code SubscriptionMatcher<Listing, Long> alerts = SubscriptionMatcher.of(PredicateCompiler.of(Listing.class));
+ *alerts.subscribe(search.getId(), FilterFactory.and(
+ *         FilterFactory.in("listing.city", "cities", cities),
+ *         FilterFactory.between("listing.price", "min", "max", 100_000, 250_000),
+ *         FilterFactory.like("listing.title", "title", "garden")
+ * ));
+ *Set<Long> matched = alerts.match(listing);}</pre>
+ * <p>
+ * The subscriptions are indexed by the {@code equal}, {@code in},
+ * {@code greater}, {@code greaterOrEqual}, {@code less}, {@code lessOrEqual}
+ * and {@code between} filters joined by "and" at the top of their filter
+ * tree. A row counts, for every subscription, the indexed filters that it
+ * matches: the {@code equal} and {@code in} filters are found in a hash map
+ * by the value of the column and the ranges in an interval tree of the
+ * column. Only a subscription that matches all of its indexed filters is
+ * checked with the predicate of {@link PredicateCompiler}, so every filter
+ * that it compiles can be used. A subscription without indexed filters, for
+ * example an "or" at the top of its filter, is checked for every row.
+ * <p>
+ * A matcher is thread safe, the matches run concurrently and the changes of
+ * the subscriptions exclusively. The interval trees are built again by the
+ * first match after a change.
+ *
+ * @param <T> type of the rows
+ * @param <K> type of the ids of the subscriptions
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public final class SubscriptionMatcher<T, K> {
+
+    /**
+     * Initial capacity of the subscriptions.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Compiler of the filters and accessors of the columns.
+     */
+    private final PredicateCompiler<T> compiler;
+    /**
+     * Indexes by column name.
+     */
+    private final Map<String, ColumnIndex> indexes;
+    /**
+     * Slots of the subscriptions by id.
+     */
+    private final Map<K, Integer> slots;
+    /**
+     * Slots of the subscriptions.
+     */
+    private final BitSet live;
+    /**
+     * Slots of the subscriptions without indexed filters.
+     */
+    private final BitSet unindexed;
+    /**
+     * Lock of the subscriptions and indexes.
+     */
+    private final ReadWriteLock lock;
+    /**
+     * Counters of the indexed filters matched by a row, by thread.
+     */
+    private final ThreadLocal<Counters> counters;
+    /**
+     * Subscriptions by slot, {@code null} when the slot is free.
+     */
+    private Subscription[] subscriptions;
+    /**
+     * Indicates whether an interval tree has to be built again.
+     */
+    private boolean dirty;
+
+    /**
+     * Create a matcher without subscriptions.
+     *
+     * @param compiler compiler of the filters and accessors of the columns
+     */
+    private SubscriptionMatcher(PredicateCompiler<T> compiler) {
+        this.compiler = compiler;
+        this.indexes = new HashMap<>();
+        this.slots = new HashMap<>();
+        this.live = new BitSet();
+        this.unindexed = new BitSet();
+        this.lock = new ReentrantReadWriteLock();
+        this.counters = ThreadLocal.withInitial(Counters::new);
+        this.subscriptions = new Subscription[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Matcher without subscriptions of the rows of a predicate compiler.
+     *
+     * @param <T> type of the rows
+     * @param <K> type of the ids of the subscriptions
+     * @param compiler compiler of the filters and accessors of the columns
+     * @return matcher without subscriptions
+     * @throws NullPointerException if {@code compiler} is {@code null}
+     */
+    public static <T, K> SubscriptionMatcher<T, K> of(PredicateCompiler<T> compiler) {
+        if (compiler == null) {
+            throw new NullPointerException("compiler must not be null");
+        }
+        return new SubscriptionMatcher<>(compiler);
+    }
+
+    /**
+     * Add a subscription, or replace the subscription with the same id.
+     *
+     * @param id id of the subscription
+     * @param filter filter of the subscription
+     * @throws NullPointerException if {@code id} or {@code filter} are
+     * {@code null}
+     * @throws IllegalArgumentException if the filter can not be compiled, a
+     * column does not have an accessor or a bound of a range can not be
+     * compared with the other bounds of its column
+     */
+    public void subscribe(K id, Filter filter) {
+        if (id == null) {
+            throw new NullPointerException("id must not be null");
+        }
+        Predicate<T> predicate = compiler.compile(filter);
+        List<Filter> leaves = new ArrayList<>();
+        conjuncts(filter, leaves);
+        lock.writeLock().lock();
+        try {
+            check(leaves, slots.get(id));
+            remove(id);
+            int slot = live.nextClearBit(0);
+            if (slot == subscriptions.length) {
+                subscriptions = Arrays.copyOf(subscriptions, slot * 2);
+            }
+            List<Leaf> indexed = new ArrayList<>(leaves.size());
+            for (Filter leaf : leaves) {
+                Leaf added = index(columnName(leaf)).add(leaf, slot);
+                dirty |= added.keys == null;
+                indexed.add(added);
+            }
+            subscriptions[slot] = new Subscription(id, predicate, indexed);
+            slots.put(id, slot);
+            live.set(slot);
+            if (indexed.isEmpty()) {
+                unindexed.set(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a subscription.
+     *
+     * @param id id of the subscription
+     * @return {@code true} if the subscription was removed, {@code false} if
+     * there is not a subscription with the id
+     */
+    public boolean unsubscribe(K id) {
+        lock.writeLock().lock();
+        try {
+            return remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Number of subscriptions.
+     *
+     * @return number of subscriptions
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the subscriptions that match a row, in no particular order.
+     *
+     * @param row row
+     * @return ids of the subscriptions that match the row
+     * @throws NullPointerException if {@code row} is {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public Set<K> match(T row) {
+        if (row == null) {
+            throw new NullPointerException("row must not be null");
+        }
+        Counters counts = counters.get();
+        lock.readLock().lock();
+        try {
+            while (dirty) {
+                lock.readLock().unlock();
+                lock.writeLock().lock();
+                try {
+                    for (ColumnIndex index : indexes.values()) {
+                        index.build();
+                    }
+                    dirty = false;
+                } finally {
+                    lock.readLock().lock();
+                    lock.writeLock().unlock();
+                }
+            }
+            counts.ensure(subscriptions.length);
+            for (ColumnIndex index : indexes.values()) {
+                Object value = index.accessor.apply(row);
+                if (value != null) {
+                    index.count(value, counts);
+                }
+            }
+            Set<K> matched = new HashSet<>();
+            for (int i = 0; i < counts.size; i++) {
+                int slot = counts.touched[i];
+                Subscription subscription = subscriptions[slot];
+                if (counts.counts[slot] == subscription.leaves.size() && subscription.predicate.test(row)) {
+                    matched.add((K) subscription.id);
+                }
+            }
+            for (int slot = unindexed.nextSetBit(0); slot >= 0; slot = unindexed.nextSetBit(slot + 1)) {
+                if (subscriptions[slot].predicate.test(row)) {
+                    matched.add((K) subscriptions[slot].id);
+                }
+            }
+            return matched;
+        } finally {
+            counts.reset();
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Check that the bounds of the ranges of a subscription can be compared
+     * with the bounds of the other ranges of their column, with the write
+     * lock, so the interval trees can be built.
+     *
+     * @param leaves filters that can be indexed
+     * @param replaced slot of the subscription that is replaced, or
+     * {@code null}
+     * @throws IllegalArgumentException if a bound can not be compared
+     */
+    private void check(List<Filter> leaves, Integer replaced) {
+        Map<String, Object> references = new HashMap<>();
+        for (Filter filter : leaves) {
+            Leaf leaf = ColumnIndex.leaf(filter, -1);
+            if (leaf.keys != null) {
+                continue;
+            }
+            Object reference = references.get(leaf.columnName);
+            if (reference == null) {
+                ColumnIndex index = indexes.get(leaf.columnName);
+                reference = index == null ? null : index.bound(replaced);
+            }
+            for (Object bound : new Object[]{leaf.lower, leaf.upper}) {
+                if (bound == null) {
+                    continue;
+                }
+                if (reference == null) {
+                    reference = bound;
+                } else if (!isComparable(bound, reference)) {
+                    throw new IllegalArgumentException(String.format(
+                            "bound %s of column %s can not be compared with %s", bound, leaf.columnName, reference));
+                }
+            }
+            references.put(leaf.columnName, reference);
+        }
+    }
+
+    /**
+     * Indicates whether two bounds can be compared, see
+     * {@link PredicateCompiler#compare(Object, Object)}.
+     *
+     * @param a first bound
+     * @param b second bound
+     * @return {@code true} if the bounds can be compared
+     */
+    private static boolean isComparable(Object a, Object b) {
+        try {
+            PredicateCompiler.compare(a, b);
+            PredicateCompiler.compare(b, a);
+            return true;
+        } catch (ClassCastException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Remove a subscription, with the write lock.
+     *
+     * @param id id of the subscription
+     * @return {@code true} if the subscription was removed
+     */
+    private boolean remove(K id) {
+        Integer slot = slots.remove(id);
+        if (slot == null) {
+            return false;
+        }
+        for (Leaf leaf : subscriptions[slot].leaves) {
+            indexes.get(leaf.columnName).remove(leaf);
+            dirty |= leaf.keys == null;
+        }
+        subscriptions[slot] = null;
+        live.clear(slot);
+        unindexed.clear(slot);
+        return true;
+    }
+
+    /**
+     * Index of a column, created if it does not exist, with the write lock.
+     *
+     * @param columnName column name
+     * @return index of the column
+     */
+    private ColumnIndex index(String columnName) {
+        return indexes.computeIfAbsent(columnName, name -> new ColumnIndex(compiler.accessor(name)));
+    }
+
+    /**
+     * Add the filters that can be indexed of the conjunction at the top of
+     * a filter tree.
+     *
+     * @param filter filter
+     * @param leaves filters that can be indexed
+     */
+    private static void conjuncts(Filter filter, List<Filter> leaves) {
+        if (!filter.canApply()) {
+            return;
+        }
+        if (filter instanceof FilterFactory.Logical) {
+            FilterFactory.Logical logical = (FilterFactory.Logical) filter;
+            if (logical.isConjunction()) {
+                for (Filter child : logical.filters()) {
+                    conjuncts(child, leaves);
+                }
+            }
+        } else if (filter instanceof Comparison) {
+            Comparison comparison = (Comparison) filter;
+            switch (comparison.operator()) {
+                case EQUAL:
+                case IN:
+                    leaves.add(filter);
+                    break;
+                case GREATER:
+                case GREATER_OR_EQUAL:
+                case LESS:
+                case LESS_OR_EQUAL:
+                    if (comparison.value() instanceof Comparable) {
+                        leaves.add(filter);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        } else if (filter instanceof Range) {
+            Range range = (Range) filter;
+            if (range.operator() == Operator.BETWEEN && range.leftValue() instanceof Comparable
+                    && range.rightValue() instanceof Comparable) {
+                leaves.add(filter);
+            }
+        }
+    }
+
+    /**
+     * Column name of a filter that can be indexed.
+     *
+     * @param leaf filter that can be indexed
+     * @return column name
+     */
+    private static String columnName(Filter leaf) {
+        return leaf instanceof Comparison ? ((Comparison) leaf).columnName() : ((Range) leaf).columnName();
+    }
+
+    /**
+     * Key of a value: a number by value, see
+     * {@link PredicateCompiler#normalize(Number)}.
+     *
+     * @param value value
+     * @return key of the value
+     */
+    private static Object keyOf(Object value) {
+        return value instanceof Number ? PredicateCompiler.normalize((Number) value) : value;
+    }
+
+    /**
+     * Subscription.
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    private static final class Subscription {
+
+        /**
+         * Id.
+         */
+        private final Object id;
+        /**
+         * Predicate of the filter.
+         */
+        private final Predicate<Object> predicate;
+        /**
+         * Indexed filters.
+         */
+        private final List<Leaf> leaves;
+
+        /**
+         * Create a subscription.
+         *
+         * @param id id
+         * @param predicate predicate of the filter
+         * @param leaves indexed filters
+         */
+        @SuppressWarnings("unchecked")
+        private Subscription(Object id, Predicate<?> predicate, List<Leaf> leaves) {
+            this.id = id;
+            this.predicate = (Predicate<Object>) predicate;
+            this.leaves = leaves;
+        }
+    }
+
+    /**
+     * Indexed filter of a subscription: the keys of an {@code equal} or
+     * {@code in} filter, or the bounds of a range.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    private static final class Leaf {
+
+        /**
+         * Order by lower bound, without lower bound first.
+         */
+        private static final Comparator<Leaf> BY_LOWER = (a, b) -> a.lower == null
+                ? b.lower == null ? 0 : -1
+                : b.lower == null ? 1 : PredicateCompiler.compare(a.lower, b.lower);
+        /**
+         * Order by upper bound descending, without upper bound first.
+         */
+        private static final Comparator<Leaf> BY_UPPER = (a, b) -> a.upper == null
+                ? b.upper == null ? 0 : -1
+                : b.upper == null ? 1 : PredicateCompiler.compare(b.upper, a.upper);
+
+        /**
+         * Column name.
+         */
+        private final String columnName;
+        /**
+         * Slot of the subscription.
+         */
+        private final int slot;
+        /**
+         * Keys of an {@code equal} or {@code in} filter, {@code null} for a
+         * range.
+         */
+        private final Set<Object> keys;
+        /**
+         * Lower bound of a range, {@code null} without lower bound.
+         */
+        private final Object lower;
+        /**
+         * Indicates whether the lower bound is included.
+         */
+        private final boolean lowerInclusive;
+        /**
+         * Upper bound of a range, {@code null} without upper bound.
+         */
+        private final Object upper;
+        /**
+         * Indicates whether the upper bound is included.
+         */
+        private final boolean upperInclusive;
+
+        /**
+         * Create an indexed filter.
+         *
+         * @param columnName column name
+         * @param slot slot of the subscription
+         * @param keys keys of an {@code equal} or {@code in} filter
+         * @param lower lower bound of a range
+         * @param lowerInclusive indicates whether the lower bound is included
+         * @param upper upper bound of a range
+         * @param upperInclusive indicates whether the upper bound is included
+         */
+        private Leaf(String columnName, int slot, Set<Object> keys, Object lower, boolean lowerInclusive,
+                Object upper, boolean upperInclusive) {
+            this.columnName = columnName;
+            this.slot = slot;
+            this.keys = keys;
+            this.lower = lower;
+            this.lowerInclusive = lowerInclusive;
+            this.upper = upper;
+            this.upperInclusive = upperInclusive;
+        }
+
+        /**
+         * Indicates whether the value is above the lower bound.
+         *
+         * @param value value
+         * @return {@code true} if the value is above the lower bound
+         */
+        private boolean isAbove(Object value) {
+            if (lower == null) {
+                return true;
+            }
+            int comparison = PredicateCompiler.compare(value, lower);
+            return comparison > 0 || comparison == 0 && lowerInclusive;
+        }
+
+        /**
+         * Indicates whether the value is below the upper bound.
+         *
+         * @param value value
+         * @return {@code true} if the value is below the upper bound
+         */
+        private boolean isBelow(Object value) {
+            if (upper == null) {
+                return true;
+            }
+            int comparison = PredicateCompiler.compare(value, upper);
+            return comparison < 0 || comparison == 0 && upperInclusive;
+        }
+    }
+
+    /**
+     * Index of the filters of a column.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    private static final class ColumnIndex {
+
+        /**
+         * Accessor of the column.
+         */
+        private final Function<Object, Object> accessor;
+        /**
+         * {@code equal} and {@code in} filters by key.
+         */
+        private final Map<Object, List<Leaf>> keys;
+        /**
+         * Ranges.
+         */
+        private final List<Leaf> ranges;
+        /**
+         * Interval tree of the ranges.
+         */
+        private Node tree;
+
+        /**
+         * Create an empty index.
+         *
+         * @param accessor accessor of the column
+         */
+        private ColumnIndex(Function<Object, Object> accessor) {
+            this.accessor = accessor;
+            this.keys = new HashMap<>();
+            this.ranges = new ArrayList<>();
+        }
+
+        /**
+         * Add a filter of a subscription.
+         *
+         * @param filter filter that can be indexed
+         * @param slot slot of the subscription
+         * @return indexed filter
+         */
+        private Leaf add(Filter filter, int slot) {
+            Leaf leaf = leaf(filter, slot);
+            if (leaf.keys == null) {
+                ranges.add(leaf);
+                tree = null;
+            } else {
+                for (Object key : leaf.keys) {
+                    keys.computeIfAbsent(key, k -> new ArrayList<>()).add(leaf);
+                }
+            }
+            return leaf;
+        }
+
+        /**
+         * Remove a filter of a subscription.
+         *
+         * @param leaf indexed filter
+         */
+        private void remove(Leaf leaf) {
+            if (leaf.keys == null) {
+                ranges.remove(leaf);
+                tree = null;
+            } else {
+                for (Object key : leaf.keys) {
+                    List<Leaf> leaves = keys.get(key);
+                    leaves.remove(leaf);
+                    if (leaves.isEmpty()) {
+                        keys.remove(key);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Bound of a range of the index, all of them can be compared with
+         * each other.
+         *
+         * @param replaced slot of the subscription whose ranges are ignored,
+         * or {@code null}
+         * @return bound of a range, or {@code null} without ranges
+         */
+        private Object bound(Integer replaced) {
+            for (Leaf range : ranges) {
+                if (replaced == null || range.slot != replaced) {
+                    return range.lower != null ? range.lower : range.upper;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Build the interval tree of the ranges, if it was changed.
+         */
+        private void build() {
+            if (tree == null && !ranges.isEmpty()) {
+                tree = Node.of(ranges);
+            }
+        }
+
+        /**
+         * Count the filters that match a value.
+         *
+         * @param value value of the column
+         * @param counts counters of the subscriptions
+         */
+        private void count(Object value, Counters counts) {
+            List<Leaf> leaves = keys.get(keyOf(value));
+            if (leaves != null) {
+                for (Leaf leaf : leaves) {
+                    counts.increment(leaf.slot);
+                }
+            }
+            for (Node node = tree; node != null;) {
+                int comparison = PredicateCompiler.compare(value, node.center);
+                if (comparison <= 0) {
+                    for (Leaf leaf : node.byLower) {
+                        if (leaf.lower != null && PredicateCompiler.compare(leaf.lower, value) > 0) {
+                            break;
+                        }
+                        if (leaf.isAbove(value) && leaf.isBelow(value)) {
+                            counts.increment(leaf.slot);
+                        }
+                    }
+                } else {
+                    for (Leaf leaf : node.byUpper) {
+                        if (leaf.upper != null && PredicateCompiler.compare(leaf.upper, value) < 0) {
+                            break;
+                        }
+                        if (leaf.isAbove(value) && leaf.isBelow(value)) {
+                            counts.increment(leaf.slot);
+                        }
+                    }
+                }
+                node = comparison < 0 ? node.left : comparison > 0 ? node.right : null;
+            }
+        }
+
+        /**
+         * Indexed filter of a filter.
+         *
+         * @param filter filter that can be indexed
+         * @param slot slot of the subscription
+         * @return indexed filter
+         */
+        private static Leaf leaf(Filter filter, int slot) {
+            if (filter instanceof Range) {
+                Range range = (Range) filter;
+                return new Leaf(range.columnName(), slot, null, range.leftValue(), true, range.rightValue(), true);
+            }
+            Comparison comparison = (Comparison) filter;
+            String columnName = comparison.columnName();
+            Object value = comparison.value();
+            switch (comparison.operator()) {
+                case GREATER:
+                    return new Leaf(columnName, slot, null, value, false, null, false);
+                case GREATER_OR_EQUAL:
+                    return new Leaf(columnName, slot, null, value, true, null, false);
+                case LESS:
+                    return new Leaf(columnName, slot, null, null, false, value, false);
+                case LESS_OR_EQUAL:
+                    return new Leaf(columnName, slot, null, null, false, value, true);
+                default:
+                    Collection<?> values = value instanceof Collection
+                            ? (Collection<?>) value
+                            : Collections.singleton(value);
+                    Set<Object> keys = new HashSet<>();
+                    for (Object element : values) {
+                        if (element != null) {
+                            keys.add(keyOf(element));
+                        }
+                    }
+                    return new Leaf(columnName, slot, keys, null, false, null, false);
+            }
+        }
+    }
+
+    /**
+     * Node of a centered interval tree: the ranges that contain the center,
+     * and the trees of the ranges below and above the center.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    private static final class Node {
+
+        /**
+         * Center.
+         */
+        private final Object center;
+        /**
+         * Ranges of the node by lower bound.
+         */
+        private final Leaf[] byLower;
+        /**
+         * Ranges of the node by upper bound descending.
+         */
+        private final Leaf[] byUpper;
+        /**
+         * Tree of the ranges below the center.
+         */
+        private final Node left;
+        /**
+         * Tree of the ranges above the center.
+         */
+        private final Node right;
+
+        /**
+         * Create a node.
+         *
+         * @param center center
+         * @param ranges ranges of the node
+         * @param left tree of the ranges below the center
+         * @param right tree of the ranges above the center
+         */
+        private Node(Object center, List<Leaf> ranges, Node left, Node right) {
+            this.center = center;
+            this.byLower = ranges.toArray(new Leaf[0]);
+            this.byUpper = byLower.clone();
+            Arrays.sort(byLower, Leaf.BY_LOWER);
+            Arrays.sort(byUpper, Leaf.BY_UPPER);
+            this.left = left;
+            this.right = right;
+        }
+
+        /**
+         * Interval tree of ranges, centered on the median of their bounds.
+         *
+         * @param ranges ranges
+         * @return root of the tree, {@code null} without ranges
+         */
+        private static Node of(List<Leaf> ranges) {
+            if (ranges.isEmpty()) {
+                return null;
+            }
+            List<Object> bounds = new ArrayList<>(ranges.size() * 2);
+            for (Leaf range : ranges) {
+                if (range.lower != null) {
+                    bounds.add(range.lower);
+                }
+                if (range.upper != null) {
+                    bounds.add(range.upper);
+                }
+            }
+            bounds.sort(PredicateCompiler::compare);
+            Object center = bounds.get(bounds.size() / 2);
+            List<Leaf> below = new ArrayList<>();
+            List<Leaf> above = new ArrayList<>();
+            List<Leaf> middle = new ArrayList<>();
+            for (Leaf range : ranges) {
+                if (!range.isBelow(center)) {
+                    below.add(range);
+                } else if (!range.isAbove(center)) {
+                    above.add(range);
+                } else {
+                    middle.add(range);
+                }
+            }
+            if (below.size() == ranges.size() || above.size() == ranges.size()) {
+                return new Node(center, ranges, null, null);
+            }
+            return new Node(center, middle, of(below), of(above));
+        }
+    }
+
+    /**
+     * Counters of the indexed filters matched by a row, with the slots that
+     * were counted so only they are reset.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    private static final class Counters {
+
+        /**
+         * Counter by slot.
+         */
+        private int[] counts = new int[INITIAL_CAPACITY];
+        /**
+         * Slots that were counted.
+         */
+        private int[] touched = new int[INITIAL_CAPACITY];
+        /**
+         * Number of slots that were counted.
+         */
+        private int size;
+
+        /**
+         * Ensure a capacity of slots.
+         *
+         * @param capacity number of slots
+         */
+        private void ensure(int capacity) {
+            if (counts.length < capacity) {
+                counts = Arrays.copyOf(counts, capacity);
+            }
+        }
+
+        /**
+         * Increment the counter of a slot.
+         *
+         * @param slot slot of the subscription
+         */
+        private void increment(int slot) {
+            if (counts[slot]++ == 0) {
+                if (size == touched.length) {
+                    touched = Arrays.copyOf(touched, size * 2);
+                }
+                touched[size++] = slot;
+            }
+        }
+
+        /**
+         * Reset the counters of the counted slots, also when the match
+         * failed, so the next match of the thread starts from zero.
+         */
+        private void reset() {
+            for (int i = 0; i < size; i++) {
+                counts[touched[i]] = 0;
+            }
+            size = 0;
+        }
+    }
+}
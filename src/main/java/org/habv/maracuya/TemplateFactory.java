@@ -0,0 +1,500 @@
+package org.habv.maracuya;
+
+import java.util.Collection;
+
+/**
+ * Factory for the creation of filter templates. The templates mirror the
+ * filters of {@link FilterFactory}, but the values are bound later, per
+ * request, using {@link FilterTemplate#bind()}.
+ * <p>
+ * A leaf of a template is applied only when the values of all its slots are
+ * neither {@code null} nor empty, the same rule used by {@link FilterFactory}.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public final class TemplateFactory {
+
+    /**
+     * Utility class, do not create instances, instead use static methods.
+     */
+    private TemplateFactory() {
+        throw new RuntimeException("do not create instances, instead use static methods");
+    }
+
+    /**
+     * Create a template with equals operator.
+     * <p>
+     * For example: {@code equal("book.isbn","isbn")} will generate the
+     * following sql: {@code book.isbn = :isbn} and put in the parameters the value bound
+     * to the slot {@code isbn}.
+     *
+     * @param columnName column name
+     * @param paramName parameter and slot name
+     * @return template with equals operator
+     * @throws NullPointerException if {@code columnName} or {@code paramName}
+     * are {@code null}
+     */
+    public static FilterTemplate equal(String columnName, String paramName) {
+        required(columnName, paramName);
+        return FilterTemplate.single(columnName, Operator.EQUAL, paramName);
+    }
+
+    /**
+     * Create a template with not equals operator.
+     * <p>
+     * For example: {@code notEqual("book.isbn","isbn")} will generate the
+     * following sql: {@code book.isbn <> :isbn} and put in the parameters the value bound
+     * to the slot {@code isbn}.
+     *
+     * @param columnName column name
+     * @param paramName parameter and slot name
+     * @return template with not equals operator
+     * @throws NullPointerException if {@code columnName} or {@code paramName}
+     * are {@code null}
+     */
+    public static FilterTemplate notEqual(String columnName, String paramName) {
+        required(columnName, paramName);
+        return FilterTemplate.single(columnName, Operator.NOT_EQUAL, paramName);
+    }
+
+    /**
+     * Create a template with greater operator.
+     * <p>
+     * For example: {@code greater("book.price","price")} will generate the
+     * following sql: {@code book.price > :price} and put in the parameters the value bound
+     * to the slot {@code price}.
+     *
+     * @param columnName column name
+     * @param paramName parameter and slot name
+     * @return template with greater than operator
+     * @throws NullPointerException if {@code columnName} or {@code paramName}
+     * are {@code null}
+     */
+    public static FilterTemplate greater(String columnName, String paramName) {
+        required(columnName, paramName);
+        return FilterTemplate.single(columnName, Operator.GREATER, paramName);
+    }
+
+    /**
+     * Create a template with greater or equal operator.
+     * <p>
+     * For example: {@code greaterOrEqual("book.price","price")} will generate the
+     * following sql: {@code book.price >= :price} and put in the parameters the value bound
+     * to the slot {@code price}.
+     *
+     * @param columnName column name
+     * @param paramName parameter and slot name
+     * @return template with greater than or equals operator
+     * @throws NullPointerException if {@code columnName} or {@code paramName}
+     * are {@code null}
+     */
+    public static FilterTemplate greaterOrEqual(String columnName, String paramName) {
+        required(columnName, paramName);
+        return FilterTemplate.single(columnName, Operator.GREATER_OR_EQUAL, paramName);
+    }
+
+    /**
+     * Create a template with less operator.
+     * <p>
+     * For example: {@code less("book.price","price")} will generate the
+     * following sql: {@code book.price < :price} and put in the parameters the value bound
+     * to the slot {@code price}.
+     *
+     * @param columnName column name
+     * @param paramName parameter and slot name
+     * @return template with less than operator
+     * @throws NullPointerException if {@code columnName} or {@code paramName}
+     * are {@code null}
+     */
+    public static FilterTemplate less(String columnName, String paramName) {
+        required(columnName, paramName);
+        return FilterTemplate.single(columnName, Operator.LESS, paramName);
+    }
+
+    /**
+     * Create a template with less or equal operator.
+     * <p>
+     * For example: {@code lessOrEqual("book.price","price")} will generate the
+     * following sql: {@code book.price <= :price} and put in the parameters the value bound
+     * to the slot {@code price}.
+     *
+     * @param columnName column name
+     * @param paramName parameter and slot name
+     * @return template with less than or equals operator
+     * @throws NullPointerException if {@code columnName} or {@code paramName}
+     * are {@code null}
+     */
+    public static FilterTemplate lessOrEqual(String columnName, String paramName) {
+        required(columnName, paramName);
+        return FilterTemplate.single(columnName, Operator.LESS_OR_EQUAL, paramName);
+    }
+
+    /**
+     * Create a template with like operator.
+     * <p>
+     * For example: {@code like("book.title","title")} bound with
+     * {@code "Dracula"} will generate the following sql:
+     * {@code LOWER(book.title) LIKE :title} and put in the parameters the following key/value:
+     * {@code map.put("title","%dracula%");}
+     *
+     * @param columnName column name
+     * @param paramName parameter and slot name
+     * @return template with like operator
+     * @throws NullPointerException if {@code columnName} or {@code paramName}
+     * are {@code null}
+     */
+    public static FilterTemplate like(String columnName, String paramName) {
+        required(columnName, paramName);
+        return FilterTemplate.text(columnName, Operator.LIKE, paramName, true, true, true);
+    }
+
+    /**
+     * Create a template with like operator.
+     * <p>
+     * For example: {@code likeCaseSensitive("book.title","title")} bound with
+     * {@code "Dracula"} will generate the following sql:
+     * {@code book.title LIKE :title} and put in the parameters the following key/value:
+     * {@code map.put("title","%Dracula%");}
+     *
+     * @param columnName column name
+     * @param paramName parameter and slot name
+     * @return template with like operator
+     * @throws NullPointerException if {@code columnName} or {@code paramName}
+     * are {@code null}
+     */
+    public static FilterTemplate likeCaseSensitive(String columnName, String paramName) {
+        required(columnName, paramName);
+        return FilterTemplate.text(columnName, Operator.LIKE, paramName, true, true, false);
+    }
+
+    /**
+     * Create a template with not like operator.
+     * <p>
+     * For example: {@code notLike("book.title","title")} bound with
+     * {@code "Dracula"} will generate the following sql:
+     * {@code LOWER(book.title) NOT LIKE :title} and put in the parameters the following key/value:
+     * {@code map.put("title","%dracula%");}
+     *
+     * @param columnName column name
+     * @param paramName parameter and slot name
+     * @return template with not like operator
+     * @throws NullPointerException if {@code columnName} or {@code paramName}
+     * are {@code null}
+     */
+    public static FilterTemplate notLike(String columnName, String paramName) {
+        required(columnName, paramName);
+        return FilterTemplate.text(columnName, Operator.NOT_LIKE, paramName, true, true, true);
+    }
+
+    /**
+     * Create a template with not like operator.
+     * <p>
+     * For example: {@code notLikeCaseSensitive("book.title","title")} bound with
+     * {@code "Dracula"} will generate the following sql:
+     * {@code book.title NOT LIKE :title} and put in the parameters the following key/value:
+     * {@code map.put("title","%Dracula%");}
+     *
+     * @param columnName column name
+     * @param paramName parameter and slot name
+     * @return template with not like operator
+     * @throws NullPointerException if {@code columnName} or {@code paramName}
+     * are {@code null}
+     */
+    public static FilterTemplate notLikeCaseSensitive(String columnName, String paramName) {
+        required(columnName, paramName);
+        return FilterTemplate.text(columnName, Operator.NOT_LIKE, paramName, true, true, false);
+    }
+
+    /**
+     * Create a template with like operator.
+     * <p>
+     * For example: {@code startsWith("book.title","title")} bound with
+     * {@code "Dracula"} will generate the following sql:
+     * {@code LOWER(book.title) LIKE :title} and put in the parameters the following key/value:
+     * {@code map.put("title","dracula%");}
+     *
+     * @param columnName column name
+     * @param paramName parameter and slot name
+     * @return template with like operator
+     * @throws NullPointerException if {@code columnName} or {@code paramName}
+     * are {@code null}
+     */
+    public static FilterTemplate startsWith(String columnName, String paramName) {
+        required(columnName, paramName);
+        return FilterTemplate.text(columnName, Operator.LIKE, paramName, false, true, true);
+    }
+
+    /**
+     * Create a template with like operator.
+     * <p>
+     * For example: {@code startsWithCaseSensitive("book.title","title")} bound with
+     * {@code "Dracula"} will generate the following sql:
+     * {@code book.title LIKE :title} and put in the parameters the following key/value:
+     * {@code map.put("title","Dracula%");}
+     *
+     * @param columnName column name
+     * @param paramName parameter and slot name
+     * @return template with like operator
+     * @throws NullPointerException if {@code columnName} or {@code paramName}
+     * are {@code null}
+     */
+    public static FilterTemplate startsWithCaseSensitive(String columnName, String paramName) {
+        required(columnName, paramName);
+        return FilterTemplate.text(columnName, Operator.LIKE, paramName, false, true, false);
+    }
+
+    /**
+     * Create a template with like operator.
+     * <p>
+     * For example: {@code endsWith("book.title","title")} bound with
+     * {@code "Dracula"} will generate the following sql:
+     * {@code LOWER(book.title) LIKE :title} and put in the parameters the following key/value:
+     * {@code map.put("title","%dracula");}
+     *
+     * @param columnName column name
+     * @param paramName parameter and slot name
+     * @return template with like operator
+     * @throws NullPointerException if {@code columnName} or {@code paramName}
+     * are {@code null}
+     */
+    public static FilterTemplate endsWith(String columnName, String paramName) {
+        required(columnName, paramName);
+        return FilterTemplate.text(columnName, Operator.LIKE, paramName, true, false, true);
+    }
+
+    /**
+     * Create a template with like operator.
+     * <p>
+     * For example: {@code endsWithCaseSensitive("book.title","title")} bound with
+     * {@code "Dracula"} will generate the following sql:
+     * {@code book.title LIKE :title} and put in the parameters the following key/value:
+     * {@code map.put("title","%Dracula");}
+     *
+     * @param columnName column name
+     * @param paramName parameter and slot name
+     * @return template with like operator
+     * @throws NullPointerException if {@code columnName} or {@code paramName}
+     * are {@code null}
+     */
+    public static FilterTemplate endsWithCaseSensitive(String columnName, String paramName) {
+        required(columnName, paramName);
+        return FilterTemplate.text(columnName, Operator.LIKE, paramName, true, false, false);
+    }
+
+    /**
+     * Create a template with in operator.
+     * <p>
+     * For example: {@code in("book.category","categories")} will generate the
+     * following sql: {@code book.category IN :categories} and put in the
+     * parameters the collection bound to the slot {@code categories}.
+     *
+     * @param columnName column name
+     * @param paramName parameter and slot name
+     * @return template with in operator
+     * @throws NullPointerException if {@code columnName} or {@code paramName}
+     * are {@code null}
+     */
+    @SuppressWarnings("PMD.ShortMethodName")
+    public static FilterTemplate in(String columnName, String paramName) {
+        required(columnName, paramName);
+        return FilterTemplate.single(columnName, Operator.IN, paramName);
+    }
+
+    /**
+     * Create a template with not in operator.
+     * <p>
+     * For example: {@code notIn("book.category","categories")} will generate
+     * the following sql: {@code book.category NOT IN :categories} and put in
+     * the parameters the collection bound to the slot {@code categories}.
+     *
+     * @param columnName column name
+     * @param paramName parameter and slot name
+     * @return template with not in operator
+     * @throws NullPointerException if {@code columnName} or {@code paramName}
+     * are {@code null}
+     */
+    public static FilterTemplate notIn(String columnName, String paramName) {
+        required(columnName, paramName);
+        return FilterTemplate.single(columnName, Operator.NOT_IN, paramName);
+    }
+
+    /**
+     * Create a template with is null operator.
+     * <p>
+     * For example: {@code isNull("book.authorId","withoutAuthor")} will
+     * generate the following sql: {@code book.authorId IS NULL} when the slot
+     * {@code withoutAuthor} is bound to {@code true}.
+     *
+     * @param columnName column name
+     * @param slotName slot name, bound to {@code true} to apply the filter
+     * @return template with is null operator
+     * @throws NullPointerException if {@code columnName} or {@code slotName}
+     * are {@code null}
+     */
+    @SuppressWarnings("PMD.LinguisticNaming")
+    public static FilterTemplate isNull(String columnName, String slotName) {
+        FilterFactory.required(columnName, "columnName");
+        FilterFactory.required(slotName, "slotName");
+        return FilterTemplate.flag(columnName, Operator.IS_NULL, slotName);
+    }
+
+    /**
+     * Create a template with is not null operator.
+     * <p>
+     * For example: {@code isNotNull("book.authorId","withAuthor")} will
+     * generate the following sql: {@code book.authorId IS NOT NULL} when the
+     * slot {@code withAuthor} is bound to {@code true}.
+     *
+     * @param columnName column name
+     * @param slotName slot name, bound to {@code true} to apply the filter
+     * @return template with is not null operator
+     * @throws NullPointerException if {@code columnName} or {@code slotName}
+     * are {@code null}
+     */
+    @SuppressWarnings("PMD.LinguisticNaming")
+    public static FilterTemplate isNotNull(String columnName, String slotName) {
+        FilterFactory.required(columnName, "columnName");
+        FilterFactory.required(slotName, "slotName");
+        return FilterTemplate.flag(columnName, Operator.IS_NOT_NULL, slotName);
+    }
+
+    /**
+     * Create a template with between operator.
+     * <p>
+     * For example: {@code between("book.published","start","end")} will
+     * generate the following sql:
+     * {@code book.published BETWEEN :start AND :end} and put in the parameters
+     * the values bound to the slots {@code start} and {@code end}.
+     *
+     * @param columnName column name
+     * @param leftParamName left parameter and slot name
+     * @param rightParamName right parameter and slot name
+     * @return template with between operator
+     * @throws NullPointerException if {@code columnName}, {@code leftParamName}
+     * or {@code rightParamName} are {@code null}
+     */
+    public static FilterTemplate between(String columnName, String leftParamName, String rightParamName) {
+        required(columnName, leftParamName, rightParamName);
+        return FilterTemplate.pair(columnName, Operator.BETWEEN, leftParamName, rightParamName);
+    }
+
+    /**
+     * Create a template with not between operator.
+     * <p>
+     * For example: {@code notBetween("book.published","start","end")} will
+     * generate the following sql:
+     * {@code book.published NOT BETWEEN :start AND :end} and put in the
+     * parameters the values bound to the slots {@code start} and {@code end}.
+     *
+     * @param columnName column name
+     * @param leftParamName left parameter and slot name
+     * @param rightParamName right parameter and slot name
+     * @return template with not between operator
+     * @throws NullPointerException if {@code columnName}, {@code leftParamName}
+     * or {@code rightParamName} are {@code null}
+     */
+    public static FilterTemplate notBetween(String columnName, String leftParamName, String rightParamName) {
+        required(columnName, leftParamName, rightParamName);
+        return FilterTemplate.pair(columnName, Operator.NOT_BETWEEN, leftParamName, rightParamName);
+    }
+
+    /**
+     * Template that joins several templates using the logical operator "and".
+     *
+     * @param templates templates to be joined
+     * @return template that joins several templates using the logical operator
+     * "and"
+     * @throws IllegalArgumentException if a slot is shared by text templates
+     * with different patterns
+     */
+    public static FilterTemplate and(FilterTemplate... templates) {
+        return FilterTemplate.logical(true, templates);
+    }
+
+    /**
+     * Template that joins several templates using the logical operator "and".
+     *
+     * @param templates templates to be joined
+     * @return template that joins several templates using the logical operator
+     * "and"
+     * @throws IllegalArgumentException if a slot is shared by text templates
+     * with different patterns
+     */
+    public static FilterTemplate and(Collection<FilterTemplate> templates) {
+        return FilterTemplate.logical(true, templates.toArray(new FilterTemplate[0]));
+    }
+
+    /**
+     * Template that joins several templates using the logical operator "or".
+     *
+     * @param templates templates to be joined
+     * @return template that joins several templates using the logical operator
+     * "or"
+     * @throws IllegalArgumentException if a slot is shared by text templates
+     * with different patterns
+     */
+    @SuppressWarnings("PMD.ShortMethodName")
+    public static FilterTemplate or(FilterTemplate... templates) {
+        return FilterTemplate.logical(false, templates);
+    }
+
+    /**
+     * Template that joins several templates using the logical operator "or".
+     *
+     * @param templates templates to be joined
+     * @return template that joins several templates using the logical operator
+     * "or"
+     * @throws IllegalArgumentException if a slot is shared by text templates
+     * with different patterns
+     */
+    @SuppressWarnings("PMD.ShortMethodName")
+    public static FilterTemplate or(Collection<FilterTemplate> templates) {
+        return FilterTemplate.logical(false, templates.toArray(new FilterTemplate[0]));
+    }
+
+    /**
+     * Create a template that only sets one parameter.
+     *
+     * @param paramName parameter and slot name
+     * @return template that only sets one parameter
+     * @throws NullPointerException if {@code paramName} is {@code null}
+     */
+    public static FilterTemplate parameter(String paramName) {
+        FilterFactory.required(paramName, "paramName");
+        return FilterTemplate.literal(FilterFactory.EMPTY_STRING, paramName);
+    }
+
+    /**
+     * Create a template with a specified statement and a parameter.
+     * <p>
+     * For example: {@code literal("book.active = :active","active")} will
+     * generate the following sql: {@code book.active = :active} and put in the
+     * parameters the value bound to the slot {@code active}.
+     *
+     * @param literal literal query value
+     * @param paramName parameter and slot name
+     * @return template with a specified statement and a parameter
+     * @throws NullPointerException if {@code literal} or {@code paramName} are
+     * {@code null}
+     */
+    public static FilterTemplate literal(String literal, String paramName) {
+        FilterFactory.required(literal, "literal");
+        FilterFactory.required(paramName, "paramName");
+        return FilterTemplate.literal(literal, paramName);
+    }
+
+    /**
+     * Checks that the column name and the parameter names are not
+     * {@code null} and not empty.
+     *
+     * @param columnName column name
+     * @param paramNames parameter names
+     */
+    private static void required(String columnName, String... paramNames) {
+        FilterFactory.required(columnName, "columnName");
+        for (String paramName : paramNames) {
+            FilterFactory.required(paramName, "paramName");
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package org.habv.maracuya;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Large collection strategy that filters with {@code EXISTS} in a temporary
+ * table with the values of the large collections of a query, keyed by
+ * parameter name. The table is loaded by {@link #prepare(Filterable)}, never
+ * while the query is rendered.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+final class TemporaryTableStrategy implements LargeCollectionStrategy {
+
+    /**
+     * SQL exists operator.
+     */
+    private static final String EXISTS_TOKEN = "EXISTS (SELECT 1 FROM ";
+    /**
+     * SQL not exists operator.
+     */
+    private static final String NOT_EXISTS_TOKEN = "NOT EXISTS (SELECT 1 FROM ";
+    /**
+     * SQL where statement of the subquery.
+     */
+    private static final String WHERE_TOKEN = " WHERE ";
+    /**
+     * Separator of the table and the column.
+     */
+    private static final String DOT = ".";
+
+    /**
+     * Temporary table name.
+     */
+    private final String tableName;
+    /**
+     * Column of the temporary table with the parameter names.
+     */
+    private final String listColumnName;
+    /**
+     * Column of the temporary table with the values.
+     */
+    private final String tableColumnName;
+    /**
+     * Loads the values in the table.
+     */
+    private final BiConsumer<String, Map<String, Collection<?>>> loader;
+
+    /**
+     * Create a temporary table strategy.
+     *
+     * @param tableName temporary table name
+     * @param listColumnName column of the temporary table with the parameter
+     * names
+     * @param tableColumnName column of the temporary table with the values
+     * @param loader loads the values in the table
+     */
+    TemporaryTableStrategy(String tableName, String listColumnName, String tableColumnName,
+            BiConsumer<String, Map<String, Collection<?>>> loader) {
+        this.tableName = tableName;
+        this.listColumnName = listColumnName;
+        this.tableColumnName = tableColumnName;
+        this.loader = loader;
+    }
+
+    @Override
+    public void render(RenderContext context, String columnName, boolean negated, String paramName, Collection<?> values) {
+        context.collection(this, paramName, values);
+        context.append(negated ? NOT_EXISTS_TOKEN : EXISTS_TOKEN);
+        context.append(tableName);
+        context.append(WHERE_TOKEN);
+        context.append(tableName);
+        context.append(DOT);
+        context.append(listColumnName);
+        context.append(Operator.EQUAL.token());
+        context.placeholder(paramName, paramName);
+        context.append(FilterFactory.AND_TOKEN);
+        context.append(tableName);
+        context.append(DOT);
+        context.append(tableColumnName);
+        context.append(Operator.EQUAL.token());
+        context.append(columnName);
+        context.append(FilterFactory.RIGHT_PARENTHESIS);
+    }
+
+    /**
+     * Load the large collections of the query of a filterable in the
+     * temporary table. The query is rendered to find the collections that
+     * use this strategy.
+     *
+     * @param filterable filterable of the query
+     * @throws IllegalArgumentException if a parameter name is used by
+     * different collections
+     */
+    @Override
+    public void prepare(Filterable filterable) {
+        Map<String, Collection<?>> collections = new LinkedHashMap<>();
+        try (RenderContext context = RenderContext.acquire()) {
+            context.collections(this, collections);
+            Queries.render(filterable, Queries.filter(filterable), context);
+        }
+        if (!collections.isEmpty()) {
+            loader.accept(tableName, collections);
+        }
+    }
+
+    /**
+     * Loader that deletes the rows of the table and inserts the values of
+     * every collection with its parameter name in a batch, using a JDBC
+     * connection.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    static final class JdbcLoader implements BiConsumer<String, Map<String, Collection<?>>> {
+
+        /**
+         * Connection.
+         */
+        private final Connection connection;
+        /**
+         * Column of the temporary table with the parameter names.
+         */
+        private final String listColumnName;
+        /**
+         * Column of the temporary table with the values.
+         */
+        private final String tableColumnName;
+
+        /**
+         * Create a JDBC loader.
+         *
+         * @param connection connection
+         * @param listColumnName column of the temporary table with the
+         * parameter names
+         * @param tableColumnName column of the temporary table with the values
+         */
+        JdbcLoader(Connection connection, String listColumnName, String tableColumnName) {
+            this.connection = connection;
+            this.listColumnName = listColumnName;
+            this.tableColumnName = tableColumnName;
+        }
+
+        /**
+         * Delete the rows of the table and insert the values.
+         *
+         * @param tableName temporary table name
+         * @param collections collections by parameter name
+         * @throws IllegalStateException if the values can not be loaded, with
+         * the {@link SQLException} as cause
+         */
+        @Override
+        public void accept(String tableName, Map<String, Collection<?>> collections) {
+            try (Statement delete = connection.createStatement();
+                    PreparedStatement insert = connection.prepareStatement("INSERT INTO " + tableName
+                            + " (" + listColumnName + ", " + tableColumnName + ") VALUES (?, ?)")) {
+                delete.executeUpdate("DELETE FROM " + tableName);
+                for (Map.Entry<String, Collection<?>> collection : collections.entrySet()) {
+                    for (Object value : collection.getValue()) {
+                        insert.setString(1, collection.getKey());
+                        insert.setObject(2, value);
+                        insert.addBatch();
+                    }
+                }
+                insert.executeBatch();
+            } catch (SQLException ex) {
+                throw new IllegalStateException(String.format("table %s can not be loaded", tableName), ex);
+            }
+        }
+    }
+}
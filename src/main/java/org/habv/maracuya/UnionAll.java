@@ -0,0 +1,144 @@
+package org.habv.maracuya;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders a query with a top-level "or" as {@code UNION ALL} branches, see
+ * {@link Filterable#unionAll()}.
+ * <p>
+ * For example, the filter {@code and(a, or(b, c))} is rendered as:
+ * <pre>{@code SELECT ... FROM ... WHERE a AND b
+ * UNION ALL
+ * SELECT ... FROM ... WHERE a AND c AND CASE WHEN b THEN 1 ELSE 0 END = 0}</pre>
+ * A later branch excludes the rows of the earlier branches with a
+ * {@code CASE} expression instead of {@code NOT}, so a row where an earlier
+ * branch is unknown because of a {@code NULL} is not lost.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+final class UnionAll {
+
+    /**
+     * Union token.
+     */
+    private static final String UNION_ALL_TOKEN = " UNION ALL ";
+    /**
+     * Start of the exclusion of an earlier branch.
+     */
+    private static final String EXCLUSION_START = "CASE WHEN ";
+    /**
+     * End of the exclusion of an earlier branch.
+     */
+    private static final String EXCLUSION_END = " THEN 1 ELSE 0 END = 0";
+
+    /**
+     * Utility class, do not create instances, instead use static methods.
+     */
+    private UnionAll() {
+        throw new RuntimeException("do not create instances, instead use static methods");
+    }
+
+    /**
+     * Render the branches of the query of a filterable, when its filter has a
+     * top-level "or" and the query does not have group by nor having
+     * statements.
+     *
+     * @param filterable filterable that provides the declarations
+     * @param filter applicable filter of the filterable
+     * @param context render context
+     * @return {@code true} if the branches were rendered, {@code false} if
+     * the query can not be expanded and nothing was rendered
+     */
+    static boolean render(Filterable filterable, Filter filter, RenderContext context) {
+        if (filterable.groupBy().isPresent() || filterable.having().isPresent()) {
+            return false;
+        }
+        Filter optimized = FilterOptimizer.optimize(filter);
+        if (!(optimized instanceof FilterFactory.Logical)) {
+            return false;
+        }
+        FilterFactory.Logical logical = (FilterFactory.Logical) optimized;
+        List<Filter> shared = new ArrayList<>();
+        FilterFactory.Logical disjunction = null;
+        if (!logical.isConjunction()) {
+            disjunction = logical;
+        } else {
+            for (Filter child : logical.filters()) {
+                if (disjunction == null && child instanceof FilterFactory.Logical
+                        && !((FilterFactory.Logical) child).isConjunction()) {
+                    disjunction = (FilterFactory.Logical) child;
+                } else {
+                    shared.add(child);
+                }
+            }
+        }
+        if (disjunction == null) {
+            return false;
+        }
+        Filter[] branches = disjunction.filters();
+        for (int i = 0; i < branches.length; i++) {
+            if (i > 0) {
+                context.append(UNION_ALL_TOKEN);
+            }
+            List<Filter> filters = new ArrayList<>(shared);
+            filters.add(branches[i]);
+            for (int j = 0; j < i; j++) {
+                filters.add(new Exclusion(branches[j]));
+            }
+            int start = context.query().length();
+            context.append(Queries.select(filterable));
+            context.append(filterable.from());
+            int at = context.query().length();
+            context.append(filterable.where());
+            FilterFactory.Logical.applicable(true, filters.toArray(new Filter[0])).render(context);
+            Join.render(filterable.joins(), context.query(), start, at);
+        }
+        Queries.orderBy(filterable, context);
+        return true;
+    }
+
+    /**
+     * Filter that excludes the rows of an earlier branch.
+     *
+     * @author Herman Barrantes
+     * @since 1.1.0
+     */
+    private static final class Exclusion implements Filter {
+
+        /**
+         * Filter of the earlier branch.
+         */
+        private final Filter branch;
+
+        /**
+         * Create a filter that excludes the rows of an earlier branch.
+         *
+         * @param branch filter of the earlier branch
+         */
+        private Exclusion(Filter branch) {
+            this.branch = branch;
+        }
+
+        @Override
+        public boolean canApply() {
+            return true;
+        }
+
+        @Override
+        public void apply(StringBuilder query, Map<String, Object> parameters) {
+            query.append(EXCLUSION_START);
+            branch.apply(query, parameters);
+            query.append(EXCLUSION_END);
+        }
+
+        @Override
+        public void render(RenderContext context) {
+            context.append(EXCLUSION_START);
+            branch.render(context);
+            context.append(EXCLUSION_END);
+        }
+    }
+}
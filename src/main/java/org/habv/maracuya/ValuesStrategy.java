@@ -0,0 +1,69 @@
+package org.habv.maracuya;
+
+import java.util.Collection;
+
+/**
+ * Large collection strategy that compares the column with a {@code VALUES}
+ * list.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+final class ValuesStrategy implements LargeCollectionStrategy {
+
+    /**
+     * Shared instance, the strategy does not have state.
+     */
+    static final ValuesStrategy INSTANCE = new ValuesStrategy();
+    /**
+     * Start of the subquery.
+     */
+    private static final String VALUES_START = "(SELECT v FROM (VALUES ";
+    /**
+     * End of the subquery.
+     */
+    private static final String VALUES_END = ") AS list_values(v))";
+    /**
+     * Separator of the rows.
+     */
+    private static final String ROW_SEPARATOR = ", ";
+    /**
+     * Separator of the parameter name and the number of the value.
+     */
+    private static final String VALUE_SEPARATOR = "_";
+
+    /**
+     * Use {@link #INSTANCE}.
+     */
+    private ValuesStrategy() {
+    }
+
+    @Override
+    public void render(RenderContext context, String columnName, boolean negated, String paramName, Collection<?> values) {
+        context.append(columnName);
+        context.append(negated ? Operator.NOT_IN.token() : Operator.IN.token());
+        context.append(VALUES_START);
+        int index = 0;
+        for (Object value : values) {
+            if (index > 0) {
+                context.append(ROW_SEPARATOR);
+            }
+            index++;
+            context.append(FilterFactory.LEFT_PARENTHESIS);
+            context.placeholder(paramName + VALUE_SEPARATOR + index, value);
+            context.append(FilterFactory.RIGHT_PARENTHESIS);
+        }
+        context.append(VALUES_END);
+    }
+
+    /**
+     * The query string has one row per value.
+     *
+     * @param size size of the collection
+     * @return size of the collection
+     */
+    @Override
+    public int shape(int size) {
+        return size;
+    }
+}
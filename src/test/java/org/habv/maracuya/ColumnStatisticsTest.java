@@ -0,0 +1,71 @@
+package org.habv.maracuya;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test of ColumnStatistics.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public class ColumnStatisticsTest {
+
+    /**
+     * Test of of method, of class ColumnStatistics.
+     */
+    @Test
+    public void testOf() {
+        System.out.println("of");
+        List<Object> values = new ArrayList<>();
+        for (int i = 0; i < 900; i++) {
+            values.add(i % 300);
+        }
+        for (int i = 0; i < 100; i++) {
+            values.add(null);
+        }
+        ColumnStatistics statistics = ColumnStatistics.of(values);
+        assertEquals(statistics.count(), 1000);
+        assertEquals(statistics.distinct(), 300);
+        assertEquals(statistics.nullFraction(), 0.1, 1e-9);
+        assertEquals(statistics.equal(10), 0.003, 1e-9);
+        assertEquals(statistics.equal(301L), 0.0);
+        assertEquals(statistics.in(30), 0.09, 1e-9);
+        assertEquals(statistics.in(1000), 0.9, 1e-9);
+        assertEquals(statistics.less(150, false), 0.45, 0.02);
+        assertEquals(statistics.less(30.5, true), 0.09, 0.02);
+        assertEquals(statistics.less(-1, true), 0.0);
+        assertEquals(statistics.less(1000, false), 0.9, 1e-9);
+    }
+
+    /**
+     * Test of of method, of class ColumnStatistics, with texts.
+     */
+    @Test
+    public void testOfTexts() {
+        System.out.println("ofTexts");
+        ColumnStatistics statistics = ColumnStatistics.of(Arrays.asList("EU", "US", "EU", "ASIA"), 2);
+        assertEquals(statistics.distinct(), 3);
+        assertEquals(statistics.nullFraction(), 0.0);
+        assertEquals(statistics.equal("EU"), 1.0 / 3, 1e-9);
+        assertEquals(statistics.equal("ZZ"), 0.0);
+        assertEquals(statistics.less("A", false), 0.0);
+        assertEquals(statistics.less("ZZ", false), 1.0);
+        ColumnStatistics empty = ColumnStatistics.of(new ArrayList<>());
+        assertEquals(empty.equal("EU"), 0.0);
+        assertEquals(empty.less("EU", true), 0.0);
+    }
+
+    /**
+     * Test of of method, of class ColumnStatistics, with values that are not
+     * comparable.
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testOfNotComparable() {
+        System.out.println("ofNotComparable");
+        ColumnStatistics.of(Arrays.asList("EU", 1));
+    }
+}
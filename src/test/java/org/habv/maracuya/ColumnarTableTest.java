@@ -0,0 +1,215 @@
+package org.habv.maracuya;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Predicate;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test of ColumnarTable.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public class ColumnarTableTest {
+
+    public static final class Sale {
+
+        private final int quantity;
+        private final long customerId;
+        private final double amount;
+        private final String region;
+
+        public Sale(int quantity, long customerId, double amount, String region) {
+            this.quantity = quantity;
+            this.customerId = customerId;
+            this.amount = amount;
+            this.region = region;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public long getCustomerId() {
+            return customerId;
+        }
+
+        public double getAmount() {
+            return amount;
+        }
+
+        public String getRegion() {
+            return region;
+        }
+    }
+
+    private static final String[] REGIONS = {"EU", "US", "ASIA", null, "LATAM"};
+
+    private static List<Sale> sales(int size) {
+        List<Sale> sales = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            sales.add(new Sale(i % 17, i * 7L, i * 0.5, REGIONS[i % REGIONS.length]));
+        }
+        return sales;
+    }
+
+    private static ColumnarTable table(List<Sale> sales) {
+        return ColumnarTable.<Sale>builder()
+                .intColumn("sale.quantity", Sale::getQuantity)
+                .longColumn("sale.customer_id", Sale::getCustomerId)
+                .doubleColumn("sale.amount", Sale::getAmount)
+                .stringColumn("sale.region", Sale::getRegion)
+                .build(sales);
+    }
+
+    private static BitSet expected(List<Sale> sales, Predicate<Sale> predicate) {
+        BitSet bits = new BitSet();
+        for (int i = 0; i < sales.size(); i++) {
+            if (predicate.test(sales.get(i))) {
+                bits.set(i);
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Test of select method, of class ColumnarTable, against the row-wise
+     * evaluation.
+     */
+    @Test
+    public void testSelect() {
+        System.out.println("select");
+        List<Sale> sales = sales(1000);
+        ColumnarTable table = table(sales);
+        PredicateCompiler<Sale> compiler = PredicateCompiler.of(Sale.class);
+        List<Filter> filters = Arrays.asList(
+                FilterFactory.equal("sale.quantity", "quantity", 3),
+                FilterFactory.notEqual("sale.quantity", "quantity", 3L),
+                FilterFactory.greater("sale.quantity", "quantity", 12.5),
+                FilterFactory.greaterOrEqual("sale.customer_id", "customerId", 3500),
+                FilterFactory.less("sale.customer_id", "customerId", 70.5),
+                FilterFactory.lessOrEqual("sale.amount", "amount", 10),
+                FilterFactory.greater("sale.amount", "amount", 495.5),
+                FilterFactory.between("sale.amount", "min", "max", 100, 110.25),
+                FilterFactory.notBetween("sale.quantity", "min", "max", 2.5, 14),
+                FilterFactory.in("sale.quantity", "quantities", Arrays.asList(1, 5L, 7.5, 16.0)),
+                FilterFactory.notIn("sale.amount", "amounts", Arrays.asList(1.5, 2, 300)),
+                FilterFactory.equal("sale.region", "region", "US"),
+                FilterFactory.notEqual("sale.region", "region", "US"),
+                FilterFactory.greater("sale.region", "region", "EU"),
+                FilterFactory.lessOrEqual("sale.region", "region", "F"),
+                FilterFactory.between("sale.region", "min", "max", "B", "LATAM"),
+                FilterFactory.notBetween("sale.region", "min", "max", "ASIA", "M"),
+                FilterFactory.in("sale.region", "regions", Arrays.asList("EU", "ASIA", "AFRICA")),
+                FilterFactory.notIn("sale.region", "regions", Arrays.asList("EU", "AFRICA")),
+                FilterFactory.like("sale.region", "region", "a"),
+                FilterFactory.notLike("sale.region", "region", "s"),
+                FilterFactory.isNull("sale.region", true),
+                FilterFactory.isNotNull("sale.region", true),
+                FilterFactory.and(
+                        FilterFactory.in("sale.region", "regions", Arrays.asList("EU", "LATAM")),
+                        FilterFactory.or(
+                                FilterFactory.less("sale.quantity", "quantity", 4),
+                                FilterFactory.between("sale.amount", "min", "max", 200, 300)
+                        ),
+                        FilterFactory.equal("sale.customer_id", "customerId", null)
+                )
+        );
+        for (Filter filter : filters) {
+            assertEquals(table.select(filter), expected(sales, compiler.compile(filter)), filter.toString());
+        }
+        assertEquals(table.count(FilterFactory.equal("sale.region", "region", "EU")), 200);
+        assertEquals(table.count(FilterFactory.none()), 1000);
+        assertEquals(table.count(FilterFactory.isNull("sale.quantity", true)), 0);
+        assertEquals(table.size(), 1000);
+    }
+
+    /**
+     * Test of select method, of class ColumnarTable, with numbers outside
+     * the {@code long} range, against the row-wise evaluation.
+     */
+    @Test
+    public void testSelectOutOfRange() {
+        System.out.println("selectOutOfRange");
+        List<Sale> sales = Arrays.asList(
+                new Sale(5, 5L, 1, "EU"),
+                new Sale(Integer.MAX_VALUE, Long.MAX_VALUE, 2, "US"),
+                new Sale(Integer.MIN_VALUE, Long.MIN_VALUE, 3, "ASIA"),
+                new Sale(-1, -1L, 4, "EU")
+        );
+        ColumnarTable table = table(sales);
+        PredicateCompiler<Sale> compiler = PredicateCompiler.of(Sale.class);
+        BigInteger huge = BigInteger.ONE.shiftLeft(64).add(BigInteger.valueOf(5));
+        BigDecimal belowMax = new BigDecimal("9223372036854775806.5");
+        List<Filter> filters = new ArrayList<>();
+        for (String column : Arrays.asList("sale.quantity", "sale.customer_id")) {
+            for (Object value : Arrays.asList(huge, huge.negate(), 1e20, -1e20, belowMax, belowMax.negate(),
+                    Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NaN)) {
+                filters.add(FilterFactory.equal(column, "value", value));
+                filters.add(FilterFactory.notEqual(column, "value", value));
+                filters.add(FilterFactory.greater(column, "value", value));
+                filters.add(FilterFactory.greaterOrEqual(column, "value", value));
+                filters.add(FilterFactory.less(column, "value", value));
+                filters.add(FilterFactory.lessOrEqual(column, "value", value));
+                filters.add(FilterFactory.between(column, "min", "max", -1, value));
+                filters.add(FilterFactory.between(column, "min", "max", value, 5));
+            }
+            filters.add(FilterFactory.in(column, "values", Arrays.asList(huge, 1e20, -1)));
+            filters.add(FilterFactory.notIn(column, "values", Arrays.asList(huge, 5)));
+        }
+        for (Filter filter : filters) {
+            assertEquals(table.select(filter), expected(sales, compiler.compile(filter)), filter.toString());
+        }
+        assertEquals(table.count(FilterFactory.equal("sale.customer_id", "customerId", huge)), 0);
+        assertEquals(table.count(FilterFactory.greater("sale.customer_id", "customerId", 1e20)), 0);
+    }
+
+    /**
+     * Test of select method, of class ColumnarTable, without rows.
+     */
+    @Test
+    public void testSelectEmpty() {
+        System.out.println("selectEmpty");
+        ColumnarTable table = table(new ArrayList<>());
+        assertTrue(table.select(FilterFactory.equal("sale.region", "region", "EU")).isEmpty());
+        assertEquals(table.count(FilterFactory.none()), 0);
+        assertEquals(table(sales(64)).count(FilterFactory.none()), 64);
+        assertEquals(table(sales(65)).count(FilterFactory.notEqual("sale.quantity", "quantity", 99)), 65);
+    }
+
+    /**
+     * Test of select method, of class ColumnarTable, with an unknown column.
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSelectUnknownColumn() {
+        System.out.println("selectUnknownColumn");
+        table(sales(10)).select(FilterFactory.equal("sale.discount", "discount", 1));
+    }
+
+    /**
+     * Test of select method, of class ColumnarTable, with a text compared to
+     * a number column.
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSelectMismatch() {
+        System.out.println("selectMismatch");
+        table(sales(10)).select(FilterFactory.equal("sale.quantity", "quantity", "3"));
+    }
+
+    /**
+     * Test of builder method, of class ColumnarTable, with a duplicate column.
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBuilderDuplicate() {
+        System.out.println("builderDuplicate");
+        ColumnarTable.<Sale>builder()
+                .intColumn("sale.quantity", Sale::getQuantity)
+                .longColumn("sale.quantity", Sale::getCustomerId);
+    }
+}
@@ -0,0 +1,130 @@
+package org.habv.maracuya;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test Dialect.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public class DialectTest {
+
+    private static final class BookFilter implements Filterable {
+
+        private final Dialect dialect;
+        private final Map<String, String> lowerCaseColumns;
+        private final String title;
+
+        private BookFilter(Dialect dialect, Map<String, String> lowerCaseColumns, String title) {
+            this.dialect = dialect;
+            this.lowerCaseColumns = lowerCaseColumns;
+            this.title = title;
+        }
+
+        @Override
+        public String select() {
+            return "SELECT COUNT(*)";
+        }
+
+        @Override
+        public String from() {
+            return " FROM book";
+        }
+
+        @Override
+        public Filter filter() {
+            return FilterFactory.and(
+                    FilterFactory.startsWith("book.title", "title", title),
+                    FilterFactory.notLike("book.author", "author", "Anonymous")
+            );
+        }
+
+        @Override
+        public Dialect dialect() {
+            return dialect;
+        }
+
+        @Override
+        public Map<String, String> lowerCaseColumns() {
+            return lowerCaseColumns;
+        }
+    }
+
+    private static String query(Dialect dialect) {
+        return new BookFilter(dialect, Collections.emptyMap(), "Dra").apply(sql -> sql, (q, k, v) -> {
+        });
+    }
+
+    /**
+     * Test of renderIgnoreCase method, of class Dialect.
+     */
+    @Test
+    public void testRenderIgnoreCase() {
+        System.out.println("renderIgnoreCase");
+        assertEquals(query(Dialect.ANSI),
+                "SELECT COUNT(*) FROM book WHERE LOWER(book.title) LIKE :title AND LOWER(book.author) NOT LIKE :author");
+        assertEquals(query(Dialect.ORACLE), query(Dialect.ANSI));
+        assertEquals(query(Dialect.POSTGRESQL),
+                "SELECT COUNT(*) FROM book WHERE book.title ILIKE :title AND book.author NOT ILIKE :author");
+        assertEquals(query(Dialect.H2), query(Dialect.POSTGRESQL));
+        assertEquals(query(Dialect.MYSQL),
+                "SELECT COUNT(*) FROM book WHERE book.title LIKE :title AND book.author NOT LIKE :author");
+        assertEquals(query(Dialect.SQL_SERVER), query(Dialect.MYSQL));
+    }
+
+    /**
+     * Test of lowerCaseColumns method, of class Filterable.
+     */
+    @Test
+    public void testLowerCaseColumns() {
+        System.out.println("lowerCaseColumns");
+        Map<String, Object> params = new HashMap<>();
+        String query = new BookFilter(Dialect.ANSI, Collections.singletonMap("book.title", "book.title_lower"), "Dra")
+                .apply(sql -> sql, (q, k, v) -> params.put(k, v));
+        assertEquals(query,
+                "SELECT COUNT(*) FROM book WHERE book.title_lower LIKE :title AND LOWER(book.author) NOT LIKE :author");
+        assertEquals(params.get("title"), "dra%");
+        QueryCache cache = new QueryCache();
+        String plain = new BookFilter(Dialect.ANSI, Collections.emptyMap(), "Dra").apply(cache, sql -> sql,
+                (q, k, v) -> {
+                });
+        String lower = new BookFilter(Dialect.ANSI, Collections.singletonMap("book.title", "book.title_lower"), "Dra")
+                .apply(cache, sql -> sql, (q, k, v) -> {
+                });
+        assertNotEquals(lower, plain);
+        assertEquals(cache.misses(), 2);
+    }
+
+    /**
+     * Test of renderIgnoreCase method, of class Dialect, against an in-memory
+     * H2 database.
+     */
+    @Test
+    public void testIlike() throws SQLException {
+        System.out.println("ilike");
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:");
+                Statement statement = connection.createStatement();
+                StatementCache statements = new StatementCache(connection)) {
+            statement.execute("CREATE TABLE book (title VARCHAR(100), author VARCHAR(100))");
+            statement.execute("INSERT INTO book VALUES ('Dracula', 'Bram Stoker'), ('DRAGON', 'ANONYMOUS'),"
+                    + " ('dragonfly', 'Jane Doe'), ('Emma', 'Jane Austen')");
+            PreparedStatement query = new BookFilter(Dialect.H2, Collections.emptyMap(), "dRA")
+                    .applyPositional(statements, PositionalParameterSetter.jdbc());
+            try (ResultSet result = query.executeQuery()) {
+                result.next();
+                assertEquals(result.getInt(1), 2);
+            }
+        }
+    }
+}
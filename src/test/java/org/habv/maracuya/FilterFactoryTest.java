@@ -256,6 +256,55 @@ public class FilterFactoryTest {
         assertEquals(params.get(paramName), value + "%");
     }
 
+    /**
+     * Test of startsWithRange method, of class FilterFactory.
+     */
+    @Test
+    public void testStartsWithRange() {
+        System.out.println("startsWithRange");
+        Filter filter = FilterFactory.startsWithRange("item.sku", "sku", "AB-12");
+        assertTrue(filter.canApply());
+        StringBuilder query = new StringBuilder();
+        Map<String, Object> params = new HashMap<>();
+        filter.apply(query, params);
+        assertEquals(query.toString(), "item.sku >= :sku AND item.sku < :skuNext");
+        assertEquals(params.get("sku"), "AB-12");
+        assertEquals(params.get("skuNext"), "AB-13");
+        assertFalse(FilterFactory.startsWithRange("item.sku", "sku", "").canApply());
+    }
+
+    /**
+     * Test of startsWithRangeIgnoreCase method, of class FilterFactory.
+     */
+    @Test
+    public void testStartsWithRangeIgnoreCase() {
+        System.out.println("startsWithRangeIgnoreCase");
+        Filter filter = FilterFactory.startsWithRangeIgnoreCase("item.sku_lower", "sku", "AB-1z");
+        StringBuilder query = new StringBuilder();
+        Map<String, Object> params = new HashMap<>();
+        filter.apply(query, params);
+        assertEquals(query.toString(), "item.sku_lower >= :sku AND item.sku_lower < :skuNext");
+        assertEquals(params.get("sku"), "ab-1z");
+        assertEquals(params.get("skuNext"), "ab-1{");
+    }
+
+    /**
+     * Test of next method, of class FilterFactory.
+     */
+    @Test
+    public void testNext() {
+        System.out.println("next");
+        String max = new String(Character.toChars(Character.MAX_CODE_POINT));
+        assertEquals(FilterFactory.next("abc"), "abd");
+        assertEquals(FilterFactory.next("a" + max), "b");
+        assertEquals(FilterFactory.next("a\uD7FF"), "a\uE000");
+        assertEquals(FilterFactory.next("a\uD83D\uDE00"), "a\uD83D\uDE01");
+        assertNull(FilterFactory.next(max + max));
+        StringBuilder query = new StringBuilder();
+        FilterFactory.startsWithRange("item.sku", "sku", max).apply(query, new HashMap<>());
+        assertEquals(query.toString(), "item.sku >= :sku");
+    }
+
     /**
      * Test of endsWith method, of class FilterFactory.
      */
@@ -0,0 +1,419 @@
+package org.habv.maracuya;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test FilterOptimizer.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public class FilterOptimizerTest {
+
+    private static String render(Filter filter) {
+        try (RenderContext context = RenderContext.acquire()) {
+            filter.render(context);
+            return context.query().toString();
+        }
+    }
+
+    /**
+     * Test of none method, of class FilterFactory.
+     */
+    @Test
+    public void testNone() {
+        System.out.println("none");
+        assertSame(FilterFactory.none(), FilterFactory.none());
+        assertSame(FilterFactory.equal("book.isbn", "isbn", null), FilterFactory.none());
+    }
+
+    /**
+     * Test of optimize method, of class FilterOptimizer, flattening nested
+     * filters with the same logical operator.
+     */
+    @Test
+    public void testFlatten() {
+        System.out.println("flatten");
+        Filter filter = FilterFactory.and(
+                FilterFactory.equal("book.isbn", "isbn", "978-3-16-148410-0"),
+                FilterFactory.and(
+                        FilterFactory.greater("book.price", "price", 9.99),
+                        FilterFactory.and(FilterFactory.less("book.pages", "pages", 500))
+                ),
+                FilterFactory.or(
+                        FilterFactory.equal("book.category", "category", "Horror"),
+                        FilterFactory.or(FilterFactory.isNull("book.category", true))
+                )
+        );
+        Filter optimized = FilterOptimizer.optimize(filter);
+        assertEquals(render(optimized), "book.isbn = :isbn AND book.price > :price AND book.pages < :pages"
+                + " AND (book.category = :category OR book.category IS NULL )");
+        assertEquals(((FilterFactory.Logical) optimized).filters().length, 4);
+    }
+
+    /**
+     * Test of optimize method, of class FilterOptimizer, removing the filters
+     * that can not be applied.
+     */
+    @Test
+    public void testPrune() {
+        System.out.println("prune");
+        Filter filter = FilterFactory.and(
+                FilterFactory.equal("book.isbn", "isbn", null),
+                FilterFactory.or(
+                        FilterFactory.equal("book.category", "category", null),
+                        FilterFactory.greater("book.price", "price", 9.99)
+                ),
+                FilterFactory.or(FilterFactory.none(), FilterFactory.none())
+        );
+        Filter optimized = FilterOptimizer.optimize(filter);
+        assertTrue(optimized instanceof Comparison);
+        assertEquals(render(optimized), "book.price > :price");
+        assertSame(FilterOptimizer.optimize(FilterFactory.and(FilterFactory.none(), FilterFactory.or())),
+                FilterFactory.none());
+    }
+
+    /**
+     * Test of optimize method, of class FilterOptimizer, the applicability of
+     * every filter is checked only once.
+     */
+    @Test
+    public void testApplicabilityChecked() {
+        System.out.println("applicabilityChecked");
+        AtomicInteger checks = new AtomicInteger();
+        Filter custom = new Filter() {
+            @Override
+            public boolean canApply() {
+                checks.incrementAndGet();
+                return true;
+            }
+
+            @Override
+            public void apply(StringBuilder query, Map<String, Object> parameters) {
+                query.append("book.active = :active");
+                parameters.put("active", true);
+            }
+        };
+        Filter optimized = FilterOptimizer.optimize(FilterFactory.and(
+                FilterFactory.equal("book.isbn", "isbn", "978-3-16-148410-0"),
+                FilterFactory.or(custom, FilterFactory.isNull("book.category", true))
+        ));
+        assertEquals(checks.get(), 1);
+        assertTrue(optimized.canApply());
+        StringBuilder query = new StringBuilder();
+        Map<String, Object> params = new HashMap<>();
+        optimized.apply(query, params);
+        assertEquals(render(optimized), query.toString());
+        assertEquals(query.toString(), "book.isbn = :isbn AND (book.active = :active OR book.category IS NULL )");
+        assertEquals(checks.get(), 1);
+    }
+
+    /**
+     * Test of simplify method, of class FilterOptimizer, with bounds of the
+     * same column.
+     */
+    @Test
+    public void testSimplifyBounds() {
+        System.out.println("simplifyBounds");
+        Filter filter = FilterFactory.and(
+                FilterFactory.greater("book.price", "min1", 5.0),
+                FilterFactory.equal("book.category", "category", "Horror"),
+                FilterFactory.greater("book.price", "min2", 3.0),
+                FilterFactory.greaterOrEqual("book.price", "min3", 5.0),
+                FilterFactory.lessOrEqual("book.price", "max", 20.0)
+        );
+        assertEquals(render(FilterOptimizer.simplify(filter)),
+                "book.price > :min1 AND book.price <= :max AND book.category = :category");
+    }
+
+    /**
+     * Test of simplify method, of class FilterOptimizer, with a between and
+     * other bounds of the same column.
+     */
+    @Test
+    public void testSimplifyBetween() {
+        System.out.println("simplifyBetween");
+        Filter narrower = FilterFactory.and(
+                FilterFactory.between("book.published", "start", "end", 1980, 2020),
+                FilterFactory.lessOrEqual("book.published", "last", 2000)
+        );
+        assertEquals(render(FilterOptimizer.simplify(narrower)),
+                "book.published >= :start AND book.published <= :last");
+        Filter wider = FilterFactory.and(
+                FilterFactory.between("book.published", "start", "end", 1980, 2020),
+                FilterFactory.less("book.published", "last", 2021)
+        );
+        assertEquals(render(FilterOptimizer.simplify(wider)), "book.published BETWEEN :start AND :end");
+    }
+
+    /**
+     * Test of simplify method, of class FilterOptimizer, with in filters of
+     * the same column.
+     */
+    @Test
+    public void testSimplifyIn() {
+        System.out.println("simplifyIn");
+        Filter and = FilterFactory.and(
+                FilterFactory.in("book.id", "ids", Arrays.asList(1, 2, 3, 4)),
+                FilterFactory.in("book.id", "others", Arrays.asList(2, 3, 4, 5)),
+                FilterFactory.less("book.id", "max", 4)
+        );
+        try (RenderContext context = RenderContext.acquire()) {
+            FilterOptimizer.simplify(and).render(context);
+            assertEquals(context.query().toString(), "book.id IN :ids");
+            assertEquals(context.parameters().get("ids"), Arrays.asList(2, 3));
+            assertEquals(context.size(), 1);
+        }
+        Filter or = FilterFactory.or(
+                FilterFactory.in("book.id", "ids", Arrays.asList(1, 2)),
+                FilterFactory.in("book.id", "others", Arrays.asList(2, 3))
+        );
+        try (RenderContext context = RenderContext.acquire()) {
+            FilterOptimizer.simplify(or).render(context);
+            assertEquals(context.query().toString(), "book.id IN :ids");
+            assertEquals(context.parameters().get("ids"), Arrays.asList(1, 2, 3));
+        }
+        Filter equal = FilterFactory.and(
+                FilterFactory.in("book.id", "ids", Arrays.asList(1, 2)),
+                FilterFactory.equal("book.id", "id", 2)
+        );
+        assertEquals(render(FilterOptimizer.simplify(equal)), "book.id = :id");
+    }
+
+    /**
+     * Test of simplify method, of class FilterOptimizer, with "or".
+     */
+    @Test
+    public void testSimplifyOr() {
+        System.out.println("simplifyOr");
+        Filter filter = FilterFactory.and(
+                FilterFactory.equal("book.category", "category", "Horror"),
+                FilterFactory.or(
+                        FilterFactory.greater("book.price", "min1", 5.0),
+                        FilterFactory.greaterOrEqual("book.price", "min2", 3.0)
+                )
+        );
+        assertEquals(render(FilterOptimizer.simplify(filter)), "book.category = :category AND book.price >= :min2");
+    }
+
+    /**
+     * Test of simplify method, of class FilterOptimizer, with equal filters
+     * of the same column joined by "or".
+     */
+    @Test
+    public void testSimplifyOrEquals() {
+        System.out.println("simplifyOrEquals");
+        Filter filter = FilterFactory.or(
+                FilterFactory.equal("book.status", "s1", "NEW"),
+                FilterFactory.equal("book.status", "s2", "USED"),
+                FilterFactory.in("book.status", "s3", Arrays.asList("USED", "RARE")),
+                FilterFactory.equal("book.status", "s4", "NEW"),
+                FilterFactory.isNull("book.status", true)
+        );
+        try (RenderContext context = RenderContext.acquire()) {
+            FilterOptimizer.simplify(filter).render(context);
+            assertEquals(context.query().toString(), "book.status IN :s1 OR book.status IS NULL ");
+            assertEquals(context.parameters().get("s1"), Arrays.asList("NEW", "USED", "RARE"));
+            assertEquals(context.size(), 1);
+        }
+        Filter same = FilterFactory.or(
+                FilterFactory.equal("book.status", "s1", "NEW"),
+                FilterFactory.equal("book.status", "s2", "NEW")
+        );
+        assertEquals(render(FilterOptimizer.simplify(same)), "book.status = :s1");
+    }
+
+    /**
+     * Test of simplify method, of class FilterOptimizer, with notEqual
+     * filters of the same column joined by "and".
+     */
+    @Test
+    public void testSimplifyNotIn() {
+        System.out.println("simplifyNotIn");
+        Filter filter = FilterFactory.and(
+                FilterFactory.notEqual("book.status", "s1", "NEW"),
+                FilterFactory.greater("book.price", "min", 5.0),
+                FilterFactory.notEqual("book.status", "s2", "USED"),
+                FilterFactory.notIn("book.status", "s3", Arrays.asList("USED", "RARE"))
+        );
+        try (RenderContext context = RenderContext.acquire()) {
+            FilterOptimizer.simplify(filter).render(context);
+            assertEquals(context.query().toString(), "book.status NOT IN :s1 AND book.price > :min");
+            assertEquals(context.parameters().get("s1"), Arrays.asList("NEW", "USED", "RARE"));
+            assertEquals(context.size(), 2);
+        }
+        Filter or = FilterFactory.or(
+                FilterFactory.notEqual("book.status", "s1", "NEW"),
+                FilterFactory.notEqual("book.status", "s2", "USED")
+        );
+        assertEquals(render(FilterOptimizer.simplify(or)), "book.status <> :s1 OR book.status <> :s2");
+    }
+
+    /**
+     * Test of simplify method, of class FilterOptimizer, the filters that can
+     * not be merged are kept.
+     */
+    @Test
+    public void testSimplifyKept() {
+        System.out.println("simplifyKept");
+        Filter contradiction = FilterFactory.and(
+                FilterFactory.equal("book.id", "id1", 1),
+                FilterFactory.equal("book.id", "id2", 2)
+        );
+        assertEquals(render(FilterOptimizer.simplify(contradiction)), "book.id = :id1 AND book.id = :id2");
+        Filter mixed = FilterFactory.and(
+                FilterFactory.greater("book.price", "min1", 5),
+                FilterFactory.greater("book.price", "min2", 3.0)
+        );
+        assertEquals(render(FilterOptimizer.simplify(mixed)), "book.price > :min1 AND book.price > :min2");
+    }
+
+    /**
+     * Test of simplify method, of class FilterOptimizer, with strings.
+     */
+    @Test
+    public void testSimplifyStrings() {
+        System.out.println("simplifyStrings");
+        Filter bounds = FilterFactory.and(
+                FilterFactory.greater("author.name", "min1", "a"),
+                FilterFactory.greater("author.name", "min2", "B")
+        );
+        assertEquals(render(FilterOptimizer.simplify(bounds)), "author.name > :min1 AND author.name > :min2");
+        assertEquals(render(FilterOptimizer.simplify(bounds, String.CASE_INSENSITIVE_ORDER)), "author.name > :min2");
+        assertEquals(render(FilterOptimizer.simplify(bounds, Comparator.naturalOrder())), "author.name > :min1");
+        Filter equals = FilterFactory.and(
+                FilterFactory.equal("author.name", "name1", "X"),
+                FilterFactory.in("author.name", "name2", Arrays.asList("x", "y"))
+        );
+        assertEquals(render(FilterOptimizer.simplify(equals)), "author.name = :name1 AND author.name IN :name2");
+        assertEquals(render(FilterOptimizer.simplify(equals, String.CASE_INSENSITIVE_ORDER)), "author.name = :name1");
+        Filter or = FilterFactory.or(
+                FilterFactory.less("author.name", "max1", "m"),
+                FilterFactory.less("author.name", "max2", "N")
+        );
+        assertEquals(render(FilterOptimizer.simplify(or)), "author.name < :max1 OR author.name < :max2");
+        assertEquals(render(FilterOptimizer.simplify(or, String.CASE_INSENSITIVE_ORDER)), "author.name < :max2");
+    }
+
+    private static final class BookFilter implements Filterable {
+
+        private final Filter filter;
+
+        private BookFilter(Filter filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        public String select() {
+            return "SELECT book";
+        }
+
+        @Override
+        public String from() {
+            return " FROM Book book";
+        }
+
+        @Override
+        public Filter filter() {
+            return filter;
+        }
+    }
+
+    /**
+     * Test of isUnsatisfiable method, of class FilterOptimizer.
+     */
+    @Test
+    public void testIsUnsatisfiable() {
+        System.out.println("isUnsatisfiable");
+        assertTrue(FilterOptimizer.isUnsatisfiable(FilterFactory.and(
+                FilterFactory.equal("book.id", "id1", 1),
+                FilterFactory.equal("book.id", "id2", 2)
+        )));
+        assertTrue(FilterOptimizer.isUnsatisfiable(FilterFactory.and(
+                FilterFactory.equal("book.category", "category", "Horror"),
+                FilterFactory.in("book.id", "ids", Arrays.asList(1, 2)),
+                FilterFactory.in("book.id", "others", Arrays.asList(3, 4))
+        )));
+        assertTrue(FilterOptimizer.isUnsatisfiable(FilterFactory.between("book.published", "start", "end", 2020, 1980)));
+        assertTrue(FilterOptimizer.isUnsatisfiable(FilterFactory.and(
+                FilterFactory.greater("book.price", "min", 20.0),
+                FilterFactory.lessOrEqual("book.price", "max", 20.0)
+        )));
+        assertTrue(FilterOptimizer.isUnsatisfiable(FilterFactory.or(
+                FilterFactory.between("book.published", "start", "end", 2020, 1980),
+                FilterFactory.and(FilterFactory.less("book.pages", "pages", 10), FilterFactory.equal("book.pages", "p", 20))
+        )));
+        assertFalse(FilterOptimizer.isUnsatisfiable(FilterFactory.or(
+                FilterFactory.between("book.published", "start", "end", 2020, 1980),
+                FilterFactory.equal("book.category", "category", "Horror")
+        )));
+        assertFalse(FilterOptimizer.isUnsatisfiable(FilterFactory.and(
+                FilterFactory.equal("book.id", "id1", 1),
+                FilterFactory.equal("book.id", "id2", null),
+                FilterFactory.greaterOrEqual("book.price", "min", 20.0),
+                FilterFactory.lessOrEqual("book.price", "max", 20.0)
+        )));
+        assertFalse(FilterOptimizer.isUnsatisfiable(FilterFactory.and(
+                FilterFactory.equal("book.id", "id1", 1),
+                FilterFactory.equal("book.id", "id2", 2L)
+        )));
+        assertFalse(FilterOptimizer.isUnsatisfiable(FilterFactory.none()));
+    }
+
+    /**
+     * Test of isUnsatisfiable method, of class FilterOptimizer, with strings.
+     */
+    @Test
+    public void testIsUnsatisfiableStrings() {
+        System.out.println("isUnsatisfiableStrings");
+        Filter equals = FilterFactory.and(
+                FilterFactory.equal("author.name", "name1", "X"),
+                FilterFactory.equal("author.name", "name2", "x")
+        );
+        assertFalse(FilterOptimizer.isUnsatisfiable(equals));
+        assertFalse(FilterOptimizer.isUnsatisfiable(equals, String.CASE_INSENSITIVE_ORDER));
+        assertTrue(FilterOptimizer.isUnsatisfiable(equals, Comparator.naturalOrder()));
+        Filter range = FilterFactory.and(
+                FilterFactory.greater("author.name", "min", "a"),
+                FilterFactory.less("author.name", "max", "B")
+        );
+        assertFalse(FilterOptimizer.isUnsatisfiable(range));
+        assertFalse(FilterOptimizer.isUnsatisfiable(FilterFactory.between("author.name", "min", "max", "b", "A")));
+        assertTrue(FilterOptimizer.isUnsatisfiable(range, Comparator.naturalOrder()));
+        assertTrue(FilterOptimizer.isUnsatisfiable(FilterFactory.and(
+                FilterFactory.equal("book.available", "a1", true),
+                FilterFactory.equal("book.available", "a2", false)
+        )));
+    }
+
+    /**
+     * Test of applyIfSatisfiable method, of class Filterable.
+     */
+    @Test
+    public void testApplyIfSatisfiable() {
+        System.out.println("applyIfSatisfiable");
+        AtomicInteger created = new AtomicInteger();
+        Map<String, Object> params = new HashMap<>();
+        Optional<String> empty = new BookFilter(FilterFactory.and(
+                FilterFactory.equal("book.id", "id1", 1),
+                FilterFactory.equal("book.id", "id2", 2)
+        )).applyIfSatisfiable(sql -> {
+            created.incrementAndGet();
+            return sql;
+        }, (q, k, v) -> params.put(k, v));
+        assertFalse(empty.isPresent());
+        assertEquals(created.get(), 0);
+        assertTrue(params.isEmpty());
+        Optional<String> query = new BookFilter(FilterFactory.equal("book.id", "id", 1))
+                .applyIfSatisfiable(sql -> sql, (q, k, v) -> params.put(k, v));
+        assertEquals(query.get(), "SELECT book FROM Book book WHERE book.id = :id");
+        assertEquals(params.get("id"), 1);
+    }
+}
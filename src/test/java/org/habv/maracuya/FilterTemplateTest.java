@@ -0,0 +1,173 @@
+package org.habv.maracuya;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test FilterTemplate and TemplateFactory.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public class FilterTemplateTest {
+
+    /**
+     * Template shared by the tests.
+     */
+    private static final FilterTemplate TEMPLATE = TemplateFactory.and(
+            TemplateFactory.equal("book.isbn", "isbn"),
+            TemplateFactory.like("book.title", "title"),
+            TemplateFactory.or(
+                    TemplateFactory.in("book.category", "categories"),
+                    TemplateFactory.isNull("book.category", "withoutCategory")
+            ),
+            TemplateFactory.between("book.published", "start", "end")
+    );
+
+    /**
+     * Test of bind method, of class FilterTemplate.
+     */
+    @Test
+    public void testBind() {
+        System.out.println("bind");
+        List<String> categories = Arrays.asList("Action", "Horror");
+        Filter filter = TEMPLATE.bind()
+                .set("isbn", "978-3-16-148410-0")
+                .set("title", "Dracula")
+                .set("categories", categories)
+                .set("withoutCategory", true)
+                .set("start", 1980)
+                .set("end", 2020);
+        assertTrue(filter.canApply());
+        StringBuilder query = new StringBuilder();
+        Map<String, Object> params = new HashMap<>();
+        filter.apply(query, params);
+        assertEquals(query.toString(), "book.isbn = :isbn AND LOWER(book.title) LIKE :title"
+                + " AND (book.category IN :categories OR book.category IS NULL )"
+                + " AND book.published BETWEEN :start AND :end");
+        assertEquals(params.size(), 5);
+        assertEquals(params.get("isbn"), "978-3-16-148410-0");
+        assertEquals(params.get("title"), "%dracula%");
+        assertEquals(params.get("categories"), categories);
+        assertEquals(params.get("start"), 1980);
+        assertEquals(params.get("end"), 2020);
+    }
+
+    /**
+     * Test of bind method, of class FilterTemplate, with empty values.
+     */
+    @Test
+    public void testBindEmpty() {
+        System.out.println("bindEmpty");
+        FilterTemplate.Binding binding = TEMPLATE.bind()
+                .set("title", "")
+                .set("withoutCategory", false)
+                .set("start", 1980);
+        assertFalse(binding.canApply());
+        binding.set("title", "Dracula");
+        assertTrue(binding.canApply());
+        StringBuilder query = new StringBuilder();
+        Map<String, Object> params = new HashMap<>();
+        binding.apply(query, params);
+        assertEquals(query.toString(), "LOWER(book.title) LIKE :title");
+        assertEquals(params.size(), 1);
+        binding.clear();
+        assertFalse(binding.canApply());
+    }
+
+    /**
+     * Test of a binding nested in a filter of FilterFactory.
+     */
+    @Test
+    public void testNested() {
+        System.out.println("nested");
+        FilterTemplate template = TemplateFactory.or(
+                TemplateFactory.equal("book.isbn", "isbn"),
+                TemplateFactory.startsWith("book.title", "title")
+        );
+        Filter filter = FilterFactory.and(
+                FilterFactory.equal("book.active", "active", true),
+                template.bind().set("isbn", "978-3-16-148410-0").set("title", "Dracula")
+        );
+        StringBuilder query = new StringBuilder();
+        Map<String, Object> params = new HashMap<>();
+        filter.apply(query, params);
+        assertEquals(query.toString(), "book.active = :active AND (book.isbn = :isbn OR LOWER(book.title) LIKE :title)");
+        assertEquals(params.get("title"), "dracula%");
+    }
+
+    /**
+     * Test of render method, of class FilterTemplate.Binding, with the
+     * dialect and the lower case columns of the render context.
+     */
+    @Test
+    public void testRenderIgnoreCase() {
+        System.out.println("renderIgnoreCase");
+        FilterTemplate template = TemplateFactory.and(
+                TemplateFactory.like("book.title", "title"),
+                TemplateFactory.notLike("book.subtitle", "subtitle")
+        );
+        Filter binding = template.bind().set("title", "Dracula").set("subtitle", "Count");
+        Filter filter = FilterFactory.and(
+                FilterFactory.like("book.title", "title", "Dracula"),
+                FilterFactory.notLike("book.subtitle", "subtitle", "Count")
+        );
+        for (Dialect dialect : Dialect.values()) {
+            assertEquals(render(binding, dialect), render(filter, dialect));
+        }
+        assertEquals(render(binding, Dialect.POSTGRESQL), "book.title ILIKE :title AND book.subtitle NOT ILIKE :subtitle");
+        assertEquals(render(binding, Dialect.MYSQL), "book.title LIKE :title AND book.subtitle NOT LIKE :subtitle");
+        try (RenderContext context = RenderContext.acquire()) {
+            context.lowerCaseColumns(Collections.singletonMap("book.title", "book.title_lower"));
+            binding.render(context);
+            assertEquals(context.query().toString(),
+                    "book.title_lower LIKE :title AND LOWER(book.subtitle) NOT LIKE :subtitle");
+            assertEquals(context.parameters().get("title"), "%dracula%");
+        }
+    }
+
+    private static String render(Filter filter, Dialect dialect) {
+        try (RenderContext context = RenderContext.acquire()) {
+            context.dialect(dialect);
+            filter.render(context);
+            return context.query().toString();
+        }
+    }
+
+    /**
+     * Test of slots method, of class FilterTemplate.
+     */
+    @Test
+    public void testSlots() {
+        System.out.println("slots");
+        assertEquals(TEMPLATE.slots(), Arrays.asList("isbn", "title", "categories", "withoutCategory", "start", "end"));
+    }
+
+    /**
+     * Test of set method, of class FilterTemplate.Binding, with an unknown
+     * slot.
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSetUnknownSlot() {
+        System.out.println("setUnknownSlot");
+        TEMPLATE.bind().set("unknown", 1);
+    }
+
+    /**
+     * Test of and method, of class TemplateFactory, with a slot shared by
+     * different text patterns.
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSharedSlotWithDifferentPatterns() {
+        System.out.println("sharedSlotWithDifferentPatterns");
+        TemplateFactory.or(
+                TemplateFactory.startsWith("book.title", "title"),
+                TemplateFactory.endsWith("book.subtitle", "title")
+        );
+    }
+}
@@ -0,0 +1,160 @@
+package org.habv.maracuya;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test of the full text search filters of FilterFactory.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public class FullTextTest {
+
+    private static final class BookFilter implements Filterable {
+
+        private final Dialect dialect;
+        private final Filter filter;
+
+        private BookFilter(Dialect dialect, Filter filter) {
+            this.dialect = dialect;
+            this.filter = filter;
+        }
+
+        @Override
+        public String select() {
+            return "SELECT book.id";
+        }
+
+        @Override
+        public String from() {
+            return " FROM book";
+        }
+
+        @Override
+        public Filter filter() {
+            return filter;
+        }
+
+        @Override
+        public Dialect dialect() {
+            return dialect;
+        }
+    }
+
+    private static String where(Dialect dialect, Filter filter, Map<String, Object> params) {
+        return new BookFilter(dialect, filter).apply(sql -> sql, (q, k, v) -> params.put(k, v))
+                .substring("SELECT book.id FROM book WHERE ".length());
+    }
+
+    private static List<Integer> ids(Connection connection, Filter filter) throws SQLException {
+        try (StatementCache statements = new StatementCache(connection)) {
+            PreparedStatement statement = new BookFilter(Dialect.H2, filter)
+                    .applyPositional(statements, PositionalParameterSetter.jdbc());
+            List<Integer> ids = new ArrayList<>();
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    ids.add(result.getInt(1));
+                }
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * Test of fullText method, of class FilterFactory.
+     */
+    @Test
+    public void testFullText() {
+        System.out.println("fullText");
+        Filter filter = FilterFactory.fullText(Arrays.asList("book.title", "book.summary"), "terms", "Vampire count");
+        assertTrue(filter.canApply());
+        Map<String, Object> params = new HashMap<>();
+        assertEquals(where(Dialect.POSTGRESQL, filter, params), "to_tsvector('simple', coalesce(book.title, '')"
+                + " || ' ' || coalesce(book.summary, '')) @@ plainto_tsquery('simple', :terms)");
+        assertEquals(params.get("terms"), "Vampire count");
+        assertEquals(where(Dialect.MYSQL, filter, params), "MATCH (book.title, book.summary) AGAINST (:terms)");
+        assertEquals(where(Dialect.ANSI, filter, params),
+                "(LOWER(book.title) LIKE :terms OR LOWER(book.summary) LIKE :terms)");
+        assertEquals(params.get("terms"), "%vampire count%");
+        assertEquals(where(Dialect.H2, filter, params), "(book.title ILIKE :terms OR book.summary ILIKE :terms)");
+        StringBuilder query = new StringBuilder();
+        filter.apply(query, params);
+        assertEquals(query.toString(), "(LOWER(book.title) LIKE :terms OR LOWER(book.summary) LIKE :terms)");
+        Filter single = FilterFactory.fullText(Collections.singletonList("book.title"), "terms", "vampire");
+        assertEquals(where(Dialect.POSTGRESQL, single, params),
+                "to_tsvector('simple', book.title) @@ plainto_tsquery('simple', :terms)");
+        assertEquals(where(Dialect.ORACLE, single, params), "LOWER(book.title) LIKE :terms");
+    }
+
+    /**
+     * Test of fullText method, of class FilterFactory, without words.
+     */
+    @Test
+    public void testFullTextEmpty() {
+        System.out.println("fullTextEmpty");
+        List<String> columns = Collections.singletonList("book.title");
+        assertFalse(FilterFactory.fullText(columns, "terms", null).canApply());
+        assertFalse(FilterFactory.fullText(columns, "terms", "").canApply());
+        assertFalse(FilterFactory.fullText(columns, "terms", "  ").canApply());
+        assertFalse(FilterFactory.fullText("BOOK", "book.id", columns, "terms", null).canApply());
+    }
+
+    /**
+     * Test of fullText method, of class FilterFactory, without columns.
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testFullTextWithoutColumns() {
+        System.out.println("fullTextWithoutColumns");
+        FilterFactory.fullText(Collections.emptyList(), "terms", "vampire");
+    }
+
+    /**
+     * Test of fullText method, of class FilterFactory, without parameter
+     * name.
+     */
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testFullTextWithoutParamName() {
+        System.out.println("fullTextWithoutParamName");
+        FilterFactory.fullText(Collections.singletonList("book.title"), null, "vampire");
+    }
+
+    /**
+     * Test of fullText method, of class FilterFactory, against the native full
+     * text search of an in-memory H2 database.
+     */
+    @Test
+    public void testFullTextH2() throws SQLException {
+        System.out.println("fullTextH2");
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:fulltext");
+                Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE book (id INT PRIMARY KEY, title VARCHAR(100), summary VARCHAR(200))");
+            statement.execute("INSERT INTO book VALUES (1, 'Dracula', 'A vampire count'),"
+                    + " (2, 'Emma', 'A young woman'), (3, 'Carmilla', 'A vampire story')");
+            statement.execute("CREATE ALIAS IF NOT EXISTS FT_INIT FOR 'org.h2.fulltext.FullText.init'");
+            statement.execute("CALL FT_INIT()");
+            statement.execute("CALL FT_CREATE_INDEX('PUBLIC', 'BOOK', 'TITLE,SUMMARY')");
+            List<String> columns = Arrays.asList("book.title", "book.summary");
+            Filter search = FilterFactory.fullText("BOOK", "book.id", columns, "terms", "vampire");
+            Map<String, Object> params = new HashMap<>();
+            assertEquals(where(Dialect.H2, search, params), "book.id IN (SELECT FT.KEYS[1]"
+                    + " FROM FT_SEARCH_DATA(:terms, 0, 0) FT WHERE FT.\"TABLE\" = 'BOOK')");
+            assertEquals(ids(connection, search), Arrays.asList(1, 3));
+            assertEquals(ids(connection, FilterFactory.fullText("BOOK", "book.id", columns, "terms", "vampire story")),
+                    Arrays.asList(3));
+            assertEquals(ids(connection, FilterFactory.fullText(columns, "terms", "VAMPIRE")), Arrays.asList(1, 3));
+        }
+    }
+}
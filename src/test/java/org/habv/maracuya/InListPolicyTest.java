@@ -0,0 +1,160 @@
+package org.habv.maracuya;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test InListPolicy.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public class InListPolicyTest {
+
+    private static final class BookFilter implements Filterable {
+
+        private final List<Integer> ids;
+
+        private BookFilter(Integer... ids) {
+            this.ids = Arrays.asList(ids);
+        }
+
+        @Override
+        public String select() {
+            return "SELECT book.id";
+        }
+
+        @Override
+        public String from() {
+            return " FROM book";
+        }
+
+        @Override
+        public Filter filter() {
+            return FilterFactory.in("book.id", "ids", ids);
+        }
+
+        @Override
+        public InListPolicy inListPolicy() {
+            return InListPolicy.powersOfTwo(4);
+        }
+    }
+
+    /**
+     * Test of bucket and chunks methods, of class InListPolicy.
+     */
+    @Test
+    public void testPowersOfTwo() {
+        System.out.println("powersOfTwo");
+        InListPolicy policy = InListPolicy.powersOfTwo(1000);
+        assertEquals(policy.bucket(1), 1);
+        assertEquals(policy.bucket(5), 8);
+        assertEquals(policy.bucket(512), 512);
+        assertEquals(policy.bucket(600), 1000);
+        assertEquals(policy.chunks(1000), 1);
+        assertEquals(policy.chunks(2500), 3);
+        assertEquals(InListPolicy.none().bucket(5), 5);
+        assertEquals(InListPolicy.none().chunks(100000), 1);
+    }
+
+    /**
+     * Test of buckets method, of class InListPolicy.
+     */
+    @Test
+    public void testBuckets() {
+        System.out.println("buckets");
+        InListPolicy policy = InListPolicy.buckets(100, 10, 50);
+        assertEquals(policy.bucket(7), 10);
+        assertEquals(policy.bucket(11), 50);
+        assertEquals(policy.bucket(60), 60);
+        assertEquals(policy.limit(), 100);
+    }
+
+    /**
+     * Test of buckets method, of class InListPolicy, with sizes that are not
+     * ascending.
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBucketsInvalid() {
+        System.out.println("bucketsInvalid");
+        InListPolicy.buckets(100, 50, 10);
+    }
+
+    /**
+     * Test of render method, of class InListPolicy, padding the collection.
+     */
+    @Test
+    public void testRenderPadded() {
+        System.out.println("renderPadded");
+        Filter filter = FilterFactory.in("book.id", "ids", Arrays.asList(1, 2, 3, 4, 5));
+        try (RenderContext context = RenderContext.acquire()
+                .positional(true)
+                .inListPolicy(InListPolicy.powersOfTwo(1000))) {
+            filter.render(context);
+            assertEquals(context.query().toString(), "book.id IN (?, ?, ?, ?, ?, ?, ?, ?)");
+            assertEquals(context.values(), new Object[]{1, 2, 3, 4, 5, 5, 5, 5});
+        }
+    }
+
+    /**
+     * Test of render method, of class InListPolicy, splitting the collection.
+     */
+    @Test
+    public void testRenderChunks() {
+        System.out.println("renderChunks");
+        Filter filter = FilterFactory.and(
+                FilterFactory.in("book.id", "ids", Arrays.asList(1, 2, 3, 4, 5)),
+                FilterFactory.notIn("book.category", "categories", Arrays.asList("Action", "Horror", "Comedy"))
+        );
+        try (RenderContext context = RenderContext.acquire().inListPolicy(InListPolicy.powersOfTwo(2))) {
+            filter.render(context);
+            assertEquals(context.query().toString(),
+                    "(book.id IN :ids_1 OR book.id IN :ids_2 OR book.id IN :ids_3)"
+                    + " AND (book.category NOT IN :categories_1 AND book.category NOT IN :categories_2)");
+            assertEquals(context.parameters().get("ids_3"), Arrays.asList(5));
+            assertEquals(context.parameters().get("categories_2"), Arrays.asList("Comedy"));
+        }
+    }
+
+    /**
+     * Test of render method, of class Binding, with a policy.
+     */
+    @Test
+    public void testRenderTemplate() {
+        System.out.println("renderTemplate");
+        Filter filter = TemplateFactory.in("book.id", "ids").bind().set("ids", Arrays.asList(1, 2, 3));
+        try (RenderContext context = RenderContext.acquire()
+                .positional(true)
+                .inListPolicy(InListPolicy.powersOfTwo(2))) {
+            filter.render(context);
+            assertEquals(context.query().toString(), "(book.id IN (?, ?) OR book.id IN (?))");
+            assertEquals(context.values(), new Object[]{1, 2, 3});
+        }
+    }
+
+    /**
+     * Test of apply method, of class Filterable, with a policy and a cache.
+     */
+    @Test
+    public void testApplyCache() {
+        System.out.println("applyCache");
+        QueryCache cache = new QueryCache();
+        Map<String, Object> params = new HashMap<>();
+        String first = new BookFilter(1, 2, 3).apply(cache, sql -> sql, (q, k, v) -> params.put(k, v));
+        assertEquals(first, "SELECT book.id FROM book WHERE book.id IN :ids");
+        assertEquals(params.get("ids"), Arrays.asList(1, 2, 3, 3));
+        params.clear();
+        String second = new BookFilter(1, 2, 3, 4, 5, 6).apply(cache, sql -> sql, (q, k, v) -> params.put(k, v));
+        assertEquals(second, "SELECT book.id FROM book WHERE (book.id IN :ids_1 OR book.id IN :ids_2)");
+        params.clear();
+        String third = new BookFilter(1, 2, 3, 4, 5, 6, 7).apply(cache, sql -> sql, (q, k, v) -> params.put(k, v));
+        assertSame(third, second);
+        assertEquals(params.get("ids_2"), Arrays.asList(5, 6, 7, 7));
+        assertEquals(cache.hits(), 1);
+        assertEquals(cache.misses(), 2);
+    }
+}
@@ -0,0 +1,163 @@
+package org.habv.maracuya;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test of IndexedTable.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public class IndexedTableTest {
+
+    public static final class Price {
+
+        private final String sku;
+        private final String region;
+        private final Integer amount;
+
+        public Price(String sku, String region, Integer amount) {
+            this.sku = sku;
+            this.region = region;
+            this.amount = amount;
+        }
+
+        public String getSku() {
+            return sku;
+        }
+
+        public String getRegion() {
+            return region;
+        }
+
+        public Integer getAmount() {
+            return amount;
+        }
+    }
+
+    private static IndexedTable<Price> table(AtomicInteger reads) {
+        IndexedTable<Price> table = IndexedTable.of(PredicateCompiler.of(Price.class)
+                .column("price.region", price -> {
+                    reads.incrementAndGet();
+                    return price.getRegion();
+                }))
+                .hashIndex("price.sku")
+                .hashIndex("price.region");
+        for (int i = 0; i < 100; i++) {
+            table.insert(new Price("SKU" + i, i % 2 == 0 ? "EU" : "US", i % 10 == 9 ? null : i * 10));
+        }
+        table.sortedIndex("price.amount");
+        reads.set(0);
+        return table;
+    }
+
+    private static List<String> skus(List<Price> prices) {
+        return prices.stream().map(Price::getSku).collect(Collectors.toList());
+    }
+
+    /**
+     * Test of select method, of class IndexedTable.
+     */
+    @Test
+    public void testSelect() {
+        System.out.println("select");
+        AtomicInteger reads = new AtomicInteger();
+        IndexedTable<Price> table = table(reads);
+        assertEquals(table.size(), 100);
+        assertEquals(skus(table.select(FilterFactory.and(
+                FilterFactory.in("price.sku", "skus", Arrays.asList("SKU3", "SKU4", "SKU404")),
+                FilterFactory.equal("price.region", "region", "EU")
+        ))), Arrays.asList("SKU4"));
+        assertEquals(reads.get(), 1);
+        assertEquals(skus(table.select(FilterFactory.between("price.amount", "min", "max", 200L, 230L))),
+                Arrays.asList("SKU20", "SKU21", "SKU22", "SKU23"));
+        assertEquals(skus(table.select(FilterFactory.or(
+                FilterFactory.greater("price.amount", "min", 970),
+                FilterFactory.equal("price.sku", "sku", "SKU1")
+        ))), Arrays.asList("SKU1", "SKU98"));
+        assertEquals(table.select(FilterFactory.isNull("price.amount", true)).size(), 10);
+        assertEquals(table.select(FilterFactory.notEqual("price.region", "region", "EU")).size(), 50);
+        assertEquals(table.select(FilterFactory.none()).size(), 100);
+        assertEquals(skus(table.select(FilterFactory.like("price.sku", "sku", "ku7"), 3)),
+                Arrays.asList("SKU7", "SKU70", "SKU71"));
+    }
+
+    /**
+     * Test of select method, of class IndexedTable, with an order.
+     */
+    @Test
+    public void testSelectOrderBy() {
+        System.out.println("selectOrderBy");
+        IndexedTable<Price> table = table(new AtomicInteger());
+        Filter us = FilterFactory.equal("price.region", "region", "US");
+        assertEquals(skus(table.select(us, "price.amount", true, 3)), Arrays.asList("SKU97", "SKU95", "SKU93"));
+        assertEquals(skus(table.select(us, "price.amount", false, 2)), Arrays.asList("SKU1", "SKU3"));
+        assertEquals(skus(table.select(us, "price.sku", true, 2)), Arrays.asList("SKU99", "SKU97"));
+        List<Price> all = table.select(us, "price.amount", false, 100);
+        assertEquals(all.size(), 50);
+        assertNull(all.get(49).getAmount());
+    }
+
+    /**
+     * Test of update and delete methods, of class IndexedTable.
+     */
+    @Test
+    public void testUpdateDelete() {
+        System.out.println("updateDelete");
+        IndexedTable<Price> table = IndexedTable.of(PredicateCompiler.of(Price.class))
+                .hashIndex("price.sku")
+                .sortedIndex("price.amount");
+        int first = table.insert(new Price("A", "EU", 10));
+        int second = table.insert(new Price("B", "EU", 20));
+        table.update(first, new Price("A", "EU", 30));
+        Filter cheap = FilterFactory.less("price.amount", "max", 25);
+        assertEquals(skus(table.select(cheap)), Arrays.asList("B"));
+        assertTrue(table.delete(second));
+        assertFalse(table.delete(second));
+        assertTrue(table.select(cheap).isEmpty());
+        assertTrue(table.select(FilterFactory.equal("price.sku", "sku", "B")).isEmpty());
+        int third = table.insert(new Price("C", "US", 5));
+        assertEquals(third, second);
+        assertEquals(table.get(third).getSku(), "C");
+        assertEquals(skus(table.select(cheap)), Arrays.asList("C"));
+        assertEquals(table.size(), 2);
+    }
+
+    /**
+     * Test of update and delete methods, of class IndexedTable, with a hash
+     * index of few values.
+     */
+    @Test
+    public void testUpdateDeleteFewValues() {
+        System.out.println("updateDeleteFewValues");
+        IndexedTable<Price> table = table(new AtomicInteger());
+        for (int id = 0; id < 100; id += 3) {
+            assertTrue(table.delete(id));
+        }
+        for (int id = 1; id < 100; id += 3) {
+            table.update(id, new Price("SKU" + id, "EU", id * 10));
+        }
+        Filter eu = FilterFactory.equal("price.region", "region", "EU");
+        List<String> expected = Arrays.asList("SKU1", "SKU2", "SKU4", "SKU7", "SKU8");
+        assertEquals(skus(table.select(eu, "price.amount", false, 5)), expected);
+        assertEquals(table.select(eu).size(), 50);
+        assertEquals(table.select(FilterFactory.equal("price.region", "region", "US")).size(), 16);
+        assertEquals(table.size(), 66);
+    }
+
+    /**
+     * Test of get method, of class IndexedTable, with a deleted row.
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testGetDeleted() {
+        System.out.println("getDeleted");
+        IndexedTable<Price> table = IndexedTable.of(PredicateCompiler.of(Price.class));
+        table.delete(table.insert(new Price("A", "EU", 10)));
+        table.get(0);
+    }
+}
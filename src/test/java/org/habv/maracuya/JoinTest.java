@@ -0,0 +1,170 @@
+package org.habv.maracuya;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test of the optional joins of Filterable.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public class JoinTest {
+
+    private static final class BookFilter implements Filterable {
+
+        private final String select;
+        private final String author;
+        private final String country;
+        private final String orderBy;
+
+        private BookFilter(String select, String author, String country, String orderBy) {
+            this.select = select;
+            this.author = author;
+            this.country = country;
+            this.orderBy = orderBy;
+        }
+
+        @Override
+        public String select() {
+            return select;
+        }
+
+        @Override
+        public String from() {
+            return " FROM book";
+        }
+
+        @Override
+        public List<Join> joins() {
+            return Arrays.asList(
+                    Join.of("author", " LEFT JOIN author ON author.id = book.author_id"),
+                    Join.of("country", " LEFT JOIN country ON country.id = author.country_id"),
+                    Join.of("publisher", " LEFT JOIN publisher ON publisher.id = book.publisher_id")
+            );
+        }
+
+        @Override
+        public Filter filter() {
+            return FilterFactory.and(
+                    FilterFactory.equal("author.name", "author", author),
+                    FilterFactory.equal("country.code", "country", country)
+            );
+        }
+
+        @Override
+        public Optional<String> orderBy() {
+            return Optional.ofNullable(orderBy);
+        }
+    }
+
+    private static String query(Filterable filterable) {
+        return filterable.apply(sql -> sql, (q, k, v) -> {
+        });
+    }
+
+    /**
+     * Test of joins method, of class Filterable.
+     */
+    @Test
+    public void testJoins() {
+        System.out.println("joins");
+        assertEquals(query(new BookFilter("SELECT book.id", null, null, null)), "SELECT book.id FROM book");
+        assertEquals(query(new BookFilter("SELECT book.id", "Bram", null, null)), "SELECT book.id FROM book"
+                + " LEFT JOIN author ON author.id = book.author_id WHERE author.name = :author");
+        assertEquals(query(new BookFilter("SELECT book.id", null, "IE", null)), "SELECT book.id FROM book"
+                + " LEFT JOIN author ON author.id = book.author_id"
+                + " LEFT JOIN country ON country.id = author.country_id WHERE country.code = :country");
+        assertEquals(query(new BookFilter("SELECT book.id, Publisher.name", null, null, " ORDER BY author.name")),
+                "SELECT book.id, Publisher.name FROM book LEFT JOIN author ON author.id = book.author_id"
+                + " LEFT JOIN publisher ON publisher.id = book.publisher_id ORDER BY author.name");
+        assertEquals(query(new BookFilter("SELECT book.id, coauthor.name", null, null, null)),
+                "SELECT book.id, coauthor.name FROM book");
+        assertEquals(query(new BookFilter("SELECT book.id, 'author.' || 'it''s author.x'", null, null, null)),
+                "SELECT book.id, 'author.' || 'it''s author.x' FROM book");
+        assertEquals(query(new BookFilter("SELECT book.id, archive.author.name", null, null, null)),
+                "SELECT book.id, archive.author.name FROM book");
+        assertEquals(query(new BookFilter("SELECT book.id, 'x', author.name", null, null, null)),
+                "SELECT book.id, 'x', author.name FROM book LEFT JOIN author ON author.id = book.author_id");
+    }
+
+    /**
+     * Test of joins method, of class Filterable, with an alias in the text of
+     * a literal filter.
+     */
+    @Test
+    public void testJoinsLiteral() {
+        System.out.println("joinsLiteral");
+        Filterable filterable = new Filterable() {
+
+            @Override
+            public String select() {
+                return "SELECT book.id";
+            }
+
+            @Override
+            public String from() {
+                return " FROM book";
+            }
+
+            @Override
+            public List<Join> joins() {
+                return Arrays.asList(Join.of("b", " LEFT JOIN book b ON b.id = book.sequel_id"));
+            }
+
+            @Override
+            public Filter filter() {
+                return FilterFactory.and(
+                        FilterFactory.literal("book.code LIKE 'b.%' AND book.id > :id", "id", 1),
+                        FilterFactory.equal("ab.x", "x", 1)
+                );
+            }
+        };
+        assertEquals(query(filterable), "SELECT book.id FROM book WHERE book.code LIKE 'b.%' AND book.id > :id AND ab.x = :x");
+    }
+
+    /**
+     * Test of joins method, of class Filterable, with a cache.
+     */
+    @Test
+    public void testJoinsCache() {
+        System.out.println("joinsCache");
+        QueryCache cache = new QueryCache();
+        String without = new BookFilter("SELECT book.id", null, null, null).apply(cache, sql -> sql,
+                (q, k, v) -> {
+                });
+        String with = new BookFilter("SELECT book.id", "Bram", null, null).apply(cache, sql -> sql, (q, k, v) -> {
+        });
+        String again = new BookFilter("SELECT book.id", "Mary", null, null).apply(cache, sql -> sql, (q, k, v) -> {
+        });
+        assertEquals(without, "SELECT book.id FROM book");
+        assertTrue(with.contains(" LEFT JOIN author "));
+        assertSame(again, with);
+    }
+
+    /**
+     * Test of joins method, of class Filterable, with the count query.
+     */
+    @Test
+    public void testJoinsPaged() {
+        System.out.println("joinsPaged");
+        PagedQuery<String> paged = new BookFilter("SELECT book.id", null, null, " ORDER BY publisher.name")
+                .applyPaged(sql -> sql, (q, k, v) -> {
+                }, true);
+        assertEquals(paged.page(), "SELECT book.id FROM book LEFT JOIN publisher"
+                + " ON publisher.id = book.publisher_id ORDER BY publisher.name");
+        assertEquals(paged.count().get(), "SELECT COUNT(*) FROM book");
+    }
+
+    /**
+     * Test of of method, of class Join, without alias.
+     */
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testOfWithoutAlias() {
+        System.out.println("ofWithoutAlias");
+        Join.of(" ", " LEFT JOIN author ON author.id = book.author_id");
+    }
+}
@@ -0,0 +1,212 @@
+package org.habv.maracuya;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test Keyset against an in-memory H2 database.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public class KeysetTest {
+
+    private Connection connection;
+
+    private static final class BookFilter implements Filterable {
+
+        private final Dialect dialect;
+        private final Keyset keyset;
+        private final String category;
+
+        private BookFilter(Dialect dialect, Keyset keyset, String category) {
+            this.dialect = dialect;
+            this.keyset = keyset;
+            this.category = category;
+        }
+
+        @Override
+        public String select() {
+            return "SELECT book.id, book.published";
+        }
+
+        @Override
+        public String from() {
+            return " FROM book";
+        }
+
+        @Override
+        public Filter filter() {
+            return FilterFactory.and(
+                    FilterFactory.equal("book.category", "category", category),
+                    FilterFactory.greater("book.id", "minId", 0)
+            );
+        }
+
+        @Override
+        public Optional<String> orderBy() {
+            return Optional.of(" ORDER BY book.title");
+        }
+
+        @Override
+        public Optional<Keyset> keyset() {
+            return Optional.ofNullable(keyset);
+        }
+
+        @Override
+        public Dialect dialect() {
+            return dialect;
+        }
+    }
+
+    @BeforeMethod
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE book (id INT PRIMARY KEY, title VARCHAR(100), category VARCHAR(20),"
+                    + " published INT)");
+            for (int id = 1; id <= 20; id++) {
+                statement.execute(String.format("INSERT INTO book VALUES (%d, 'Book %d', '%s', %d)",
+                        id, id, id % 2 == 0 ? "Horror" : "Drama", 1990 + id % 5));
+            }
+        }
+    }
+
+    @AfterMethod
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    private List<int[]> page(Filterable filterable) throws SQLException {
+        try (StatementCache statements = new StatementCache(connection)) {
+            PreparedStatement statement = filterable.applyPositional(statements, PositionalParameterSetter.jdbc());
+            List<int[]> rows = new ArrayList<>();
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    rows.add(new int[]{result.getInt(1), result.getInt(2)});
+                }
+            }
+            return rows;
+        }
+    }
+
+    private List<Integer> all(Dialect dialect, Keyset keyset) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        Keyset current = keyset;
+        while (true) {
+            List<int[]> rows = page(new BookFilter(dialect, current, "Horror"));
+            for (int[] row : rows) {
+                ids.add(row[0]);
+            }
+            if (rows.size() < keyset.limit()) {
+                return ids;
+            }
+            int[] last = rows.get(rows.size() - 1);
+            current = keyset.after(last[1], last[0]);
+        }
+    }
+
+    /**
+     * Test of keyset method, of class Filterable.
+     */
+    @Test
+    public void testKeyset() {
+        System.out.println("keyset");
+        Keyset keyset = Keyset.byDescending("book.published", "lastPublished").then("book.id", "lastId").limit(3);
+        Map<String, Object> params = new HashMap<>();
+        String first = new BookFilter(Dialect.POSTGRESQL, keyset, "Horror").apply(sql -> sql, (q, k, v) -> {
+        });
+        assertEquals(first, "SELECT book.id, book.published FROM book WHERE book.category = :category"
+                + " AND book.id > :minId ORDER BY book.published DESC, book.id ASC LIMIT 3");
+        String next = new BookFilter(Dialect.POSTGRESQL, keyset.after(1994, 4), "Horror").apply(sql -> sql,
+                (q, k, v) -> params.put(k, v));
+        assertEquals(next, "SELECT book.id, book.published FROM book WHERE book.category = :category"
+                + " AND book.id > :minId AND book.published <= :lastPublished AND (book.published < :lastPublished"
+                + " OR (book.published = :lastPublished AND book.id > :lastId))"
+                + " ORDER BY book.published DESC, book.id ASC LIMIT 3");
+        assertEquals(params.get("lastPublished"), 1994);
+        assertEquals(params.get("lastId"), 4);
+    }
+
+    /**
+     * Test of keyset method, of class Filterable, with row values.
+     */
+    @Test
+    public void testRowValues() {
+        System.out.println("rowValues");
+        Keyset keyset = Keyset.by("book.published", "lastPublished").then("book.id", "lastId").limit(10).after(1994, 4);
+        String query = new BookFilter(Dialect.H2, keyset, null).apply(sql -> sql, (q, k, v) -> {
+        });
+        assertEquals(query, "SELECT book.id, book.published FROM book WHERE book.id > :minId"
+                + " AND (book.published, book.id) > (:lastPublished, :lastId)"
+                + " ORDER BY book.published ASC, book.id ASC LIMIT 10");
+        assertTrue(new BookFilter(Dialect.ORACLE, keyset, null).apply(sql -> sql, (q, k, v) -> {
+        }).endsWith("AND book.published >= :lastPublished AND (book.published > :lastPublished"
+                + " OR (book.published = :lastPublished AND book.id > :lastId))"
+                + " ORDER BY book.published ASC, book.id ASC FETCH FIRST 10 ROWS ONLY"));
+        assertTrue(new BookFilter(Dialect.SQL_SERVER, keyset, null).apply(sql -> sql, (q, k, v) -> {
+        }).endsWith(" OFFSET 0 ROWS FETCH NEXT 10 ROWS ONLY"));
+    }
+
+    /**
+     * Test of keyset method, of class Filterable, reading all the pages.
+     */
+    @Test
+    public void testPages() throws SQLException {
+        System.out.println("pages");
+        List<Integer> expected = Arrays.asList(4, 14, 8, 18, 2, 12, 6, 16, 10, 20);
+        Keyset descending = Keyset.byDescending("book.published", "lastPublished").then("book.id", "lastId").limit(3);
+        assertEquals(all(Dialect.H2, descending), expected);
+        assertEquals(all(Dialect.ANSI, descending), expected);
+        Keyset ascending = Keyset.by("book.published", "lastPublished").then("book.id", "lastId").limit(4);
+        List<Integer> reversed = Arrays.asList(10, 20, 6, 16, 2, 12, 8, 18, 4, 14);
+        assertEquals(all(Dialect.H2, ascending), reversed);
+        assertEquals(all(Dialect.ANSI, ascending), reversed);
+    }
+
+    /**
+     * Test of keyset method, of class Filterable, with a cache.
+     */
+    @Test
+    public void testCache() {
+        System.out.println("cache");
+        QueryCache cache = new QueryCache();
+        Keyset keyset = Keyset.by("book.id", "lastId").limit(5);
+        String first = new BookFilter(Dialect.H2, keyset, "Horror").apply(cache, sql -> sql, (q, k, v) -> {
+        });
+        Map<String, Object> params = new HashMap<>();
+        String second = new BookFilter(Dialect.H2, keyset.after(10), "Horror").apply(cache, sql -> sql,
+                (q, k, v) -> params.put(k, v));
+        String third = new BookFilter(Dialect.H2, keyset.after(20), "Drama").apply(cache, sql -> sql,
+                (q, k, v) -> params.put(k, v));
+        assertNotEquals(second, first);
+        assertSame(third, second);
+        assertEquals(second, "SELECT book.id, book.published FROM book WHERE book.category = :category"
+                + " AND book.id > :minId AND book.id > :lastId ORDER BY book.id ASC LIMIT 5");
+        assertEquals(params.get("lastId"), 20);
+        assertEquals(cache.misses(), 2);
+    }
+
+    /**
+     * Test of after method, of class Keyset, with a wrong number of values.
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testAfterWrongValues() {
+        System.out.println("afterWrongValues");
+        Keyset.by("book.published", "lastPublished").then("book.id", "lastId").after(1994);
+    }
+}
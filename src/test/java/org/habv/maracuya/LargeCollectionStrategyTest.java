@@ -0,0 +1,309 @@
+package org.habv.maracuya;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test LargeCollectionStrategy against an in-memory H2 database.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public class LargeCollectionStrategyTest {
+
+    private Connection connection;
+
+    private static final class BookFilter implements Filterable {
+
+        private final InListPolicy policy;
+        private final Dialect dialect;
+        private final List<Integer> ids;
+        private final boolean negated;
+
+        private BookFilter(InListPolicy policy, Dialect dialect, boolean negated, Integer... ids) {
+            this.policy = policy;
+            this.dialect = dialect;
+            this.negated = negated;
+            this.ids = Arrays.asList(ids);
+        }
+
+        @Override
+        public String select() {
+            return "SELECT COUNT(*)";
+        }
+
+        @Override
+        public String from() {
+            return " FROM book";
+        }
+
+        @Override
+        public Filter filter() {
+            return negated
+                    ? FilterFactory.notIn("book.id", "ids", ids)
+                    : FilterFactory.in("book.id", "ids", ids);
+        }
+
+        @Override
+        public InListPolicy inListPolicy() {
+            return policy;
+        }
+
+        @Override
+        public Dialect dialect() {
+            return dialect;
+        }
+    }
+
+    @BeforeMethod
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE book (id INT PRIMARY KEY, title VARCHAR(100))");
+            statement.execute("INSERT INTO book VALUES (1, 'Dracula'), (2, 'Emma'), (3, 'Ulysses'), (4, 'Beloved')");
+            statement.execute("CREATE LOCAL TEMPORARY TABLE tmp_ids (param_name VARCHAR(100), id INT)");
+        }
+    }
+
+    @AfterMethod
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    private int count(Filterable filterable) throws SQLException {
+        try (StatementCache statements = new StatementCache(connection)) {
+            PreparedStatement statement = filterable.applyPositional(statements, PositionalParameterSetter.jdbc());
+            try (ResultSet result = statement.executeQuery()) {
+                result.next();
+                return result.getInt(1);
+            }
+        }
+    }
+
+    /**
+     * Test of array method, of class LargeCollectionStrategy.
+     */
+    @Test
+    public void testArray() throws SQLException {
+        System.out.println("array");
+        InListPolicy policy = InListPolicy.none().withLargeCollections(3);
+        List<String> queries = new ArrayList<>();
+        new BookFilter(policy, Dialect.H2, false, 1, 2, 3).applyPositional(sql -> queries.add(sql), (q, i, v) -> {
+        });
+        assertEquals(queries.get(0), "SELECT COUNT(*) FROM book WHERE book.id = ANY(?)");
+        List<Object> params = new ArrayList<>();
+        new BookFilter(policy, Dialect.H2, false, 1, 2, 3).applyPositional(sql -> sql, (q, i, v) -> params.add(v));
+        assertEquals(params.get(0).getClass(), Integer[].class);
+        assertEquals(ArrayStrategy.typeName((Object[]) params.get(0)), "integer");
+        assertEquals(ArrayStrategy.array(Arrays.asList(1, 2L)).getClass(), Object[].class);
+        assertEquals(count(new BookFilter(policy, Dialect.H2, false, 1, 2, 3, 9)), 3);
+        assertEquals(count(new BookFilter(policy, Dialect.H2, true, 1, 2, 3, 9)), 1);
+        assertEquals(count(new BookFilter(policy, Dialect.H2, false, 1, 2)), 2);
+    }
+
+    /**
+     * Test of values method, of class LargeCollectionStrategy.
+     */
+    @Test
+    public void testValues() throws SQLException {
+        System.out.println("values");
+        InListPolicy policy = InListPolicy.none().withLargeCollections(3, LargeCollectionStrategy.values());
+        Map<String, Object> params = new HashMap<>();
+        String query = new BookFilter(policy, Dialect.ANSI, false, 1, 2, 3).apply(sql -> sql, (q, k, v) -> params.put(k, v));
+        assertEquals(query, "SELECT COUNT(*) FROM book WHERE book.id IN"
+                + " (SELECT v FROM (VALUES (:ids_1), (:ids_2), (:ids_3)) AS list_values(v))");
+        assertEquals(params.get("ids_3"), 3);
+        assertEquals(count(new BookFilter(policy, Dialect.H2, false, 1, 2, 3, 9)), 3);
+        assertEquals(count(new BookFilter(policy, Dialect.H2, true, 1, 2, 3, 9)), 1);
+    }
+
+    /**
+     * Test of values method, of class LargeCollectionStrategy, with a list of
+     * thousands of named values.
+     */
+    @Test
+    public void testValuesMany() {
+        System.out.println("valuesMany");
+        InListPolicy policy = InListPolicy.none().withLargeCollections(3, LargeCollectionStrategy.values());
+        Integer[] ids = new Integer[20_000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+        }
+        Map<String, Object> params = new HashMap<>();
+        String query = new BookFilter(policy, Dialect.ANSI, false, ids).apply(sql -> sql, (q, k, v) -> params.put(k, v));
+        assertTrue(query.startsWith("SELECT COUNT(*) FROM book WHERE book.id IN (SELECT v FROM (VALUES (:ids_1), "));
+        assertTrue(query.endsWith(", (:ids_20000)) AS list_values(v))"));
+        assertEquals(params.size(), 20_000);
+        assertEquals(params.get("ids_20000"), 19_999);
+    }
+
+    /**
+     * Test of json method, of class LargeCollectionStrategy.
+     */
+    @Test
+    public void testJson() {
+        System.out.println("json");
+        InListPolicy policy = InListPolicy.none().withLargeCollections(3);
+        List<Object> params = new ArrayList<>();
+        String query = new BookFilter(policy, Dialect.SQL_SERVER, true, 1, 2, 3, 4).applyPositional(sql -> sql,
+                (q, i, v) -> params.add(v));
+        assertEquals(query, "SELECT COUNT(*) FROM book WHERE book.id NOT IN (SELECT value FROM OPENJSON(?))");
+        assertEquals(params, Arrays.asList("[1,2,3,4]"));
+        assertEquals(JsonStrategy.json(Arrays.asList("a\"b", "c\\d\n", null, true, new BigDecimal("1E+3"), Double.NaN)),
+                "[\"a\\\"b\",\"c\\\\d\\u000a\",null,true,1000,\"NaN\"]");
+    }
+
+    /**
+     * Test of temporaryTable method, of class LargeCollectionStrategy.
+     */
+    @Test
+    public void testTemporaryTable() throws SQLException {
+        System.out.println("temporaryTable");
+        LargeCollectionStrategy strategy = LargeCollectionStrategy.temporaryTable(connection, "tmp_ids", "param_name", "id");
+        InListPolicy policy = InListPolicy.none().withLargeCollections(3, strategy);
+        BookFilter in = new BookFilter(policy, Dialect.H2, false, 1, 2, 3, 9);
+        strategy.prepare(in);
+        assertEquals(count(in), 3);
+        BookFilter notIn = new BookFilter(policy, Dialect.H2, true, 1, 2, 4);
+        strategy.prepare(notIn);
+        assertEquals(count(notIn), 1);
+        List<String> queries = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        notIn.applyPositional(sql -> queries.add(sql), (q, i, v) -> params.add(v));
+        assertEquals(queries.get(0), "SELECT COUNT(*) FROM book WHERE NOT EXISTS"
+                + " (SELECT 1 FROM tmp_ids WHERE tmp_ids.param_name = ? AND tmp_ids.id = book.id)");
+        assertEquals(params, Arrays.asList("ids"));
+    }
+
+    /**
+     * Test of prepare method, of class LargeCollectionStrategy, with several
+     * collections in a temporary table.
+     */
+    @Test
+    public void testTemporaryTableCollections() throws SQLException {
+        System.out.println("temporaryTableCollections");
+        List<Map<String, Collection<?>>> loads = new ArrayList<>();
+        BiConsumer<String, Map<String, Collection<?>>> jdbc = new TemporaryTableStrategy.JdbcLoader(connection, "param_name", "id");
+        LargeCollectionStrategy strategy = LargeCollectionStrategy.temporaryTable("tmp_ids", "param_name", "id",
+                (table, collections) -> {
+                    loads.add(collections);
+                    jdbc.accept(table, collections);
+                });
+        Filterable filterable = new ListsFilter(InListPolicy.none().withLargeCollections(3, strategy), FilterFactory.and(
+                FilterFactory.in("book.id", "ids", Arrays.asList(1, 2, 3, 9)),
+                FilterFactory.notIn("book.id", "others", Arrays.asList(3, 4, 5))
+        ));
+        QueryCache cache = new QueryCache();
+        filterable.apply(cache, sql -> sql, (q, k, v) -> {
+        });
+        filterable.apply(cache, sql -> sql, (q, k, v) -> {
+        });
+        assertTrue(loads.isEmpty());
+        strategy.prepare(filterable);
+        assertEquals(loads.size(), 1);
+        assertEquals(loads.get(0).keySet(), new HashSet<>(Arrays.asList("ids", "others")));
+        assertEquals(count(filterable), 2);
+    }
+
+    /**
+     * Test of prepare method, of class LargeCollectionStrategy, with a
+     * parameter name used by different collections.
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testTemporaryTableSameName() {
+        System.out.println("temporaryTableSameName");
+        LargeCollectionStrategy strategy = LargeCollectionStrategy.temporaryTable(connection, "tmp_ids", "param_name", "id");
+        strategy.prepare(new ListsFilter(InListPolicy.none().withLargeCollections(3, strategy), FilterFactory.or(
+                FilterFactory.in("book.id", "ids", Arrays.asList(1, 2, 3)),
+                FilterFactory.in("book.id", "ids", Arrays.asList(4, 5, 6))
+        )));
+    }
+
+    private static final class ListsFilter implements Filterable {
+
+        private final InListPolicy policy;
+        private final Filter filter;
+
+        private ListsFilter(InListPolicy policy, Filter filter) {
+            this.policy = policy;
+            this.filter = filter;
+        }
+
+        @Override
+        public String select() {
+            return "SELECT COUNT(*)";
+        }
+
+        @Override
+        public String from() {
+            return " FROM book";
+        }
+
+        @Override
+        public Filter filter() {
+            return filter;
+        }
+
+        @Override
+        public InListPolicy inListPolicy() {
+            return policy;
+        }
+
+        @Override
+        public Dialect dialect() {
+            return Dialect.H2;
+        }
+    }
+
+    /**
+     * Test of largeCollectionStrategy method, of class Dialect, a dialect
+     * without strategy keeps the in list.
+     */
+    @Test
+    public void testDialectWithoutStrategy() {
+        System.out.println("dialectWithoutStrategy");
+        InListPolicy policy = InListPolicy.powersOfTwo(1000).withLargeCollections(3);
+        List<Object> params = new ArrayList<>();
+        String query = new BookFilter(policy, Dialect.ORACLE, false, 1, 2, 3).applyPositional(sql -> sql,
+                (q, i, v) -> params.add(v));
+        assertEquals(query, "SELECT COUNT(*) FROM book WHERE book.id IN (?, ?, ?, ?)");
+        assertEquals(params, Arrays.asList(1, 2, 3, 3));
+    }
+
+    /**
+     * Test of apply method, of class Filterable, with a large collection
+     * strategy and a cache.
+     */
+    @Test
+    public void testApplyCache() {
+        System.out.println("applyCache");
+        QueryCache cache = new QueryCache();
+        InListPolicy policy = InListPolicy.none().withLargeCollections(3, LargeCollectionStrategy.values());
+        String first = new BookFilter(policy, Dialect.ANSI, false, 1, 2, 3).apply(cache, sql -> sql, (q, k, v) -> {
+        });
+        String second = new BookFilter(policy, Dialect.ANSI, false, 1, 2, 3, 4).apply(cache, sql -> sql, (q, k, v) -> {
+        });
+        String third = new BookFilter(policy, Dialect.ANSI, false, 4, 5, 6).apply(cache, sql -> sql, (q, k, v) -> {
+        });
+        assertNotEquals(second, first);
+        assertSame(third, first);
+        assertEquals(cache.misses(), 2);
+    }
+}
@@ -0,0 +1,172 @@
+package org.habv.maracuya;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test of the page and count queries of Filterable.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public class PagedQueryTest {
+
+    private static final class BookFilter implements Filterable {
+
+        private final Keyset keyset;
+        private final String category;
+        private final boolean grouped;
+
+        private BookFilter(Keyset keyset, String category, boolean grouped) {
+            this.keyset = keyset;
+            this.category = category;
+            this.grouped = grouped;
+        }
+
+        @Override
+        public String select() {
+            return grouped ? "SELECT book.published, COUNT(*)" : "SELECT book.id";
+        }
+
+        @Override
+        public String from() {
+            return " FROM book";
+        }
+
+        @Override
+        public Filter filter() {
+            return FilterFactory.or(
+                    FilterFactory.equal("book.category", "category", category),
+                    FilterFactory.greater("book.id", "minId", 18)
+            );
+        }
+
+        @Override
+        public Optional<String> groupBy() {
+            return grouped ? Optional.of(" GROUP BY book.published") : Optional.empty();
+        }
+
+        @Override
+        public Optional<String> orderBy() {
+            return Optional.of(" ORDER BY book.id");
+        }
+
+        @Override
+        public Optional<Keyset> keyset() {
+            return Optional.ofNullable(keyset);
+        }
+
+        @Override
+        public Dialect dialect() {
+            return Dialect.H2;
+        }
+    }
+
+    /**
+     * Test of applyPaged method, of class Filterable.
+     */
+    @Test
+    public void testApplyPaged() {
+        System.out.println("applyPaged");
+        Map<String, Object> params = new HashMap<>();
+        PagedQuery<String> paged = new BookFilter(null, "Horror", false).applyPaged(sql -> sql,
+                (q, k, v) -> params.put(k, v), true);
+        assertEquals(paged.page(), "SELECT book.id FROM book WHERE book.category = :category"
+                + " OR book.id > :minId ORDER BY book.id");
+        assertEquals(paged.count().get(), "SELECT COUNT(*) FROM book WHERE book.category = :category"
+                + " OR book.id > :minId");
+        assertEquals(params.size(), 2);
+        PagedQuery<String> withoutCount = new BookFilter(null, "Horror", false).applyPaged(sql -> sql,
+                (q, k, v) -> params.put(k, v), false);
+        assertEquals(withoutCount.page(), paged.page());
+        assertFalse(withoutCount.count().isPresent());
+    }
+
+    /**
+     * Test of applyPositionalPaged method, of class Filterable, with a keyset.
+     */
+    @Test
+    public void testApplyPositionalPaged() {
+        System.out.println("applyPositionalPaged");
+        Keyset keyset = Keyset.by("book.id", "lastId").limit(5).after(10);
+        List<Object> pageParams = new ArrayList<>();
+        PagedQuery<List<Object>> paged = new BookFilter(keyset, "Horror", false).applyPositionalPaged(
+                sql -> new ArrayList<>(), (q, i, v) -> q.add(v), true);
+        assertEquals(paged.page(), Arrays.asList("Horror", 18, 10));
+        assertEquals(paged.count().get(), Arrays.asList("Horror", 18));
+        PagedQuery<String> query = new BookFilter(keyset, "Horror", false).applyPositionalPaged(sql -> sql,
+                (q, i, v) -> pageParams.add(v), true);
+        assertEquals(query.page(), "SELECT book.id FROM book WHERE (book.category = ? OR book.id > ?)"
+                + " AND book.id > ? ORDER BY book.id ASC LIMIT 5");
+        assertEquals(query.count().get(), "SELECT COUNT(*) FROM book WHERE (book.category = ? OR book.id > ?)");
+        assertEquals(pageParams.size(), 5);
+    }
+
+    /**
+     * Test of applyPaged method, of class Filterable, with a group by
+     * statement.
+     */
+    @Test
+    public void testApplyPagedGrouped() {
+        System.out.println("applyPagedGrouped");
+        PagedQuery<String> paged = new BookFilter(null, "Horror", true).applyPaged(sql -> sql, (q, k, v) -> {
+        }, true);
+        assertEquals(paged.page(), "SELECT book.published, COUNT(*) FROM book WHERE book.category = :category"
+                + " OR book.id > :minId GROUP BY book.published ORDER BY book.id");
+        assertEquals(paged.count().get(), "SELECT COUNT(*) FROM (SELECT 1 FROM book WHERE book.category = :category"
+                + " OR book.id > :minId GROUP BY book.published) counted");
+    }
+
+    /**
+     * Test of applyPositionalPaged method, of class Filterable, against an
+     * in-memory H2 database.
+     */
+    @Test
+    public void testApplyPagedH2() throws SQLException {
+        System.out.println("applyPagedH2");
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:");
+                Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE book (id INT PRIMARY KEY, category VARCHAR(20), published INT)");
+            for (int id = 1; id <= 20; id++) {
+                statement.execute(String.format("INSERT INTO book VALUES (%d, '%s', %d)",
+                        id, id % 2 == 0 ? "Horror" : "Drama", 1990 + id % 5));
+            }
+            Keyset keyset = Keyset.by("book.id", "lastId").limit(4).after(12);
+            try (StatementCache statements = new StatementCache(connection)) {
+                PagedQuery<PreparedStatement> paged = new BookFilter(keyset, "Horror", false)
+                        .applyPositionalPaged(statements, PositionalParameterSetter.jdbc(), true);
+                List<Integer> ids = new ArrayList<>();
+                try (ResultSet result = paged.page().executeQuery()) {
+                    while (result.next()) {
+                        ids.add(result.getInt(1));
+                    }
+                }
+                assertEquals(ids, Arrays.asList(14, 16, 18, 19));
+                try (ResultSet result = paged.count().get().executeQuery()) {
+                    assertTrue(result.next());
+                    assertEquals(result.getInt(1), 11);
+                }
+            }
+            try (StatementCache statements = new StatementCache(connection)) {
+                PagedQuery<PreparedStatement> paged = new BookFilter(null, "Horror", true)
+                        .applyPositionalPaged(statements, PositionalParameterSetter.jdbc(), true);
+                try (ResultSet result = paged.count().get().executeQuery()) {
+                    assertTrue(result.next());
+                    assertEquals(result.getInt(1), 5);
+                }
+            }
+        }
+    }
+}
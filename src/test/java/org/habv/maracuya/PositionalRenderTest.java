@@ -0,0 +1,178 @@
+package org.habv.maracuya;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test the positional mode of RenderContext.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public class PositionalRenderTest {
+
+    private static final class BookFilter implements Filterable {
+
+        private final String title;
+        private final List<String> categories;
+
+        private BookFilter(String title, List<String> categories) {
+            this.title = title;
+            this.categories = categories;
+        }
+
+        @Override
+        public String select() {
+            return "SELECT book.id";
+        }
+
+        @Override
+        public String from() {
+            return " FROM book";
+        }
+
+        @Override
+        public Filter filter() {
+            return FilterFactory.and(
+                    FilterFactory.like("book.title", "title", title),
+                    FilterFactory.in("book.category", "categories", categories)
+            );
+        }
+    }
+
+    /**
+     * Test of render method, of class Filter, with positional placeholders.
+     */
+    @Test
+    public void testRender() {
+        System.out.println("render");
+        Filter filter = FilterFactory.and(
+                FilterFactory.equal("book.isbn", "isbn", "978-3-16-148410-0"),
+                FilterFactory.like("book.title", "title", "Dracula"),
+                FilterFactory.or(
+                        FilterFactory.in("book.category", "categories", Arrays.asList("Action", "Horror")),
+                        FilterFactory.isNull("book.category", true)
+                ),
+                FilterFactory.between("book.published", "start", "end", 1980, 2020),
+                FilterFactory.literal("(book.price < :price OR :price IS NULL)", "price", 9.99)
+        );
+        try (RenderContext context = RenderContext.acquire().positional(true)) {
+            filter.render(context);
+            assertEquals(context.query().toString(), "book.isbn = ? AND LOWER(book.title) LIKE ?"
+                    + " AND (book.category IN (?, ?) OR book.category IS NULL )"
+                    + " AND book.published BETWEEN ? AND ? AND (book.price < ? OR ? IS NULL)");
+            assertEquals(context.values(), new Object[]{
+                "978-3-16-148410-0", "%dracula%", "Action", "Horror", 1980, 2020, 9.99, 9.99});
+            assertEquals(context.name(3), "categories");
+        }
+    }
+
+    /**
+     * Test of render method, of class Binding, with positional placeholders.
+     */
+    @Test
+    public void testRenderTemplate() {
+        System.out.println("renderTemplate");
+        FilterTemplate template = TemplateFactory.and(
+                TemplateFactory.between("book.published", "start", "end"),
+                TemplateFactory.in("book.category", "categories"),
+                TemplateFactory.literal("book.active = :active", "active")
+        );
+        Filter filter = template.bind()
+                .set("start", 1980)
+                .set("end", 2020)
+                .set("categories", Arrays.asList("Action", "Horror", "Comedy"))
+                .set("active", true);
+        try (RenderContext context = RenderContext.acquire().positional(true)) {
+            filter.render(context);
+            assertEquals(context.query().toString(),
+                    "book.published BETWEEN ? AND ? AND book.category IN (?, ?, ?) AND book.active = ?");
+            assertEquals(context.values(), new Object[]{1980, 2020, "Action", "Horror", "Comedy", true});
+        }
+    }
+
+    /**
+     * Test of render method, of class Filter, using the adapter of a filter
+     * that only implements apply.
+     */
+    @Test
+    public void testRenderAdapter() {
+        System.out.println("renderAdapter");
+        Filter custom = (query, parameters) -> {
+            query.append("book.created::date = :created AND :created <= :today");
+            parameters.put("created", "2020-01-01");
+            parameters.put("today", "2020-12-31");
+        };
+        try (RenderContext context = RenderContext.acquire().positional(true)) {
+            custom.render(context);
+            assertEquals(context.query().toString(), "book.created::date = ? AND ? <= ?");
+            assertEquals(context.values(), new Object[]{"2020-01-01", "2020-01-01", "2020-12-31"});
+        }
+    }
+
+    /**
+     * Test of parameter method, of class RenderContext, with positional
+     * placeholders.
+     */
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testParameterWithoutPlaceholder() {
+        System.out.println("parameterWithoutPlaceholder");
+        try (RenderContext context = RenderContext.acquire().positional(true)) {
+            FilterFactory.parameter("language", "en").render(context);
+        }
+    }
+
+    /**
+     * Test of close method, of class RenderContext, the next context uses
+     * named placeholders.
+     */
+    @Test
+    public void testClose() {
+        System.out.println("close");
+        try (RenderContext context = RenderContext.acquire().positional(true)) {
+            assertTrue(context.isPositional());
+        }
+        try (RenderContext context = RenderContext.acquire()) {
+            assertFalse(context.isPositional());
+        }
+    }
+
+    /**
+     * Test of applyPositional method, of class Filterable.
+     */
+    @Test
+    public void testApplyPositional() {
+        System.out.println("applyPositional");
+        List<Object> params = new ArrayList<>();
+        String query = new BookFilter("Dracula", Arrays.asList("Action", "Horror"))
+                .applyPositional(sql -> sql, (q, i, v) -> params.add(i + "=" + v));
+        assertEquals(query, "SELECT book.id FROM book WHERE LOWER(book.title) LIKE ? AND book.category IN (?, ?)");
+        assertEquals(params, Arrays.asList("1=%dracula%", "2=Action", "3=Horror"));
+    }
+
+    /**
+     * Test of jdbc method, of class PositionalParameterSetter.
+     */
+    @Test
+    public void testJdbc() {
+        System.out.println("jdbc");
+        List<Object> params = new ArrayList<>();
+        PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    assertEquals(method.getName(), "setObject");
+                    params.add(args[0] + "=" + args[1]);
+                    return null;
+                });
+        PreparedStatement result = new BookFilter("Dracula", null)
+                .applyPositional(sql -> statement, PositionalParameterSetter.jdbc());
+        assertSame(result, statement);
+        assertEquals(params, Arrays.asList("1=%dracula%"));
+    }
+}
@@ -0,0 +1,285 @@
+package org.habv.maracuya;
+
+import java.lang.invoke.MethodHandles;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test of PredicateCompiler.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public class PredicateCompilerTest {
+
+    public static final class Book {
+
+        private final int id;
+        private final String title;
+        private final String category;
+        private final Long authorId;
+        private final BigDecimal price;
+        private final boolean available;
+
+        public Book(int id, String title, String category, Long authorId, BigDecimal price, boolean available) {
+            this.id = id;
+            this.title = title;
+            this.category = category;
+            this.authorId = authorId;
+            this.price = price;
+            this.available = available;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public Long getAuthorId() {
+            return authorId;
+        }
+
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+    }
+
+    private static final class Author {
+
+        private final long id;
+        private final String name;
+
+        private Author(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        private String name() {
+            return name;
+        }
+    }
+
+    private static final List<Book> BOOKS = Arrays.asList(
+            new Book(1, "Dracula", "Horror", 10L, new BigDecimal("12.50"), true),
+            new Book(2, "Emma", "Romance", 20L, new BigDecimal("8.00"), false),
+            new Book(3, "Carmilla", "Horror", null, new BigDecimal("5"), true),
+            new Book(4, "Frankenstein", "Horror", 30L, null, true),
+            new Book(5, "Persuasion", null, 20L, new BigDecimal("9.99"), true)
+    );
+
+    private static List<Integer> ids(Predicate<Book> predicate) {
+        return BOOKS.stream().filter(predicate).map(Book::getId).collect(Collectors.toList());
+    }
+
+    /**
+     * Test of compile method, of class PredicateCompiler.
+     */
+    @Test
+    public void testCompile() {
+        System.out.println("compile");
+        PredicateCompiler<Book> compiler = PredicateCompiler.of(Book.class);
+        assertEquals(ids(compiler.compile(FilterFactory.equal("book.category", "category", "Horror"))),
+                Arrays.asList(1, 3, 4));
+        assertEquals(ids(compiler.compile(FilterFactory.notEqual("book.category", "category", "Horror"))),
+                Arrays.asList(2));
+        assertEquals(ids(compiler.compile(FilterFactory.equal("book.author_id", "authorId", 20))),
+                Arrays.asList(2, 5));
+        assertEquals(ids(compiler.compile(FilterFactory.in("book.id", "ids", Arrays.asList(2L, 4L, 9L)))),
+                Arrays.asList(2, 4));
+        assertEquals(ids(compiler.compile(FilterFactory.notIn("book.author_id", "authorIds", Arrays.asList(10, 30)))),
+                Arrays.asList(2, 5));
+        assertEquals(ids(compiler.compile(FilterFactory.between("book.price", "min", "max", 8, 12.5))),
+                Arrays.asList(1, 2, 5));
+        assertEquals(ids(compiler.compile(FilterFactory.notBetween("book.price", "min", "max", 8, 12.5))),
+                Arrays.asList(3));
+        assertEquals(ids(compiler.compile(FilterFactory.greater("book.id", "minId", 3))), Arrays.asList(4, 5));
+        assertEquals(ids(compiler.compile(FilterFactory.lessOrEqual("book.price", "maxPrice", new BigDecimal("8")))),
+                Arrays.asList(2, 3));
+        assertEquals(ids(compiler.compile(FilterFactory.isNull("book.author_id", true))), Arrays.asList(3));
+        assertEquals(ids(compiler.compile(FilterFactory.isNotNull("book.price", true))), Arrays.asList(1, 2, 3, 5));
+        assertEquals(ids(compiler.compile(FilterFactory.equal("book.available", "available", false))),
+                Arrays.asList(2));
+    }
+
+    /**
+     * Test of compile method, of class PredicateCompiler, with text patterns.
+     */
+    @Test
+    public void testCompileLike() {
+        System.out.println("compileLike");
+        PredicateCompiler<Book> compiler = PredicateCompiler.of(Book.class);
+        assertEquals(ids(compiler.compile(FilterFactory.like("book.title", "title", "MILL"))), Arrays.asList(3));
+        assertEquals(ids(compiler.compile(FilterFactory.startsWith("book.title", "title", "e"))), Arrays.asList(2));
+        assertEquals(ids(compiler.compile(FilterFactory.endsWithCaseSensitive("book.title", "title", "a"))),
+                Arrays.asList(1, 2, 3));
+        assertEquals(ids(compiler.compile(FilterFactory.notLike("book.title", "title", "r"))), Arrays.asList(2));
+        assertEquals(ids(compiler.compile(FilterFactory.likeCaseSensitive("book.title", "title", "r_c"))),
+                Arrays.asList(1));
+        assertEquals(ids(compiler.compile(FilterFactory.startsWithRange("book.title", "title", "Em"))),
+                Arrays.asList(2));
+        assertEquals(ids(compiler.compile(FilterFactory.fullText(Arrays.asList("book.title", "book.category"),
+                "terms", "rom"))), Arrays.asList(2));
+        assertTrue(PredicateCompiler.like("a.c%").test("a.cb"));
+        assertFalse(PredicateCompiler.like("a_c").test("a.cb"));
+        assertTrue(PredicateCompiler.like("%").test(""));
+    }
+
+    /**
+     * Test of compile method, of class PredicateCompiler, with logical
+     * filters.
+     */
+    @Test
+    public void testCompileLogical() {
+        System.out.println("compileLogical");
+        PredicateCompiler<Book> compiler = PredicateCompiler.of(Book.class);
+        Filter filter = FilterFactory.and(
+                FilterFactory.equal("book.category", "category", null),
+                FilterFactory.or(
+                        FilterFactory.equal("book.author_id", "authorId", 20L),
+                        FilterFactory.less("book.price", "maxPrice", 6)
+                ),
+                FilterFactory.equal("book.available", "available", true)
+        );
+        assertEquals(ids(compiler.compile(filter)), Arrays.asList(3, 5));
+        assertEquals(ids(compiler.compile(FilterFactory.none())), Arrays.asList(1, 2, 3, 4, 5));
+        assertEquals(ids(compiler.compile(FilterFactory.and(FilterFactory.none(), FilterFactory.parameter("a", 1)))),
+                Arrays.asList(1, 2, 3, 4, 5));
+    }
+
+    /**
+     * Test of column method, of class PredicateCompiler.
+     */
+    @Test
+    public void testColumn() {
+        System.out.println("column");
+        PredicateCompiler<Book> compiler = PredicateCompiler.of(Book.class)
+                .column("author.name", book -> book.getAuthorId() == null ? null : "Author " + book.getAuthorId());
+        assertEquals(ids(compiler.compile(FilterFactory.equal("author.name", "author", "Author 20"))),
+                Arrays.asList(2, 5));
+        PredicateCompiler<Author> authors = PredicateCompiler.of(Author.class, MethodHandles.lookup());
+        Predicate<Author> predicate = authors.compile(FilterFactory.and(
+                FilterFactory.startsWith("author.name", "name", "bram"),
+                FilterFactory.greater("author.id", "id", 1)
+        ));
+        assertTrue(predicate.test(new Author(2, "Bram Stoker")));
+        assertFalse(predicate.test(new Author(1, "Bram Stoker")));
+        assertFalse(predicate.test(new Author(3, "Jane Austen")));
+    }
+
+    /**
+     * Test of compile method, of class PredicateCompiler, with the order of
+     * the children of a logical filter.
+     */
+    @Test
+    public void testCompileOrder() {
+        System.out.println("compileOrder");
+        AtomicInteger titles = new AtomicInteger();
+        AtomicInteger categories = new AtomicInteger();
+        PredicateCompiler<Book> compiler = PredicateCompiler.of(Book.class)
+                .column("book.title", book -> {
+                    titles.incrementAndGet();
+                    return book.getTitle();
+                })
+                .column("book.category", book -> {
+                    categories.incrementAndGet();
+                    return book.getCategory();
+                });
+        Predicate<Book> predicate = compiler.compile(FilterFactory.and(
+                FilterFactory.like("book.title", "title", "a"),
+                FilterFactory.equal("book.category", "category", "Romance")
+        ));
+        assertEquals(ids(predicate), Arrays.asList(2));
+        assertEquals(categories.get(), 5);
+        assertEquals(titles.get(), 1);
+        AdaptivePredicate adaptive = (AdaptivePredicate) (Predicate<?>) compiler.compile(FilterFactory.and(
+                FilterFactory.greaterOrEqual("book.id", "minId", 1),
+                FilterFactory.lessOrEqual("book.id", "maxId", 0),
+                FilterFactory.isNotNull("book.title", true)
+        ));
+        assertEquals(adaptive.order(), new int[]{0, 1, 2});
+        for (int i = 0; i < 8 * AdaptivePredicate.PERIOD * AdaptivePredicate.SAMPLE
+                && adaptive.order()[0] == 0; i++) {
+            assertFalse(adaptive.test(BOOKS.get(i % BOOKS.size())));
+        }
+        assertEquals(adaptive.order(), new int[]{1, 2, 0});
+    }
+
+    /**
+     * Test of statistics method, of class PredicateCompiler.
+     */
+    @Test
+    public void testStatistics() {
+        System.out.println("statistics");
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add(i);
+        }
+        PredicateCompiler<Book> compiler = PredicateCompiler.of(Book.class)
+                .statistics("book.id", ColumnStatistics.of(ids))
+                .statistics("book.category", ColumnStatistics.of(Arrays.asList("Horror", "Romance")));
+        AdaptivePredicate adaptive = (AdaptivePredicate) (Predicate<?>) compiler.compile(FilterFactory.and(
+                FilterFactory.equal("book.category", "category", "Horror"),
+                FilterFactory.less("book.id", "maxId", 900),
+                FilterFactory.greater("book.id", "minId", 990)
+        ));
+        assertEquals(adaptive.order(), new int[]{2, 0, 1});
+        assertEquals(ids(adaptive::test), Collections.emptyList());
+        adaptive = (AdaptivePredicate) (Predicate<?>) compiler.compile(FilterFactory.and(
+                FilterFactory.in("book.id", "longIds", LongStream.range(0, 15).boxed().collect(Collectors.toList())),
+                FilterFactory.in("book.id", "ids", Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10))
+        ));
+        assertEquals(adaptive.order(), new int[]{1, 0});
+    }
+
+    /**
+     * Test of property method, of class PredicateCompiler.
+     */
+    @Test
+    public void testProperty() {
+        System.out.println("property");
+        assertEquals(PredicateCompiler.property("book.author_id"), "authorId");
+        assertEquals(PredicateCompiler.property("BOOK.AUTHOR_ID"), "authorId");
+        assertEquals(PredicateCompiler.property("authorId"), "authorId");
+        assertEquals(PredicateCompiler.property("b.TITLE"), "title");
+    }
+
+    /**
+     * Test of compile method, of class PredicateCompiler, with a literal
+     * filter.
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testCompileLiteral() {
+        System.out.println("compileLiteral");
+        PredicateCompiler.of(Book.class).compile(FilterFactory.literal("book.id = :id", "id", 1));
+    }
+
+    /**
+     * Test of compile method, of class PredicateCompiler, with an unknown
+     * column.
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testCompileUnknownColumn() {
+        System.out.println("compileUnknownColumn");
+        PredicateCompiler.of(Book.class).compile(FilterFactory.equal("book.isbn", "isbn", "123"));
+    }
+}
@@ -0,0 +1,120 @@
+package org.habv.maracuya;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test of Projection.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public class ProjectionTest {
+
+    private static final Projection BOOK = Projection.of("id", "book.id")
+            .and("title", "book.title")
+            .and("author", "author.name AS author");
+
+    private static final class BookFilter implements Filterable {
+
+        private final Collection<String> fields;
+        private final String title;
+
+        private BookFilter(Collection<String> fields, String title) {
+            this.fields = fields;
+            this.title = title;
+        }
+
+        @Override
+        public String select() {
+            return "SELECT *";
+        }
+
+        @Override
+        public String from() {
+            return " FROM book";
+        }
+
+        @Override
+        public List<Join> joins() {
+            return Collections.singletonList(Join.of("author", " LEFT JOIN author ON author.id = book.author_id"));
+        }
+
+        @Override
+        public Optional<Projection> projection() {
+            return Optional.of(BOOK.select(fields));
+        }
+
+        @Override
+        public Filter filter() {
+            return FilterFactory.startsWithCaseSensitive("book.title", "title", title);
+        }
+    }
+
+    private static String query(Filterable filterable) {
+        return filterable.apply(sql -> sql, (q, k, v) -> {
+        });
+    }
+
+    /**
+     * Test of select method, of class Projection.
+     */
+    @Test
+    public void testSelect() {
+        System.out.println("select");
+        assertEquals(query(new BookFilter(Arrays.asList("title", "id"), null)),
+                "SELECT book.id, book.title FROM book");
+        assertEquals(query(new BookFilter(Collections.singletonList("author"), "Dra")),
+                "SELECT author.name AS author FROM book LEFT JOIN author ON author.id = book.author_id"
+                + " WHERE book.title LIKE :title");
+        assertEquals(query(new BookFilter(null, null)), "SELECT book.id, book.title, author.name AS author"
+                + " FROM book LEFT JOIN author ON author.id = book.author_id");
+        assertTrue(BOOK.select(Collections.singletonList("title")).isSelected("title"));
+        assertFalse(BOOK.select(Collections.singletonList("title")).isSelected("id"));
+        assertFalse(BOOK.isSelected("price"));
+    }
+
+    /**
+     * Test of key method, of class Projection.
+     */
+    @Test
+    public void testKey() {
+        System.out.println("key");
+        assertEquals(BOOK.key(), "id,title,author");
+        assertEquals(BOOK.select(Arrays.asList("author", "id")).key(), "id,author");
+        assertEquals(BOOK.select(Arrays.asList("id", "author")).key(), "id,author");
+        QueryCache cache = new QueryCache();
+        String first = new BookFilter(Arrays.asList("title", "id"), "Dra").apply(cache, sql -> sql, (q, k, v) -> {
+        });
+        String second = new BookFilter(Arrays.asList("id", "title"), "Emm").apply(cache, sql -> sql, (q, k, v) -> {
+        });
+        String third = new BookFilter(Arrays.asList("id", "author"), "Emm").apply(cache, sql -> sql, (q, k, v) -> {
+        });
+        assertSame(second, first);
+        assertNotEquals(third, first);
+        assertEquals(cache.size(), 2);
+    }
+
+    /**
+     * Test of select method, of class Projection, with an unknown field.
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSelectUnknownField() {
+        System.out.println("selectUnknownField");
+        BOOK.select(Collections.singletonList("price"));
+    }
+
+    /**
+     * Test of and method, of class Projection, with a duplicate field.
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testAndDuplicateField() {
+        System.out.println("andDuplicateField");
+        BOOK.and("title", "book.subtitle");
+    }
+}
@@ -0,0 +1,234 @@
+package org.habv.maracuya;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test QueryCache.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public class QueryCacheTest {
+
+    /**
+     * Filterable of books.
+     */
+    private static final class BookFilter implements Filterable {
+
+        private final String title;
+        private final Double price;
+
+        private BookFilter(String title, Double price) {
+            this.title = title;
+            this.price = price;
+        }
+
+        @Override
+        public String select() {
+            return "SELECT book.id";
+        }
+
+        @Override
+        public String from() {
+            return " FROM book";
+        }
+
+        @Override
+        public Filter filter() {
+            return FilterFactory.and(
+                    FilterFactory.like("book.title", "title", title),
+                    FilterFactory.greater("book.price", "price", price)
+            );
+        }
+    }
+
+    /**
+     * Test of apply method, of class Filterable, using a cache.
+     */
+    @Test
+    public void testApply() {
+        System.out.println("apply");
+        QueryCache cache = new QueryCache();
+        Map<String, Object> params = new HashMap<>();
+        String query = new BookFilter("Dracula", 9.99).apply(cache, sql -> sql, (q, k, v) -> params.put(k, v));
+        assertEquals(query, "SELECT book.id FROM book WHERE LOWER(book.title) LIKE :title AND book.price > :price");
+        assertEquals(params.get("title"), "%dracula%");
+        assertEquals(params.get("price"), 9.99);
+        assertEquals(cache.hits(), 0);
+        assertEquals(cache.misses(), 1);
+
+        params.clear();
+        query = new BookFilter("Carmilla", 5.0).apply(cache, sql -> sql, (q, k, v) -> params.put(k, v));
+        assertEquals(query, "SELECT book.id FROM book WHERE LOWER(book.title) LIKE :title AND book.price > :price");
+        assertEquals(params.get("title"), "%carmilla%");
+        assertEquals(params.get("price"), 5.0);
+        assertEquals(cache.hits(), 1);
+        assertEquals(cache.misses(), 1);
+        assertEquals(cache.size(), 1);
+    }
+
+    /**
+     * Test of apply method, of class Filterable, using a cache with different
+     * applicable leaves.
+     */
+    @Test
+    public void testApplyDifferentShape() {
+        System.out.println("applyDifferentShape");
+        QueryCache cache = new QueryCache();
+        Map<String, Object> params = new HashMap<>();
+        new BookFilter("Dracula", 9.99).apply(cache, sql -> sql, (q, k, v) -> params.put(k, v));
+
+        params.clear();
+        String query = new BookFilter(null, 5.0).apply(cache, sql -> sql, (q, k, v) -> params.put(k, v));
+        assertEquals(query, "SELECT book.id FROM book WHERE book.price > :price");
+        assertEquals(params.size(), 1);
+        assertEquals(params.get("price"), 5.0);
+
+        params.clear();
+        query = new BookFilter(null, null).apply(cache, sql -> sql, (q, k, v) -> params.put(k, v));
+        assertEquals(query, "SELECT book.id FROM book");
+        assertTrue(params.isEmpty());
+
+        params.clear();
+        query = new BookFilter(null, null).apply(cache, sql -> sql, (q, k, v) -> params.put(k, v));
+        assertEquals(query, "SELECT book.id FROM book");
+        assertTrue(params.isEmpty());
+        assertEquals(cache.hits(), 1);
+        assertEquals(cache.misses(), 3);
+        assertEquals(cache.size(), 3);
+    }
+
+    /**
+     * Test of the maximum size of the cache.
+     */
+    @Test
+    public void testMaximumSize() {
+        System.out.println("maximumSize");
+        QueryCache cache = new QueryCache(1);
+        Map<String, Object> params = new HashMap<>();
+        new BookFilter("Dracula", 9.99).apply(cache, sql -> sql, (q, k, v) -> params.put(k, v));
+        String query = new BookFilter(null, 5.0).apply(cache, sql -> sql, (q, k, v) -> params.put(k, v));
+        assertEquals(query, "SELECT book.id FROM book WHERE book.price > :price");
+        assertEquals(cache.size(), 1);
+        cache.clear();
+        assertEquals(cache.size(), 0);
+        assertEquals(cache.misses(), 0);
+    }
+
+    /**
+     * Test of apply method, of class Filterable, using a cache with a filter
+     * template.
+     */
+    @Test
+    public void testApplyTemplate() {
+        System.out.println("applyTemplate");
+        QueryCache cache = new QueryCache();
+        Map<String, Object> params = new HashMap<>();
+        assertEquals(new BookTemplateFilter("978-3-16-148410-0", null).apply(cache, sql -> sql, (q, k, v) -> params.put(k, v)),
+                "SELECT book.id FROM book WHERE book.isbn = :isbn");
+        assertEquals(new BookTemplateFilter(null, "Dracula").apply(cache, sql -> sql, (q, k, v) -> params.put(k, v)),
+                "SELECT book.id FROM book WHERE LOWER(book.title) LIKE :title");
+        assertEquals(new BookTemplateFilter(null, "Carmilla").apply(cache, sql -> sql, (q, k, v) -> params.put(k, v)),
+                "SELECT book.id FROM book WHERE LOWER(book.title) LIKE :title");
+        assertEquals(params.get("title"), "carmilla%");
+        assertEquals(cache.misses(), 2);
+        assertEquals(cache.hits(), 1);
+    }
+
+    /**
+     * Test of apply method, of class Filterable, using a cache with a column
+     * chosen at runtime.
+     */
+    @Test
+    public void testApplyRuntimeColumn() {
+        System.out.println("applyRuntimeColumn");
+        QueryCache cache = new QueryCache();
+        Map<String, Object> params = new HashMap<>();
+        assertEquals(new SortedFilter("book.title", "Dracula").apply(cache, sql -> sql, (q, k, v) -> params.put(k, v)),
+                "SELECT book.id FROM book WHERE book.title = :value");
+        assertEquals(new SortedFilter("book.isbn", "978").apply(cache, sql -> sql, (q, k, v) -> params.put(k, v)),
+                "SELECT book.id FROM book WHERE book.isbn = :value");
+        assertEquals(new SortedFilter("book.isbn", "979").apply(cache, sql -> sql, (q, k, v) -> params.put(k, v)),
+                "SELECT book.id FROM book WHERE book.isbn = :value");
+        assertEquals(params.get("value"), "979");
+        assertEquals(cache.misses(), 2);
+        assertEquals(cache.hits(), 1);
+        assertEquals(SortedFilter.SELECTS.get(), 3);
+    }
+
+    /**
+     * Filterable of books with a column chosen at runtime and constant
+     * declarations.
+     */
+    private static final class SortedFilter implements Filterable {
+
+        private static final AtomicInteger SELECTS = new AtomicInteger();
+
+        private final String column;
+        private final String value;
+
+        private SortedFilter(String column, String value) {
+            this.column = column;
+            this.value = value;
+        }
+
+        @Override
+        public String select() {
+            SELECTS.incrementAndGet();
+            return "SELECT book.id";
+        }
+
+        @Override
+        public String from() {
+            return " FROM book";
+        }
+
+        @Override
+        public Filter filter() {
+            return FilterFactory.equal(column, "value", value);
+        }
+
+        @Override
+        public boolean constantDeclarations() {
+            return true;
+        }
+    }
+
+    /**
+     * Filterable of books using a filter template.
+     */
+    private static final class BookTemplateFilter implements Filterable {
+
+        private static final FilterTemplate TEMPLATE = TemplateFactory.or(
+                TemplateFactory.equal("book.isbn", "isbn"),
+                TemplateFactory.startsWith("book.title", "title")
+        );
+
+        private final String isbn;
+        private final String title;
+
+        private BookTemplateFilter(String isbn, String title) {
+            this.isbn = isbn;
+            this.title = title;
+        }
+
+        @Override
+        public String select() {
+            return "SELECT book.id";
+        }
+
+        @Override
+        public String from() {
+            return " FROM book";
+        }
+
+        @Override
+        public Filter filter() {
+            return TEMPLATE.bind().set("isbn", isbn).set("title", title);
+        }
+    }
+}
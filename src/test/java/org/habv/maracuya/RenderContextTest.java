@@ -0,0 +1,156 @@
+package org.habv.maracuya;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test RenderContext.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public class RenderContextTest {
+
+    /**
+     * Test of render method, of class Filter, compared with the apply method.
+     */
+    @Test
+    public void testRender() {
+        System.out.println("render");
+        Filter filter = FilterFactory.and(
+                FilterFactory.equal("book.isbn", "isbn", "978-3-16-148410-0"),
+                FilterFactory.like("book.title", "title", "Dracula"),
+                FilterFactory.or(
+                        FilterFactory.in("book.category", "categories", Arrays.asList("Action", "Horror")),
+                        FilterFactory.isNull("book.category", true)
+                ),
+                FilterFactory.between("book.published", "start", "end", 1980, 2020),
+                FilterFactory.literal("book.active = :active", "active", true),
+                FilterFactory.parameter("language", "en")
+        );
+        StringBuilder query = new StringBuilder();
+        Map<String, Object> params = new HashMap<>();
+        filter.apply(query, params);
+        try (RenderContext context = RenderContext.acquire()) {
+            filter.render(context);
+            assertEquals(context.query().toString(), query.toString());
+            assertEquals(context.parameters(), params);
+            assertEquals(context.size(), 7);
+            assertEquals(context.name(0), "isbn");
+            assertEquals(context.value(1), "%dracula%");
+        }
+    }
+
+    /**
+     * Test of render method, of class Filter, using the adapter of a filter
+     * that only implements apply.
+     */
+    @Test
+    public void testRenderAdapter() {
+        System.out.println("renderAdapter");
+        Filter custom = (query, parameters) -> {
+            query.append("book.isbn = :isbn");
+            parameters.put("isbn", "978-3-16-148410-0");
+        };
+        Filter filter = FilterFactory.and(
+                FilterFactory.equal("book.title", "title", "Dracula"),
+                custom
+        );
+        RenderContext context = new RenderContext();
+        filter.render(context);
+        assertEquals(context.query().toString(), "book.title = :title AND book.isbn = :isbn");
+        assertEquals(context.size(), 2);
+        assertEquals(context.parameters().get("isbn"), "978-3-16-148410-0");
+        assertTrue(context.parameters().containsKey("title"));
+    }
+
+    /**
+     * Test of parameter method, of class RenderContext, with a repeated name.
+     */
+    @Test
+    public void testParameterReplace() {
+        System.out.println("parameterReplace");
+        RenderContext context = new RenderContext();
+        context.parameter("isbn", 1);
+        assertNull(context.parameters().put("title", "Dracula"));
+        assertEquals(context.parameters().put("isbn", 2), 1);
+        assertEquals(context.size(), 2);
+        assertEquals(context.value(0), 2);
+    }
+
+    /**
+     * Test of parameter method, of class RenderContext, with many parameters
+     * looked up by name.
+     */
+    @Test
+    public void testParameterMany() {
+        System.out.println("parameterMany");
+        RenderContext context = new RenderContext();
+        for (int i = 0; i < 100_000; i++) {
+            context.placeholder("values_" + i, i);
+        }
+        context.parameter("values_500", -1);
+        assertEquals(context.size(), 100_000);
+        assertEquals(context.parameters().get("values_500"), -1);
+        assertEquals(context.parameters().get("values_99999"), 99_999);
+        assertFalse(context.parameters().containsKey("values_100000"));
+        context.reset();
+        assertFalse(context.parameters().containsKey("values_500"));
+        context.placeholder("isbn", 1);
+        assertEquals(context.parameters().get("isbn"), 1);
+        context.reset().positional(true);
+        for (int i = 0; i < 20; i++) {
+            context.placeholder("ids", Arrays.asList(i, -i));
+        }
+        assertEquals(context.size(), 40);
+        assertEquals(context.parameters().get("ids"), 0);
+    }
+
+    /**
+     * Test of reset method, of class RenderContext.
+     */
+    @Test
+    public void testReset() {
+        System.out.println("reset");
+        RenderContext context = new RenderContext();
+        context.append("book.isbn = ").placeholder("isbn", 1);
+        assertEquals(context.query().toString(), "book.isbn = :isbn");
+        context.reset();
+        assertEquals(context.query().length(), 0);
+        assertEquals(context.size(), 0);
+        assertTrue(context.parameters().isEmpty());
+    }
+
+    /**
+     * Test of acquire method, of class RenderContext.
+     */
+    @Test
+    public void testAcquire() {
+        System.out.println("acquire");
+        RenderContext first;
+        try (RenderContext context = RenderContext.acquire()) {
+            first = context;
+            context.append("first");
+            try (RenderContext nested = RenderContext.acquire()) {
+                assertNotSame(nested, context);
+                assertEquals(nested.query().length(), 0);
+            }
+        }
+        try (RenderContext context = RenderContext.acquire()) {
+            assertSame(context, first);
+            assertEquals(context.query().length(), 0);
+        }
+    }
+
+    /**
+     * Test of index out of range, of class RenderContext.
+     */
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void testIndexOutOfRange() {
+        System.out.println("indexOutOfRange");
+        new RenderContext().name(0);
+    }
+}
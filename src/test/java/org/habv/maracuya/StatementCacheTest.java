@@ -0,0 +1,171 @@
+package org.habv.maracuya;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test StatementCache against an in-memory H2 database.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public class StatementCacheTest {
+
+    private Connection connection;
+
+    private static final class BookFilter implements Filterable {
+
+        private final String title;
+        private final List<String> categories;
+
+        private BookFilter(String title, List<String> categories) {
+            this.title = title;
+            this.categories = categories;
+        }
+
+        @Override
+        public String select() {
+            return "SELECT COUNT(*)";
+        }
+
+        @Override
+        public String from() {
+            return " FROM book";
+        }
+
+        @Override
+        public Filter filter() {
+            return FilterFactory.and(
+                    FilterFactory.like("title", "title", title),
+                    FilterFactory.in("category", "categories", categories)
+            );
+        }
+    }
+
+    @BeforeMethod
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE book (id INT PRIMARY KEY, title VARCHAR(100), category VARCHAR(20))");
+            statement.execute("INSERT INTO book VALUES (1, 'dracula', 'Horror'), (2, 'dracula returns', 'Action'),"
+                    + " (3, 'emma', 'Comedy')");
+        }
+    }
+
+    @AfterMethod
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    private static int count(PreparedStatement statement) throws SQLException {
+        try (ResultSet result = statement.executeQuery()) {
+            result.next();
+            return result.getInt(1);
+        }
+    }
+
+    /**
+     * Test of create method, of class StatementCache, with applyPositional.
+     */
+    @Test
+    public void testApplyPositional() throws SQLException {
+        System.out.println("applyPositional");
+        try (StatementCache statements = new StatementCache(connection)) {
+            PreparedStatement first = new BookFilter("Dracula", Arrays.asList("Horror", "Action"))
+                    .applyPositional(statements, PositionalParameterSetter.jdbc());
+            assertEquals(count(first), 2);
+            PreparedStatement second = new BookFilter("Dracula", Arrays.asList("Horror", "Comedy"))
+                    .applyPositional(statements, PositionalParameterSetter.jdbc());
+            assertSame(second, first);
+            assertEquals(count(second), 1);
+            PreparedStatement third = new BookFilter(null, Arrays.asList("Comedy"))
+                    .applyPositional(statements, PositionalParameterSetter.jdbc());
+            assertNotSame(third, first);
+            assertEquals(count(third), 1);
+            assertEquals(statements.hits(), 1);
+            assertEquals(statements.misses(), 2);
+            assertEquals(statements.size(), 2);
+        }
+    }
+
+    /**
+     * Test of prepare method, of class StatementCache, the least recently
+     * used statement is closed.
+     */
+    @Test
+    public void testEviction() throws SQLException {
+        System.out.println("eviction");
+        try (StatementCache statements = new StatementCache(connection, 2)) {
+            PreparedStatement one = statements.prepare("SELECT 1");
+            PreparedStatement two = statements.prepare("SELECT 2");
+            assertSame(statements.prepare("SELECT 1"), one);
+            PreparedStatement three = statements.prepare("SELECT 3");
+            assertTrue(two.isClosed());
+            assertFalse(one.isClosed());
+            assertFalse(three.isClosed());
+            assertEquals(statements.evictions(), 1);
+            assertEquals(statements.size(), 2);
+            assertNotSame(statements.prepare("SELECT 2"), two);
+            assertTrue(one.isClosed());
+        }
+    }
+
+    /**
+     * Test of prepare method, of class StatementCache, with a statement closed
+     * by the caller.
+     */
+    @Test
+    public void testPrepareClosed() throws SQLException {
+        System.out.println("prepareClosed");
+        try (StatementCache statements = new StatementCache(connection)) {
+            PreparedStatement one = statements.prepare("SELECT 1");
+            one.close();
+            PreparedStatement other = statements.prepare("SELECT 1");
+            assertNotSame(other, one);
+            assertFalse(other.isClosed());
+            assertEquals(statements.misses(), 2);
+        }
+    }
+
+    /**
+     * Test of close method, of class StatementCache.
+     */
+    @Test
+    public void testClose() throws SQLException {
+        System.out.println("close");
+        StatementCache statements = new StatementCache(connection);
+        PreparedStatement one = statements.prepare("SELECT 1");
+        statements.close();
+        assertTrue(one.isClosed());
+        assertFalse(connection.isClosed());
+        assertEquals(statements.size(), 0);
+    }
+
+    /**
+     * Test of create method, of class StatementCache, with an invalid query.
+     */
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testCreateInvalid() {
+        System.out.println("createInvalid");
+        new StatementCache(connection).create("SELECT FROM");
+    }
+
+    /**
+     * Test of constructor, of class StatementCache.
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testMaximumSize() {
+        System.out.println("maximumSize");
+        new StatementCache(connection, 0);
+    }
+}
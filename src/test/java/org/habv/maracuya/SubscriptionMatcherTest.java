@@ -0,0 +1,219 @@
+package org.habv.maracuya;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+import static org.testng.Assert.*;
+import org.testng.annotations.Test;
+
+/**
+ * Test of SubscriptionMatcher.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public class SubscriptionMatcherTest {
+
+    public static final class Listing {
+
+        private final String city;
+        private final Integer price;
+        private final long rooms;
+        private final String title;
+
+        public Listing(String city, Integer price, long rooms, String title) {
+            this.city = city;
+            this.price = price;
+            this.rooms = rooms;
+            this.title = title;
+        }
+
+        public String getCity() {
+            return city;
+        }
+
+        public Integer getPrice() {
+            return price;
+        }
+
+        public long getRooms() {
+            return rooms;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+    }
+
+    private static final String[] CITIES = {"Heredia", "Cartago", "Alajuela", "Limon"};
+
+    private static Filter filter(Random random) {
+        switch (random.nextInt(9)) {
+            case 0:
+                return FilterFactory.equal("listing.city", "city", CITIES[random.nextInt(CITIES.length)]);
+            case 1:
+                return FilterFactory.in("listing.city", "cities",
+                        Arrays.asList(CITIES[random.nextInt(CITIES.length)], CITIES[random.nextInt(CITIES.length)]));
+            case 2:
+                return FilterFactory.greater("listing.price", "min", random.nextInt(100));
+            case 3:
+                return FilterFactory.lessOrEqual("listing.price", "max", (long) random.nextInt(100));
+            case 4:
+                int from = random.nextInt(100);
+                return FilterFactory.between("listing.price", "min", "max", from, from + random.nextInt(30));
+            case 5:
+                return FilterFactory.greaterOrEqual("listing.rooms", "rooms", random.nextInt(5) + 0.5);
+            case 6:
+                return FilterFactory.less("listing.rooms", "rooms", random.nextInt(5));
+            case 7:
+                return FilterFactory.like("listing.title", "title", "garden");
+            default:
+                return FilterFactory.or(
+                        FilterFactory.equal("listing.rooms", "rooms", random.nextInt(5)),
+                        FilterFactory.notEqual("listing.city", "city", CITIES[random.nextInt(CITIES.length)])
+                );
+        }
+    }
+
+    /**
+     * Test of match method, of class SubscriptionMatcher, against the
+     * evaluation of every subscription.
+     */
+    @Test
+    public void testMatch() {
+        System.out.println("match");
+        Random random = new Random(42);
+        PredicateCompiler<Listing> compiler = PredicateCompiler.of(Listing.class);
+        SubscriptionMatcher<Listing, Integer> matcher = SubscriptionMatcher.of(compiler);
+        Map<Integer, Predicate<Listing>> predicates = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            Filter[] filters = new Filter[1 + random.nextInt(3)];
+            for (int j = 0; j < filters.length; j++) {
+                filters[j] = filter(random);
+            }
+            Filter filter = random.nextInt(4) == 0 ? FilterFactory.or(filters) : FilterFactory.and(filters);
+            matcher.subscribe(i, filter);
+            predicates.put(i, compiler.compile(filter));
+        }
+        for (int i = 0; i < 500; i += 3) {
+            assertTrue(matcher.unsubscribe(i));
+            predicates.remove(i);
+        }
+        assertEquals(matcher.size(), predicates.size());
+        for (int i = 0; i < 200; i++) {
+            Listing listing = new Listing(CITIES[random.nextInt(CITIES.length)],
+                    random.nextInt(10) == 0 ? null : random.nextInt(120), random.nextInt(6),
+                    random.nextBoolean() ? "House with garden" : "Apartment");
+            Set<Integer> expected = new HashSet<>();
+            predicates.forEach((id, predicate) -> {
+                if (predicate.test(listing)) {
+                    expected.add(id);
+                }
+            });
+            assertEquals(matcher.match(listing), expected);
+        }
+    }
+
+    /**
+     * Test of subscribe method, of class SubscriptionMatcher, replacing a
+     * subscription.
+     */
+    @Test
+    public void testSubscribe() {
+        System.out.println("subscribe");
+        SubscriptionMatcher<Listing, String> matcher = SubscriptionMatcher.of(PredicateCompiler.of(Listing.class));
+        Listing listing = new Listing("Heredia", 50, 3, "House with garden");
+        matcher.subscribe("cheap", FilterFactory.less("listing.price", "max", 60));
+        matcher.subscribe("heredia", FilterFactory.and(
+                FilterFactory.equal("listing.city", "city", "Heredia"),
+                FilterFactory.between("listing.rooms", "min", "max", 2, 4L)
+        ));
+        matcher.subscribe("all", FilterFactory.none());
+        assertEquals(matcher.match(listing), new HashSet<>(Arrays.asList("cheap", "heredia", "all")));
+        matcher.subscribe("cheap", FilterFactory.less("listing.price", "max", 40));
+        assertEquals(matcher.match(listing), new HashSet<>(Arrays.asList("heredia", "all")));
+        assertTrue(matcher.unsubscribe("heredia"));
+        assertFalse(matcher.unsubscribe("heredia"));
+        assertTrue(matcher.unsubscribe("all"));
+        assertEquals(matcher.match(listing), Collections.emptySet());
+        assertEquals(matcher.size(), 1);
+    }
+
+    /**
+     * Test of match method, of class SubscriptionMatcher, after a match that
+     * failed.
+     */
+    @Test
+    public void testMatchAfterFailure() {
+        System.out.println("matchAfterFailure");
+        SubscriptionMatcher<Listing, String> matcher = SubscriptionMatcher.of(PredicateCompiler.of(Listing.class));
+        Listing listing = new Listing("Heredia", 50, 3, "House with garden");
+        matcher.subscribe("heredia", FilterFactory.and(
+                FilterFactory.equal("listing.city", "city", "Heredia"),
+                FilterFactory.equal("listing.rooms", "rooms", 3),
+                FilterFactory.less("listing.price", "max", 60)
+        ));
+        matcher.subscribe("wrong", FilterFactory.greater("listing.title", "title", 5));
+        try {
+            matcher.match(listing);
+            fail("the title is not a number");
+        } catch (ClassCastException ex) {
+            assertTrue(matcher.unsubscribe("wrong"));
+        }
+        assertEquals(matcher.match(listing), Collections.singleton("heredia"));
+    }
+
+    /**
+     * Test of subscribe method, of class SubscriptionMatcher, with bounds
+     * that can not be compared.
+     */
+    @Test
+    public void testSubscribeIncomparableBounds() throws InterruptedException {
+        System.out.println("subscribeIncomparableBounds");
+        SubscriptionMatcher<Listing, String> matcher = SubscriptionMatcher.of(PredicateCompiler.of(Listing.class));
+        Listing listing = new Listing("Heredia", 50, 3, "House with garden");
+        matcher.subscribe("cheap", FilterFactory.less("listing.price", "max", 60));
+        try {
+            matcher.subscribe("text", FilterFactory.greater("listing.price", "min", "x"));
+            fail("the bounds can not be compared");
+        } catch (IllegalArgumentException ex) {
+            assertEquals(matcher.size(), 1);
+        }
+        try {
+            matcher.subscribe("mixed", FilterFactory.between("listing.rooms", "min", "max", 1, "9"));
+            fail("the bounds can not be compared");
+        } catch (IllegalArgumentException ex) {
+            assertEquals(matcher.size(), 1);
+        }
+        matcher.subscribe("cheap", FilterFactory.greater("listing.price", "min", "a"));
+        matcher.subscribe("cheap", FilterFactory.less("listing.price", "max", 60L));
+        assertEquals(matcher.match(listing), Collections.singleton("cheap"));
+        matcher.subscribe("wrong", FilterFactory.greater("listing.title", "title", 5));
+        try {
+            matcher.match(listing);
+            fail("the title is not a number");
+        } catch (ClassCastException ex) {
+            Thread writer = new Thread(() -> matcher.unsubscribe("wrong"));
+            writer.start();
+            writer.join(5000);
+            assertFalse(writer.isAlive(), "the read lock was not released");
+        }
+        assertEquals(matcher.match(listing), Collections.singleton("cheap"));
+    }
+
+    /**
+     * Test of subscribe method, of class SubscriptionMatcher, with an unknown
+     * column.
+     */
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSubscribeUnknownColumn() {
+        System.out.println("subscribeUnknownColumn");
+        SubscriptionMatcher.of(PredicateCompiler.of(Listing.class))
+                .subscribe(1, FilterFactory.equal("listing.zip", "zip", "40101"));
+    }
+}
@@ -0,0 +1,171 @@
+package org.habv.maracuya;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import static org.testng.Assert.*;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test UnionAll against an in-memory H2 database.
+ *
+ * @author Herman Barrantes
+ * @since 1.1.0
+ */
+public class UnionAllTest {
+
+    private Connection connection;
+
+    private static final class CustomerFilter implements Filterable {
+
+        private final boolean unionAll;
+        private final Boolean active;
+        private final String email;
+        private final String phone;
+
+        private CustomerFilter(boolean unionAll, Boolean active, String email, String phone) {
+            this.unionAll = unionAll;
+            this.active = active;
+            this.email = email;
+            this.phone = phone;
+        }
+
+        @Override
+        public String select() {
+            return "SELECT c.id";
+        }
+
+        @Override
+        public String from() {
+            return " FROM customer c";
+        }
+
+        @Override
+        public Filter filter() {
+            return FilterFactory.and(
+                    FilterFactory.equal("c.active", "active", active),
+                    FilterFactory.or(
+                            FilterFactory.equal("c.email", "email", email),
+                            FilterFactory.startsWithCaseSensitive("c.phone", "phone", phone)
+                    )
+            );
+        }
+
+        @Override
+        public Optional<String> orderBy() {
+            return Optional.of(" ORDER BY id");
+        }
+
+        @Override
+        public boolean unionAll() {
+            return unionAll;
+        }
+    }
+
+    @BeforeMethod
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE customer (id INT PRIMARY KEY, active BOOLEAN,"
+                    + " email VARCHAR(100), phone VARCHAR(20))");
+            statement.execute("INSERT INTO customer VALUES"
+                    + " (1, TRUE, 'ana@mail.com', '555-0101'),"
+                    + " (2, TRUE, NULL, '555-0102'),"
+                    + " (3, TRUE, 'ana@mail.com', NULL),"
+                    + " (4, FALSE, 'ana@mail.com', '555-0104'),"
+                    + " (5, TRUE, 'luis@mail.com', '777-0105')");
+        }
+    }
+
+    @AfterMethod
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    private List<Integer> ids(Filterable filterable) throws SQLException {
+        try (StatementCache statements = new StatementCache(connection)) {
+            PreparedStatement statement = filterable.applyPositional(statements, PositionalParameterSetter.jdbc());
+            List<Integer> ids = new ArrayList<>();
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    ids.add(result.getInt(1));
+                }
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * Test of unionAll method, of class Filterable.
+     */
+    @Test
+    public void testUnionAll() {
+        System.out.println("unionAll");
+        Map<String, Object> params = new HashMap<>();
+        String query = new CustomerFilter(true, true, "ana@mail.com", "555")
+                .apply(sql -> sql, (q, k, v) -> params.put(k, v));
+        assertEquals(query, "SELECT c.id FROM customer c WHERE c.active = :active AND c.email = :email"
+                + " UNION ALL SELECT c.id FROM customer c WHERE c.active = :active AND c.phone LIKE :phone"
+                + " AND CASE WHEN c.email = :email THEN 1 ELSE 0 END = 0 ORDER BY id");
+        assertEquals(params.size(), 3);
+        assertEquals(params.get("phone"), "555%");
+    }
+
+    /**
+     * Test of unionAll method, of class Filterable, the rows are the same of
+     * the query with "or" and are returned once.
+     */
+    @Test
+    public void testSameRows() throws SQLException {
+        System.out.println("sameRows");
+        List<Integer> expected = ids(new CustomerFilter(false, true, "ana@mail.com", "555"));
+        assertEquals(expected, Arrays.asList(1, 2, 3));
+        assertEquals(ids(new CustomerFilter(true, true, "ana@mail.com", "555")), expected);
+        assertEquals(ids(new CustomerFilter(true, null, "ana@mail.com", "555")),
+                ids(new CustomerFilter(false, null, "ana@mail.com", "555")));
+    }
+
+    /**
+     * Test of unionAll method, of class Filterable, a filter without a
+     * top-level "or" is not expanded.
+     */
+    @Test
+    public void testNotExpanded() {
+        System.out.println("notExpanded");
+        String query = new CustomerFilter(true, true, null, "555").apply(sql -> sql, (q, k, v) -> {
+        });
+        assertEquals(query, "SELECT c.id FROM customer c WHERE c.active = :active AND (c.phone LIKE :phone)"
+                + " ORDER BY id");
+    }
+
+    /**
+     * Test of unionAll method, of class Filterable, with a cache.
+     */
+    @Test
+    public void testCache() {
+        System.out.println("cache");
+        QueryCache cache = new QueryCache();
+        String plain = new CustomerFilter(false, true, "ana@mail.com", "555").apply(cache, sql -> sql, (q, k, v) -> {
+        });
+        Map<String, Object> params = new HashMap<>();
+        String first = new CustomerFilter(true, true, "ana@mail.com", "555").apply(cache, sql -> sql, (q, k, v) -> {
+        });
+        String second = new CustomerFilter(true, false, "luis@mail.com", "777").apply(cache, sql -> sql,
+                (q, k, v) -> params.put(k, v));
+        assertNotEquals(first, plain);
+        assertSame(second, first);
+        assertEquals(params.get("email"), "luis@mail.com");
+        assertEquals(params.size(), 3);
+    }
+}